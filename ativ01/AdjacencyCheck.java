@@ -0,0 +1,68 @@
+package ativ01;
+
+import common.CheckReport;
+import common.Digraph;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conferencia do CSR do Digraph (sucessores e predecessores) lido pelo
+ * Main.readGraph contra as listas montadas direto das arestas do arquivo,
+ * na mesma ordem de leitura, nos grafos de teste das atividades.
+ *
+ * java ativ01.AdjacencyCheck [grafo.txt ...] (padrao: os grafos de teste do repositorio)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class AdjacencyCheck {
+    static final String[] GRAPHS = {
+        "ativ01/graph-test-100.txt",
+        "ativ03/graphs/tree_100000.txt",
+        "ativ03/graphs/euler_10000.txt",
+        "ativ04/graphs/layered_10000.txt"
+    };
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        String name = new File(fileName).getName();
+        ReferenceEdges ref = new ReferenceEdges(fileName);
+        List<List<Integer>> successors = new ArrayList<>();
+        List<List<Integer>> predecessors = new ArrayList<>();
+        for (int v = 0; v <= ref.n; v++) {
+            successors.add(new ArrayList<>());
+            predecessors.add(new ArrayList<>());
+        }
+        for (int[] e : ref.edges) {
+            successors.get(e[0]).add(e[1]);
+            predecessors.get(e[1]).add(e[0]);
+        }
+
+        Digraph graph = Main.readGraph(fileName);
+        if (graph == null) {
+            report.check(false, "could not read " + fileName);
+            return;
+        }
+        report.check(graph.size() == ref.n && graph.edgeCount() == ref.edges.size(), name + ": size");
+        boolean sameOut = true;
+        boolean sameIn = true;
+        for (int v = 1; v <= ref.n && graph.size() == ref.n; v++) {
+            List<Integer> out = new ArrayList<>();
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) out.add(graph.target(e));
+            List<Integer> in = new ArrayList<>();
+            for (int e = graph.firstInEdge(v); e < graph.endInEdge(v); e++) in.add(graph.source(e));
+            sameOut &= out.equals(successors.get(v)) && graph.outDegree(v) == ref.outDegree[v];
+            sameIn &= in.equals(predecessors.get(v)) && graph.inDegree(v) == ref.inDegree[v];
+        }
+        report.check(sameOut, name + ": successor lists differ from the edge list");
+        report.check(sameIn, name + ": predecessor lists differ from the edge list");
+        report.endSection(name);
+    }
+
+    public static void main(String[] args) throws IOException {
+        CheckReport report = new CheckReport();
+        for (String graph : args.length > 0 ? args : GRAPHS) {
+            checkGraph(report, graph);
+        }
+        report.finish();
+    }
+}
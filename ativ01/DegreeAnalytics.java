@@ -0,0 +1,148 @@
+package ativ01;
+
+import common.Digraph;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Estatisticas de grau do grafo inteiro, calculadas uma vez depois da carga.
+ * Os graus saem do CSR em O(1) por vertice (streams paralelos sobre int[]),
+ * os histogramas sao contagens por grau e o indice top-k e uma ordenacao por
+ * contagem (counting sort) dos vertices por grau decrescente, tambem linear.
+ * Depois disso: maior/menor grau, quantos vertices tem grau d, isolados etc.
+ * sao O(1), e os k vertices de maior grau sao O(k).
+ */
+class DegreeAnalytics {
+    final int n;
+    final long m;
+    final int[] outDegree; // outDegree[v], v de 1 a n
+    final int[] inDegree;
+    final int[] outHistogram; // outHistogram[d] = vertices com grau de saida d
+    final int[] inHistogram;
+    final int[] byOutDegree;  // vertices em ordem de grau de saida decrescente (empate: menor id)
+    final int[] byInDegree;
+    final int[] isolated;     // vertices sem nenhuma aresta (entrada + saida = 0)
+    final int sources;        // grau de entrada 0
+    final int sinks;          // grau de saida 0
+
+    DegreeAnalytics(Digraph graph) {
+        graph.build();
+        n = graph.size();
+        m = graph.edgeCount();
+
+        outDegree = new int[n + 1];
+        inDegree = new int[n + 1];
+        IntStream.rangeClosed(1, n).parallel().forEach(v -> {
+            outDegree[v] = graph.outDegree(v);
+            inDegree[v] = graph.inDegree(v);
+        });
+
+        outHistogram = histogram(outDegree, n);
+        inHistogram = histogram(inDegree, n);
+        byOutDegree = sortByDegree(outDegree, outHistogram, n);
+        byInDegree = sortByDegree(inDegree, inHistogram, n);
+
+        isolated = IntStream.rangeClosed(1, n).parallel()
+                .filter(v -> outDegree[v] == 0 && inDegree[v] == 0)
+                .toArray();
+        sources = countWithInDegree(0);
+        sinks = countWithOutDegree(0);
+    }
+
+    // contagem por grau; cada thread do stream enche o seu vetor e depois eles sao somados
+    private static int[] histogram(int[] degree, int n) {
+        int max = IntStream.rangeClosed(1, n).parallel().map(v -> degree[v]).max().orElse(-1);
+        return IntStream.rangeClosed(1, n).parallel().collect(
+                () -> new int[max + 1],
+                (h, v) -> h[degree[v]]++,
+                (a, b) -> {
+                    for (int d = 0; d < a.length; d++) a[d] += b[d];
+                });
+    }
+
+    // counting sort pelo histograma: O(n + maior grau)
+    private static int[] sortByDegree(int[] degree, int[] histogram, int n) {
+        int[] start = new int[histogram.length];
+        int position = 0;
+        for (int d = histogram.length - 1; d >= 0; d--) {
+            start[d] = position;
+            position += histogram[d];
+        }
+        int[] order = new int[n];
+        for (int v = 1; v <= n; v++) {
+            order[start[degree[v]]++] = v;
+        }
+        return order;
+    }
+
+    public int maxOutDegree() {
+        return outHistogram.length - 1;
+    }
+
+    public int maxInDegree() {
+        return inHistogram.length - 1;
+    }
+
+    public int minOutDegree() {
+        return n == 0 ? 0 : outDegree[byOutDegree[n - 1]];
+    }
+
+    public int minInDegree() {
+        return n == 0 ? 0 : inDegree[byInDegree[n - 1]];
+    }
+
+    // quantos vertices tem grau de saida d
+    public int countWithOutDegree(int d) {
+        return d >= 0 && d < outHistogram.length ? outHistogram[d] : 0;
+    }
+
+    public int countWithInDegree(int d) {
+        return d >= 0 && d < inHistogram.length ? inHistogram[d] : 0;
+    }
+
+    // os k vertices de maior grau de saida (hubs), sem varrer o grafo
+    public int[] topOut(int k) {
+        return Arrays.copyOf(byOutDegree, Math.max(0, Math.min(k, n)));
+    }
+
+    public int[] topIn(int k) {
+        return Arrays.copyOf(byInDegree, Math.max(0, Math.min(k, n)));
+    }
+
+    public double averageDegree() {
+        return n == 0 ? 0 : (double) m / n;
+    }
+
+    public void printReport(int k) {
+        System.out.println("--- DEGREE REPORT ---");
+        System.out.println("Vertices: " + n + " | Edges: " + m + " | Average degree: " + String.format("%.3f", averageDegree()));
+        System.out.println("Exit degree: min " + minOutDegree() + " | max " + maxOutDegree() + " | sinks (exit 0): " + sinks);
+        System.out.println("Entry degree: min " + minInDegree() + " | max " + maxInDegree() + " | sources (entry 0): " + sources);
+        System.out.println("Isolated vertices: " + isolated.length);
+        System.out.println("Top " + Math.min(k, n) + " exit degree: " + describe(topOut(k), outDegree));
+        System.out.println("Top " + Math.min(k, n) + " entry degree: " + describe(topIn(k), inDegree));
+        System.out.println("Exit degree histogram: " + describe(outHistogram));
+        System.out.println("Entry degree histogram: " + describe(inHistogram));
+    }
+
+    // "v (grau)" para cada vertice
+    private static String describe(int[] vertices, int[] degree) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < vertices.length; i++) {
+            if (i > 0) line.append(", ");
+            line.append(vertices[i]).append(" (").append(degree[vertices[i]]).append(')');
+        }
+        return line.toString();
+    }
+
+    // "grau:quantidade" so para os graus que aparecem
+    private static String describe(int[] histogram) {
+        StringBuilder line = new StringBuilder();
+        for (int d = 0; d < histogram.length; d++) {
+            if (histogram[d] == 0) continue;
+            if (line.length() > 0) line.append(' ');
+            line.append(d).append(':').append(histogram[d]);
+        }
+        return line.toString();
+    }
+}
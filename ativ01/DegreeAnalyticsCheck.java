@@ -0,0 +1,95 @@
+package ativ01;
+
+import common.CheckReport;
+import common.Digraph;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Conferencia do DegreeAnalytics contra os graus contados direto das arestas
+ * do arquivo (ReferenceEdges) nos grafos de teste das atividades: graus,
+ * histogramas de entrada e saida, maior e menor grau, rankings (grau
+ * decrescente, empate pelo menor id), os k primeiros do ranking para k
+ * pequeno, zero e maior que n, isolados, fontes e sumidouros.
+ *
+ * java ativ01.DegreeAnalyticsCheck [grafo.txt ...] (padrao: os grafos de teste do repositorio)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class DegreeAnalyticsCheck {
+    private static final int TOP = 10;
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        String name = new File(fileName).getName();
+        ReferenceEdges ref = new ReferenceEdges(fileName);
+        Digraph graph = Main.readGraph(fileName);
+        report.check(graph != null, "could not read " + fileName);
+        if (graph == null) return;
+        int n = ref.n;
+
+        DegreeAnalytics degrees = new DegreeAnalytics(graph);
+        report.check(degrees.n == n && degrees.m == ref.edges.size(), name + ": n/m");
+        report.check(Arrays.equals(degrees.outDegree, ref.outDegree) && Arrays.equals(degrees.inDegree, ref.inDegree),
+                name + ": degrees");
+        checkDirection(report, name + " out", n, ref.outDegree, degrees.byOutDegree, degrees.maxOutDegree(),
+                degrees.minOutDegree(), degrees::countWithOutDegree, degrees.topOut(TOP), degrees.topOut(0),
+                degrees.topOut(n + 5));
+        checkDirection(report, name + " in", n, ref.inDegree, degrees.byInDegree, degrees.maxInDegree(),
+                degrees.minInDegree(), degrees::countWithInDegree, degrees.topIn(TOP), degrees.topIn(0),
+                degrees.topIn(n + 5));
+
+        int isolated = 0;
+        int sources = 0;
+        int sinks = 0;
+        for (int v = 1; v <= n; v++) {
+            if (ref.outDegree[v] == 0 && ref.inDegree[v] == 0) isolated++;
+            if (ref.inDegree[v] == 0) sources++;
+            if (ref.outDegree[v] == 0) sinks++;
+        }
+        boolean sameIsolated = degrees.isolated.length == isolated;
+        for (int i = 0; i < degrees.isolated.length && sameIsolated; i++) {
+            int v = degrees.isolated[i];
+            sameIsolated = ref.outDegree[v] == 0 && ref.inDegree[v] == 0 && (i == 0 || degrees.isolated[i - 1] < v);
+        }
+        report.check(sameIsolated, name + ": isolated vertices");
+        report.check(degrees.sources == sources && degrees.sinks == sinks, name + ": sources/sinks");
+        report.endSection(name);
+    }
+
+    private static void checkDirection(CheckReport report, String what, int n, int[] degree, int[] ranking, int max,
+            int min, IntUnaryOperator countWith, int[] top, int[] none, int[] all) {
+        Integer[] expected = new Integer[n];
+        for (int v = 1; v <= n; v++) expected[v - 1] = v;
+        Arrays.sort(expected, (a, b) -> degree[a] != degree[b] ? degree[b] - degree[a] : a - b);
+        boolean sameRanking = true;
+        for (int i = 0; i < n; i++) sameRanking &= ranking[i] == expected[i];
+        report.check(sameRanking, what + "-degree ranking");
+
+        int expectedMax = 0;
+        int expectedMin = Integer.MAX_VALUE;
+        for (int v = 1; v <= n; v++) {
+            expectedMax = Math.max(expectedMax, degree[v]);
+            expectedMin = Math.min(expectedMin, degree[v]);
+        }
+        report.check(max == expectedMax && min == expectedMin, what + "-degree max/min " + max + "/" + min);
+        int[] histogram = new int[expectedMax + 1];
+        for (int v = 1; v <= n; v++) histogram[degree[v]]++;
+        boolean sameHistogram = countWith.applyAsInt(-1) == 0 && countWith.applyAsInt(expectedMax + 1) == 0;
+        for (int d = 0; d <= expectedMax; d++) sameHistogram &= countWith.applyAsInt(d) == histogram[d];
+        report.check(sameHistogram, what + "-degree histogram");
+
+        boolean sameTop = top.length == Math.min(TOP, n) && none.length == 0 && all.length == n;
+        for (int i = 0; i < top.length && sameTop; i++) sameTop = top[i] == expected[i];
+        report.check(sameTop, what + "-degree top-k");
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] graphs = args.length > 0 ? args : AdjacencyCheck.GRAPHS;
+        CheckReport report = new CheckReport();
+        for (String graph : graphs) {
+            checkGraph(report, graph);
+        }
+        report.finish();
+    }
+}
@@ -1,10 +1,9 @@
 package ativ01;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Digraph;
+import common.EdgeList;
+import common.EdgeListLoader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Scanner;
 
 public class Main {
@@ -33,11 +32,20 @@ public class Main {
                     fileName = sc.next();
                     break;
                 case 0:
-                    break;
+                    continue;
                 default:
-                    break;
+                    continue;
             }
-            Graph graph = readGraph(fileName);
+            Digraph graph = readGraph(fileName);
+            if (graph == null) continue;
+
+            // estatisticas do grafo inteiro, uma vez por carga
+            long startTime = System.nanoTime();
+            DegreeAnalytics degrees = new DegreeAnalytics(graph);
+            double degreesMs = (System.nanoTime() - startTime) / 1_000_000.0;
+            degrees.printReport(10);
+            System.out.println("Degree report built in " + String.format("%.3f", degreesMs) + " ms");
+
             System.out.print("Select a vertice: ");
             int v = sc.nextInt(); // vertice
             printResults(graph, v);
@@ -47,85 +55,52 @@ public class Main {
         sc.close();
     }
 
-    // gemini me ajudou nessa parte a fazer a leitura com bufferReader
-    public static Graph readGraph(String fileName) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-
-            String firstLine = reader.readLine();
-
-            String[] parts = firstLine.trim().split("\\s+");
-
-            int n = Integer.parseInt(parts[0]); // vértices
-            int m = Integer.parseInt(parts[1]); // arestas
-
-            Graph graph = new Graph(n);
-
-            for (int i = 0; i < m; i++) {
-                String edgeLine = reader.readLine();
-
-                
-                if (edgeLine == null || edgeLine.trim().isEmpty()) {
-                    i--;
-                    continue;
-                }
-
-                String[] edgeParts = edgeLine.trim().split("\\s+");
-                int o = Integer.parseInt(edgeParts[0]); // origem
-                int d = Integer.parseInt(edgeParts[1]); // destino
+    // leitura com o EdgeListLoader (arquivo mapeado em memoria e lido em paralelo)
+    public static Digraph readGraph(String fileName) {
+        try {
+            EdgeList edges = EdgeListLoader.load(fileName, 2);
 
-                graph.addEdge(o, d);
+            Digraph graph = new Digraph(edges.n, edges.m);
+            for (int i = 0; i < edges.m; i++) {
+                graph.addEdge(edges.origin[i], edges.destination[i]); // origem -> destino
             }
 
+            graph.build();
+            System.out.println(edges.throughputReport());
             return graph;
 
         } catch (IOException e) { // FileNotFoundException é um tipo de IOException
             System.err.println("Error to read the file '" + fileName + "': " + e.getMessage());
             return null;
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing number in file: " + e.getMessage());
+            return null;
         }
     }
 
-    public static void printResults(Graph graph, int v) {
-
-        // grau saida = tam da lista de sucessores
-        System.out.println("Exit degree: " + graph.getSucessors(v).size()); 
-
-        // grau entrada = tam da lista de predecessores
-        System.out.println("Entry degree: " + graph.getPredecessors(v).size());
-
-        // sucessores
-        System.out.println("Sucessors: " + graph.getSucessors(v));
-
-        // predecessores
-        System.out.println("Predecessors: " + graph.getPredecessors(v));
-    }
-}
+    public static void printResults(Digraph graph, int v) {
 
-class Graph {
-    private int n; // num vertices
-    private List<List<Integer>> sucessorList;
-    private List<List<Integer>> predecessorList;
+        // grau saida = tam da fatia de sucessores no CSR
+        System.out.println("Exit degree: " + graph.outDegree(v)); 
 
-    public Graph(int n) {
-        this.n = n;
-        sucessorList = new ArrayList<>(n + 1);
-        predecessorList = new ArrayList<>(n + 1);
+        // grau entrada = tam da fatia de predecessores no CSR reverso
+        System.out.println("Entry degree: " + graph.inDegree(v));
 
-        for (int i = 0; i <= n; i++) {
-            sucessorList.add(new ArrayList<>());
-            predecessorList.add(new ArrayList<>());
+        // sucessores: percorre a fatia do CSR direto, sem lista nem Integer
+        StringBuilder line = new StringBuilder("Sucessors: [");
+        for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+            if (e > graph.firstEdge(v)) line.append(", ");
+            line.append(graph.target(e));
         }
-    }
-
-    public void addEdge(int o, int d) {
-        sucessorList.get(o).add(d); // origem -> destino
-        predecessorList.get(d).add(o); // destino -> origem
-    }
-
-    public List<Integer> getSucessors(int v) {
-        return sucessorList.get(v);
-    }
-
-    public List<Integer> getPredecessors(int v) {
-        return predecessorList.get(v);
+        System.out.println(line.append(']'));
+
+        // predecessores: mesma coisa no CSR reverso
+        line.setLength(0);
+        line.append("Predecessors: [");
+        for (int e = graph.firstInEdge(v); e < graph.endInEdge(v); e++) {
+            if (e > graph.firstInEdge(v)) line.append(", ");
+            line.append(graph.source(e));
+        }
+        System.out.println(line.append(']'));
     }
 }
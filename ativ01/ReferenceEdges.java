@@ -0,0 +1,38 @@
+package ativ01;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arestas de um grafo de teste lidas do jeito mais simples possivel
+ * (BufferedReader + split, linha por linha), na ordem do arquivo, e os graus
+ * contados a partir delas. E a referencia das conferencias do ativ01.
+ */
+class ReferenceEdges {
+    final int n;
+    final List<int[]> edges = new ArrayList<>(); // {origem, destino}
+    final int[] outDegree;
+    final int[] inDegree;
+
+    ReferenceEdges(String fileName) throws IOException {
+        try (BufferedReader in = new BufferedReader(new FileReader(fileName))) {
+            n = Integer.parseInt(in.readLine().trim().split("\\s+")[0]);
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                String[] parts = line.split("\\s+");
+                edges.add(new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) });
+            }
+        }
+        outDegree = new int[n + 1];
+        inDegree = new int[n + 1];
+        for (int[] e : edges) {
+            outDegree[e[0]]++;
+            inDegree[e[1]]++;
+        }
+    }
+}
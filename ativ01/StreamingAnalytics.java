@@ -0,0 +1,249 @@
+package ativ01;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Analise em uma unica passada pelo arquivo de arestas, sem montar a
+ * adjacencia (semi-externa: so O(n) de estado, as arestas passam e somem).
+ * Serve para listas grandes demais para o Digraph/CSR, quando a pergunta so
+ * precisa ver cada aresta uma vez:
+ *  - componentes fracamente conexas por union-find (uniao por tamanho e
+ *    compressao de caminho), ignorando o sentido das arestas;
+ *  - graus de entrada e saida por vertice;
+ *  - conferencia do numero de arestas com o cabecalho, lacos e arestas invalidas.
+ * Estado: parent, size, outDegree e inDegree (4 int[] de n + 1).
+ */
+class StreamingAnalytics {
+    final int n;
+    final long declaredEdges; // m do cabecalho
+    long edges;               // arestas validas lidas
+    long selfLoops;
+    long invalidEdges;        // vertice fora de 1..n (nao entram na analise)
+    final int[] outDegree;
+    final int[] inDegree;
+    private final int[] parent;
+    private final int[] size;
+    int components;
+
+    private StreamingAnalytics(int n, long declaredEdges) {
+        this.n = n;
+        this.declaredEdges = declaredEdges;
+        outDegree = new int[n + 1];
+        inDegree = new int[n + 1];
+        parent = new int[n + 1];
+        size = new int[n + 1];
+        for (int v = 0; v <= n; v++) {
+            parent[v] = v;
+            size[v] = 1;
+        }
+        components = n;
+    }
+
+    // le o formato "n m" + "origem destino [peso]" do inicio ao fim, uma vez
+    static StreamingAnalytics run(InputStream input) throws IOException {
+        EdgeStream stream = new EdgeStream(input);
+        StreamingAnalytics result = new StreamingAnalytics(stream.n, stream.m);
+        while (stream.next()) {
+            result.accept(stream.origin, stream.destination);
+        }
+        return result;
+    }
+
+    private void accept(int o, int d) {
+        if (o < 1 || o > n || d < 1 || d > n) {
+            invalidEdges++;
+            return;
+        }
+        edges++;
+        outDegree[o]++;
+        inDegree[d]++;
+        if (o == d) {
+            selfLoops++;
+            return;
+        }
+        union(o, d);
+    }
+
+    // raiz de v; depois aponta todo o caminho direto para ela (compressao)
+    int find(int v) {
+        int root = v;
+        while (parent[root] != root) root = parent[root];
+        while (parent[v] != root) {
+            int next = parent[v];
+            parent[v] = root;
+            v = next;
+        }
+        return root;
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) return;
+        if (size[ra] < size[rb]) {
+            int tmp = ra;
+            ra = rb;
+            rb = tmp;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+        components--;
+    }
+
+    public boolean sameComponent(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    public int componentSize(int v) {
+        return size[find(v)];
+    }
+
+    public int largestComponent() {
+        int largest = 0;
+        for (int v = 1; v <= n; v++) {
+            if (parent[v] == v) largest = Math.max(largest, size[v]);
+        }
+        return largest;
+    }
+
+    public int isolatedVertices() {
+        int count = 0;
+        for (int v = 1; v <= n; v++) {
+            if (outDegree[v] == 0 && inDegree[v] == 0) count++;
+        }
+        return count;
+    }
+
+    // bytes do estado O(n): os 4 vetores de int
+    public long stateBytes() {
+        return 4L * 4 * (n + 1);
+    }
+
+    public void printReport() {
+        int maxOut = 0;
+        int maxIn = 0;
+        for (int v = 1; v <= n; v++) {
+            maxOut = Math.max(maxOut, outDegree[v]);
+            maxIn = Math.max(maxIn, inDegree[v]);
+        }
+        System.out.println("--- STREAMING REPORT ---");
+        System.out.println("Vertices: " + n + " | Edges read: " + edges + " | Header says: " + declaredEdges
+                + (edges + invalidEdges == declaredEdges ? " (ok)" : " (MISMATCH)"));
+        System.out.println("Self-loops: " + selfLoops + " | Invalid edges (vertex out of 1.." + n + "): " + invalidEdges);
+        System.out.println("Weakly connected components: " + components + " | largest: " + largestComponent()
+                + " vertices | isolated vertices: " + isolatedVertices());
+        System.out.println("Max exit degree: " + maxOut + " | Max entry degree: " + maxIn);
+    }
+
+    /**
+     * Leitura sequencial das arestas, uma linha por vez, so com os numeros da
+     * linha atual (mesmo formato do EdgeListLoader: 2 ou 3 colunas, espacos
+     * livres, colunas extras ignoradas).
+     */
+    private static class EdgeStream {
+        final int n;
+        final long m;
+        int origin;
+        int destination;
+        private final InputStream in;
+        private int c;
+        private final long[] line = new long[2];
+
+        EdgeStream(InputStream input) throws IOException {
+            in = input instanceof BufferedInputStream ? input : new BufferedInputStream(input, 1 << 16);
+            c = in.read();
+            if (readLine() < 2) {
+                throw new NumberFormatException("Cabecalho incompleto");
+            }
+            n = (int) line[0];
+            m = line[1];
+        }
+
+        // proxima aresta; false no fim (linhas vazias sao puladas)
+        boolean next() throws IOException {
+            while (c != -1) {
+                int count = readLine();
+                if (count == 0) continue;
+                if (count < 2) throw new NumberFormatException("Linha de aresta incompleta");
+                origin = (int) line[0];
+                destination = (int) line[1];
+                return true;
+            }
+            return false;
+        }
+
+        // le os 2 primeiros numeros da linha e consome o resto ate o '\n'; devolve quantos leu
+        private int readLine() throws IOException {
+            int count = 0;
+            while (c != -1 && c != '\n') {
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    boolean negative = c == '-';
+                    if (negative) c = in.read();
+                    long value = 0;
+                    while (c >= '0' && c <= '9') {
+                        value = value * 10 + (c - '0');
+                        c = in.read();
+                    }
+                    if (count < 2) line[count] = negative ? -value : value;
+                    count++;
+                } else if (c == ' ' || c == '\t' || c == '\r') {
+                    c = in.read();
+                } else {
+                    throw new NumberFormatException("Caractere invalido: '" + (char) c + "'");
+                }
+            }
+            if (c == '\n') c = in.read();
+            return count;
+        }
+    }
+
+    // soma dos picos de uso dos pools do heap desde o ultimo reset
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * java ativ01.StreamingAnalytics <grafo.txt | ->
+     * ("-" le da entrada padrao, ex.: zcat grafo.txt.gz | java ativ01.StreamingAnalytics -)
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ativ01.StreamingAnalytics <graph.txt | ->");
+            return;
+        }
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+
+        long startTime = System.nanoTime();
+        StreamingAnalytics result;
+        try (InputStream in = args[0].equals("-") ? System.in : new FileInputStream(args[0])) {
+            result = run(in);
+        } catch (IOException e) {
+            System.err.println("Error to read the file '" + args[0] + "': " + e.getMessage());
+            return;
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing number in file: " + e.getMessage());
+            return;
+        }
+        double totalMs = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        result.printReport();
+        System.out.println("One pass in " + String.format("%.3f", totalMs) + " ms ("
+                + String.format("%.0f", (result.edges + result.invalidEdges) / (totalMs / 1000.0)) + " edges/s)");
+        System.out.println("State: " + result.stateBytes() / 1024 + " KB (O(n)) | Peak heap used: "
+                + peakHeapBytes() / 1024 + " KB");
+    }
+}
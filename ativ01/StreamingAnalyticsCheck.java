@@ -0,0 +1,182 @@
+package ativ01;
+
+import common.CheckReport;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Random;
+
+/**
+ * Conferencia do StreamingAnalytics (uma passada, sem adjacencia) contra as
+ * arestas lidas linha por linha (ReferenceEdges) e uma BFS sem direcao nos
+ * grafos de teste das atividades: numero de arestas e o do cabecalho, lacos,
+ * graus, componentes fracamente conexas, a maior delas, isolados, o estado
+ * de 4 int[] e, para pares sorteados com semente fixa, se estao na mesma
+ * componente e o tamanho dela. Tambem confere um texto pequeno com CRLF,
+ * linha vazia, laco, vertices invalidos e colunas extras, as linhas mal
+ * formadas, e uma cadeia de CHAIN vertices gerada aos poucos (nunca inteira
+ * na memoria) em blocos de BLOCK vertices.
+ *
+ * java ativ01.StreamingAnalyticsCheck [grafo.txt ...] (padrao: os grafos de teste do repositorio)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class StreamingAnalyticsCheck {
+    private static final long SEED = 5;
+    private static final int PAIRS = 1000;
+    private static final int CHAIN = 2_000_000;
+    private static final int BLOCK = 1000;
+
+    // componente de cada vertice por BFS ignorando o sentido (numeradas na ordem do menor vertice)
+    private static int[] referenceComponents(ReferenceEdges ref) {
+        int n = ref.n;
+        int[] degree = new int[n + 2];
+        for (int[] e : ref.edges) {
+            degree[e[0] + 1]++;
+            degree[e[1] + 1]++;
+        }
+        for (int v = 1; v <= n + 1; v++) degree[v] += degree[v - 1];
+        int[] adjacency = new int[2 * ref.edges.size()];
+        int[] next = Arrays.copyOf(degree, n + 1);
+        for (int[] e : ref.edges) {
+            adjacency[next[e[0]]++] = e[1];
+            adjacency[next[e[1]]++] = e[0];
+        }
+        int[] comp = new int[n + 1];
+        Arrays.fill(comp, -1);
+        int[] queue = new int[n];
+        int count = 0;
+        for (int root = 1; root <= n; root++) {
+            if (comp[root] != -1) continue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            comp[root] = count;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int i = degree[u]; i < degree[u + 1]; i++) {
+                    if (comp[adjacency[i]] == -1) {
+                        comp[adjacency[i]] = count;
+                        queue[tail++] = adjacency[i];
+                    }
+                }
+            }
+            count++;
+        }
+        return comp;
+    }
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        String name = new File(fileName).getName();
+        ReferenceEdges ref = new ReferenceEdges(fileName);
+        int n = ref.n;
+        StreamingAnalytics stream;
+        try (InputStream in = new FileInputStream(fileName)) {
+            stream = StreamingAnalytics.run(in);
+        }
+
+        int isolated = 0;
+        for (int v = 1; v <= n; v++) {
+            if (ref.outDegree[v] == 0 && ref.inDegree[v] == 0) isolated++;
+        }
+        long selfLoops = 0;
+        for (int[] e : ref.edges) {
+            if (e[0] == e[1]) selfLoops++;
+        }
+        int[] comp = referenceComponents(ref);
+        int components = 0;
+        int[] compSize = new int[n + 1];
+        for (int v = 1; v <= n; v++) {
+            components = Math.max(components, comp[v] + 1);
+            compSize[comp[v]]++;
+        }
+        int largest = 0;
+        for (int c = 0; c < components; c++) largest = Math.max(largest, compSize[c]);
+
+        report.check(stream.n == n && stream.edges == ref.edges.size() && stream.invalidEdges == 0
+                && stream.declaredEdges == ref.edges.size(), name + ": streamed edge count");
+        report.check(stream.selfLoops == selfLoops, name + ": self-loops");
+        report.check(Arrays.equals(stream.outDegree, ref.outDegree) && Arrays.equals(stream.inDegree, ref.inDegree),
+                name + ": streamed degrees");
+        report.check(stream.components == components, name + ": components " + stream.components + " != " + components);
+        report.check(stream.largestComponent() == largest, name + ": largest component");
+        report.check(stream.isolatedVertices() == isolated, name + ": isolated vertices");
+        report.check(stream.stateBytes() == 16L * (n + 1), name + ": state bytes " + stream.stateBytes());
+        Random random = new Random(SEED);
+        boolean samePairs = true;
+        for (int i = 0; i < PAIRS; i++) {
+            int a = 1 + random.nextInt(n);
+            int b = 1 + random.nextInt(n);
+            samePairs &= stream.sameComponent(a, b) == (comp[a] == comp[b])
+                    && stream.componentSize(a) == compSize[comp[a]];
+        }
+        report.check(samePairs, name + ": component membership of random pairs");
+        report.endSection(name);
+    }
+
+    // 5 vertices, 6 linhas: 1-2, laco em 2, 3 -> 7 e -1 -> 4 invalidas, 4-5 com colunas extras
+    private static void checkText(CheckReport report) throws IOException {
+        StreamingAnalytics stream = StreamingAnalytics.run(stream("5 6\n1 2\r\n\n2 2 9\n3 7\n-1 4\n4 5 1 1\n"));
+        report.check(stream.edges == 3 && stream.selfLoops == 1 && stream.invalidEdges == 2 && stream.declaredEdges == 6,
+                "text: edges " + stream.edges + ", loops " + stream.selfLoops + ", invalid " + stream.invalidEdges);
+        report.check(stream.components == 3 && stream.isolatedVertices() == 1 && stream.largestComponent() == 2
+                && stream.sameComponent(4, 5) && !stream.sameComponent(2, 3), "text: components");
+        for (String bad : new String[] { "3\n1 2\n", "3 1\n1\n", "3 1\n1 x\n" }) {
+            try {
+                StreamingAnalytics.run(stream(bad));
+                report.check(false, "accepted \"" + bad.replace("\n", "\\n") + "\"");
+            } catch (NumberFormatException e) {
+                report.check(true, "rejected \"" + bad.replace("\n", "\\n") + "\"");
+            }
+        }
+        report.endSection("text");
+    }
+
+    // v -> v + 1 dentro de cada bloco de BLOCK vertices: CHAIN / BLOCK componentes de BLOCK
+    private static void checkChain(CheckReport report) throws IOException {
+        Enumeration<InputStream> parts = new Enumeration<InputStream>() {
+            private int block = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return block < CHAIN / BLOCK;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                block++;
+                if (block == 0) return stream(CHAIN + " " + (CHAIN - CHAIN / BLOCK) + "\n");
+                StringBuilder text = new StringBuilder();
+                int first = (block - 1) * BLOCK + 1;
+                for (int v = first; v < first + BLOCK - 1; v++) text.append(v).append(' ').append(v + 1).append('\n');
+                return stream(text.toString());
+            }
+        };
+        StreamingAnalytics stream = StreamingAnalytics.run(new SequenceInputStream(parts));
+        report.check(stream.edges == stream.declaredEdges && stream.components == CHAIN / BLOCK
+                && stream.largestComponent() == BLOCK && stream.sameComponent(1, BLOCK)
+                && !stream.sameComponent(BLOCK, BLOCK + 1),
+                "chain: " + stream.components + " components, largest " + stream.largestComponent());
+        report.endSection("chain of " + CHAIN);
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] graphs = args.length > 0 ? args : AdjacencyCheck.GRAPHS;
+        CheckReport report = new CheckReport();
+        for (String graph : graphs) {
+            checkGraph(report, graph);
+        }
+        checkText(report);
+        checkChain(report);
+        report.finish();
+    }
+}
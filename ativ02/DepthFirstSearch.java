@@ -0,0 +1,117 @@
+package ativ02;
+
+import common.GraphAccess;
+
+/**
+ * Busca em profundidade iterativa e linear (O(V + E)) sobre um CSR lido pelo
+ * GraphAccess (o Digraph do heap ou o OffHeapGraph do common).
+ * Cada vertice tem um cursor (proxima aresta a olhar) em um long[], entao ao
+ * voltar para u a busca continua de onde parou em vez de reler a lista de
+ * sucessores desde o inicio. A pilha e um int[] (sem Stack<Integer>).
+ * A busca recomeca de todo vertice ainda nao visitado (floresta completa).
+ *
+ * Os tempos seguem o dfsIterativo original: td[v] na descoberta e tt[v] no
+ * termino, com um unico relogio de 1 a 2n.
+ *
+ * Se receber um vetor kinds (um byte por posicao do CSR de sucessores), cada
+ * aresta e classificada no momento em que o cursor passa por ela, usando a
+ * cor de v naquele instante (ver EdgeClassification).
+ */
+class DepthFirstSearch {
+    final int n;
+    final int[] discovery; // td: tempo de descoberta (0 = nao visitado)
+    final int[] finish;    // tt: tempo de termino
+    final int[] parent;    // pai na floresta (0 = raiz)
+    final int[] order;     // vertices em ordem de descoberta
+    int roots;             // numero de arvores da floresta
+
+    private DepthFirstSearch(int n) {
+        this.n = n;
+        discovery = new int[n + 1];
+        finish = new int[n + 1];
+        parent = new int[n + 1];
+        order = new int[n];
+    }
+
+    // floresta completa comecando pelo vertice 1
+    static DepthFirstSearch run(GraphAccess graph) {
+        return run(graph, 1);
+    }
+
+    // floresta completa: primeiro a arvore de start, depois os nao visitados em ordem crescente
+    static DepthFirstSearch run(GraphAccess graph, int start) {
+        return run(graph, start, null);
+    }
+
+    // kinds != null: kinds[e] recebe o tipo da aresta e (EdgeClassification.TREE ..)
+    static DepthFirstSearch run(GraphAccess graph, int start, byte[] kinds) {
+        int n = graph.size();
+        DepthFirstSearch dfs = new DepthFirstSearch(n);
+        if (n == 0) return dfs;
+        if (start < 1 || start > n) {
+            throw new IllegalArgumentException("Vertice invalido: " + start);
+        }
+        if (kinds != null && kinds.length < graph.edges()) {
+            throw new IllegalArgumentException("Vetor de tipos menor que o numero de arestas: " + graph.edges());
+        }
+
+        long[] cursor = new long[n + 1];
+        for (int v = 1; v <= n; v++) cursor[v] = graph.edgeStart(v);
+        int[] stack = new int[n];
+        int time = 0;
+        int visited = 0;
+
+        // arvore de start primeiro, depois uma arvore por vertice ainda branco
+        for (int r = 0; r <= n; r++) {
+            int root = r == 0 ? start : r;
+            if (dfs.discovery[root] != 0) continue;
+
+            dfs.roots++;
+            int top = 0;
+            stack[top++] = root;
+            dfs.discovery[root] = ++time;
+            dfs.order[visited++] = root;
+
+            while (top > 0) {
+                int u = stack[top - 1];
+                long end = graph.edgeEnd(u);
+                long e = cursor[u];
+                // avanca o cursor ate achar um sucessor branco
+                if (kinds == null) {
+                    while (e < end && dfs.discovery[graph.edgeTarget(e)] != 0) e++;
+                } else {
+                    for (; e < end; e++) {
+                        int v = graph.edgeTarget(e);
+                        if (dfs.discovery[v] == 0) break;
+                        if (dfs.finish[v] == 0) {
+                            kinds[(int) e] = EdgeClassification.BACK; // cinza: ainda na pilha
+                        } else if (dfs.discovery[u] < dfs.discovery[v]) {
+                            kinds[(int) e] = EdgeClassification.FORWARD;
+                        } else {
+                            kinds[(int) e] = EdgeClassification.CROSS;
+                        }
+                    }
+                    if (e < end) kinds[(int) e] = EdgeClassification.TREE;
+                }
+                if (e < end) {
+                    cursor[u] = e + 1;
+                    int v = graph.edgeTarget(e);
+                    dfs.parent[v] = u;
+                    dfs.discovery[v] = ++time;
+                    dfs.order[visited++] = v;
+                    stack[top++] = v;
+                } else {
+                    cursor[u] = end;
+                    dfs.finish[u] = ++time;
+                    top--;
+                }
+            }
+        }
+        return dfs;
+    }
+
+    // u e ancestral de v (ou o proprio v) na floresta
+    public boolean isAncestor(int u, int v) {
+        return discovery[u] <= discovery[v] && finish[v] <= finish[u];
+    }
+}
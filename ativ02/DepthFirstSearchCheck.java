@@ -0,0 +1,84 @@
+package ativ02;
+
+import common.CheckReport;
+import common.Digraph;
+
+/**
+ * Conferencia da DFS iterativa com cursor (DepthFirstSearch) contra a DFS de
+ * referencia (ReferenceTraversal) nos grafos de teste das atividades: para
+ * cada inicio, os tempos td/tt e os pais sao os mesmos, order lista os
+ * vertices na ordem de descoberta e roots conta as arvores da floresta.
+ * Tambem confere uma cadeia de CHAIN vertices (sem recursao, td[v] = v) e
+ * inicios fora de 1..n.
+ *
+ * java ativ02.DepthFirstSearchCheck [grafo.txt ...] (padrao: os grafos de teste do repositorio)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class DepthFirstSearchCheck {
+    private static final int CHAIN = 500_000;
+
+    private static void checkGraph(CheckReport report, String fileName) {
+        ReferenceTraversal ref = ReferenceTraversal.load(report, fileName);
+        if (ref == null) return;
+        Digraph graph = ref.graph;
+        int n = graph.size();
+        for (int i = 0; i < ref.starts.length; i++) {
+            String what = ref.name + " start " + ref.starts[i];
+            DepthFirstSearch dfs = DepthFirstSearch.run(graph, ref.starts[i]);
+            boolean same = true;
+            for (int v = 1; v <= n && same; v++) {
+                same = dfs.discovery[v] == ref.discovery[i][v] && dfs.finish[v] == ref.finish[i][v]
+                        && dfs.parent[v] == ref.parent[i][v];
+            }
+            report.check(same, what + ": DFS times/parents differ from the reference");
+
+            boolean ordered = true;
+            for (int k = 0; k < n && ordered; k++) {
+                ordered = k == 0 ? dfs.order[k] == ref.starts[i]
+                        : dfs.discovery[dfs.order[k]] > dfs.discovery[dfs.order[k - 1]];
+            }
+            report.check(ordered, what + ": order is not the discovery order");
+            int roots = 0;
+            for (int v = 1; v <= n; v++) {
+                if (dfs.parent[v] == 0) roots++;
+            }
+            report.check(dfs.roots == roots, what + ": " + dfs.roots + " roots != " + roots);
+        }
+        checkInvalid(report, graph, 0);
+        checkInvalid(report, graph, n + 1);
+        report.endSection(ref.name);
+    }
+
+    private static void checkInvalid(CheckReport report, Digraph graph, int start) {
+        try {
+            DepthFirstSearch.run(graph, start);
+            report.check(false, "start " + start + " accepted");
+        } catch (IllegalArgumentException e) {
+            report.check(true, "start " + start);
+        }
+    }
+
+    // 1 -> 2 -> ... -> CHAIN: uma arvore so, td[v] = v e tt[v] = 2n + 1 - v
+    private static void checkChain(CheckReport report) {
+        Digraph graph = new Digraph(CHAIN, CHAIN - 1);
+        for (int v = 1; v < CHAIN; v++) graph.addEdge(v, v + 1);
+        graph.build();
+        DepthFirstSearch dfs = DepthFirstSearch.run(graph);
+        boolean same = dfs.roots == 1;
+        for (int v = 1; v <= CHAIN && same; v++) {
+            same = dfs.discovery[v] == v && dfs.finish[v] == 2 * CHAIN + 1 - v && dfs.parent[v] == v - 1;
+        }
+        report.check(same, "chain: DFS times/parents");
+        report.endSection("chain of " + CHAIN);
+    }
+
+    public static void main(String[] args) {
+        String[] graphs = args.length > 0 ? args : ReferenceTraversal.GRAPHS;
+        CheckReport report = new CheckReport();
+        for (String graph : graphs) {
+            checkGraph(report, graph);
+        }
+        checkChain(report);
+        report.finish();
+    }
+}
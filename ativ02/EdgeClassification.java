@@ -0,0 +1,143 @@
+package ativ02;
+
+import common.ConsoleOutput;
+import common.Digraph;
+import common.GraphAccess;
+import common.OffHeapGraph;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Classificacao de todas as arestas (arvore, retorno, avanco, cruzamento)
+ * numa unica busca em profundidade, em vez de uma busca por vertice escolhido.
+ * O resultado e um byte por aresta, alinhado com o CSR de sucessores:
+ * kind[e] e o tipo da aresta edgeTarget(e) do GraphAccess. Depois disso, as
+ * arestas de um vertice sao so a fatia [edgeStart(v), edgeEnd(v)) - O(grau),
+ * sem refazer a busca. Como kind e um byte[], o grafo tem que ter menos de
+ * 2^31 arestas (mesmo lido fora do heap).
+ */
+class EdgeClassification {
+    static final byte TREE = 0;
+    static final byte BACK = 1;
+    static final byte FORWARD = 2;
+    static final byte CROSS = 3;
+    static final String[] NAMES = { "Tree", "Back", "Forward", "Cross" };
+
+    final DepthFirstSearch dfs;
+    final byte[] kind;        // tipo de cada aresta, na ordem do CSR
+    final long[] counts = new long[4];
+    private final GraphAccess graph;
+
+    private EdgeClassification(GraphAccess graph, DepthFirstSearch dfs, byte[] kind) {
+        this.dfs = dfs;
+        this.kind = kind;
+        this.graph = graph;
+        for (byte k : kind) counts[k]++;
+    }
+
+    static EdgeClassification classify(GraphAccess graph) {
+        return classify(graph, 1);
+    }
+
+    // floresta completa a partir de start (mesma ordem do DepthFirstSearch.run)
+    static EdgeClassification classify(GraphAccess graph, int start) {
+        if (graph.edges() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Arestas demais para classificar num byte[]: " + graph.edges());
+        }
+        byte[] kind = new byte[(int) graph.edges()];
+        DepthFirstSearch dfs = DepthFirstSearch.run(graph, start, kind);
+        return new EdgeClassification(graph, dfs, kind);
+    }
+
+    public long count(byte k) {
+        return counts[k];
+    }
+
+    public int edgeCount() {
+        return kind.length;
+    }
+
+    // arestas de v: posicoes [firstEdge(v), endEdge(v)) em kind/target
+    public int firstEdge(int v) {
+        return (int) graph.edgeStart(v);
+    }
+
+    public int endEdge(int v) {
+        return (int) graph.edgeEnd(v);
+    }
+
+    public int target(int e) {
+        return graph.edgeTarget(e);
+    }
+
+    public String summary() {
+        return "Edges: " + kind.length + " | tree: " + counts[TREE] + " | back: " + counts[BACK]
+                + " | forward: " + counts[FORWARD] + " | cross: " + counts[CROSS]
+                + " | trees in the forest: " + dfs.roots;
+    }
+
+    // mesmo formato do dfsIterativo ("Back edge: u -> v"), so para as arestas de v
+    public void printVertex(int v) {
+        for (int e = firstEdge(v); e < endEdge(v); e++) {
+            System.out.println(NAMES[kind[e]] + " edge: " + v + " -> " + target(e));
+        }
+    }
+
+    // uma linha "origem destino tipo" por aresta, na ordem do CSR
+    public void write(Writer out) throws IOException {
+        out.write(summary() + "\n");
+        StringBuilder line = new StringBuilder(32);
+        int n = graph.size();
+        for (int u = 1; u <= n; u++) {
+            for (int e = firstEdge(u), end = endEdge(u); e < end; e++) {
+                line.setLength(0);
+                line.append(u).append(' ').append(target(e)).append(' ').append(NAMES[kind[e]]).append('\n');
+                out.append(line);
+            }
+        }
+    }
+
+    // java ativ02.EdgeClassification <grafo.txt> [saida.txt | -] [inicio] [heap | offheap]
+    // ("offheap" le o grafo no OffHeapGraph do common em vez do Digraph)
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ativ02.EdgeClassification <graph.txt> [output.txt | -] [start] [heap|offheap]");
+            return;
+        }
+        int start = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        if (args.length > 3 && args[3].equals("offheap")) {
+            try (OffHeapGraph graph = OffHeapGraph.load(args[0], null)) {
+                graph.sort(); // ordenar em ordem lexicografica
+                run(graph, start, args);
+            } catch (IOException e) {
+                System.err.println("Error to read the file '" + args[0] + "': " + e.getMessage());
+            } catch (NumberFormatException e) {
+                System.err.println("Error parsing number in file: " + e.getMessage());
+            }
+            return;
+        }
+        Digraph graph = Main.readGraph(args[0]);
+        if (graph == null) return;
+        graph.sort(); // ordenar em ordem lexicografica
+        run(graph, start, args);
+    }
+
+    private static void run(GraphAccess graph, int start, String[] args) {
+        long startTime = System.nanoTime();
+        EdgeClassification result = classify(graph, start);
+        double classifyMs = (System.nanoTime() - startTime) / 1_000_000.0;
+        System.out.println(result.summary());
+        System.out.println("Classification: " + String.format("%.3f", classifyMs) + " ms (one DFS pass)");
+
+        if (args.length > 1) {
+            startTime = System.nanoTime();
+            try (Writer out = ConsoleOutput.writer(args[1])) {
+                result.write(out);
+            } catch (IOException e) {
+                System.err.println("Error to write the file '" + args[1] + "': " + e.getMessage());
+                return;
+            }
+            System.out.println("Written in " + String.format("%.3f", (System.nanoTime() - startTime) / 1_000_000.0) + " ms");
+        }
+    }
+}
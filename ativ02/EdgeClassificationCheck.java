@@ -0,0 +1,95 @@
+package ativ02;
+
+import common.CheckReport;
+import common.Digraph;
+import common.OffHeapGraph;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+/**
+ * Conferencia da classificacao de arestas em uma passada (EdgeClassification)
+ * contra os tempos da DFS de referencia (ReferenceTraversal) nos grafos de
+ * teste das atividades: para cada inicio, o tipo de cada aresta (um byte por
+ * posicao do CSR) e o esperado, as contagens batem com o vetor, a fatia de
+ * cada vertice aponta para os mesmos destinos do grafo e write escreve uma
+ * linha "origem destino tipo" por aresta depois do resumo; sobre o
+ * OffHeapGraph (ordenado) os tipos e os tempos sao os mesmos. Tambem confere
+ * que um vetor de tipos menor que o numero de arestas e recusado.
+ *
+ * java ativ02.EdgeClassificationCheck [grafo.txt ...] (padrao: os grafos de teste do repositorio)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class EdgeClassificationCheck {
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        ReferenceTraversal ref = ReferenceTraversal.load(report, fileName);
+        if (ref == null) return;
+        Digraph graph = ref.graph;
+        int n = graph.size();
+        for (int i = 0; i < ref.starts.length; i++) {
+            String what = ref.name + " start " + ref.starts[i];
+            EdgeClassification classification = EdgeClassification.classify(graph, ref.starts[i]);
+            report.check(Arrays.equals(classification.kind, ref.kinds(i)), what + ": edge kinds differ");
+            report.check(Arrays.equals(classification.dfs.discovery, ref.discovery[i]), what + ": DFS of the classification");
+
+            // a mesma classificacao lendo o grafo fora do heap
+            try (OffHeapGraph offHeap = OffHeapGraph.load(fileName, null)) {
+                offHeap.sort();
+                EdgeClassification offHeapResult = EdgeClassification.classify(offHeap, ref.starts[i]);
+                report.check(Arrays.equals(offHeapResult.kind, classification.kind)
+                        && Arrays.equals(offHeapResult.dfs.finish, classification.dfs.finish),
+                        what + ": off-heap edge kinds differ");
+            }
+
+            long[] counts = new long[EdgeClassification.NAMES.length];
+            for (byte k : classification.kind) counts[k]++;
+            boolean sameCounts = classification.edgeCount() == graph.edgeCount();
+            for (byte k = 0; k < counts.length; k++) sameCounts &= classification.count(k) == counts[k];
+            report.check(sameCounts, what + ": counts " + classification.summary());
+
+            boolean sameSlices = true;
+            for (int v = 1; v <= n && sameSlices; v++) {
+                sameSlices = classification.firstEdge(v) == graph.firstEdge(v)
+                        && classification.endEdge(v) == graph.endEdge(v);
+                for (int e = graph.firstEdge(v); e < graph.endEdge(v) && sameSlices; e++) {
+                    sameSlices = classification.target(e) == graph.target(e);
+                }
+            }
+            report.check(sameSlices, what + ": per-vertex slices differ from the graph");
+            report.check(sameLines(graph, classification), what + ": written lines");
+        }
+
+        if (graph.edgeCount() > 0) {
+            try {
+                DepthFirstSearch.run(graph, 1, new byte[graph.edgeCount() - 1]);
+                report.check(false, ref.name + ": short kinds array accepted");
+            } catch (IllegalArgumentException e) {
+                report.check(true, ref.name + ": short kinds array");
+            }
+        }
+        report.endSection(ref.name);
+    }
+
+    private static boolean sameLines(Digraph graph, EdgeClassification classification) throws IOException {
+        StringWriter out = new StringWriter();
+        classification.write(out);
+        StringBuilder expected = new StringBuilder(classification.summary()).append('\n');
+        for (int u = 1; u <= graph.size(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                expected.append(u).append(' ').append(graph.target(e)).append(' ')
+                        .append(EdgeClassification.NAMES[classification.kind[e]]).append('\n');
+            }
+        }
+        return expected.toString().equals(out.toString());
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] graphs = args.length > 0 ? args : ReferenceTraversal.GRAPHS;
+        CheckReport report = new CheckReport();
+        for (String graph : graphs) {
+            checkGraph(report, graph);
+        }
+        report.finish();
+    }
+}
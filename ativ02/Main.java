@@ -1,12 +1,10 @@
 package ativ02;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Digraph;
+import common.EdgeList;
+import common.EdgeListLoader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Scanner;
-import java.util.Stack;
 
 
 
@@ -41,12 +39,12 @@ public class Main {
                     fileName = sc.next();
                     break;
                 case 0:
-                    break;
+                    continue;
                 default:
-                    break;
+                    continue;
             }
-            fileName = "ativ02/" + fileName; // ajustar o path
-            Graph graph = readGraph(fileName);
+            Digraph graph = readGraph(fileName);
+            if (graph == null) continue;
             graph.sort(); // ordenar em ordem lexicografica
 
             System.out.print("Select a vertice: ");
@@ -59,126 +57,58 @@ public class Main {
         sc.close();
     }
 
-    // gemini me ajudou nessa parte a fazer a leitura com bufferReader
-    public static Graph readGraph(String fileName) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-
-            String firstLine = reader.readLine();
-
-            String[] parts = firstLine.trim().split("\\s+");
-
-            int n = Integer.parseInt(parts[0]); // vértices
-            int m = Integer.parseInt(parts[1]); // arestas
-
-            Graph graph = new Graph(n);
-
-            for (int i = 0; i < m; i++) {
-                String edgeLine = reader.readLine();
-                if (edgeLine == null || edgeLine.trim().isEmpty()) {
-                    i--;
-                    continue;
-                }
-
-                String[] edgeParts = edgeLine.trim().split("\\s+");
-                int o = Integer.parseInt(edgeParts[0]); // origem
-                int d = Integer.parseInt(edgeParts[1]); // destino
+    // leitura com o EdgeListLoader (arquivo mapeado em memoria e lido em paralelo)
+    public static Digraph readGraph(String fileName) {
+        try {
+            EdgeList edges = EdgeListLoader.load(fileName, 2);
 
-                graph.addEdge(o, d);
+            Digraph graph = new Digraph(edges.n, edges.m);
+            for (int i = 0; i < edges.m; i++) {
+                graph.addEdge(edges.origin[i], edges.destination[i]); // origem -> destino
             }
 
+            graph.build();
+            System.out.println(edges.throughputReport());
             return graph;
 
         } catch (IOException e) { // FileNotFoundException é um tipo de IOException
             System.err.println("Error to read the file '" + fileName + "': " + e.getMessage());
             return null;
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing number in file: " + e.getMessage());
+            return null;
         }
     }
 
-    public static void dfsIterativo(Graph graph, int start, int vertice) {
-        int n = graph.size();
-        int[] cor = new int[n + 1]; 
-        int[] td = new int[n + 1];
-        int[] tt = new int[n + 1];  
-        int time = 0;
-
-        Stack<Integer> stack = new Stack<>();
-        stack.push(start);
-
-        while (!stack.isEmpty()) {
-            int u = stack.peek();
-
-            if (cor[u] == 0) { 
-                cor[u] = 1;
-                td[u] = ++time;
-            }
-
-            boolean avancou = false;
-            for (int v : graph.getSucessors(u)) {
-                if (cor[v] == 0) {
-                    System.out.println("Tree edge: " + u + " -> " + v);
-                    stack.push(v);
-                    avancou = true;
-                    break;
-                } else if (u == vertice) { // só classifica se for o vértice escolhido
-                    if (cor[v] == 1) {
-                        System.out.println("Back edge: " + u + " -> " + v);
-                    } else if (td[u] < td[v]) {
-                        System.out.println("Forward edge: " + u + " -> " + v);
-                    } else {
-                        System.out.println("Cross edge: " + u + " -> " + v);
-                    }
-                }
-            }
-
-
-            if (!avancou) {
-                cor[u] = 2;
-                tt[u] = ++time;
-                stack.pop();
+    // busca em profundidade a partir de start (floresta completa, ver DepthFirstSearch)
+    // que ja classifica todas as arestas; depois mostra as do vertice escolhido
+    public static void dfsIterativo(Digraph graph, int start, int vertice) {
+        // a fatia de um vertice fora de 1..n nao existe no CSR
+        if (vertice < 1 || vertice > graph.size()) {
+            System.out.println("Invalid vertice: " + vertice + " (1.." + graph.size() + ")");
+            return;
+        }
+        long startTime = System.nanoTime();
+        EdgeClassification edges = EdgeClassification.classify(graph, start);
+        double dfsMs = (System.nanoTime() - startTime) / 1_000_000.0;
+        DepthFirstSearch dfs = edges.dfs;
+
+        // arestas de arvore na ordem em que a busca desceu por elas
+        for (int i = 0; i < dfs.n; i++) {
+            int v = dfs.order[i];
+            if (dfs.parent[v] != 0) {
+                System.out.println("Tree edge: " + dfs.parent[v] + " -> " + v);
             }
         }
-    }
-}
-
 
-class Graph {
-    private int n; // num vertices
-    private List<List<Integer>> sucessorList;
-    private List<List<Integer>> predecessorList;
-
-    public Graph(int n) {
-        this.n = n;
-        sucessorList = new ArrayList<>(n + 1);
-        predecessorList = new ArrayList<>(n + 1);
-
-        for (int i = 0; i <= n; i++) {
-            sucessorList.add(new ArrayList<>());
-            predecessorList.add(new ArrayList<>());
+        // arestas do vertice escolhido: so a fatia dele, sem nova busca
+        for (int e = edges.firstEdge(vertice); e < edges.endEdge(vertice); e++) {
+            if (edges.kind[e] != EdgeClassification.TREE) {
+                System.out.println(EdgeClassification.NAMES[edges.kind[e]] + " edge: " + vertice + " -> " + edges.target(e));
+            }
         }
-    }
-
-    public void addEdge(int o, int d) {
-        sucessorList.get(o).add(d); // origem -> destino
-        predecessorList.get(d).add(o); // destino -> origem
-    }
-
-    public List<Integer> getSucessors(int v) {
-        return sucessorList.get(v);
-    }
-
-    public List<Integer> getPredecessors(int v) {
-        return predecessorList.get(v);
-    }
 
-    public int size() {
-        return n;
+        System.out.println(edges.summary());
+        System.out.println("DFS + classification: " + String.format("%.3f", dfsMs) + " ms");
     }
-
-    // deixar em ordem lexicografica
-    public void sort() {
-        for (int i = 1; i <= n; i++) {
-            sucessorList.get(i).sort(Integer::compareTo);
-        }
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package ativ02;
+
+import common.CheckReport;
+import common.Digraph;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Referencia das conferencias do ativ02: um grafo de teste das atividades
+ * (ordenado, como no Main), tres inicios (1 e dois sorteados com semente
+ * fixa) e, para cada inicio, a DFS de referencia - a floresta a partir do
+ * inicio e depois de 1..n, relendo a lista de sucessores desde o comeco a
+ * cada passo, como o dfsIterativo original. Tambem da o tipo esperado de
+ * cada aresta e as componentes pelo Kosaraju.
+ */
+class ReferenceTraversal {
+    static final String[] GRAPHS = {
+        "ativ02/graph-test-100.txt",
+        "ativ03/graphs/tree_10000.txt",
+        "ativ03/graphs/euler_10000.txt",
+        "ativ04/graphs/layered_10000.txt"
+    };
+    static final long SEED = 3;
+
+    final String name;
+    final Digraph graph;
+    final int[] starts;
+    final int[][] discovery; // por inicio
+    final int[][] finish;
+    final int[][] parent;
+
+    private ReferenceTraversal(String fileName, Digraph graph) {
+        this.name = new File(fileName).getName();
+        this.graph = graph;
+        int n = graph.size();
+        Random random = new Random(SEED);
+        starts = new int[] { 1, 1 + random.nextInt(n), 1 + random.nextInt(n) };
+        discovery = new int[starts.length][];
+        finish = new int[starts.length][];
+        parent = new int[starts.length][];
+        for (int i = 0; i < starts.length; i++) {
+            discovery[i] = new int[n + 1];
+            finish[i] = new int[n + 1];
+            parent[i] = new int[n + 1];
+            dfs(graph, starts[i], discovery[i], finish[i], parent[i]);
+        }
+    }
+
+    // null (com a falha contada) se o grafo nao pode ser lido
+    static ReferenceTraversal load(CheckReport report, String fileName) {
+        Digraph graph = Main.readGraph(fileName);
+        report.check(graph != null, "could not read " + fileName);
+        if (graph == null) return null;
+        graph.sort();
+        return new ReferenceTraversal(fileName, graph);
+    }
+
+    // floresta a partir de start e depois 1..n, reescaneando a lista a cada passo
+    static void dfs(Digraph graph, int start, int[] discovery, int[] finish, int[] parent) {
+        int n = graph.size();
+        int[] stack = new int[n];
+        int time = 0;
+        for (int r = 0; r <= n; r++) {
+            int root = r == 0 ? start : r;
+            if (root == 0 || discovery[root] != 0) continue;
+            int top = 0;
+            stack[top++] = root;
+            discovery[root] = ++time;
+            while (top > 0) {
+                int u = stack[top - 1];
+                int white = 0;
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u) && white == 0; e++) {
+                    if (discovery[graph.target(e)] == 0) white = graph.target(e);
+                }
+                if (white != 0) {
+                    parent[white] = u;
+                    discovery[white] = ++time;
+                    stack[top++] = white;
+                } else {
+                    finish[u] = ++time;
+                    top--;
+                }
+            }
+        }
+    }
+
+    // tipo esperado de cada aresta pelos tempos da DFS do inicio i
+    byte[] kinds(int i) {
+        int[] discovery = this.discovery[i];
+        int[] finish = this.finish[i];
+        int[] parent = this.parent[i];
+        byte[] kinds = new byte[graph.edgeCount()];
+        for (int u = 1; u <= graph.size(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                boolean firstToV = true;
+                for (int f = graph.firstEdge(u); f < e; f++) {
+                    if (graph.target(f) == v) firstToV = false;
+                }
+                if (parent[v] == u && firstToV) {
+                    kinds[e] = EdgeClassification.TREE;
+                } else if (discovery[v] <= discovery[u] && finish[u] <= finish[v]) {
+                    kinds[e] = EdgeClassification.BACK;
+                } else if (discovery[u] < discovery[v] && finish[v] < finish[u]) {
+                    kinds[e] = EdgeClassification.FORWARD;
+                } else {
+                    kinds[e] = EdgeClassification.CROSS;
+                }
+            }
+        }
+        return kinds;
+    }
+
+    // Kosaraju: ordem de termino de uma DFS, depois BFS nos predecessores
+    static int[] components(Digraph graph, int[] finish) {
+        int n = graph.size();
+        int[] byFinish = new int[2 * n + 1];
+        for (int v = 1; v <= n; v++) byFinish[finish[v]] = v;
+        int[] comp = new int[n + 1];
+        Arrays.fill(comp, -1);
+        int[] queue = new int[n];
+        int count = 0;
+        for (int t = 2 * n; t >= 1; t--) {
+            int root = byFinish[t];
+            if (root == 0 || comp[root] != -1) continue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            comp[root] = count;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int e = graph.firstInEdge(u); e < graph.endInEdge(u); e++) {
+                    int w = graph.source(e);
+                    if (comp[w] == -1) {
+                        comp[w] = count;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            count++;
+        }
+        return comp;
+    }
+}
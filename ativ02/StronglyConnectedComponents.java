@@ -0,0 +1,445 @@
+package ativ02;
+
+import common.Digraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Componentes fortemente conexas (CFC) e o DAG de condensacao.
+ *
+ * tarjan(graph): Tarjan iterativo, uma passada linear com cursor por vertice e
+ * duas pilhas de int (a da "recursao" e a de Tarjan), sem recursao.
+ * As componentes saem em ordem topologica reversa (a primeira fechada e um
+ * sumidouro), entao a ordem topologica do DAG sai de graca.
+ *
+ * forwardBackward(graph, threads): variante paralela para grafos muito grandes.
+ * Primeiro remove (trim) quem tem grau de entrada ou saida 0 - cada um e uma
+ * CFC sozinho. Depois, para cada subproblema, escolhe um pivo: o que e
+ * alcancavel pelo pivo e tambem alcanca o pivo (BFS nos sucessores e nos
+ * predecessores) e a CFC dele, e o resto se divide em tres subproblemas
+ * independentes (so frente, so tras, nenhum) que vao para uma fila atendida
+ * por varias threads. Subproblemas pequenos terminam com o Tarjan restrito a eles.
+ * Cada subproblema e identificado por um label em label[v]; como os labels
+ * nunca se repetem, uma busca nunca atravessa para o subproblema de outra thread.
+ */
+class StronglyConnectedComponents {
+    // abaixo disso o subproblema vai direto para o Tarjan (BFS dupla nao compensa)
+    static final int SEQUENTIAL_THRESHOLD = 4096;
+    private static final int DONE = -1; // label de quem ja tem componente
+
+    final int n;
+    final int count;               // numero de componentes
+    final int[] comp;              // componente de cada vertice (0 .. count - 1)
+    // vertices da componente c = members[memberOffsets[c] .. memberOffsets[c + 1])
+    final int[] memberOffsets;
+    final int[] members;
+    // condensacao em CSR, sem arestas repetidas: c -> dagTargets[dagOffsets[c] .. dagOffsets[c + 1])
+    final int[] dagOffsets;
+    final int[] dagTargets;
+    final int[] topologicalOrder;  // componentes em ordem topologica do DAG
+
+    private StronglyConnectedComponents(Digraph graph, int[] comp, int count, int[] topologicalOrder) {
+        this.n = graph.size();
+        this.comp = comp;
+        this.count = count;
+
+        memberOffsets = new int[count + 1];
+        for (int v = 1; v <= n; v++) memberOffsets[comp[v] + 1]++;
+        for (int c = 1; c <= count; c++) memberOffsets[c] += memberOffsets[c - 1];
+        members = new int[n];
+        int[] next = new int[count];
+        for (int v = 1; v <= n; v++) {
+            int c = comp[v];
+            members[memberOffsets[c] + next[c]++] = v;
+        }
+
+        // duas passadas (conta e preenche); mark[d] = c + 1 evita repetir c -> d
+        dagOffsets = new int[count + 1];
+        int[] mark = new int[count];
+        condensation(graph, mark, null);
+        for (int c = 1; c <= count; c++) dagOffsets[c] += dagOffsets[c - 1];
+        dagTargets = new int[dagOffsets[count]];
+        Arrays.fill(mark, 0);
+        condensation(graph, mark, dagTargets);
+
+        this.topologicalOrder = topologicalOrder != null ? topologicalOrder : kahn();
+    }
+
+    // dag == null: conta os arcos de cada componente em dagOffsets[c + 1]; senao preenche dag
+    private void condensation(Digraph graph, int[] mark, int[] dag) {
+        int[] offsets = graph.sucessorOffsets();
+        int[] targets = graph.sucessorTargets();
+        int arcs = 0;
+        for (int c = 0; c < count; c++) {
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                int u = members[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int d = comp[targets[e]];
+                    if (d != c && mark[d] != c + 1) {
+                        mark[d] = c + 1;
+                        if (dag == null) {
+                            dagOffsets[c + 1]++;
+                        } else {
+                            dag[arcs++] = d;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // ordem topologica do DAG pelo algoritmo de Kahn (fila de quem tem grau de entrada 0)
+    private int[] kahn() {
+        int[] inDegree = new int[count];
+        for (int i = 0; i < dagTargets.length; i++) inDegree[dagTargets[i]]++;
+        int[] order = new int[count];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < count; c++) {
+            if (inDegree[c] == 0) order[tail++] = c;
+        }
+        while (head < tail) {
+            int c = order[head++];
+            for (int i = dagOffsets[c]; i < dagOffsets[c + 1]; i++) {
+                if (--inDegree[dagTargets[i]] == 0) order[tail++] = dagTargets[i];
+            }
+        }
+        return order;
+    }
+
+    public int size(int c) {
+        return memberOffsets[c + 1] - memberOffsets[c];
+    }
+
+    public int dagArcCount() {
+        return dagTargets.length;
+    }
+
+    public String summary() {
+        int largest = 0;
+        int singletons = 0;
+        for (int c = 0; c < count; c++) {
+            largest = Math.max(largest, size(c));
+            if (size(c) == 1) singletons++;
+        }
+        int sources = 0;
+        int sinks = 0;
+        boolean[] hasIn = new boolean[count];
+        for (int d : dagTargets) hasIn[d] = true;
+        for (int c = 0; c < count; c++) {
+            if (!hasIn[c]) sources++;
+            if (dagOffsets[c] == dagOffsets[c + 1]) sinks++;
+        }
+        return "SCCs: " + count + " | largest: " + largest + " vertices | singletons: " + singletons
+                + " | DAG arcs: " + dagArcCount() + " | sources: " + sources + " | sinks: " + sinks;
+    }
+
+    // estado por vertice compartilhado pelas buscas; cada vertice so e tocado por uma delas
+    private static final class State {
+        final int[] sucessorOffsets;
+        final int[] sucessorTargets;
+        final int[] comp;
+        final int[] index;
+        final int[] low;
+        final int[] cursor;
+        final int[] label; // null = sem subproblemas (Tarjan no grafo todo)
+        final AtomicInteger components = new AtomicInteger();
+
+        State(Digraph graph, boolean labeled) {
+            int n = graph.size();
+            sucessorOffsets = graph.sucessorOffsets();
+            sucessorTargets = graph.sucessorTargets();
+            comp = new int[n + 1];
+            Arrays.fill(comp, -1);
+            index = new int[n + 1];
+            low = new int[n + 1];
+            cursor = new int[n + 1];
+            label = labeled ? new int[n + 1] : null;
+        }
+    }
+
+    static StronglyConnectedComponents tarjan(Digraph graph) {
+        int n = graph.size();
+        State state = new State(graph, false);
+        int[] vertices = new int[n];
+        for (int v = 1; v <= n; v++) vertices[v - 1] = v;
+        tarjan(state, vertices, n, 0);
+
+        // Tarjan fecha as componentes da ultima para a primeira na ordem topologica
+        int count = state.components.get();
+        int[] order = new int[count];
+        for (int c = 0; c < count; c++) order[c] = count - 1 - c;
+        state.comp[0] = 0;
+        return new StronglyConnectedComponents(graph, state.comp, count, order);
+    }
+
+    // Tarjan iterativo sobre vertices[0 .. size); com label, so anda por arestas dentro do subproblema
+    private static void tarjan(State st, int[] vertices, int size, int label) {
+        int[] offsets = st.sucessorOffsets;
+        int[] targets = st.sucessorTargets;
+        int[] call = new int[size];  // pilha da "recursao"
+        int[] stack = new int[size]; // pilha de Tarjan (vertices sem componente ainda)
+        int callTop = 0;
+        int top = 0;
+        int time = 0;
+
+        for (int i = 0; i < size; i++) {
+            int root = vertices[i];
+            if (st.index[root] != 0) continue;
+            st.index[root] = st.low[root] = ++time;
+            st.cursor[root] = offsets[root];
+            stack[top++] = root;
+            call[callTop++] = root;
+
+            while (callTop > 0) {
+                int u = call[callTop - 1];
+                if (st.cursor[u] < offsets[u + 1]) {
+                    int v = targets[st.cursor[u]++];
+                    if (st.label != null && st.label[v] != label) continue;
+                    if (st.index[v] == 0) {
+                        st.index[v] = st.low[v] = ++time;
+                        st.cursor[v] = offsets[v];
+                        stack[top++] = v;
+                        call[callTop++] = v;
+                    } else if (st.comp[v] < 0 && st.index[v] < st.low[u]) {
+                        st.low[u] = st.index[v]; // v ainda na pilha de Tarjan
+                    }
+                } else {
+                    callTop--;
+                    if (st.low[u] == st.index[u]) {
+                        int id = st.components.getAndIncrement();
+                        int w;
+                        do {
+                            w = stack[--top];
+                            st.comp[w] = id;
+                            if (st.label != null) st.label[w] = DONE;
+                        } while (w != u);
+                    }
+                    if (callTop > 0) {
+                        int p = call[callTop - 1];
+                        if (st.low[u] < st.low[p]) st.low[p] = st.low[u];
+                    }
+                }
+            }
+        }
+    }
+
+    // subproblema da variante paralela: vertices com label[v] == label
+    private static final class Subproblem {
+        final int[] vertices;
+        final int label;
+
+        Subproblem(int[] vertices, int label) {
+            this.vertices = vertices;
+            this.label = label;
+        }
+    }
+
+    static StronglyConnectedComponents forwardBackward(Digraph graph, int threads) {
+        int n = graph.size();
+        State state = new State(graph, true);
+        int[] predecessorOffsets = graph.predecessorOffsets();
+        int[] predecessorTargets = graph.predecessorTargets();
+
+        int[] rest = trim(graph, state);
+        LinkedBlockingDeque<Subproblem> queue = new LinkedBlockingDeque<>();
+        AtomicInteger pending = new AtomicInteger(); // subproblemas na fila ou em andamento
+        AtomicInteger labels = new AtomicInteger(1);
+        if (rest.length > 0) {
+            pending.incrementAndGet();
+            queue.add(new Subproblem(rest, 0));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int w = 0; w < threads; w++) {
+                tasks.add(executor.submit(() -> {
+                    int[] queueBuffer = new int[0];
+                    while (pending.get() > 0) {
+                        Subproblem p = queue.poll(1, TimeUnit.MILLISECONDS);
+                        if (p == null) continue;
+                        try {
+                            if (p.vertices.length < SEQUENTIAL_THRESHOLD) {
+                                tarjan(state, p.vertices, p.vertices.length, p.label);
+                                continue;
+                            }
+                            if (queueBuffer.length < p.vertices.length) queueBuffer = new int[p.vertices.length];
+                            for (Subproblem child : split(state, predecessorOffsets, predecessorTargets, p, labels, queueBuffer)) {
+                                pending.incrementAndGet();
+                                queue.add(child);
+                            }
+                        } finally {
+                            pending.decrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha no calculo das componentes", e);
+        } finally {
+            executor.shutdown();
+        }
+
+        state.comp[0] = 0;
+        return new StronglyConnectedComponents(graph, state.comp, state.components.get(), null);
+    }
+
+    /**
+     * Uma rodada forward-backward: BFS do pivo pelos sucessores marca F (label
+     * novo), BFS pelos predecessores dentro do subproblema ou de F: quem estava
+     * em F fecha a CFC do pivo, quem nao estava vira B (outro label novo).
+     * Devolve os subproblemas F \ B, B \ F e o resto (os nao vazios).
+     */
+    private static List<Subproblem> split(State st, int[] predecessorOffsets, int[] predecessorTargets,
+                                          Subproblem p, AtomicInteger labels, int[] queue) {
+        int label = p.label;
+        int forward = labels.getAndIncrement();
+        int backward = labels.getAndIncrement();
+        int pivot = p.vertices[0];
+
+        int head = 0;
+        int tail = 0;
+        st.label[pivot] = forward;
+        queue[tail++] = pivot;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = st.sucessorOffsets[u]; e < st.sucessorOffsets[u + 1]; e++) {
+                int v = st.sucessorTargets[e];
+                if (st.label[v] == label) {
+                    st.label[v] = forward;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        int id = st.components.getAndIncrement();
+        head = 0;
+        tail = 0;
+        st.label[pivot] = DONE;
+        st.comp[pivot] = id;
+        queue[tail++] = pivot;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = predecessorOffsets[u]; e < predecessorOffsets[u + 1]; e++) {
+                int v = predecessorTargets[e];
+                if (st.label[v] == forward) {
+                    st.label[v] = DONE;
+                    st.comp[v] = id;
+                    queue[tail++] = v;
+                } else if (st.label[v] == label) {
+                    st.label[v] = backward;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        int forwardSize = 0;
+        int backwardSize = 0;
+        int restSize = 0;
+        for (int v : p.vertices) {
+            int l = st.label[v];
+            if (l == forward) forwardSize++;
+            else if (l == backward) backwardSize++;
+            else if (l == label) restSize++;
+        }
+        int[] f = new int[forwardSize];
+        int[] b = new int[backwardSize];
+        int[] r = new int[restSize];
+        forwardSize = backwardSize = restSize = 0;
+        for (int v : p.vertices) {
+            int l = st.label[v];
+            if (l == forward) f[forwardSize++] = v;
+            else if (l == backward) b[backwardSize++] = v;
+            else if (l == label) r[restSize++] = v;
+        }
+
+        List<Subproblem> children = new ArrayList<>(3);
+        if (f.length > 0) children.add(new Subproblem(f, forward));
+        if (b.length > 0) children.add(new Subproblem(b, backward));
+        if (r.length > 0) children.add(new Subproblem(r, label));
+        return children;
+    }
+
+    // remove em cascata quem fica com grau de entrada ou de saida 0; devolve quem sobrou
+    private static int[] trim(Digraph graph, State st) {
+        int n = graph.size();
+        int[] predecessorOffsets = graph.predecessorOffsets();
+        int[] predecessorTargets = graph.predecessorTargets();
+        int[] out = new int[n + 1];
+        int[] in = new int[n + 1];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int v = 1; v <= n; v++) {
+            out[v] = st.sucessorOffsets[v + 1] - st.sucessorOffsets[v];
+            in[v] = predecessorOffsets[v + 1] - predecessorOffsets[v];
+            if (out[v] == 0 || in[v] == 0) {
+                st.label[v] = DONE;
+                queue[tail++] = v;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            st.comp[u] = st.components.getAndIncrement();
+            for (int e = st.sucessorOffsets[u]; e < st.sucessorOffsets[u + 1]; e++) {
+                int v = st.sucessorTargets[e];
+                if (st.label[v] != DONE && --in[v] == 0) {
+                    st.label[v] = DONE;
+                    queue[tail++] = v;
+                }
+            }
+            for (int e = predecessorOffsets[u]; e < predecessorOffsets[u + 1]; e++) {
+                int v = predecessorTargets[e];
+                if (st.label[v] != DONE && --out[v] == 0) {
+                    st.label[v] = DONE;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        int[] rest = new int[n - tail];
+        int k = 0;
+        for (int v = 1; v <= n; v++) {
+            if (st.label[v] != DONE) rest[k++] = v;
+        }
+        return rest;
+    }
+
+    // java ativ02.StronglyConnectedComponents <grafo.txt> [tarjan|fwbw] [threads]
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ativ02.StronglyConnectedComponents <graph.txt> [tarjan|fwbw] [threads]");
+            return;
+        }
+        Digraph graph = Main.readGraph(args[0]);
+        if (graph == null) return;
+        boolean parallel = args.length > 1 && args[1].equalsIgnoreCase("fwbw");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        long startTime = System.nanoTime();
+        StronglyConnectedComponents scc = parallel ? forwardBackward(graph, Math.max(1, threads)) : tarjan(graph);
+        double totalMs = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        System.out.println("--- STRONGLY CONNECTED COMPONENTS (" + (parallel ? "forward-backward, " + threads + " threads" : "Tarjan") + ") ---");
+        System.out.println(scc.summary());
+        System.out.println("Time (SCC + condensation + topological order): " + String.format("%.3f", totalMs) + " ms");
+        int listed = Math.min(scc.count, 10);
+        StringBuilder line = new StringBuilder("Topological order (first " + listed + "):");
+        for (int i = 0; i < listed; i++) {
+            int c = scc.topologicalOrder[i];
+            line.append(' ').append(c).append(" (").append(scc.size(c)).append(')');
+        }
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,138 @@
+package ativ02;
+
+import common.CheckReport;
+import common.Digraph;
+import java.util.Arrays;
+
+/**
+ * Conferencia das componentes fortemente conexas (StronglyConnectedComponents)
+ * contra o Kosaraju da referencia (ReferenceTraversal) nos grafos de teste
+ * das atividades: o Tarjan iterativo e o forward-backward (1, 2 e 3
+ * threads) dao a mesma particao (os numeros das componentes podem ser
+ * outros), members lista cada vertice uma vez na sua componente, o DAG de
+ * condensacao tem exatamente um arco por par de componentes ligadas e a
+ * ordem topologica lista todas as componentes com todo arco para frente.
+ * Tambem confere um grafo de CYCLE + 5 * SMALL vertices sem fonte nem
+ * sumidouro, para o forward-backward passar do trim e do limite sequencial.
+ *
+ * java ativ02.StronglyConnectedComponentsCheck [grafo.txt ...] (padrao: os grafos de teste do repositorio)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class StronglyConnectedComponentsCheck {
+    private static final int MAX_THREADS = 3;
+    private static final int CYCLE = 3 * StronglyConnectedComponents.SEQUENTIAL_THRESHOLD;
+    private static final int SMALL = 2000;
+
+    private static void checkGraph(CheckReport report, String fileName) {
+        ReferenceTraversal ref = ReferenceTraversal.load(report, fileName);
+        if (ref == null) return;
+        checkAll(report, ref.name, ref.graph, ReferenceTraversal.components(ref.graph, ref.finish[0]));
+        report.endSection(ref.name);
+    }
+
+    private static void checkAll(CheckReport report, String name, Digraph graph, int[] expected) {
+        checkComponents(report, name + " tarjan", graph, StronglyConnectedComponents.tarjan(graph), expected);
+        for (int threads = 1; threads <= MAX_THREADS; threads++) {
+            checkComponents(report, name + " forward-backward (" + threads + " threads)", graph,
+                    StronglyConnectedComponents.forwardBackward(graph, threads), expected);
+        }
+    }
+
+    private static void checkComponents(CheckReport report, String what, Digraph graph, StronglyConnectedComponents scc,
+            int[] expected) {
+        int n = graph.size();
+
+        // mesma particao: a correspondencia entre os numeros tem que ser uma bijecao
+        int[] toExpected = new int[scc.count];
+        int[] fromExpected = new int[n];
+        Arrays.fill(toExpected, -1);
+        Arrays.fill(fromExpected, -1);
+        boolean same = true;
+        for (int v = 1; v <= n && same; v++) {
+            int c = scc.comp[v];
+            int d = expected[v];
+            if (toExpected[c] == -1 && fromExpected[d] == -1) {
+                toExpected[c] = d;
+                fromExpected[d] = c;
+            }
+            same = toExpected[c] == d && fromExpected[d] == c;
+        }
+        report.check(same, what + ": components differ from Kosaraju");
+        if (!same) return;
+
+        boolean[] seen = new boolean[n + 1];
+        boolean members = scc.memberOffsets[scc.count] == n;
+        for (int c = 0; c < scc.count && members; c++) {
+            for (int i = scc.memberOffsets[c]; i < scc.memberOffsets[c + 1] && members; i++) {
+                int v = scc.members[i];
+                members = scc.comp[v] == c && !seen[v];
+                seen[v] = true;
+            }
+        }
+        report.check(members, what + ": members do not partition the vertices");
+
+        // arcos do DAG: os pares (c, d) das arestas entre componentes, sem repeticao
+        long[] crossing = new long[graph.edgeCount()];
+        int k = 0;
+        for (int u = 1; u <= n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int c = scc.comp[u];
+                int d = scc.comp[graph.target(e)];
+                if (c != d) crossing[k++] = ((long) c << 32) | d;
+            }
+        }
+        long[] expectedArcs = Arrays.stream(crossing, 0, k).sorted().distinct().toArray();
+        long[] dagArcs = new long[scc.dagArcCount()];
+        for (int c = 0, i = 0; c < scc.count; c++) {
+            for (int j = scc.dagOffsets[c]; j < scc.dagOffsets[c + 1]; j++) {
+                dagArcs[i++] = ((long) c << 32) | scc.dagTargets[j];
+            }
+        }
+        Arrays.sort(dagArcs);
+        report.check(Arrays.equals(dagArcs, expectedArcs), what + ": condensation arcs");
+
+        int[] position = new int[scc.count];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < scc.topologicalOrder.length; i++) position[scc.topologicalOrder[i]] = i;
+        boolean complete = scc.topologicalOrder.length == scc.count;
+        for (int p : position) complete &= p >= 0;
+        report.check(complete, what + ": topological order does not list every component");
+        if (!complete) return;
+        boolean ordered = true;
+        for (long arc : dagArcs) ordered &= position[(int) (arc >>> 32)] < position[(int) arc];
+        report.check(ordered, what + ": an arc goes backwards in the topological order");
+    }
+
+    // ciclo 1..CYCLE; SMALL ciclos de 5 depois dele, o i-esimo recebe duas arestas do ciclo grande
+    // e manda uma para o proximo: ninguem sai no trim e o subproblema passa do limite sequencial
+    private static void checkCycles(CheckReport report) {
+        int n = CYCLE + 5 * SMALL;
+        Digraph graph = new Digraph(n, CYCLE + 8 * SMALL);
+        for (int v = 1; v <= CYCLE; v++) graph.addEdge(v, v % CYCLE + 1);
+        for (int i = 0; i < SMALL; i++) {
+            int base = CYCLE + 5 * i;
+            for (int j = 1; j <= 5; j++) graph.addEdge(base + j, base + j % 5 + 1);
+            graph.addEdge(1 + i, base + 1);
+            graph.addEdge(1 + i, base + 3); // o mesmo arco do DAG de novo
+            if (i + 1 < SMALL) graph.addEdge(base + 5, base + 6);
+        }
+        graph.build();
+        int[] discovery = new int[n + 1];
+        int[] finish = new int[n + 1];
+        ReferenceTraversal.dfs(graph, 1, discovery, finish, new int[n + 1]);
+        int[] expected = ReferenceTraversal.components(graph, finish);
+        report.check(Arrays.stream(expected).max().getAsInt() == SMALL, "cycles: Kosaraju count");
+        checkAll(report, "cycles", graph, expected);
+        report.endSection("cycles");
+    }
+
+    public static void main(String[] args) {
+        String[] graphs = args.length > 0 ? args : ReferenceTraversal.GRAPHS;
+        CheckReport report = new CheckReport();
+        for (String graph : graphs) {
+            checkGraph(report, graph);
+        }
+        checkCycles(report);
+        report.finish();
+    }
+}
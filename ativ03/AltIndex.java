@@ -0,0 +1,180 @@
+package ativ03;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * ALT: A* com landmarks e desigualdade triangular.
+ * Para cada landmark L guarda d(L, v) e d(v, L) para todo v. Na consulta
+ * s -> t o limite inferior de d(v, t) e o maior entre
+ * d(L, t) - d(L, v) e d(v, L) - d(t, L). Esse limite e consistente, entao
+ * o A* com chave (peso + limite, arestas) para no destino com o mesmo
+ * resultado do Dijkstra (inclusive o desempate por menos arestas).
+ */
+class AltIndex implements RouteIndex {
+    private static final int MAGIC = 0x414C5432; // "ALT2" (1 nao tinha o CRC do .txt)
+    static final int UNKNOWN = Integer.MAX_VALUE; // inalcancavel (ou grande demais para int)
+
+    enum LandmarkSelection {
+        RANDOM,   // vertices sorteados
+        FARTHEST  // cada novo landmark e o vertice mais longe dos anteriores
+    }
+
+    private final Graph graph;
+    private final int[] landmarks;
+    private final int[][] fromLandmark; // fromLandmark[i][v] = d(L_i, v)
+    private final int[][] toLandmark;   // toLandmark[i][v] = d(v, L_i)
+    private final QueryWorkspace ws;
+
+    private AltIndex(Graph graph, int[] landmarks, int[][] fromLandmark, int[][] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+        this.ws = new QueryWorkspace(graph.size(), Main.HEAP_ARITY);
+    }
+
+    static AltIndex build(Graph graph, int count, LandmarkSelection selection, long seed) {
+        graph.buildReverse();
+        int n = graph.size();
+        count = Math.max(1, Math.min(count, n));
+        Random random = new Random(seed);
+
+        int[] landmarks = new int[count];
+        int[][] from = new int[count][];
+        int[][] to = new int[count][];
+        // para FARTHEST: menor distancia (ida ou volta) ate algum landmark ja escolhido
+        long[] closest = new long[n + 1];
+        Arrays.fill(closest, Long.MAX_VALUE);
+
+        for (int i = 0; i < count; i++) {
+            int landmark;
+            if (selection == LandmarkSelection.RANDOM || i == 0) {
+                landmark = 1 + random.nextInt(n);
+            } else {
+                landmark = 1;
+                long best = -1;
+                for (int v = 1; v <= n; v++) {
+                    // vertice alcancado mais longe; os nunca alcancados ficam por ultimo
+                    long c = closest[v] == Long.MAX_VALUE ? -1 : closest[v];
+                    if (c > best) {
+                        best = c;
+                        landmark = v;
+                    }
+                }
+            }
+            landmarks[i] = landmark;
+            from[i] = distances(graph, landmark, false);
+            to[i] = distances(graph, landmark, true);
+            for (int v = 1; v <= n; v++) {
+                long d = Math.min(from[i][v] == UNKNOWN ? Long.MAX_VALUE : from[i][v],
+                        to[i][v] == UNKNOWN ? Long.MAX_VALUE : to[i][v]);
+                closest[v] = Math.min(closest[v], d);
+            }
+        }
+        return new AltIndex(graph, landmarks, from, to);
+    }
+
+    // Dijkstra completo a partir de s (reverse = usa o CSR reverso: distancias ate s)
+    private static int[] distances(Graph graph, int s, boolean reverse) {
+        int n = graph.size();
+        QueryWorkspace ws = new QueryWorkspace(n, Main.HEAP_ARITY);
+        DijkstraSearch search = new DijkstraSearch(ws);
+        search.start(s, reverse ? DijkstraSearch.backward(graph) : DijkstraSearch.forward(graph));
+        search.run(-1);
+        int[] result = new int[n + 1];
+        for (int v = 0; v <= n; v++) {
+            long d = ws.dist(v);
+            result[v] = d >= UNKNOWN ? UNKNOWN : (int) d;
+        }
+        return result;
+    }
+
+    // limite inferior de d(v, t)
+    private long lowerBound(int v, int t) {
+        long best = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            int[] from = fromLandmark[i];
+            int[] to = toLandmark[i];
+            if (from[t] != UNKNOWN && from[v] != UNKNOWN) {
+                best = Math.max(best, (long) from[t] - from[v]);
+            }
+            if (to[v] != UNKNOWN && to[t] != UNKNOWN) {
+                best = Math.max(best, (long) to[v] - to[t]);
+            }
+        }
+        return best;
+    }
+
+    // nao e thread-safe: usa um unico workspace
+    @Override
+    public PathResult query(int source, int destination) {
+        graph.firstEdge(source);
+        graph.firstEdge(destination);
+
+        DijkstraSearch search = new DijkstraSearch(ws);
+        search.start(source, DijkstraSearch.forward(graph), v -> lowerBound(v, destination), null);
+        boolean found = search.run(destination);
+        return search.result(source, destination, found);
+    }
+
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+
+    @Override
+    public long sizeBytes() {
+        return 4L * landmarks.length * (2L * (graph.size() + 1) + 1);
+    }
+
+    @Override
+    public void save(String fileName, long sourceCrc) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(graph.size());
+            out.writeInt(graph.edgeCount());
+            out.writeLong(sourceCrc);
+            out.writeInt(landmarks.length);
+            for (int i = 0; i < landmarks.length; i++) {
+                out.writeInt(landmarks[i]);
+                for (int d : fromLandmark[i]) out.writeInt(d);
+                for (int d : toLandmark[i]) out.writeInt(d);
+            }
+        }
+    }
+
+    // so aceita o indice se n, m e o CRC32 do arquivo de origem baterem
+    static AltIndex load(Graph graph, String fileName, long sourceCrc) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(fileName), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Arquivo nao e um indice ALT: '" + fileName + "'");
+            }
+            int n = in.readInt();
+            int m = in.readInt();
+            long crc = in.readLong();
+            if (n != graph.size() || m != graph.edgeCount() || crc != sourceCrc) {
+                throw new IOException("Indice ALT de outro grafo: '" + fileName + "'");
+            }
+            int count = in.readInt();
+            int[] landmarks = new int[count];
+            int[][] from = new int[count][n + 1];
+            int[][] to = new int[count][n + 1];
+            for (int i = 0; i < count; i++) {
+                landmarks[i] = in.readInt();
+                for (int v = 0; v <= n; v++) from[i][v] = in.readInt();
+                for (int v = 0; v <= n; v++) to[i][v] = in.readInt();
+            }
+            graph.buildReverse();
+            return new AltIndex(graph, landmarks, from, to);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ativ03;
+
+import common.CheckReport;
+import java.io.File;
+
+/**
+ * Conferencia das consultas ponto a ponto que param antes da arvore
+ * completa: o Dijkstra bidirecional e o Dijkstra que para ao fechar o
+ * destino, contra o Dijkstra de referencia nos grafos tree_* e euler_* da
+ * pasta graphs. A parada no destino tambem tem que fechar no maximo os
+ * vertices da arvore completa, e o bidirecional tem que achar o caminho de
+ * um vertice para ele mesmo (peso 0).
+ *
+ * java ativ03.BidirectionalCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class BidirectionalCheck {
+    private static void checkGraph(CheckReport report, String fileName) {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        Graph graph = ref.graph;
+
+        BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(graph, Main.HEAP_ARITY);
+        for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+            ref.checkPair(report, "bidirectional", i, bidirectional.query(ref.sources[i], ref.destinations[i]));
+        }
+        PathResult self = bidirectional.query(ref.sources[0], ref.sources[0]);
+        report.check(self.found() && self.weight == 0 && self.edges == 0, ref.name + ": bidirectional s -> s");
+
+        DijkstraSearch search = new DijkstraSearch(new QueryWorkspace(graph.size(), Main.HEAP_ARITY));
+        boolean fewer = true;
+        for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+            int s = ref.sources[i];
+            int t = ref.destinations[i];
+            search.start(s, DijkstraSearch.forward(graph));
+            PathResult early = search.result(s, t, search.run(t));
+            ref.checkPair(report, "early-exit", i, early);
+            search.start(s, DijkstraSearch.forward(graph));
+            search.run(-1);
+            fewer &= early.settled <= search.settled;
+        }
+        report.check(fewer, ref.name + ": early exit settled more vertices than the full tree");
+        report.endSection(ref.name);
+    }
+
+    public static void main(String[] args) {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        report.finish();
+    }
+}
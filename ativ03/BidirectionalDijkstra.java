@@ -0,0 +1,110 @@
+package ativ03;
+
+/**
+ * Dijkstra bidirecional para uma consulta origem -> destino.
+ * Uma busca anda para frente a partir da origem (sucessores) e a outra
+ * anda para tras a partir do destino (CSR reverso do grafo), sempre
+ * expandindo o lado com a menor chave.
+ *
+ * As chaves sao pares (peso, numero de arestas) comparados nessa ordem,
+ * como no dijkstraIndexedHeap, entao o desempate pelo menor numero de
+ * arestas continua valendo. A busca para quando
+ * topo(frente) + topo(tras) >= melhor caminho ja visto.
+ */
+class BidirectionalDijkstra {
+    private final Graph graph;
+    private final int arity;
+    private final DijkstraSearch forward;  // source -> v (parent = predecessor)
+    private final DijkstraSearch backward; // v -> destination (parent = sucessor)
+    private QueueStats lastStats;
+
+    // melhor caminho visto ate agora (passando por meet)
+    private long bestDist;
+    private int bestEdges;
+    private int meet;
+
+    public BidirectionalDijkstra(Graph graph, int arity) {
+        this.graph = graph;
+        this.arity = arity;
+        graph.buildReverse();
+        forward = new DijkstraSearch(new QueryWorkspace(graph.size(), arity));
+        backward = new DijkstraSearch(new QueryWorkspace(graph.size(), arity));
+    }
+
+    // v ja foi alcancado pelas duas buscas: caminho candidato
+    private void meetAt(int v) {
+        if (!forward.ws.visited(v) || !backward.ws.visited(v)) return;
+        long total = forward.ws.dist[v] + backward.ws.dist[v];
+        int totalEdges = forward.ws.numEdges[v] + backward.ws.numEdges[v];
+        if (total < bestDist || (total == bestDist && totalEdges < bestEdges)) {
+            bestDist = total;
+            bestEdges = totalEdges;
+            meet = v;
+        }
+    }
+
+    public PathResult query(int source, int destination) {
+        forward.start(source, DijkstraSearch.forward(graph), null, this::meetAt);
+        backward.start(destination, DijkstraSearch.backward(graph), null, this::meetAt);
+
+        bestDist = Long.MAX_VALUE;
+        bestEdges = Integer.MAX_VALUE;
+        meet = -1;
+        if (source == destination) {
+            bestDist = 0;
+            bestEdges = 0;
+            meet = source;
+        }
+
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            // criterio de parada: nenhum caminho pelas fronteiras pode ser melhor
+            long topDist = forward.minKey() + backward.minKey();
+            int topEdges = forward.minTie() + backward.minTie();
+            if (topDist > bestDist || (topDist == bestDist && topEdges >= bestEdges)) break;
+
+            boolean goForward = forward.minKey() < backward.minKey()
+                    || (forward.minKey() == backward.minKey() && forward.minTie() <= backward.minTie());
+            DijkstraSearch side = goForward ? forward : backward;
+            side.relax(side.settle());
+        }
+
+        long settled = forward.settled + backward.settled;
+        IndexedDaryHeap f = forward.ws.heap;
+        IndexedDaryHeap b = backward.ws.heap;
+        lastStats = new QueueStats("Bidirectional " + arity + "-ary heaps");
+        lastStats.inserts = f.inserts + b.inserts;
+        lastStats.decreaseKeys = f.decreaseKeys + b.decreaseKeys;
+        lastStats.extracts = f.extracts + b.extracts;
+        lastStats.peakSize = f.peakSize + b.peakSize;
+        lastStats.settled = settled;
+
+        if (meet == -1) {
+            PathResult result = PathResult.notFound(source, destination);
+            result.settled = settled;
+            return result;
+        }
+
+        // source -> meet pelos predecessores, meet -> destination pelos sucessores
+        int[] path = new int[bestEdges + 1];
+        int front = forward.ws.numEdges[meet];
+        int current = meet;
+        for (int i = front; i >= 0; i--) {
+            path[i] = current;
+            current = forward.ws.parent[current];
+        }
+        current = meet;
+        for (int i = front + 1; i < path.length; i++) {
+            current = backward.ws.parent[current];
+            path[i] = current;
+        }
+
+        PathResult result = new PathResult(source, destination, bestDist, bestEdges, path);
+        result.settled = settled;
+        return result;
+    }
+
+    // contadores da ultima consulta (soma dos dois heaps)
+    public QueueStats stats() {
+        return lastStats;
+    }
+}
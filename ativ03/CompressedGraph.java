@@ -0,0 +1,317 @@
+package ativ03;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Adjacencia compactada, somente leitura, para grafos muito grandes.
+ * Cada lista de sucessores e ordenada e guardada como diferencas (gaps)
+ * entre destinos consecutivos, em varint (7 bits por byte, o bit mais alto
+ * diz se continua), tudo num unico byte[]. O primeiro destino de v e
+ * guardado como destino - v em zigzag (pode ser negativo). Com ids proximos
+ * (ver VertexOrdering) a maioria dos gaps cabe em 1 byte.
+ * Os pesos ficam separados, num int[] na mesma ordem das arestas.
+ *
+ * Para percorrer usa-se um Cursor reaproveitavel (sem alocar por vertice):
+ *   cursor.reset(u); while (cursor.next()) { v = cursor.target; w = cursor.weight; }
+ * O Cursor e um DijkstraSearch.Edges, entao o Dijkstra le o grafo compactado direto.
+ */
+class CompressedGraph {
+    final int n;
+    final int m;
+    private final int[] edgeOffsets; // arestas de v = [edgeOffsets[v], edgeOffsets[v + 1]) (indice dos pesos)
+    private final int[] byteOffsets; // bytes de v comecam em data[byteOffsets[v]]
+    private final byte[] data;
+    private final int[] weights;
+
+    private CompressedGraph(int n, int m, int[] edgeOffsets, int[] byteOffsets, byte[] data, int[] weights) {
+        this.n = n;
+        this.m = m;
+        this.edgeOffsets = edgeOffsets;
+        this.byteOffsets = byteOffsets;
+        this.data = data;
+        this.weights = weights;
+    }
+
+    static CompressedGraph compress(Graph graph) {
+        graph.build();
+        int n = graph.size();
+        int m = graph.edgeCount();
+        int[] edgeOffsets = new int[n + 2];
+        int[] byteOffsets = new int[n + 2];
+        int[] weights = new int[m];
+        byte[] data = new byte[Math.max(16, m + m / 2)];
+        int size = 0;
+        long[] row = new long[16]; // (destino << 32) | peso, para ordenar a lista
+
+        for (int u = 1; u <= n; u++) {
+            int degree = graph.endEdge(u) - graph.firstEdge(u);
+            edgeOffsets[u + 1] = edgeOffsets[u] + degree;
+            byteOffsets[u] = size;
+            if (row.length < degree) row = new long[Math.max(degree, row.length * 2)];
+            int k = 0;
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                row[k++] = ((long) graph.target(e) << 32) | (graph.weight(e) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(row, 0, k);
+
+            int previous = u;
+            for (int i = 0; i < k; i++) {
+                int v = (int) (row[i] >>> 32);
+                weights[edgeOffsets[u] + i] = (int) row[i];
+                int gap = i == 0 ? zigzag(v - u) : v - previous;
+                previous = v;
+                if (data.length - size < 5) data = Arrays.copyOf(data, data.length * 2);
+                // varint: 7 bits por byte, menos significativos primeiro
+                while ((gap & ~0x7F) != 0) {
+                    data[size++] = (byte) ((gap & 0x7F) | 0x80);
+                    gap >>>= 7;
+                }
+                data[size++] = (byte) gap;
+            }
+        }
+        byteOffsets[n + 1] = size;
+        return new CompressedGraph(n, m, edgeOffsets, byteOffsets, Arrays.copyOf(data, size), weights);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int outDegree(int v) {
+        return edgeOffsets[v + 1] - edgeOffsets[v];
+    }
+
+    // bytes so das listas de destinos
+    public long adjacencyBytes() {
+        return data.length;
+    }
+
+    public double bitsPerEdge() {
+        return m == 0 ? 0 : data.length * 8.0 / m;
+    }
+
+    // tudo: destinos, pesos e os dois vetores de offsets
+    public long totalBytes() {
+        return data.length + 4L * weights.length + 4L * edgeOffsets.length + 4L * byteOffsets.length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    // decodificador sequencial da lista de um vertice; um por busca (nao e thread-safe)
+    final class Cursor extends DijkstraSearch.Edges {
+        private int vertex;   // edge = indice da aresta atual (para o peso)
+        private int end;
+        private int position; // proximo byte a ler
+
+        @Override
+        void reset(int u) {
+            vertex = u;
+            edge = edgeOffsets[u] - 1;
+            end = edgeOffsets[u + 1];
+            position = byteOffsets[u];
+        }
+
+        @Override
+        boolean next() {
+            if (edge + 1 >= end) return false;
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            target = ++edge == edgeOffsets[vertex] ? vertex + unzigzag(value) : target + value;
+            weight = weights[edge];
+            return true;
+        }
+    }
+
+    // DFS iterativa (floresta completa); o cursor de cada vertice na pilha fica em cursorEdge/cursorByte
+    int dfsForest(int[] stack, int[] cursorEdge, int[] cursorByte, int[] cursorTarget, boolean[] visited) {
+        Arrays.fill(visited, false);
+        int seen = 0;
+        for (int root = 1; root <= n; root++) {
+            if (visited[root]) continue;
+            int top = 0;
+            stack[top++] = root;
+            visited[root] = true;
+            cursorEdge[root] = edgeOffsets[root];
+            cursorByte[root] = byteOffsets[root];
+            seen++;
+            while (top > 0) {
+                int u = stack[top - 1];
+                if (cursorEdge[u] < edgeOffsets[u + 1]) {
+                    int position = cursorByte[u];
+                    int value = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = data[position++];
+                        value |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    int v = cursorEdge[u] == edgeOffsets[u] ? u + unzigzag(value) : cursorTarget[u] + value;
+                    cursorEdge[u]++;
+                    cursorByte[u] = position;
+                    cursorTarget[u] = v;
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        cursorEdge[v] = edgeOffsets[v];
+                        cursorByte[v] = byteOffsets[v];
+                        stack[top++] = v;
+                        seen++;
+                    }
+                } else {
+                    top--;
+                }
+            }
+        }
+        return seen;
+    }
+
+    // BFS (floresta completa); devolve a soma das distancias em arestas
+    long bfsForest(int[] queue, int[] level) {
+        Arrays.fill(level, -1);
+        Cursor cursor = new Cursor();
+        long sum = 0;
+        for (int root = 1; root <= n; root++) {
+            if (level[root] >= 0) continue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            level[root] = 0;
+            while (head < tail) {
+                int u = queue[head++];
+                sum += level[u];
+                cursor.reset(u);
+                while (cursor.next()) {
+                    int v = cursor.target;
+                    if (level[v] < 0) {
+                        level[v] = level[u] + 1;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    // mesmo Dijkstra do ShortestPathEngine (chave (peso, arestas), para no destino), lendo o grafo compactado
+    PathResult query(QueryWorkspace ws, int source, int destination) {
+        DijkstraSearch search = new DijkstraSearch(ws);
+        search.start(source, new Cursor());
+        boolean found = search.run(destination);
+        return search.result(source, destination, found);
+    }
+
+    /**
+     * java ativ03.CompressedGraph <grafo.txt> [none|bfs|rcm|degree] [consultas] [semente]
+     * Mostra bits por aresta e quanto DFS, BFS e Dijkstra ficam mais lentos
+     * lendo o grafo compactado em vez do CSR (melhor de 5 execucoes). A
+     * renumeracao opcional (VertexOrdering) diminui os gaps antes de compactar.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ativ03.CompressedGraph <graph.txt> [none|bfs|rcm|degree] [queries] [seed]");
+            return;
+        }
+        Graph graph = Main.loadGraph(args[0]);
+        if (graph == null) return;
+        String order = args.length > 1 ? args[1].toUpperCase() : "NONE";
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        int n = graph.size();
+        int[] sources = new int[queries];
+        int[] destinations = new int[queries];
+        Random random = new Random(seed);
+        for (int i = 0; i < queries; i++) {
+            sources[i] = 1 + random.nextInt(n);
+            destinations[i] = 1 + random.nextInt(n);
+        }
+        if (!order.equals("NONE")) {
+            VertexOrdering ordering = VertexOrdering.apply(graph, VertexOrdering.Strategy.valueOf(order));
+            graph = ordering.graph;
+            for (int i = 0; i < queries; i++) {
+                sources[i] = ordering.toNew(sources[i]);
+                destinations[i] = ordering.toNew(destinations[i]);
+            }
+        }
+
+        long startTime = System.nanoTime();
+        CompressedGraph compressed = compress(graph);
+        double compressMs = (System.nanoTime() - startTime) / 1_000_000.0;
+        long csrBytes = 4L * (graph.size() + 2) + 8L * graph.edgeCount();
+
+        System.out.println("--- COMPRESSED ADJACENCY (" + n + " vertices, " + graph.edgeCount() + " edges, order "
+                + order + ") ---");
+        System.out.println("Compressed in " + String.format("%.3f", compressMs) + " ms");
+        System.out.println("Targets: " + String.format("%.2f", compressed.bitsPerEdge()) + " bits/edge (CSR: 32)"
+                + " | total with weights and offsets: " + compressed.totalBytes() + " bytes (CSR: " + csrBytes + ", "
+                + String.format("%.1f", 100.0 * compressed.totalBytes() / csrBytes) + "%)");
+
+        int[] a = new int[n + 1];
+        int[] b = new int[n + 1];
+        int[] c = new int[n + 1];
+        int[] d = new int[n + 1];
+        boolean[] visited = new boolean[n + 1];
+        QueryWorkspace ws = new QueryWorkspace(n, Main.HEAP_ARITY);
+        ShortestPathEngine engine = new ShortestPathEngine(graph, Main.HEAP_ARITY, 1);
+        double[] csr = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+        double[] packed = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+        long csrChecksum = 0;
+        long packedChecksum = 0;
+        try {
+            for (int run = 0; run < 5; run++) {
+                long start = System.nanoTime();
+                int csrSeen = VertexOrdering.dfsForest(graph, a, b, visited);
+                csr[0] = Math.min(csr[0], (System.nanoTime() - start) / 1_000_000.0);
+                start = System.nanoTime();
+                int packedSeen = compressed.dfsForest(a, b, c, d, visited);
+                packed[0] = Math.min(packed[0], (System.nanoTime() - start) / 1_000_000.0);
+
+                start = System.nanoTime();
+                csrChecksum = csrSeen + VertexOrdering.bfsForest(graph, a, b);
+                csr[1] = Math.min(csr[1], (System.nanoTime() - start) / 1_000_000.0);
+                start = System.nanoTime();
+                packedChecksum = packedSeen + compressed.bfsForest(a, b);
+                packed[1] = Math.min(packed[1], (System.nanoTime() - start) / 1_000_000.0);
+
+                start = System.nanoTime();
+                for (int i = 0; i < queries; i++) {
+                    PathResult r = engine.query(ws, sources[i], destinations[i]);
+                    if (r.found()) csrChecksum += r.weight * 31 + r.edges;
+                }
+                csr[2] = Math.min(csr[2], (System.nanoTime() - start) / 1_000_000.0);
+                start = System.nanoTime();
+                for (int i = 0; i < queries; i++) {
+                    PathResult r = compressed.query(ws, sources[i], destinations[i]);
+                    if (r.found()) packedChecksum += r.weight * 31 + r.edges;
+                }
+                packed[2] = Math.min(packed[2], (System.nanoTime() - start) / 1_000_000.0);
+            }
+        } finally {
+            engine.close();
+        }
+
+        String[] names = { "DFS", "BFS", "Dijkstra (" + queries + " queries)" };
+        for (int i = 0; i < 3; i++) {
+            System.out.println(String.format("%-24s CSR %10.3f ms | compressed %10.3f ms | slowdown %.2fx",
+                    names[i], csr[i], packed[i], packed[i] / csr[i]));
+        }
+        System.out.println("Checksums " + (csrChecksum == packedChecksum ? "match" : "DIFFER") + ": " + csrChecksum);
+    }
+}
@@ -0,0 +1,125 @@
+package ativ03;
+
+import common.CheckReport;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Conferencia do grafo compactado (CompressedGraph, delta + varint) nos
+ * grafos tree_* e euler_* da pasta graphs: o Cursor devolve a lista de cada
+ * vertice ordenada, com os mesmos destinos e pesos do CSR; graus, bytes e
+ * bits por aresta batem; a DFS visita todos os vertices, a BFS da a mesma
+ * soma de niveis que uma BFS no CSR; as consultas batem com o Dijkstra de
+ * referencia (ShortestPathReference). Tambem confere um grafo de FAR
+ * vertices com o primeiro destino bem antes e bem depois da origem (zigzag
+ * de 4 bytes) e arestas repetidas (gap 0).
+ *
+ * java ativ03.CompressedGraphCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class CompressedGraphCheck {
+    private static final int FAR = 1 << 22;
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        Graph graph = ref.graph;
+        int n = graph.size();
+        CompressedGraph compressed = CompressedGraph.compress(graph);
+        checkAdjacency(report, ref.name, graph, compressed);
+
+        int seen = compressed.dfsForest(new int[n + 1], new int[n + 1], new int[n + 1], new int[n + 1], new boolean[n + 1]);
+        report.check(seen == n, ref.name + ": DFS forest visits " + seen + " of " + n + " vertices");
+        report.check(compressed.bfsForest(new int[n + 1], new int[n + 1]) == bfsLevels(graph),
+                ref.name + ": BFS levels differ from the CSR");
+
+        QueryWorkspace ws = new QueryWorkspace(n, Main.HEAP_ARITY);
+        for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+            ref.checkPair(report, "compressed", i, compressed.query(ws, ref.sources[i], ref.destinations[i]));
+        }
+        report.endSection(ref.name);
+    }
+
+    // cada lista decodificada e a do CSR ordenada por (destino, peso)
+    private static void checkAdjacency(CheckReport report, String name, Graph graph, CompressedGraph compressed) {
+        int n = graph.size();
+        report.check(compressed.size() == n && compressed.m == graph.edgeCount(), name + ": n/m");
+        CompressedGraph.Cursor cursor = compressed.cursor();
+        boolean sameEdges = true;
+        boolean sameDegrees = true;
+        for (int v = 1; v <= n && sameEdges; v++) {
+            int degree = graph.endEdge(v) - graph.firstEdge(v);
+            sameDegrees &= compressed.outDegree(v) == degree;
+            long[] expected = new long[degree];
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                expected[e - graph.firstEdge(v)] = ((long) graph.target(e) << 32) | (graph.weight(e) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(expected);
+            long[] decoded = new long[degree + 1];
+            int k = 0;
+            cursor.reset(v);
+            while (k <= degree && cursor.next()) {
+                decoded[k++] = ((long) cursor.target << 32) | (cursor.weight & 0xFFFFFFFFL);
+            }
+            sameEdges = k == degree && Arrays.equals(expected, Arrays.copyOf(decoded, k));
+        }
+        report.check(sameEdges, name + ": compressed adjacency differs from the CSR");
+        report.check(sameDegrees, name + ": out-degrees");
+        report.check(compressed.adjacencyBytes() <= 5L * compressed.m
+                && compressed.bitsPerEdge() == (compressed.m == 0 ? 0 : compressed.adjacencyBytes() * 8.0 / compressed.m),
+                name + ": " + compressed.bitsPerEdge() + " bits per edge");
+    }
+
+    // soma dos niveis da BFS (floresta a partir de 1..n) no CSR
+    private static long bfsLevels(Graph graph) {
+        int n = graph.size();
+        int[] level = new int[n + 1];
+        Arrays.fill(level, -1);
+        int[] queue = new int[n];
+        long sum = 0;
+        for (int root = 1; root <= n; root++) {
+            if (level[root] >= 0) continue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            level[root] = 0;
+            while (head < tail) {
+                int u = queue[head++];
+                sum += level[u];
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    if (level[graph.target(e)] < 0) {
+                        level[graph.target(e)] = level[u] + 1;
+                        queue[tail++] = graph.target(e);
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    // 1 -> FAR, FAR -> 1, FAR -> 2 e 2 -> 3 duas vezes (pesos 7 e 5)
+    private static void checkGaps(CheckReport report) {
+        Graph graph = new Graph(FAR);
+        graph.addEdge(1, FAR, 1);
+        graph.addEdge(FAR, 1, 2);
+        graph.addEdge(FAR, 2, 3);
+        graph.addEdge(2, 3, 7);
+        graph.addEdge(2, 3, 5);
+        graph.build();
+        CompressedGraph compressed = CompressedGraph.compress(graph);
+        checkAdjacency(report, "gaps", graph, compressed);
+        report.check(compressed.adjacencyBytes() == 4 + 4 + 1 + 1 + 1, "gaps: " + compressed.adjacencyBytes() + " bytes");
+        report.endSection("gaps");
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        checkGaps(report);
+        report.finish();
+    }
+}
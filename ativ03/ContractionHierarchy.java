@@ -0,0 +1,565 @@
+package ativ03;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchies (Geisberger et al.).
+ * Os vertices sao contraidos um a um (primeiro os "menos importantes"):
+ * ao contrair v, cada par u -> v -> w sem caminho alternativo tao bom
+ * (busca de testemunha) vira um atalho u -> w. A ordem de contracao e o
+ * rank do vertice. Na consulta, uma busca sobe a partir da origem e outra
+ * sobe (pelas arestas ao contrario) a partir do destino; o melhor encontro
+ * e o caminho minimo. Os atalhos guardam as duas arestas que substituem,
+ * entao o caminho original e desempacotado no final.
+ *
+ * Em grafos sem estrutura (como os euler_*), contrair os ultimos vertices
+ * gera atalhos demais. Quando o proximo vertice precisaria de mais de
+ * CORE_SHORTCUT_LIMIT atalhos a contracao para: o que sobra e o "nucleo",
+ * onde as duas buscas andam por todos os arcos entre vertices do nucleo
+ * (um Dijkstra bidirecional comum dentro dele).
+ *
+ * O custo de toda aresta e o par (peso, numero de arestas), comparado nessa
+ * ordem, como no Dijkstra do Main.
+ *
+ * Nos euler_* o nucleo fica grande e a consulta perde para o Dijkstra que
+ * para no destino (0.5x no euler_1000, 0.25x no euler_10000); sem o limite
+ * do nucleo a contracao do euler_10000 nem termina. Nas arvores (tree_*)
+ * ganha pouco (1.0x a 1.5x). Por isso o RouteIndexReport so monta o CH quando pedido ("ch").
+ */
+class ContractionHierarchy implements RouteIndex {
+    private static final int MAGIC = 0x43484933; // "CHI3" (2 nao tinha o CRC do .txt)
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int CORE_SHORTCUT_LIMIT = 16;
+
+    private final Graph graph;
+    private final int n;
+    private final int[] rank;
+    private final int coreRank; // vertices com rank >= coreRank formam o nucleo (nao contraido)
+
+    // arcos (originais e atalhos)
+    private final int arcCount;
+    private final int[] arcFrom;
+    private final int[] arcTo;
+    private final long[] arcWeight;
+    private final int[] arcEdges;
+    private final int[] arcFirst;  // primeiro arco substituido (-1 se original)
+    private final int[] arcSecond; // segundo arco substituido
+
+    // grafo de busca para cima: up[u] = arcos u -> w com rank[w] > rank[u]
+    private int[] upOffsets;
+    private int[] upArcs;
+    // grafo de busca para cima ao contrario: down[w] = arcos u -> w com rank[u] > rank[w]
+    private int[] downOffsets;
+    private int[] downArcs;
+
+    // consultas (nao thread-safe); parentEdge de cada busca e o arco usado
+    private final DijkstraSearch forward;
+    private final DijkstraSearch backward;
+
+    private ContractionHierarchy(Graph graph, int[] rank, int coreRank, int arcCount, int[] arcFrom, int[] arcTo,
+            long[] arcWeight, int[] arcEdges, int[] arcFirst, int[] arcSecond) {
+        this.graph = graph;
+        this.n = graph.size();
+        this.rank = rank;
+        this.coreRank = coreRank;
+        this.arcCount = arcCount;
+        this.arcFrom = arcFrom;
+        this.arcTo = arcTo;
+        this.arcWeight = arcWeight;
+        this.arcEdges = arcEdges;
+        this.arcFirst = arcFirst;
+        this.arcSecond = arcSecond;
+        this.forward = new DijkstraSearch(new QueryWorkspace(n, Main.HEAP_ARITY), true);
+        this.backward = new DijkstraSearch(new QueryWorkspace(n, Main.HEAP_ARITY), true);
+        buildSearchGraphs();
+    }
+
+    // arcos do grafo de busca (up ou down) como cursor do DijkstraSearch
+    private DijkstraSearch.Edges searchEdges(int[] offsets, int[] arcs, boolean up) {
+        return new DijkstraSearch.Edges() {
+            private int i;
+            private int end;
+
+            @Override
+            void reset(int u) {
+                i = offsets[u] - 1;
+                end = offsets[u + 1];
+            }
+
+            @Override
+            boolean next() {
+                if (++i >= end) return false;
+                int a = arcs[i];
+                target = up ? arcTo[a] : arcFrom[a];
+                weight = arcWeight[a];
+                hops = arcEdges[a];
+                edge = a;
+                return true;
+            }
+        };
+    }
+
+    private boolean isUp(int a) {
+        return rank[arcTo[a]] > rank[arcFrom[a]] || rank[arcFrom[a]] >= coreRank;
+    }
+
+    private boolean isDown(int a) {
+        return rank[arcFrom[a]] > rank[arcTo[a]] || rank[arcTo[a]] >= coreRank;
+    }
+
+    // arcos dentro do nucleo entram nos dois grafos de busca
+    private void buildSearchGraphs() {
+        upOffsets = new int[n + 2];
+        downOffsets = new int[n + 2];
+        for (int a = 0; a < arcCount; a++) {
+            if (isUp(a)) upOffsets[arcFrom[a] + 1]++;
+            if (isDown(a)) downOffsets[arcTo[a] + 1]++;
+        }
+        for (int v = 1; v <= n + 1; v++) {
+            upOffsets[v] += upOffsets[v - 1];
+            downOffsets[v] += downOffsets[v - 1];
+        }
+        upArcs = new int[upOffsets[n + 1]];
+        downArcs = new int[downOffsets[n + 1]];
+        int[] upNext = Arrays.copyOf(upOffsets, n + 1);
+        int[] downNext = Arrays.copyOf(downOffsets, n + 1);
+        for (int a = 0; a < arcCount; a++) {
+            if (isUp(a)) upArcs[upNext[arcFrom[a]]++] = a;
+            if (isDown(a)) downArcs[downNext[arcTo[a]]++] = a;
+        }
+    }
+
+    // ---------------------------------------------------------------- pre-processamento
+
+    static ContractionHierarchy build(Graph graph) {
+        return new Builder(graph).run();
+    }
+
+    private static boolean lessCost(long w1, int e1, long w2, int e2) {
+        return w1 < w2 || (w1 == w2 && e1 < e2);
+    }
+
+    /** Estado da contracao: grafo dinamico com listas de arcos por vertice. */
+    private static class Builder {
+        private final Graph graph;
+        private final int n;
+        private final IntList[] out;
+        private final IntList[] in;
+        private final boolean[] contracted;
+        private final int[] deletedNeighbors;
+        private final int[] rank;
+
+        private int arcCount;
+        private int[] arcFrom = new int[16];
+        private int[] arcTo = new int[16];
+        private long[] arcWeight = new long[16];
+        private int[] arcEdges = new int[16];
+        private int[] arcFirst = new int[16];
+        private int[] arcSecond = new int[16];
+
+        // busca de testemunha
+        private final QueryWorkspace witness;
+        private final DijkstraSearch witnessSearch;
+        private final DijkstraSearch.Edges remainingArcs;
+        private int excluded; // vertice sendo contraido (a testemunha nao passa por ele)
+        private final int[] targetMark;
+        private int targetStamp;
+
+        // atalhos calculados pela ultima chamada de findShortcuts
+        private final IntList shortcutIn = new IntList(16);  // arco u -> v
+        private final IntList shortcutOut = new IntList(16); // arco v -> w
+
+        Builder(Graph graph) {
+            this.graph = graph;
+            this.n = graph.size();
+            out = new IntList[n + 1];
+            in = new IntList[n + 1];
+            for (int v = 0; v <= n; v++) {
+                out[v] = new IntList(4);
+                in[v] = new IntList(4);
+            }
+            contracted = new boolean[n + 1];
+            deletedNeighbors = new int[n + 1];
+            rank = new int[n + 1];
+            witness = new QueryWorkspace(n, Main.HEAP_ARITY);
+            witnessSearch = new DijkstraSearch(witness);
+            remainingArcs = new DijkstraSearch.Edges() {
+                private IntList arcs;
+                private int i;
+
+                @Override
+                void reset(int u) {
+                    arcs = out[u];
+                    i = -1;
+                }
+
+                @Override
+                boolean next() {
+                    while (++i < arcs.size) {
+                        int a = arcs.data[i];
+                        int y = arcTo[a];
+                        if (y == excluded || contracted[y]) continue;
+                        target = y;
+                        weight = arcWeight[a];
+                        hops = arcEdges[a];
+                        return true;
+                    }
+                    return false;
+                }
+            };
+            targetMark = new int[n + 1];
+
+            // arcos originais: sem lacos e sem paralelos (fica o de menor peso)
+            int[] best = new int[n + 1];
+            Arrays.fill(best, -1);
+            for (int u = 1; u <= n; u++) {
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    int v = graph.target(e);
+                    if (v == u) continue;
+                    int a = best[v];
+                    if (a >= 0 && arcFrom[a] == u) {
+                        if (graph.weight(e) < arcWeight[a]) arcWeight[a] = graph.weight(e);
+                        continue;
+                    }
+                    best[v] = addArc(u, v, graph.weight(e), 1, -1, -1);
+                }
+            }
+        }
+
+        private int addArc(int u, int v, long weight, int edges, int first, int second) {
+            if (arcCount == arcFrom.length) {
+                int cap = arcCount * 2;
+                arcFrom = Arrays.copyOf(arcFrom, cap);
+                arcTo = Arrays.copyOf(arcTo, cap);
+                arcWeight = Arrays.copyOf(arcWeight, cap);
+                arcEdges = Arrays.copyOf(arcEdges, cap);
+                arcFirst = Arrays.copyOf(arcFirst, cap);
+                arcSecond = Arrays.copyOf(arcSecond, cap);
+            }
+            int a = arcCount++;
+            arcFrom[a] = u;
+            arcTo[a] = v;
+            arcWeight[a] = weight;
+            arcEdges[a] = edges;
+            arcFirst[a] = first;
+            arcSecond[a] = second;
+            out[u].add(a);
+            in[v].add(a);
+            return a;
+        }
+
+        /**
+         * Calcula quais atalhos a contracao de v precisaria (em shortcutIn/shortcutOut).
+         * Para cada vizinho de entrada u roda uma busca limitada a partir de u
+         * sem passar por v; se algum w ficar sem testemunha tao boa quanto
+         * u -> v -> w, o atalho e necessario.
+         */
+        private void findShortcuts(int v) {
+            shortcutIn.clear();
+            shortcutOut.clear();
+            IntList ins = in[v];
+            IntList outs = out[v];
+
+            for (int i = 0; i < ins.size; i++) {
+                int a1 = ins.data[i];
+                int u = arcFrom[a1];
+                if (contracted[u]) continue;
+
+                // alvos: w's alcancaveis por u -> v -> w
+                targetStamp++;
+                long maxWeight = -1;
+                int maxEdges = 0;
+                int targets = 0;
+                for (int j = 0; j < outs.size; j++) {
+                    int a2 = outs.data[j];
+                    int w = arcTo[a2];
+                    if (contracted[w] || w == u) continue;
+                    long cw = arcWeight[a1] + arcWeight[a2];
+                    int ce = arcEdges[a1] + arcEdges[a2];
+                    if (maxWeight < 0 || lessCost(maxWeight, maxEdges, cw, ce)) {
+                        maxWeight = cw;
+                        maxEdges = ce;
+                    }
+                    if (targetMark[w] != targetStamp) {
+                        targetMark[w] = targetStamp;
+                        targets++;
+                    }
+                }
+                if (targets == 0) continue;
+
+                witnessSearch(u, v, maxWeight, maxEdges, targets);
+
+                for (int j = 0; j < outs.size; j++) {
+                    int a2 = outs.data[j];
+                    int w = arcTo[a2];
+                    if (contracted[w] || w == u) continue;
+                    long cw = arcWeight[a1] + arcWeight[a2];
+                    int ce = arcEdges[a1] + arcEdges[a2];
+                    long ww = witness.dist(w);
+                    // existe caminho sem v com custo <= u -> v -> w: atalho desnecessario
+                    if (ww != Long.MAX_VALUE && !lessCost(cw, ce, ww, witness.numEdges(w))) continue;
+                    shortcutIn.add(a1);
+                    shortcutOut.add(a2);
+                }
+            }
+        }
+
+        // Dijkstra limitado a partir de u, ignorando v e os ja contraidos
+        private void witnessSearch(int u, int v, long maxWeight, int maxEdges, int targets) {
+            excluded = v;
+            DijkstraSearch search = witnessSearch;
+            search.start(u, remainingArcs);
+            while (!search.isEmpty() && search.settled < WITNESS_SETTLE_LIMIT) {
+                if (lessCost(maxWeight, maxEdges, search.minKey(), search.minTie())) break;
+                int x = search.settle();
+                if (targetMark[x] == targetStamp && --targets == 0) break;
+                search.relax(x);
+            }
+        }
+
+        private int activeDegree(IntList arcs, boolean outgoing) {
+            int degree = 0;
+            for (int i = 0; i < arcs.size; i++) {
+                int a = arcs.data[i];
+                if (!contracted[outgoing ? arcTo[a] : arcFrom[a]]) degree++;
+            }
+            return degree;
+        }
+
+        // prioridade: atalhos - arestas removidas + vizinhos ja contraidos
+        private long priority(int v) {
+            findShortcuts(v);
+            return shortcutIn.size - activeDegree(in[v], false) - activeDegree(out[v], true)
+                    + deletedNeighbors[v];
+        }
+
+        private void contract(int v) {
+            findShortcuts(v);
+            for (int i = 0; i < shortcutIn.size; i++) {
+                int a1 = shortcutIn.data[i];
+                int a2 = shortcutOut.data[i];
+                int u = arcFrom[a1];
+                int w = arcTo[a2];
+                long weight = arcWeight[a1] + arcWeight[a2];
+                int edges = arcEdges[a1] + arcEdges[a2];
+
+                // ja existe arco u -> w tao bom quanto? entao o atalho nao precisa
+                // (arcos nunca sao alterados: outros atalhos podem apontar para eles)
+                boolean covered = false;
+                IntList outs = out[u];
+                for (int j = 0; j < outs.size && !covered; j++) {
+                    int a = outs.data[j];
+                    covered = arcTo[a] == w && !lessCost(weight, edges, arcWeight[a], arcEdges[a]);
+                }
+                if (!covered) {
+                    addArc(u, w, weight, edges, a1, a2);
+                }
+            }
+            contracted[v] = true;
+            for (int i = 0; i < in[v].size; i++) deletedNeighbors[arcFrom[in[v].data[i]]]++;
+            for (int i = 0; i < out[v].size; i++) deletedNeighbors[arcTo[out[v].data[i]]]++;
+        }
+
+        ContractionHierarchy run() {
+            // fila de prioridade com atualizacao preguicosa
+            IndexedDaryHeap queue = new IndexedDaryHeap(n + 1, Main.HEAP_ARITY);
+            long offset = 4L * Math.max(1, graph.edgeCount()); // chaves nao negativas
+            for (int v = 1; v <= n; v++) {
+                queue.insert(v, priority(v) + offset, v);
+            }
+
+            int order = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.extractMin();
+                long p = priority(v) + offset;
+                if (!queue.isEmpty() && p > queue.minKey()) {
+                    queue.insert(v, p, v); // prioridade piorou: volta para a fila
+                    continue;
+                }
+                if (shortcutIn.size > CORE_SHORTCUT_LIMIT) {
+                    queue.insert(v, p, v);
+                    break; // o resto vira o nucleo
+                }
+                contract(v);
+                rank[v] = ++order;
+            }
+
+            // nucleo: ranks acima de todos os contraidos
+            int coreRank = order + 1;
+            while (!queue.isEmpty()) {
+                rank[queue.extractMin()] = ++order;
+            }
+
+            return new ContractionHierarchy(graph, rank, coreRank, arcCount, arcFrom, arcTo, arcWeight, arcEdges,
+                    arcFirst, arcSecond);
+        }
+    }
+
+    // ---------------------------------------------------------------- consulta
+
+    @Override
+    public PathResult query(int source, int destination) {
+        graph.firstEdge(source);
+        graph.firstEdge(destination);
+
+        forward.start(source, searchEdges(upOffsets, upArcs, true));
+        backward.start(destination, searchEdges(downOffsets, downArcs, false));
+
+        long bestWeight = Long.MAX_VALUE;
+        int bestEdges = Integer.MAX_VALUE;
+        int meet = -1;
+
+        while (!forward.isEmpty() || !backward.isEmpty()) {
+            // cada lado so continua enquanto pode melhorar o melhor encontro
+            boolean forwardOpen = !forward.isEmpty()
+                    && lessCost(forward.minKey(), forward.minTie(), bestWeight, bestEdges);
+            boolean backwardOpen = !backward.isEmpty()
+                    && lessCost(backward.minKey(), backward.minTie(), bestWeight, bestEdges);
+            if (!forwardOpen && !backwardOpen) break;
+
+            boolean goForward = forwardOpen && (!backwardOpen
+                    || !lessCost(backward.minKey(), backward.minTie(), forward.minKey(), forward.minTie()));
+            DijkstraSearch side = goForward ? forward : backward;
+            QueryWorkspace other = goForward ? backward.ws : forward.ws;
+
+            int u = side.settle();
+            if (other.visited(u)) {
+                long total = side.ws.dist[u] + other.dist[u];
+                int totalEdges = side.ws.numEdges[u] + other.numEdges[u];
+                if (lessCost(total, totalEdges, bestWeight, bestEdges)) {
+                    bestWeight = total;
+                    bestEdges = totalEdges;
+                    meet = u;
+                }
+            }
+            side.relax(u);
+        }
+        long settled = forward.settled + backward.settled;
+
+        if (meet == -1) {
+            PathResult result = PathResult.notFound(source, destination);
+            result.settled = settled;
+            return result;
+        }
+
+        // arcos do caminho: source -> meet (ao contrario) e meet -> destination
+        IntList arcs = new IntList(16);
+        for (int v = meet; v != source; v = arcFrom[forward.parentEdge(v)]) {
+            arcs.add(forward.parentEdge(v));
+        }
+        for (int i = 0, j = arcs.size - 1; i < j; i++, j--) {
+            int tmp = arcs.data[i];
+            arcs.data[i] = arcs.data[j];
+            arcs.data[j] = tmp;
+        }
+        for (int v = meet; v != destination; v = arcTo[backward.parentEdge(v)]) {
+            arcs.add(backward.parentEdge(v));
+        }
+
+        int[] path = new int[bestEdges + 1];
+        path[0] = source;
+        int length = 1;
+        int[] stack = new int[64];
+        for (int i = 0; i < arcs.size; i++) {
+            // desempacota o atalho com pilha explicita (primeiro arco no topo)
+            int top = 0;
+            stack[top++] = arcs.data[i];
+            while (top > 0) {
+                int a = stack[--top];
+                if (arcFirst[a] < 0) {
+                    path[length++] = arcTo[a];
+                } else {
+                    if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                    stack[top++] = arcSecond[a];
+                    stack[top++] = arcFirst[a];
+                }
+            }
+        }
+
+        PathResult result = new PathResult(source, destination, bestWeight, bestEdges, path);
+        result.settled = settled;
+        return result;
+    }
+
+    public int coreSize() {
+        return n - coreRank + 1;
+    }
+
+    public int shortcutCount() {
+        int count = 0;
+        for (int a = 0; a < arcCount; a++) {
+            if (arcFirst[a] >= 0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long sizeBytes() {
+        return 4L * (n + 1) + 32L * arcCount + 4L * (upOffsets.length + downOffsets.length)
+                + 4L * (upArcs.length + downArcs.length);
+    }
+
+    @Override
+    public void save(String fileName, long sourceCrc) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(n);
+            out.writeInt(graph.edgeCount());
+            out.writeLong(sourceCrc);
+            out.writeInt(arcCount);
+            out.writeInt(coreRank);
+            for (int v = 0; v <= n; v++) out.writeInt(rank[v]);
+            for (int a = 0; a < arcCount; a++) {
+                out.writeInt(arcFrom[a]);
+                out.writeInt(arcTo[a]);
+                out.writeLong(arcWeight[a]);
+                out.writeInt(arcEdges[a]);
+                out.writeInt(arcFirst[a]);
+                out.writeInt(arcSecond[a]);
+            }
+        }
+    }
+
+    // so aceita o indice se n, m e o CRC32 do arquivo de origem baterem
+    static ContractionHierarchy load(Graph graph, String fileName, long sourceCrc) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(fileName), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Arquivo nao e uma contraction hierarchy: '" + fileName + "'");
+            }
+            int n = in.readInt();
+            int m = in.readInt();
+            long crc = in.readLong();
+            if (n != graph.size() || m != graph.edgeCount() || crc != sourceCrc) {
+                throw new IOException("Contraction hierarchy de outro grafo: '" + fileName + "'");
+            }
+            int arcCount = in.readInt();
+            int coreRank = in.readInt();
+            int[] rank = new int[n + 1];
+            for (int v = 0; v <= n; v++) rank[v] = in.readInt();
+            int[] from = new int[arcCount];
+            int[] to = new int[arcCount];
+            long[] weight = new long[arcCount];
+            int[] edges = new int[arcCount];
+            int[] first = new int[arcCount];
+            int[] second = new int[arcCount];
+            for (int a = 0; a < arcCount; a++) {
+                from[a] = in.readInt();
+                to[a] = in.readInt();
+                weight[a] = in.readLong();
+                edges[a] = in.readInt();
+                first[a] = in.readInt();
+                second[a] = in.readInt();
+            }
+            return new ContractionHierarchy(graph, rank, coreRank, arcCount, from, to, weight, edges, first, second);
+        }
+    }
+}
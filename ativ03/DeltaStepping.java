@@ -0,0 +1,319 @@
+package ativ03;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SSSP paralelo por delta-stepping (Meyer e Sanders).
+ * Os vertices ficam em baldes de largura delta pela distancia. Dentro de um
+ * balde as arestas leves (peso <= delta) sao relaxadas em paralelo ate o
+ * balde esvaziar; depois as arestas pesadas dos vertices que sairam do balde
+ * sao relaxadas uma vez.
+ *
+ * Peso e numero de arestas ficam juntos em um long ("packed"): peso nos bits
+ * altos e arestas nos 24 bits baixos. Comparar os longs e comparar o par
+ * (peso, arestas), entao um compareAndSet de "menor valor" ja aplica o
+ * desempate pelo menor numero de arestas, sem lock.
+ *
+ * Os baldes sao um vetor circular de IntList indexado por dist / delta.
+ * Uma relaxacao a partir do balde i cai no maximo em i + 1 + pesoMaximo / delta,
+ * entao pesoMaximo / delta + 2 posicoes bastam e nenhuma e usada por dois
+ * baldes vivos ao mesmo tempo.
+ */
+class DeltaStepping {
+    static final int EDGE_BITS = 24;
+    static final long EDGE_MASK = (1L << EDGE_BITS) - 1;
+    static final long DIST_LIMIT = 1L << (63 - EDGE_BITS);
+    static final long INF = Long.MAX_VALUE;
+    private static final int SPLIT = 256; // vertices por tarefa do ForkJoin
+
+    private final Graph graph;
+    private final int delta;
+    private final ForkJoinPool pool;
+    private final IntList[] buckets; // balde i fica em buckets[i % buckets.length]
+
+    // estado da execucao atual
+    private AtomicLongArray packed;
+    private long pending; // entradas somadas de todos os baldes (inclusive velhas)
+
+    public DeltaStepping(Graph graph, int delta, ForkJoinPool pool) {
+        if (delta < 1) {
+            throw new IllegalArgumentException("Delta invalido: " + delta);
+        }
+        this.graph = graph;
+        this.delta = delta;
+        this.pool = pool;
+        graph.buildReverse(); // usado para reconstruir o parent no final
+        buckets = new IntList[maxWeight(graph) / delta + 2];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new IntList(16);
+        }
+    }
+
+    private static int maxWeight(Graph graph) {
+        int maxWeight = 1;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            maxWeight = Math.max(maxWeight, graph.weight(e));
+        }
+        return maxWeight;
+    }
+
+    // delta sugerido: peso maximo / grau medio (pelo menos 1)
+    static int suggestedDelta(Graph graph) {
+        int maxWeight = maxWeight(graph);
+        double avgDegree = Math.max(1.0, graph.edgeCount() / (double) Math.max(1, graph.size()));
+        return Math.max(1, (int) (maxWeight / avgDegree));
+    }
+
+    static long pack(long dist, int edges) {
+        if (dist >= DIST_LIMIT || edges > EDGE_MASK) {
+            throw new ArithmeticException("Caminho fora do limite do delta-stepping: " + dist + "/" + edges);
+        }
+        return (dist << EDGE_BITS) | edges;
+    }
+
+    public ShortestPathTree run(int source) {
+        int n = graph.size();
+        graph.firstEdge(source); // valida o vertice
+        packed = new AtomicLongArray(n + 1);
+        for (int v = 0; v <= n; v++) {
+            packed.set(v, INF);
+        }
+        packed.set(source, 0);
+
+        int[] inSettled = new int[n + 1];  // inSettled[v] == round: v ja esta em R neste balde
+        int[] inFrontier = new int[n + 1]; // inFrontier[v] == pass: v ja esta na fronteira desta passada
+        int round = 0;
+        int pass = 0;
+        for (IntList bucket : buckets) bucket.clear();
+        pending = 0;
+        add(0, source);
+
+        IntList current = new IntList(16); // troca de lugar com o balde sendo esvaziado
+        IntList frontier = new IntList(16);
+        IntList settled = new IntList(16);
+        long index = 0;
+        while (pending > 0) {
+            while (buckets[(int) (index % buckets.length)].size == 0) index++;
+            int slot = (int) (index % buckets.length);
+            settled.clear();
+            round++;
+
+            // fase leve: repete enquanto o balde recebe vertices
+            while (buckets[slot].size > 0) {
+                IntList taken = buckets[slot];
+                buckets[slot] = current;
+                current = taken;
+                pending -= current.size;
+                frontier.clear();
+                pass++;
+                for (int i = 0; i < current.size; i++) {
+                    int v = current.data[i];
+                    // entrada velha (distancia mudou de balde) ou repetida
+                    if ((packed.get(v) >>> EDGE_BITS) / delta != index || inFrontier[v] == pass) continue;
+                    inFrontier[v] = pass;
+                    frontier.add(v);
+                    if (inSettled[v] != round) {
+                        inSettled[v] = round;
+                        settled.add(v);
+                    }
+                }
+                current.clear();
+                if (frontier.size > 0) {
+                    distribute(pool.invoke(new RelaxTask(frontier.data, 0, frontier.size, true)));
+                }
+            }
+
+            // fase pesada: as distancias do balde ja sao finais
+            if (settled.size > 0) {
+                distribute(pool.invoke(new RelaxTask(settled.data, 0, settled.size, false)));
+            }
+            index++;
+        }
+
+        // resultado em vetores normais + parent reconstruido em paralelo
+        long[] dist = new long[n + 1];
+        int[] numEdges = new int[n + 1];
+        int[] parent = new int[n + 1];
+        pool.invoke(new ParentTask(source, dist, numEdges, parent, 0, n + 1));
+        return new ShortestPathTree(source, dist, numEdges, parent);
+    }
+
+    private void add(long index, int v) {
+        buckets[(int) (index % buckets.length)].add(v);
+        pending++;
+    }
+
+    // coloca cada vertice melhorado no balde da sua distancia atual
+    private void distribute(IntList improved) {
+        for (int i = 0; i < improved.size; i++) {
+            int v = improved.data[i];
+            add((packed.get(v) >>> EDGE_BITS) / delta, v);
+        }
+    }
+
+    // relaxa as arestas leves (ou pesadas) de vertices[from, to); devolve quem melhorou
+    private class RelaxTask extends RecursiveTask<IntList> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] vertices;
+        private final int from;
+        private final int to;
+        private final boolean light;
+
+        RelaxTask(int[] vertices, int from, int to, boolean light) {
+            this.vertices = vertices;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (to - from > SPLIT) {
+                int mid = (from + to) >>> 1;
+                RelaxTask left = new RelaxTask(vertices, from, mid, light);
+                left.fork();
+                IntList right = new RelaxTask(vertices, mid, to, light).compute();
+                IntList result = left.join();
+                result.addAll(right);
+                return result;
+            }
+
+            IntList improved = new IntList(16);
+            for (int i = from; i < to; i++) {
+                int u = vertices[i];
+                long pu = packed.get(u);
+                long du = pu >>> EDGE_BITS;
+                int eu = (int) (pu & EDGE_MASK);
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    int w = graph.weight(e);
+                    if ((w <= delta) != light) continue;
+                    int v = graph.target(e);
+                    long candidate = pack(du + w, eu + 1);
+                    // CAS ate conseguir gravar ou alguem gravar um valor melhor
+                    long current = packed.get(v);
+                    while (candidate < current) {
+                        if (packed.compareAndSet(v, current, candidate)) {
+                            improved.add(v);
+                            break;
+                        }
+                        current = packed.get(v);
+                    }
+                }
+            }
+            return improved;
+        }
+    }
+
+    /**
+     * Desempacota dist/numEdges e escolhe como parent de v o primeiro
+     * predecessor u com packed[u] + (w, 1) == packed[v] (sempre existe).
+     */
+    private class ParentTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int source;
+        private final long[] dist;
+        private final int[] numEdges;
+        private final int[] parent;
+        private final int from;
+        private final int to;
+
+        ParentTask(int source, long[] dist, int[] numEdges, int[] parent, int from, int to) {
+            this.source = source;
+            this.dist = dist;
+            this.numEdges = numEdges;
+            this.parent = parent;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT * 16) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParentTask(source, dist, numEdges, parent, from, mid),
+                        new ParentTask(source, dist, numEdges, parent, mid, to));
+                return;
+            }
+            for (int v = from; v < to; v++) {
+                long pv = packed.get(v);
+                parent[v] = -1;
+                if (pv == INF) {
+                    dist[v] = Long.MAX_VALUE;
+                    numEdges[v] = Integer.MAX_VALUE;
+                    continue;
+                }
+                dist[v] = pv >>> EDGE_BITS;
+                numEdges[v] = (int) (pv & EDGE_MASK);
+                if (v == source) continue;
+                for (int e = graph.firstInEdge(v); e < graph.endInEdge(v); e++) {
+                    long pu = packed.get(graph.source(e));
+                    if (pu != INF && pack((pu >>> EDGE_BITS) + graph.inWeight(e),
+                            (int) (pu & EDGE_MASK) + 1) == pv) {
+                        parent[v] = graph.source(e);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Benchmark: compara com o Dijkstra sequencial (mesmos dist e numEdges)
+     * e mede o tempo com 1, 2, 4, ... ate N threads.
+     * java ativ03.DeltaStepping <grafo.txt> [delta] [origens]
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ativ03.DeltaStepping <graph.txt> [delta] [sources]");
+            return;
+        }
+        Graph graph = Main.loadGraph(args[0]);
+        if (graph == null) return;
+        int delta = args.length > 1 ? Integer.parseInt(args[1]) : suggestedDelta(graph);
+        int sources = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        int[] sourceList = new int[sources];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < sources; i++) {
+            sourceList[i] = 1 + random.nextInt(graph.size());
+        }
+
+        System.out.println("--- DELTA-STEPPING BENCHMARK ---");
+        System.out.println("Vertices: " + graph.size() + " | Edges: " + graph.edgeCount()
+                + " | Delta: " + delta + " | Sources: " + sources);
+
+        ShortestPathTree[] expected = new ShortestPathTree[sources];
+        long startTime = System.nanoTime();
+        for (int i = 0; i < sources; i++) {
+            expected[i] = ShortestPathTree.compute(graph, sourceList[i], Main.HEAP_ARITY);
+        }
+        double sequentialMs = (System.nanoTime() - startTime) / 1_000_000.0;
+        System.out.println("Sequential Dijkstra: " + String.format("%.3f", sequentialMs) + " ms");
+
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            DeltaStepping engine = new DeltaStepping(graph, delta, pool);
+            engine.run(sourceList[0]); // aquecimento
+            boolean same = true;
+            startTime = System.nanoTime();
+            for (int i = 0; i < sources; i++) {
+                ShortestPathTree tree = engine.run(sourceList[i]);
+                same &= Arrays.equals(tree.dist, expected[i].dist)
+                        && Arrays.equals(tree.numEdges, expected[i].numEdges);
+            }
+            double ms = (System.nanoTime() - startTime) / 1_000_000.0;
+            pool.shutdown();
+            System.out.println("Threads: " + threads + " | " + String.format("%.3f", ms) + " ms"
+                    + " | speedup vs sequential: " + String.format("%.2f", sequentialMs / ms) + "x"
+                    + " | same result: " + same);
+            if (threads == maxThreads) break;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ativ03;
+
+import common.CheckReport;
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Conferencia do delta-stepping paralelo contra o Dijkstra de referencia nos
+ * grafos tree_* e euler_* da pasta graphs: a arvore inteira (dist e numero
+ * de arestas de todo vertice) e o caminho ate o destino de cada consulta,
+ * com 1 e 2 threads e delta 1, o sugerido e um maior que qualquer peso
+ * (um balde so). Delta menor que 1 tem que ser recusado.
+ *
+ * java ativ03.DeltaSteppingCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class DeltaSteppingCheck {
+    private static final int SOURCES = 10;
+
+    private static void checkGraph(CheckReport report, String fileName) {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        Graph graph = ref.graph;
+        int n = graph.size();
+
+        for (int threads = 1; threads <= 2; threads++) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                int[] deltas = { 1, DeltaStepping.suggestedDelta(graph), 1 << 20 };
+                for (int delta : deltas) {
+                    DeltaStepping deltaStepping = new DeltaStepping(graph, delta, pool);
+                    String engine = "delta-stepping (" + threads + " threads, delta " + delta + ")";
+                    for (int i = 0; i < SOURCES; i++) {
+                        ShortestPathTree tree = deltaStepping.run(ref.sources[i]);
+                        boolean same = true;
+                        for (int v = 1; v <= n && same; v++) {
+                            same = tree.dist[v] == ref.trees[i].dist[v]
+                                    && (ref.trees[i].dist[v] == Long.MAX_VALUE || tree.numEdges[v] == ref.trees[i].edges[v]);
+                        }
+                        report.check(same, ref.name + " " + engine + ": tree from " + ref.sources[i]);
+                        ref.checkPair(report, engine, i, tree.pathTo(ref.destinations[i]));
+                    }
+                }
+                boolean rejected = false;
+                try {
+                    new DeltaStepping(graph, 0, pool);
+                } catch (IllegalArgumentException e) {
+                    rejected = true;
+                }
+                report.check(rejected, ref.name + ": delta 0 accepted");
+            } finally {
+                pool.shutdown();
+            }
+        }
+        report.endSection(ref.name);
+    }
+
+    public static void main(String[] args) {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        report.finish();
+    }
+}
@@ -0,0 +1,212 @@
+package ativ03;
+
+import common.GraphAccess;
+
+/**
+ * O laco do Dijkstra usado por todas as buscas do ativ03 (consulta simples,
+ * arvore completa, bidirecional, ALT, CH, grafo compactado, custo minimo).
+ * Roda sobre um QueryWorkspace (vetores com carimbo de geracao + heap
+ * indexado) e le o grafo por um cursor de arestas (Edges), entao a mesma
+ * relaxacao serve para o CSR, o CSR reverso, os arcos do CH ou o byte[] em
+ * varint do CompressedGraph.
+ *
+ * A chave do heap e (peso [+ limite do A*], numero de arestas), como no
+ * dijkstraIndexedHeap do Main: com peso igual vence o caminho com menos
+ * arestas, e toda aresta aumenta a chave, entao um vertice ja tem o valor
+ * final quando sai do heap (pode parar no destino mesmo com peso 0).
+ *
+ * Quem precisa de mais controle (bidirecional, testemunha do CH) chama
+ * settle() e relax() direto; o caso comum e start() + run(destino).
+ */
+class DijkstraSearch {
+    /**
+     * Cursor sobre as arestas de saida de um vertice. reset(u) posiciona
+     * antes da primeira aresta de u; cada next() avanca e preenche target,
+     * weight, hops (arestas originais que a aresta representa) e edge
+     * (indice da aresta, usado so com parentEdge).
+     */
+    abstract static class Edges {
+        int target;
+        long weight;
+        int hops = 1;
+        int edge;
+
+        abstract void reset(int u);
+
+        abstract boolean next();
+    }
+
+    // limite inferior da distancia de v ate o destino (A*); tem que ser consistente
+    interface Bound {
+        long estimate(int v);
+    }
+
+    // chamado para cada aresta examinada, depois da relaxacao (ex.: encontro no bidirecional)
+    interface Listener {
+        void reached(int v);
+    }
+
+    final QueryWorkspace ws;
+    private final IndexedDaryHeap heap;
+    private final int[] parentEdge; // aresta usada para chegar em v (so se pedido)
+    private Edges edges;
+    private Bound bound;
+    private Listener listener;
+    long settled;
+
+    DijkstraSearch(QueryWorkspace ws) {
+        this(ws, false);
+    }
+
+    DijkstraSearch(QueryWorkspace ws, boolean trackParentEdges) {
+        this.ws = ws;
+        this.heap = ws.heap;
+        this.parentEdge = trackParentEdges ? new int[ws.dist.length] : null;
+    }
+
+    void start(int source, Edges edges) {
+        start(source, edges, null, null);
+    }
+
+    // nova busca a partir de source; bound e listener podem ser null
+    void start(int source, Edges edges, Bound bound, Listener listener) {
+        this.edges = edges;
+        this.bound = bound;
+        this.listener = listener;
+        settled = 0;
+        ws.reset();
+        ws.set(source, 0, 0, -1);
+        if (parentEdge != null) parentEdge[source] = -1;
+        heap.insert(source, bound == null ? 0 : bound.estimate(source), 0);
+    }
+
+    boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    long minKey() {
+        return heap.minKey();
+    }
+
+    int minTie() {
+        return heap.minTie();
+    }
+
+    // tira o proximo vertice do heap (ja com dist/numEdges finais)
+    int settle() {
+        settled++;
+        return heap.extractMin();
+    }
+
+    // relaxa as arestas de u: peso menor, ou mesmo peso com menos arestas
+    void relax(int u) {
+        long du = ws.dist[u];
+        int eu = ws.numEdges[u];
+        Edges cursor = edges;
+        cursor.reset(u);
+        while (cursor.next()) {
+            int v = cursor.target;
+            long newDist = du + cursor.weight;
+            int newEdges = eu + cursor.hops;
+            long dv = ws.dist(v);
+            if (newDist < dv || (newDist == dv && newEdges < ws.numEdges(v))) {
+                ws.set(v, newDist, newEdges, u);
+                if (parentEdge != null) parentEdge[v] = cursor.edge;
+                heap.insertOrDecrease(v, bound == null ? newDist : newDist + bound.estimate(v), newEdges);
+            }
+            if (listener != null) listener.reached(v);
+        }
+    }
+
+    // ate fechar o destino (true) ou esvaziar o heap (destination = -1: arvore completa)
+    boolean run(int destination) {
+        while (!heap.isEmpty()) {
+            int u = settle();
+            if (u == destination) return true;
+            relax(u);
+        }
+        return false;
+    }
+
+    int parentEdge(int v) {
+        return parentEdge[v];
+    }
+
+    // caminho source -> destination pelo parent do workspace (found = destino alcancado)
+    PathResult result(int source, int destination, boolean found) {
+        PathResult result;
+        if (!found) {
+            result = PathResult.notFound(source, destination);
+        } else {
+            int count = ws.numEdges[destination];
+            int length = 1;
+            for (int v = destination; v != source; v = ws.parent[v]) length++;
+            int[] path = new int[length];
+            int current = destination;
+            for (int i = length - 1; i >= 0; i--) {
+                path[i] = current;
+                current = ws.parent[current];
+            }
+            result = new PathResult(source, destination, ws.dist[destination], count, path);
+        }
+        result.settled = settled;
+        return result;
+    }
+
+    // cursor sobre um CSR (offsets/targets/weights), para o Graph e o seu reverso
+    static Edges csr(int[] offsets, int[] targets, int[] weights) {
+        return new Edges() {
+            private int e;
+            private int end;
+
+            @Override
+            void reset(int u) {
+                e = offsets[u] - 1;
+                end = offsets[u + 1];
+            }
+
+            @Override
+            boolean next() {
+                if (++e >= end) return false;
+                target = targets[e];
+                weight = weights[e];
+                edge = e;
+                return true;
+            }
+        };
+    }
+
+    // sucessores do Graph
+    static Edges forward(Graph graph) {
+        return csr(graph.offsets(), graph.targets(), graph.weights());
+    }
+
+    // sucessores de qualquer GraphAccess; o Graph do heap usa o cursor direto nos vetores
+    static Edges forward(GraphAccess graph) {
+        if (graph instanceof Graph) return forward((Graph) graph);
+        return new Edges() {
+            private long e;
+            private long end;
+
+            @Override
+            void reset(int u) {
+                e = graph.edgeStart(u) - 1;
+                end = graph.edgeEnd(u);
+            }
+
+            @Override
+            boolean next() {
+                if (++e >= end) return false;
+                target = graph.edgeTarget(e);
+                weight = graph.edgeWeight(e);
+                edge = (int) e; // so usado com parentEdge, que e de grafo do heap
+                return true;
+            }
+        };
+    }
+
+    // predecessores do Graph (arestas ao contrario, pelo CSR reverso)
+    static Edges backward(Graph graph) {
+        return csr(graph.reverseOffsets(), graph.reverseSources(), graph.reverseWeights());
+    }
+}
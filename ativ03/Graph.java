@@ -0,0 +1,244 @@
+package ativ03;
+
+import common.GraphAccess;
+import java.util.Arrays;
+
+/**
+ * Grafo direcionado com pesos guardado em CSR.
+ * As arestas de v ficam nos indices [firstEdge(v), endEdge(v)) dos vetores
+ * targets/weights. Enquanto o grafo esta sendo lido as arestas ficam em
+ * vetores temporarios e o CSR e montado no build() (duas passadas).
+ * Como GraphAccess, e a mesma entrada que os motores aceitam do OffHeapGraph.
+ */
+class Graph implements GraphAccess {
+    private int n; // num vertices
+    private int m; // num arestas
+
+    // arestas na ordem de leitura (usadas so para montar o CSR)
+    private int[] edgeOrigin;
+    private int[] edgeDestination;
+    private int[] edgeWeight;
+
+    // CSR: sucessores (com pesos) de v em [offsets[v], offsets[v + 1])
+    private int[] offsets;
+    private int[] targets;
+    private int[] weights;
+
+    // CSR reverso (predecessores), montado so quando alguem precisa
+    private int[] reverseOffsets;
+    private int[] reverseSources;
+    private int[] reverseWeights;
+
+    private boolean built;
+
+    public Graph(int n) {
+        this(n, 16);
+    }
+
+    public Graph(int n, int expectedEdges) {
+        this.n = n;
+        edgeOrigin = new int[Math.max(expectedEdges, 1)];
+        edgeDestination = new int[Math.max(expectedEdges, 1)];
+        edgeWeight = new int[Math.max(expectedEdges, 1)];
+    }
+
+    // grafo ja pronto a partir de vetores CSR (ex.: snapshot binario); nao aceita novas arestas
+    private Graph(int n, int[] offsets, int[] targets, int[] weights) {
+        this.n = n;
+        this.m = targets.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.built = true;
+    }
+
+    public static Graph fromCsr(int n, int[] offsets, int[] targets, int[] weights) {
+        return new Graph(n, offsets, targets, weights);
+    }
+
+    public void addEdge(int o, int d, int w) {
+        if (edgeOrigin == null) {
+            throw new IllegalStateException("Grafo montado a partir de CSR nao aceita novas arestas");
+        }
+        if (m == edgeOrigin.length) {
+            int cap = edgeOrigin.length * 2;
+            edgeOrigin = Arrays.copyOf(edgeOrigin, cap);
+            edgeDestination = Arrays.copyOf(edgeDestination, cap);
+            edgeWeight = Arrays.copyOf(edgeWeight, cap);
+        }
+        // Adiciona uma nova aresta (destino, peso) à lista do vértice de origem 'o'
+        edgeOrigin[m] = o;
+        edgeDestination[m] = d;
+        edgeWeight[m] = w;
+        m++;
+        built = false;
+        reverseOffsets = null;
+    }
+
+    // monta o CSR: conta o grau de saida e depois distribui as arestas (mantem a ordem de leitura)
+    public void build() {
+        if (built) return;
+
+        offsets = new int[n + 2];
+        for (int i = 0; i < m; i++) {
+            offsets[edgeOrigin[i] + 1]++;
+        }
+        for (int v = 1; v <= n + 1; v++) {
+            offsets[v] += offsets[v - 1];
+        }
+
+        targets = new int[m];
+        weights = new int[m];
+        int[] next = Arrays.copyOf(offsets, n + 1);
+        for (int i = 0; i < m; i++) {
+            int pos = next[edgeOrigin[i]]++;
+            targets[pos] = edgeDestination[i];
+            weights[pos] = edgeWeight[i];
+        }
+
+        built = true;
+    }
+
+    private void checkVertex(int v) {
+        if (v > n || v < 0) {
+            throw new IllegalArgumentException("Vertice invalido: " + v);
+        }
+    }
+
+    // primeira aresta de v no CSR
+    public int firstEdge(int v) {
+        checkVertex(v);
+        build();
+        return offsets[v];
+    }
+
+    // uma posicao depois da ultima aresta de v no CSR
+    public int endEdge(int v) {
+        checkVertex(v);
+        build();
+        return offsets[v + 1];
+    }
+
+    public int target(int e) {
+        return targets[e];
+    }
+
+    // CSR reverso: predecessores de v em [firstInEdge(v), endInEdge(v))
+    public void buildReverse() {
+        build();
+        if (reverseOffsets != null) return;
+
+        int[] offs = new int[n + 2];
+        for (int e = 0; e < m; e++) {
+            offs[targets[e] + 1]++;
+        }
+        for (int v = 1; v <= n + 1; v++) {
+            offs[v] += offs[v - 1];
+        }
+
+        reverseSources = new int[m];
+        reverseWeights = new int[m];
+        int[] next = Arrays.copyOf(offs, n + 1);
+        for (int u = 0; u <= n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int pos = next[targets[e]]++;
+                reverseSources[pos] = u;
+                reverseWeights[pos] = weights[e];
+            }
+        }
+        reverseOffsets = offs;
+    }
+
+    public int firstInEdge(int v) {
+        checkVertex(v);
+        buildReverse();
+        return reverseOffsets[v];
+    }
+
+    public int endInEdge(int v) {
+        checkVertex(v);
+        buildReverse();
+        return reverseOffsets[v + 1];
+    }
+
+    // origem da aresta reversa e
+    public int source(int e) {
+        return reverseSources[e];
+    }
+
+    public int inWeight(int e) {
+        return reverseWeights[e];
+    }
+
+    public int weight(int e) {
+        return weights[e];
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    public int edgeCount() {
+        return m;
+    }
+
+    // GraphAccess (indices int por baixo)
+    @Override
+    public long edges() {
+        return m;
+    }
+
+    @Override
+    public long edgeStart(int v) {
+        return firstEdge(v);
+    }
+
+    @Override
+    public long edgeEnd(int v) {
+        return endEdge(v);
+    }
+
+    @Override
+    public int edgeTarget(long e) {
+        return targets[(int) e];
+    }
+
+    @Override
+    public int edgeWeight(long e) {
+        return weights[(int) e];
+    }
+
+    // vetores CSR crus (somente leitura), usados pelo snapshot binario
+    int[] offsets() {
+        build();
+        return offsets;
+    }
+
+    int[] targets() {
+        build();
+        return targets;
+    }
+
+    int[] weights() {
+        build();
+        return weights;
+    }
+
+    // CSR reverso cru (somente leitura), usado pelas buscas para tras
+    int[] reverseOffsets() {
+        buildReverse();
+        return reverseOffsets;
+    }
+
+    int[] reverseSources() {
+        buildReverse();
+        return reverseSources;
+    }
+
+    int[] reverseWeights() {
+        buildReverse();
+        return reverseWeights;
+    }
+
+}
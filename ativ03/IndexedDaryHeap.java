@@ -0,0 +1,162 @@
+package ativ03;
+
+import java.util.Arrays;
+
+/**
+ * Min-heap d-ario indexado para o Dijkstra, sem objetos por insercao.
+ * Guarda ids de vertices (int) com chave (long) e desempate (int):
+ * a ordem e por chave e, com chave igual, pelo menor desempate
+ * (no Dijkstra: peso total e depois numero de arestas).
+ * pos[v] diz onde v esta no heap, o que permite decrease-key de verdade
+ * em vez de inserir duplicatas (lazy deletion).
+ */
+class IndexedDaryHeap {
+    private final int arity;
+    private final int[] heap; // heap[i] = vertice na posicao i
+    private final int[] pos;  // pos[v] = posicao de v no heap, ou -1
+    private final long[] key;
+    private final int[] tie;
+    private int size;
+
+    // estatisticas de operacoes
+    long inserts;
+    long decreaseKeys;
+    long extracts;
+    int peakSize;
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Aridade invalida: " + arity);
+        }
+        this.arity = arity;
+        heap = new int[capacity];
+        pos = new int[capacity];
+        key = new long[capacity];
+        tie = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    public boolean contains(int v) {
+        return pos[v] >= 0;
+    }
+
+    public long minKey() {
+        return key[heap[0]];
+    }
+
+    public int minTie() {
+        return tie[heap[0]];
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    public void insert(int v, long k, int t) {
+        if (pos[v] >= 0) {
+            throw new IllegalStateException("Vertice ja esta no heap: " + v);
+        }
+        key[v] = k;
+        tie[v] = t;
+        heap[size] = v;
+        pos[v] = size;
+        size++;
+        inserts++;
+        if (size > peakSize) peakSize = size;
+        siftUp(size - 1);
+    }
+
+    // so pode diminuir a chave (ou manter a chave e diminuir o desempate)
+    public void decreaseKey(int v, long k, int t) {
+        key[v] = k;
+        tie[v] = t;
+        decreaseKeys++;
+        siftUp(pos[v]);
+    }
+
+    public void insertOrDecrease(int v, long k, int t) {
+        if (pos[v] >= 0) {
+            decreaseKey(v, k, t);
+        } else {
+            insert(v, k, t);
+        }
+    }
+
+    public int extractMin() {
+        int min = heap[0];
+        size--;
+        extracts++;
+        pos[min] = -1;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    // esvazia o heap em O(tamanho atual), sem percorrer todos os vertices
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    public void resetStats() {
+        inserts = 0;
+        decreaseKeys = 0;
+        extracts = 0;
+        peakSize = size;
+    }
+
+    private boolean less(int a, int b) {
+        return key[a] < key[b] || (key[a] == key[b] && tie[a] < tie[b]);
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            int p = heap[parent];
+            if (!less(v, p)) break;
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int first = i * arity + 1;
+            if (first >= size) break;
+            int last = Math.min(first + arity, size);
+            int best = first;
+            for (int c = first + 1; c < last; c++) {
+                if (less(heap[c], heap[best])) best = c;
+            }
+            if (!less(heap[best], v)) break;
+            heap[i] = heap[best];
+            pos[heap[i]] = i;
+            i = best;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+}
@@ -0,0 +1,103 @@
+package ativ03;
+
+import common.CheckReport;
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Conferencia do heap d-ario indexado e do laco do Dijkstra que o usa.
+ *
+ * O IndexedDaryHeap (aridades 2, 4 e 8) recebe uma sequencia sorteada de
+ * insert/decrease-key/extract-min e e comparado a cada extracao com uma fila
+ * de referencia que so varre um vetor. O DijkstraSearch (arvore completa e
+ * parando no destino, heap binario e 4-ario) e comparado com o Dijkstra de
+ * referencia nos grafos tree_* e euler_* da pasta graphs.
+ *
+ * java ativ03.IndexedHeapCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class IndexedHeapCheck {
+    private static final int[] ARITIES = { 2, 4, 8 };
+    private static final int HEAP_VERTICES = 2000;
+    private static final int HEAP_OPERATIONS = 200000;
+
+    // fila de referencia: o minimo e achado varrendo todos os vertices
+    private static void checkHeap(CheckReport report, int arity) {
+        Random random = new Random(ShortestPathReference.SEED + arity);
+        IndexedDaryHeap heap = new IndexedDaryHeap(HEAP_VERTICES, arity);
+        long[] key = new long[HEAP_VERTICES];
+        int[] tie = new int[HEAP_VERTICES];
+        boolean[] in = new boolean[HEAP_VERTICES];
+        int size = 0;
+        boolean same = true;
+        for (int op = 0; op < HEAP_OPERATIONS && same; op++) {
+            int v = random.nextInt(HEAP_VERTICES);
+            int kind = random.nextInt(3);
+            if (kind == 0 && !in[v]) {
+                key[v] = random.nextInt(1000);
+                tie[v] = random.nextInt(100);
+                in[v] = true;
+                size++;
+                heap.insert(v, key[v], tie[v]);
+            } else if (kind == 1 && in[v] && key[v] > 0) {
+                key[v] -= 1 + random.nextInt((int) key[v]);
+                tie[v] = random.nextInt(100);
+                heap.decreaseKey(v, key[v], tie[v]);
+            } else if (kind == 2 && size > 0) {
+                int min = -1;
+                for (int u = 0; u < HEAP_VERTICES; u++) {
+                    if (in[u] && (min < 0 || key[u] < key[min] || (key[u] == key[min] && tie[u] < tie[min]))) min = u;
+                }
+                // outro vertice com a mesma (chave, desempate) tambem serve
+                same = heap.minKey() == key[min] && heap.minTie() == tie[min];
+                int u = heap.extractMin();
+                same &= in[u] && key[u] == key[min] && tie[u] == tie[min];
+                in[u] = false;
+                size--;
+            }
+            same &= heap.size() == size;
+        }
+        report.check(same, "heap arity " + arity + ": extraction order differs from the reference");
+    }
+
+    private static void checkGraph(CheckReport report, String fileName) {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        int n = ref.graph.size();
+        for (int arity : new int[] { 2, 4 }) {
+            QueryWorkspace ws = new QueryWorkspace(n, arity);
+            DijkstraSearch search = new DijkstraSearch(ws);
+            for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+                int s = ref.sources[i];
+                int t = ref.destinations[i];
+                search.start(s, DijkstraSearch.forward(ref.graph));
+                ref.checkPair(report, "dijkstra " + arity + "-ary", i, search.result(s, t, search.run(t)));
+            }
+            // arvore completa a partir das 5 primeiras origens
+            for (int i = 0; i < 5; i++) {
+                search.start(ref.sources[i], DijkstraSearch.forward(ref.graph));
+                search.run(-1);
+                boolean same = true;
+                for (int v = 1; v <= n && same; v++) {
+                    same = ws.dist(v) == ref.trees[i].dist[v]
+                            && (ref.trees[i].dist[v] == Long.MAX_VALUE || ws.numEdges(v) == ref.trees[i].edges[v]);
+                }
+                report.check(same, ref.name + " " + arity + "-ary: full tree from " + ref.sources[i]);
+            }
+        }
+        report.endSection(ref.name);
+    }
+
+    public static void main(String[] args) {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (int arity : ARITIES) {
+            checkHeap(report, arity);
+        }
+        report.endSection("IndexedDaryHeap");
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        report.finish();
+    }
+}
@@ -0,0 +1,36 @@
+package ativ03;
+
+import java.util.Arrays;
+
+// lista de int que cresce (sem Integer)
+class IntList {
+    int[] data;
+    int size;
+
+    IntList(int capacity) {
+        data = new int[Math.max(capacity, 4)];
+    }
+
+    void add(int v) {
+        if (size == data.length) data = Arrays.copyOf(data, size * 2);
+        data[size++] = v;
+    }
+
+    void addAll(IntList other) {
+        if (size + other.size > data.length) data = Arrays.copyOf(data, Math.max(size + other.size, size * 2));
+        System.arraycopy(other.data, 0, data, size, other.size);
+        size += other.size;
+    }
+
+    int get(int i) {
+        return data[i];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+}
@@ -1,25 +1,12 @@
 package ativ03;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.EdgeList;
+import common.EdgeListLoader;
+import common.GraphSnapshot;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Scanner;
-import java.util.Stack;
-
-
-class Edge {
-    int destination;
-    int weight;
-
-    public Edge(int destination, int weight) {
-        this.destination = destination;
-        this.weight = weight;
-    }
-}
 
 /**
  * Classe para a Fila de Prioridade (PriorityQueue) do Dijkstra.
@@ -42,7 +29,10 @@ class Node implements Comparable<Node> {
     }
 }
 
+
 public class Main {
+    static final int HEAP_ARITY = 4; // aridade padrao do heap indexado
+
     public static void main(String[] args) {
         Scanner sc = new Scanner(System.in);
 
@@ -106,17 +96,60 @@ public class Main {
                     continue; 
             }
 
-            Graph graph = readGraph(fileName);
+            Graph graph = loadGraph(fileName);
+            if (graph == null) continue;
+
+            // entradas que sao arvores ganham o oraculo de distancias (LCA)
+            long oracleStart = System.nanoTime();
+            TreeDistanceOracle oracle = TreeDistanceOracle.tryBuild(graph);
+            if (oracle != null) {
+                System.out.println("Tree detected: distance oracle built in "
+                        + String.format("%.3f", (System.nanoTime() - oracleStart) / 1_000_000.0) + " ms");
+            }
 
             System.out.print("Select a source vertice: ");
             int source = sc.nextInt();
             System.out.print("Select a destination vertice: ");
             int destination = sc.nextInt();
+            System.out.println("1 - PriorityQueue");
+            System.out.println("2 - Indexed " + HEAP_ARITY + "-ary heap");
+            System.out.println("3 - Indexed " + HEAP_ARITY + "-ary heap, stop at destination");
+            System.out.println("4 - Bidirectional (indexed " + HEAP_ARITY + "-ary heaps)");
+            if (oracle != null) {
+                System.out.println("5 - Tree distance oracle (edges as bidirectional)");
+            }
+            System.out.print("Select the search mode: ");
+            int mode = sc.nextInt();
             sc.nextLine();
 
             long startTime = System.nanoTime();
 
-            dijkstra(graph, source, destination, true);
+            QueueStats stats;
+            switch (mode) {
+                case 2:
+                    stats = dijkstraIndexedHeap(graph, source, destination, HEAP_ARITY, false, true);
+                    break;
+                case 3:
+                    stats = dijkstraIndexedHeap(graph, source, destination, HEAP_ARITY, true, true);
+                    break;
+                case 4:
+                    BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(graph, HEAP_ARITY);
+                    bidirectional.query(source, destination).print();
+                    stats = bidirectional.stats();
+                    break;
+                case 5:
+                    if (oracle != null) {
+                        oracle.query(source, destination).print();
+                        stats = null;
+                    } else {
+                        // sem arvore usa o Dijkstra padrao
+                        stats = dijkstra(graph, source, destination, true);
+                    }
+                    break;
+                default:
+                    stats = dijkstra(graph, source, destination, true);
+                    break;
+            }
             
             long endTime = System.nanoTime();
             long totalNanoTime = (endTime - startTime);
@@ -126,6 +159,7 @@ public class Main {
             System.out.println("Graph Size (Vertices): " + graph.size());
             System.out.println("Execution Time (milliseconds): " + String.format("%.6f", totalMilliTime) + " ms");
             System.out.println("Execution Time (seconds): " + String.format("%.6f", totalMilliTime / 1000.0) + " s");
+            if (stats != null) System.out.println(stats);
             System.out.println("----------------------------------------\n");
 
         } while (option != 0);
@@ -133,31 +167,40 @@ public class Main {
         sc.close();
     }
 
-    public static Graph readGraph(String fileName) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-
-            String firstLine = reader.readLine();
-            String[] parts = firstLine.trim().split("\\s+");
-            int n = Integer.parseInt(parts[0]); // vértices
-            int m = Integer.parseInt(parts[1]); // arestas
-
-            Graph graph = new Graph(n);
-
-            for (int i = 0; i < m; i++) {
-                String edgeLine = reader.readLine();
-                if (edgeLine == null || edgeLine.trim().isEmpty()) {
-                    i--;
-                    continue;
-                }
+    /**
+     * Carrega o grafo pelo snapshot binario (.gsnap) quando ele existe e
+     * corresponde ao .txt; senao le o .txt. Nao grava nada: o snapshot e
+     * criado so quando pedido (java common.GraphSnapshot <grafo.txt>).
+     */
+    public static Graph loadGraph(String fileName) {
+        String snapshotFile = GraphSnapshot.snapshotName(fileName);
+        try {
+            if (GraphSnapshot.isFresh(snapshotFile, fileName)) {
+                long startTime = System.nanoTime();
+                GraphSnapshot snapshot = GraphSnapshot.read(snapshotFile);
+                System.out.println("Loaded snapshot " + snapshotFile + " in "
+                        + String.format("%.3f", (System.nanoTime() - startTime) / 1_000_000.0) + " ms");
+                return Graph.fromCsr(snapshot.n, snapshot.offsets, snapshot.targets, snapshot.weights);
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring snapshot '" + snapshotFile + "': " + e.getMessage());
+        }
+        return readGraph(fileName);
+    }
 
-                String[] edgeParts = edgeLine.trim().split("\\s+");
-                int o = Integer.parseInt(edgeParts[0]); // origem
-                int d = Integer.parseInt(edgeParts[1]); // destino
-                int w = Integer.parseInt(edgeParts[2]); // peso
+    // leitura com o EdgeListLoader (arquivo mapeado em memoria e lido em paralelo, 3 colunas)
+    public static Graph readGraph(String fileName) {
+        try {
+            EdgeList edges = EdgeListLoader.load(fileName, 3);
 
-                graph.addEdge(o, d, w);
+            Graph graph = new Graph(edges.n, edges.m);
+            for (int i = 0; i < edges.m; i++) {
+                // origem, destino, peso
+                graph.addEdge(edges.origin[i], edges.destination[i], edges.weight[i]);
             }
+            graph.build();
 
+            System.out.println(edges.throughputReport());
             return graph;
 
         } catch (IOException e) {
@@ -179,8 +222,9 @@ public class Main {
      * @param source      Vértice de origem
      * @param destination Vértice de destino
      * @param printResults Controla se o resultado deve ser impresso no console
+     * @return contadores da PriorityQueue
      */
-    public static void dijkstra(Graph graph, int source, int destination, boolean printResults) {
+    public static QueueStats dijkstra(Graph graph, int source, int destination, boolean printResults) {
         int n = graph.size();
 
         // dist[i] = menor PESO (comprimento) do caminho de source até i
@@ -197,26 +241,33 @@ public class Main {
         dist[source] = 0;
         numEdges[source] = 0;
 
+        QueueStats stats = new QueueStats("PriorityQueue");
         PriorityQueue<Node> pq = new PriorityQueue<>();
         pq.add(new Node(source, 0));
+        stats.inserts++;
+        stats.peakSize = 1;
 
         while (!pq.isEmpty()) {
             Node currentNode = pq.poll();
+            stats.extracts++;
             int u = currentNode.vertex;
             long d = currentNode.distance;
 
             // Otimização: se já encontramos um caminho melhor para 'u',
             if (d > dist[u]) {
+                stats.staleEntries++;
                 continue;
             }
+            stats.settled++;
 
             // Se chegamos ao destino, podemos parar (otimização)
             // if (u == destination) break; // Funciona se não houver arestas de peso 0
+            // (dijkstraIndexedHeap com stopAtDestination para com segurança mesmo com peso 0)
 
             // Itera sobre todos os vizinhos 'v' de 'u'
-            for (Edge edge : graph.getSucessors(u)) {
-                int v = edge.destination;
-                int weight = edge.weight;
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                int weight = graph.weight(e);
 
                 long newDist = dist[u] + weight;
                 int newEdges = numEdges[u] + 1;
@@ -227,6 +278,8 @@ public class Main {
                     numEdges[v] = newEdges; // Atualiza o num de arestas
                     parent[v] = u;          // Atualiza o predecessor
                     pq.add(new Node(v, newDist)); // Adiciona à fila para explorar
+                    stats.inserts++;
+                    if (pq.size() > stats.peakSize) stats.peakSize = pq.size();
                 }
                 // O peso é IGUAL, mas o num de ARESTAS é MENOR.
                 else if (newDist == dist[v] && newEdges < numEdges[v]) {
@@ -239,65 +292,52 @@ public class Main {
         }
 
         if (printResults) {
-            System.out.println("----------------------------------------");
-            System.out.println("--- EFFICACY RESULTS ---");
-            if (dist[destination] == Long.MAX_VALUE) {
-                System.out.println("No path found from " + source + " to " + destination + ".");
-            } else {
-                System.out.println("Shortest path from " + source + " to " + destination + ":");
-                System.out.println("Total Weight (comprimento): " + dist[destination]);
-                System.out.println("Total Edges: " + numEdges[destination]);
-
-                Stack<Integer> path = new Stack<>();
-                int current = destination;
-                while (current != -1) {
-                    path.push(current);
-                    if (parent[current] == -1 && current != source) {
-                        break;
-                    }
-                    current = parent[current];
-                }
-
-                System.out.print("Path: ");
-                while (!path.isEmpty()) {
-                    System.out.print(path.pop());
-                    if (!path.isEmpty()) {
-                        System.out.print(" -> ");
-                    }
-                }
-                System.out.println();
-            }
+            printPath(source, destination, dist, numEdges, parent);
         }
+        return stats;
     }
-}
-
-class Graph {
-    private int n; // num vertices
-    private List<List<Edge>> adj; // Lista de sucessores (com pesos)
 
-    public Graph(int n) {
-        this.n = n;
-        adj = new ArrayList<>(n + 1);
-
-        for (int i = 0; i <= n; i++) {
-            adj.add(new ArrayList<>());
-        }
-    }
-
-    public void addEdge(int o, int d, int w) {
-        // Adiciona uma nova aresta (destino, peso) à lista do vértice de origem 'o'
-        adj.get(o).add(new Edge(d, w));
-    }
+    /**
+     * Mesmo Dijkstra, mas com o heap d-ario indexado (IndexedDaryHeap) no lugar
+     * da PriorityQueue: cada vertice aparece no maximo uma vez na fila e uma
+     * melhora vira decrease-key. A chave e o par (peso, numero de arestas),
+     * entao o desempate pelo menor numero de arestas continua valendo.
+     *
+     * Com stopAtDestination a busca para assim que o destino sai do heap.
+     * Como a chave inclui o numero de arestas, toda aresta (inclusive de peso 0)
+     * aumenta a chave, entao o destino ja esta com o valor final quando sai.
+     *
+     * @param graph             O grafo
+     * @param source            Vértice de origem
+     * @param destination       Vértice de destino
+     * @param arity             Aridade do heap (2 = binario, 4 = quaternario, ...)
+     * @param stopAtDestination Para a busca quando o destino for fechado
+     * @param printResults      Controla se o resultado deve ser impresso no console
+     * @return contadores do heap
+     */
+    public static QueueStats dijkstraIndexedHeap(Graph graph, int source, int destination, int arity,
+            boolean stopAtDestination, boolean printResults) {
+        QueueStats stats = new QueueStats("Indexed " + arity + "-ary heap");
+        DijkstraSearch search = new DijkstraSearch(new QueryWorkspace(graph.size(), arity));
+        search.start(source, DijkstraSearch.forward(graph));
+        search.run(stopAtDestination ? destination : -1);
+
+        IndexedDaryHeap heap = search.ws.heap;
+        stats.inserts = heap.inserts;
+        stats.decreaseKeys = heap.decreaseKeys;
+        stats.extracts = heap.extracts;
+        stats.peakSize = heap.peakSize;
+        stats.settled = search.settled;
 
-    public List<Edge> getSucessors(int v) {
-        if (v > n || v < 0) {
-            throw new IllegalArgumentException("Vertice invalido: " + v);
+        if (printResults) {
+            search.result(source, destination, search.ws.visited(destination)).print();
         }
-        return adj.get(v);
+        return stats;
     }
 
-    public int size() {
-        return n;
+    // imprime peso, numero de arestas e o caminho de source ate destination
+    static void printPath(int source, int destination, long[] dist, int[] numEdges, int[] parent) {
+        PathResult.fromParents(source, destination, dist, numEdges, parent).print();
     }
+}
 
-}
\ No newline at end of file
@@ -0,0 +1,275 @@
+package ativ03;
+
+import java.util.Arrays;
+
+/**
+ * k caminhos disjuntos em arestas com menor peso total (roteamento redundante).
+ * E um fluxo de custo minimo com capacidade 1 por aresta e custo = peso,
+ * resolvido por caminhos minimos sucessivos (successive shortest paths):
+ * cada rodada manda 1 unidade pelo caminho mais barato do residual.
+ *
+ * Os arcos de volta tem custo negativo, mas com os potenciais de Johnson
+ * (pi[v] acumula as distancias das rodadas anteriores) o custo reduzido
+ * c(u, v) + pi[u] - pi[v] nunca e negativo, entao cada rodada e um Dijkstra
+ * com o heap indexado em vez de um Bellman-Ford.
+ * No fim o fluxo e decomposto nos k caminhos (uma rodada pode desfazer parte
+ * do caminho de outra, entao os caminhos finais nao sao os das rodadas).
+ */
+class MinCostDisjointPaths {
+    // resultado de uma consulta
+    static class Result {
+        final int source;
+        final int destination;
+        final int requested;   // k pedido
+        final int[][] paths;   // caminhos achados (pode ser menos que k)
+        final long[] weights;  // peso de cada caminho
+        final long totalWeight;
+        final double[] roundMs;   // tempo de cada rodada de Dijkstra + aumento
+        final long[] roundCost;   // custo acrescentado ao total em cada rodada
+
+        Result(int source, int destination, int requested, int[][] paths, long[] weights,
+               double[] roundMs, long[] roundCost) {
+            this.source = source;
+            this.destination = destination;
+            this.requested = requested;
+            this.paths = paths;
+            this.weights = weights;
+            this.roundMs = roundMs;
+            this.roundCost = roundCost;
+            long sum = 0;
+            for (long w : weights) sum += w;
+            this.totalWeight = sum;
+        }
+
+        public void print() {
+            System.out.println("Requested: " + requested + " | found: " + paths.length
+                    + " | total weight: " + totalWeight);
+            for (int r = 0; r < roundMs.length; r++) {
+                System.out.println("Round " + (r + 1) + ": " + String.format("%.3f", roundMs[r])
+                        + " ms | cost added: " + roundCost[r]);
+            }
+            for (int i = 0; i < paths.length; i++) {
+                StringBuilder line = new StringBuilder("Path " + (i + 1) + " (weight " + weights[i] + ", "
+                        + (paths[i].length - 1) + " edges): ");
+                for (int j = 0; j < paths[i].length; j++) {
+                    line.append(paths[i][j]);
+                    if (j < paths[i].length - 1) line.append(" -> ");
+                }
+                System.out.println(line);
+            }
+        }
+    }
+
+    private final int n;
+    // residual em CSR: arcos de u em [first[u], first[u + 1]); ida (cap 1, custo w) e volta (cap 0, custo -w)
+    private final int[] first;
+    private final int[] to;
+    private final int[] rev;
+    private final int[] cap;
+    private final int[] cost;
+    private final int[] flow;
+
+    private final long[] potential;
+    private final QueryWorkspace ws;      // dist da rodada atual (custo reduzido)
+    private final DijkstraSearch search;  // parentEdge = arco do residual usado
+    private final DijkstraSearch.Edges residualArcs;
+
+    MinCostDisjointPaths(Graph graph) {
+        n = graph.size();
+        int m = graph.edgeCount();
+        first = new int[n + 2];
+        for (int u = 1; u <= n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                if (graph.weight(e) < 0) {
+                    throw new IllegalArgumentException("Peso negativo na aresta " + u + " -> " + graph.target(e));
+                }
+                first[u + 1]++;
+                first[graph.target(e) + 1]++;
+            }
+        }
+        for (int v = 1; v <= n + 1; v++) {
+            first[v] += first[v - 1];
+        }
+
+        to = new int[2 * m];
+        rev = new int[2 * m];
+        cap = new int[2 * m];
+        cost = new int[2 * m];
+        flow = new int[2 * m];
+        int[] next = Arrays.copyOf(first, n + 1);
+        for (int u = 1; u <= n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                int a = next[u]++;
+                int b = next[v]++;
+                to[a] = v;
+                rev[a] = b;
+                cap[a] = 1;
+                cost[a] = graph.weight(e);
+                to[b] = u;
+                rev[b] = a;
+                cost[b] = -graph.weight(e);
+            }
+        }
+
+        potential = new long[n + 1];
+        ws = new QueryWorkspace(n, Main.HEAP_ARITY);
+        search = new DijkstraSearch(ws, true);
+        // arcos com capacidade residual, com o custo reduzido c(u, v) + pi[u] - pi[v]
+        residualArcs = new DijkstraSearch.Edges() {
+            private int u;
+            private int e;
+            private int end;
+
+            @Override
+            void reset(int u) {
+                this.u = u;
+                e = first[u] - 1;
+                end = first[u + 1];
+            }
+
+            @Override
+            boolean next() {
+                while (++e < end) {
+                    if (cap[e] - flow[e] <= 0) continue;
+                    target = to[e];
+                    weight = cost[e] + potential[u] - potential[target];
+                    edge = e;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // ate k caminhos disjuntos em arestas de s para t com menor peso total
+    public Result query(int source, int destination, int k) {
+        if (source < 1 || source > n || destination < 1 || destination > n) {
+            throw new IllegalArgumentException("Vertice invalido: " + source + " ou " + destination);
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("Numero de caminhos invalido: " + k);
+        }
+        Arrays.fill(flow, 0);
+        // pesos nao negativos: potencial 0 ja e valido na primeira rodada
+        Arrays.fill(potential, 0);
+
+        double[] roundMs = new double[k];
+        long[] roundCost = new long[k];
+        int rounds = 0;
+        if (source != destination) {
+            while (rounds < k) {
+                long startTime = System.nanoTime();
+                if (!shortestPath(source, destination)) break;
+                // custo real do caminho = distancia reduzida + pi[t] - pi[s]
+                roundCost[rounds] = ws.dist(destination) + potential[destination] - potential[source];
+                updatePotentials(destination);
+                for (int v = destination; v != source; v = to[rev[search.parentEdge(v)]]) {
+                    int e = search.parentEdge(v);
+                    flow[e]++;
+                    flow[rev[e]]--;
+                }
+                roundMs[rounds] = (System.nanoTime() - startTime) / 1_000_000.0;
+                rounds++;
+            }
+        }
+
+        long[] weights = new long[rounds];
+        int[][] paths = decompose(source, destination, rounds, weights);
+        return new Result(source, destination, k, paths, weights,
+                Arrays.copyOf(roundMs, rounds), Arrays.copyOf(roundCost, rounds));
+    }
+
+    // Dijkstra no residual com custo reduzido, parando em t; devolve false se t nao e alcancavel
+    private boolean shortestPath(int s, int t) {
+        search.start(s, residualArcs);
+        // quem ainda esta no heap tem dist >= dist[t] e o potencial usa min(dist, dist[t])
+        return search.run(t);
+    }
+
+    // pi[v] += min(dist[v], dist[t]): mantem os custos reduzidos >= 0 inclusive para quem nao foi alcancado
+    private void updatePotentials(int t) {
+        long limit = ws.dist(t);
+        for (int v = 1; v <= n; v++) {
+            potential[v] += Math.min(ws.dist(v), limit);
+        }
+    }
+
+    /**
+     * Decompoe o fluxo em caminhos s -> t seguindo arcos com fluxo, com cursor
+     * por vertice (cada arco visto uma vez) e pilha explicita. Com pesos
+     * positivos o fluxo de custo minimo nao tem ciclos, mas se aparecer um
+     * (arestas de peso 0) o trecho e descartado.
+     * weights[i] recebe o peso do i-esimo caminho (soma dos arcos usados).
+     */
+    private int[][] decompose(int s, int t, int count, long[] weights) {
+        int[][] paths = new int[count][];
+        if (s == t) return new int[0][];
+        int[] cursor = Arrays.copyOf(first, n + 1);
+        int[] position = new int[n + 1];
+        Arrays.fill(position, -1);
+        int[] path = new int[n + 1];
+        int[] pathArc = new int[n + 1]; // arco de path[i] para path[i + 1]
+
+        int found = 0;
+        while (found < count) {
+            int length = 0;
+            path[length++] = s;
+            position[s] = 0;
+            while (path[length - 1] != t) {
+                int u = path[length - 1];
+                int e = cursor[u];
+                while (e < first[u + 1] && !(cap[e] > 0 && flow[e] > 0)) e++;
+                cursor[u] = e + 1;
+                int v = to[e];
+                if (position[v] >= 0) {
+                    // ciclo: volta o caminho ate v
+                    for (int i = position[v] + 1; i < length; i++) position[path[i]] = -1;
+                    length = position[v] + 1;
+                } else {
+                    pathArc[length - 1] = e;
+                    position[v] = length;
+                    path[length++] = v;
+                }
+            }
+            long weight = 0;
+            for (int i = 0; i + 1 < length; i++) weight += cost[pathArc[i]];
+            weights[found] = weight;
+            paths[found++] = Arrays.copyOf(path, length);
+            for (int i = 0; i < length; i++) position[path[i]] = -1;
+        }
+        return paths;
+    }
+
+    /**
+     * java ativ03.MinCostDisjointPaths <grafo.txt> <origem> <destino> <k>
+     * Mostra o tempo de cada rodada para ver como escala nos grafos euler.
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: java ativ03.MinCostDisjointPaths <graph.txt> <source> <destination> <k>");
+            return;
+        }
+        Graph graph = Main.loadGraph(args[0]);
+        if (graph == null) return;
+        int source = Integer.parseInt(args[1]);
+        int destination = Integer.parseInt(args[2]);
+        int k = Integer.parseInt(args[3]);
+
+        long startTime = System.nanoTime();
+        MinCostDisjointPaths engine = new MinCostDisjointPaths(graph);
+        System.out.println("Residual built in " + String.format("%.3f", (System.nanoTime() - startTime) / 1_000_000.0) + " ms");
+
+        startTime = System.nanoTime();
+        Result result;
+        try {
+            result = engine.query(source, destination, k);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid query: " + e.getMessage());
+            return;
+        }
+        double totalMs = (System.nanoTime() - startTime) / 1_000_000.0;
+        result.print();
+        System.out.println("Total time: " + String.format("%.3f", totalMs) + " ms");
+    }
+}
@@ -0,0 +1,108 @@
+package ativ03;
+
+import common.CheckReport;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conferencia dos k caminhos de custo minimo (MinCostDisjointPaths) contra o
+ * Dijkstra de referencia (ShortestPathReference) nos grafos tree_* e euler_*
+ * da pasta graphs: com k = 1 o custo e a distancia minima; com k = 2 e 3 os
+ * caminhos vao de s a t, tem o peso informado, nao usam uma aresta mais
+ * vezes do que ela aparece no grafo e o custo de cada rodada nunca diminui.
+ * Tambem confere o grafo em que tirar o caminho minimo deixa s sem segundo
+ * caminho, mas o par otimo existe (custo 6), que so sai com os arcos de
+ * volta do residual.
+ *
+ * java ativ03.MinCostPathsCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class MinCostPathsCheck {
+    private static final int PAIRS = 20;
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        Graph graph = ref.graph;
+        MinCostDisjointPaths minCost = new MinCostDisjointPaths(graph);
+        for (int i = 0; i < PAIRS; i++) {
+            int s = ref.sources[i];
+            int t = ref.destinations[i];
+            if (s == t) continue;
+            MinCostDisjointPaths.Result one = minCost.query(s, t, 1);
+            long dist = ref.trees[i].dist[t];
+            report.check(dist == Long.MAX_VALUE ? one.paths.length == 0 : one.totalWeight == dist,
+                    "min-cost " + s + " -> " + t + " k=1: " + one.totalWeight + " != " + dist);
+            for (int k = 2; k <= 3; k++) {
+                checkMinCost(report, graph, minCost.query(s, t, k), s, t);
+            }
+        }
+        report.endSection(ref.name);
+    }
+
+    private static void checkMinCost(CheckReport report, Graph graph, MinCostDisjointPaths.Result result, int s, int t) {
+        String what = "min-cost " + s + " -> " + t + " k=" + result.requested;
+        report.check(result.paths.length <= result.requested, what + ": more paths than requested");
+        // cada aresta (u, v) so pode ser usada tantas vezes quantas aparece no grafo
+        List<Long> used = new ArrayList<>();
+        long total = 0;
+        for (int p = 0; p < result.paths.length; p++) {
+            int[] path = result.paths[p];
+            report.check(path[0] == s && path[path.length - 1] == t, what + ": path " + p + " does not go from s to t");
+            report.check(ShortestPathReference.pathWeight(graph, path, false) == result.weights[p],
+                    what + ": path " + p + " weight");
+            total += result.weights[p];
+            for (int i = 0; i + 1 < path.length; i++) used.add(((long) path[i] << 32) | path[i + 1]);
+        }
+        report.check(total == result.totalWeight, what + ": total weight " + result.totalWeight + " != " + total);
+        used.sort(null);
+        for (int i = 0; i < used.size(); ) {
+            int j = i;
+            while (j < used.size() && used.get(j).equals(used.get(i))) j++;
+            int u = (int) (used.get(i) >>> 32);
+            int v = (int) (long) used.get(i);
+            int copies = 0;
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                if (graph.target(e) == v) copies++;
+            }
+            report.check(j - i <= copies, what + ": edge " + u + " -> " + v + " used " + (j - i) + " times");
+            i = j;
+        }
+        for (int r = 1; r < result.roundCost.length; r++) {
+            report.check(result.roundCost[r] >= result.roundCost[r - 1], what + ": round cost decreased");
+        }
+    }
+
+    // minimo 1-2-3-4 (3) usa 2 -> 3, que bloqueia o resto; o par otimo e 1-2-4 + 1-3-4 (6)
+    private static void checkTrap(CheckReport report) {
+        Graph graph = new Graph(4);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(1, 3, 2);
+        graph.addEdge(2, 4, 2);
+        graph.build();
+        MinCostDisjointPaths minCost = new MinCostDisjointPaths(graph);
+        MinCostDisjointPaths.Result one = minCost.query(1, 4, 1);
+        report.check(one.paths.length == 1 && one.totalWeight == 3, "trap k=1: " + one.totalWeight);
+        MinCostDisjointPaths.Result two = minCost.query(1, 4, 2);
+        report.check(two.paths.length == 2 && two.totalWeight == 6, "trap k=2: " + two.paths.length
+                + " paths, weight " + two.totalWeight);
+        checkMinCost(report, graph, two, 1, 4);
+        MinCostDisjointPaths.Result three = minCost.query(1, 4, 3);
+        report.check(three.paths.length == 2, "trap k=3: " + three.paths.length + " paths");
+        report.endSection("trap");
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        checkTrap(report);
+        report.finish();
+    }
+}
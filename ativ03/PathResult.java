@@ -0,0 +1,72 @@
+package ativ03;
+
+/**
+ * Resultado de uma consulta origem -> destino: peso total, numero de arestas,
+ * o caminho (vertices em ordem) e quantos vertices foram fechados na busca.
+ */
+class PathResult {
+    final int source;
+    final int destination;
+    final long weight;  // Long.MAX_VALUE se nao ha caminho
+    final int edges;
+    final int[] path;   // null se nao ha caminho
+    long settled;
+
+    PathResult(int source, int destination, long weight, int edges, int[] path) {
+        this.source = source;
+        this.destination = destination;
+        this.weight = weight;
+        this.edges = edges;
+        this.path = path;
+    }
+
+    static PathResult notFound(int source, int destination) {
+        return new PathResult(source, destination, Long.MAX_VALUE, -1, null);
+    }
+
+    // monta o resultado andando pelo vetor parent a partir do destino
+    static PathResult fromParents(int source, int destination, long[] dist, int[] numEdges, int[] parent) {
+        if (dist[destination] == Long.MAX_VALUE) {
+            return notFound(source, destination);
+        }
+        int length = 0;
+        for (int current = destination; current != -1; current = parent[current]) {
+            length++;
+            if (current == source) break;
+        }
+        int[] path = new int[length];
+        int current = destination;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = current;
+            current = parent[current];
+        }
+        return new PathResult(source, destination, dist[destination], numEdges[destination], path);
+    }
+
+    public boolean found() {
+        return path != null;
+    }
+
+    public String pathString() {
+        if (path == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < path.length; i++) {
+            if (i > 0) sb.append(" -> ");
+            sb.append(path[i]);
+        }
+        return sb.toString();
+    }
+
+    public void print() {
+        System.out.println("----------------------------------------");
+        System.out.println("--- EFFICACY RESULTS ---");
+        if (!found()) {
+            System.out.println("No path found from " + source + " to " + destination + ".");
+        } else {
+            System.out.println("Shortest path from " + source + " to " + destination + ":");
+            System.out.println("Total Weight (comprimento): " + weight);
+            System.out.println("Total Edges: " + edges);
+            System.out.println("Path: " + pathString());
+        }
+    }
+}
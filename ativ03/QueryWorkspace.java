@@ -0,0 +1,57 @@
+package ativ03;
+
+import java.util.Arrays;
+
+/**
+ * Vetores de trabalho de uma consulta de caminho minimo, reaproveitados
+ * entre consultas. Em vez de preencher dist/numEdges/parent com Arrays.fill
+ * a cada consulta (O(n)), cada posicao guarda a "geracao" em que foi escrita:
+ * se stamp[v] != generation o valor e lixo de uma consulta anterior e conta
+ * como infinito. Assim uma consulta so toca os vertices que visita.
+ */
+class QueryWorkspace {
+    final long[] dist;
+    final int[] numEdges;
+    final int[] parent;
+    final IndexedDaryHeap heap;
+    private final int[] stamp;
+    private int generation;
+
+    QueryWorkspace(int n, int arity) {
+        dist = new long[n + 1];
+        numEdges = new int[n + 1];
+        parent = new int[n + 1];
+        stamp = new int[n + 1];
+        heap = new IndexedDaryHeap(n + 1, arity);
+    }
+
+    // comeca uma nova consulta: invalida tudo trocando a geracao
+    void reset() {
+        heap.clear();
+        heap.resetStats();
+        generation++;
+        if (generation == Integer.MAX_VALUE) { // estouro: limpa de verdade uma vez
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    boolean visited(int v) {
+        return stamp[v] == generation;
+    }
+
+    long dist(int v) {
+        return stamp[v] == generation ? dist[v] : Long.MAX_VALUE;
+    }
+
+    int numEdges(int v) {
+        return stamp[v] == generation ? numEdges[v] : Integer.MAX_VALUE;
+    }
+
+    void set(int v, long d, int edges, int p) {
+        stamp[v] = generation;
+        dist[v] = d;
+        numEdges[v] = edges;
+        parent[v] = p;
+    }
+}
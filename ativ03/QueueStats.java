@@ -0,0 +1,30 @@
+package ativ03;
+
+/**
+ * Contadores da fila de prioridade usada em uma execucao do Dijkstra,
+ * para comparar a PriorityQueue (lazy deletion) com o heap indexado.
+ */
+class QueueStats {
+    String queue;
+    long inserts;      // insercoes na fila
+    long decreaseKeys; // decrease-key (so no heap indexado)
+    long extracts;     // remocoes do minimo
+    long staleEntries; // entradas velhas descartadas (so na PriorityQueue)
+    int peakSize;      // maior tamanho da fila
+    long settled;      // vertices fechados
+
+    QueueStats(String queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public String toString() {
+        return "Queue: " + queue
+                + " | inserts: " + inserts
+                + " | decrease-keys: " + decreaseKeys
+                + " | extracts: " + extracts
+                + " | stale entries: " + staleEntries
+                + " | peak size: " + peakSize
+                + " | settled: " + settled;
+    }
+}
@@ -0,0 +1,19 @@
+package ativ03;
+
+import java.io.IOException;
+
+/**
+ * Indice pre-processado para consultas origem -> destino: AltIndex ou
+ * ContractionHierarchy (este so quando pedido, ver RouteIndexReport).
+ * O resultado segue o mesmo criterio do Dijkstra: menor peso e, no empate,
+ * menor numero de arestas.
+ */
+interface RouteIndex {
+    PathResult query(int source, int destination);
+
+    // tamanho aproximado do indice em bytes
+    long sizeBytes();
+
+    // grava o indice junto com o CRC32 do arquivo de onde o grafo veio
+    void save(String fileName, long sourceCrc) throws IOException;
+}
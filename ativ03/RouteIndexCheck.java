@@ -0,0 +1,69 @@
+package ativ03;
+
+import common.CheckReport;
+import common.GraphSnapshot;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Conferencia dos indices pre-processados (RouteIndex) contra o Dijkstra de
+ * referencia nos grafos tree_* e euler_* da pasta graphs: o ALT com as duas
+ * escolhas de landmarks e as contraction hierarchies, cada um antes e depois
+ * de salvo e lido de volta; o indice tem que ser recusado quando o CRC32 do
+ * .txt de origem nao bate.
+ *
+ * java ativ03.RouteIndexCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class RouteIndexCheck {
+    private interface Loader {
+        RouteIndex load(Graph graph, String fileName, long sourceCrc) throws IOException;
+    }
+
+    private static void checkIndex(CheckReport report, ShortestPathReference ref, String engine, RouteIndex index,
+                                   Loader loader, long crc) throws IOException {
+        for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+            ref.checkPair(report, engine, i, index.query(ref.sources[i], ref.destinations[i]));
+        }
+        File saved = File.createTempFile("routeindexcheck", ".idx");
+        try {
+            index.save(saved.getPath(), crc);
+            RouteIndex loaded = loader.load(ref.graph, saved.getPath(), crc);
+            for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+                ref.checkPair(report, engine + " loaded", i, loaded.query(ref.sources[i], ref.destinations[i]));
+            }
+            boolean rejected = false;
+            try {
+                loader.load(ref.graph, saved.getPath(), crc + 1);
+            } catch (IOException e) {
+                rejected = true;
+            }
+            report.check(rejected, ref.name + ": " + engine + " index accepted with another source CRC");
+        } finally {
+            saved.delete();
+        }
+    }
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        long crc = GraphSnapshot.crc32(new File(fileName).toPath());
+
+        for (AltIndex.LandmarkSelection selection : AltIndex.LandmarkSelection.values()) {
+            AltIndex alt = AltIndex.build(ref.graph, 4, selection, ShortestPathReference.SEED);
+            checkIndex(report, ref, "alt-" + selection, alt, AltIndex::load, crc);
+        }
+        ContractionHierarchy ch = ContractionHierarchy.build(ref.graph);
+        checkIndex(report, ref, "ch", ch, ContractionHierarchy::load, crc);
+        report.endSection(ref.name);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        report.finish();
+    }
+}
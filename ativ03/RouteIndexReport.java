@@ -0,0 +1,124 @@
+package ativ03;
+
+import common.GraphSnapshot;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Relatorio do indice pre-processado (ALT, ou contraction hierarchies quando
+ * pedido): tempo de pre-processamento (ou de carga do disco), tamanho do
+ * indice e ganho por consulta em relacao ao Dijkstra que para no destino.
+ * Cada consulta e conferida contra o Dijkstra (peso e numero de arestas).
+ *
+ * java ativ03.RouteIndexReport <grafo.txt> [alt|ch] [consultas] [landmarks] [random|farthest]
+ * O padrao e alt. O indice fica salvo em <grafo.txt>.alt ou <grafo.txt>.ch e
+ * e reaproveitado enquanto o CRC32 do .txt for o mesmo.
+ *
+ * Atencao com o ch: nos euler_* ele e mais lento que o Dijkstra (medido
+ * 0.5x no euler_1000 e 0.25x no euler_10000, com nucleo a partir de 16
+ * atalhos; contraindo tudo o euler_10000 nao termina). Ele so ganha nas
+ * arvores (tree_*), e pouco: 1.55x no tree_1000, 1.02x no tree_100000.
+ */
+class RouteIndexReport {
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ativ03.RouteIndexReport <graph.txt> [alt|ch] [queries] [landmarks] [random|farthest]");
+            return;
+        }
+        // o tipo e opcional: sem ele os argumentos seguintes comecam no indice 1
+        int next = 1;
+        String type = "alt";
+        if (args.length > 1 && (args[1].equalsIgnoreCase("alt") || args[1].equalsIgnoreCase("ch"))) {
+            type = args[1].toLowerCase();
+            next = 2;
+        }
+        Graph graph = Main.loadGraph(args[0]);
+        if (graph == null) return;
+        int queries = args.length > next ? Integer.parseInt(args[next]) : 1000;
+        int landmarks = args.length > next + 1 ? Integer.parseInt(args[next + 1]) : 8;
+        AltIndex.LandmarkSelection selection = args.length > next + 2 && args[next + 2].equalsIgnoreCase("random")
+                ? AltIndex.LandmarkSelection.RANDOM
+                : AltIndex.LandmarkSelection.FARTHEST;
+
+        long sourceCrc;
+        try {
+            sourceCrc = GraphSnapshot.crc32(Paths.get(args[0]));
+        } catch (IOException e) {
+            System.err.println("Error to read the file '" + args[0] + "': " + e.getMessage());
+            return;
+        }
+
+        String indexFile = args[0] + "." + type;
+        RouteIndex index = null;
+        long startTime = System.nanoTime();
+        try {
+            if (new File(indexFile).isFile()) {
+                index = type.equals("ch") ? ContractionHierarchy.load(graph, indexFile, sourceCrc)
+                        : AltIndex.load(graph, indexFile, sourceCrc);
+                System.out.println("Index loaded from " + indexFile + " in " + millis(startTime) + " ms");
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring index '" + indexFile + "': " + e.getMessage());
+        }
+        if (index == null) {
+            startTime = System.nanoTime();
+            index = type.equals("ch") ? ContractionHierarchy.build(graph)
+                    : AltIndex.build(graph, landmarks, selection, 42);
+            System.out.println("Preprocessing time: " + millis(startTime) + " ms");
+            try {
+                index.save(indexFile, sourceCrc);
+                System.out.println("Index saved to " + indexFile);
+            } catch (IOException e) {
+                System.err.println("Could not save index '" + indexFile + "': " + e.getMessage());
+            }
+        }
+
+        System.out.println("Index size: " + String.format("%.2f", index.sizeBytes() / (1024.0 * 1024.0)) + " MB");
+        if (index instanceof ContractionHierarchy) {
+            ContractionHierarchy ch = (ContractionHierarchy) index;
+            System.out.println("Shortcuts: " + ch.shortcutCount() + " | Core vertices: " + ch.coreSize());
+        }
+
+        Random random = new Random(7);
+        int[] sources = new int[queries];
+        int[] destinations = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            sources[i] = 1 + random.nextInt(graph.size());
+            destinations[i] = 1 + random.nextInt(graph.size());
+        }
+
+        PathResult[] expected = new PathResult[queries];
+        long dijkstraSettled = 0;
+        try (ShortestPathEngine engine = new ShortestPathEngine(graph, Main.HEAP_ARITY, 1)) {
+            startTime = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                expected[i] = engine.query(sources[i], destinations[i]);
+                dijkstraSettled += expected[i].settled;
+            }
+        }
+        double dijkstraMs = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        long indexSettled = 0;
+        int mismatches = 0;
+        startTime = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            PathResult r = index.query(sources[i], destinations[i]);
+            indexSettled += r.settled;
+            if (r.weight != expected[i].weight || (r.found() && r.edges != expected[i].edges)) mismatches++;
+        }
+        double indexMs = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        System.out.println("--- QUERY RESULTS (" + queries + " random queries) ---");
+        System.out.println("Dijkstra: " + String.format("%.4f", dijkstraMs / queries) + " ms/query | avg settled "
+                + String.format("%.1f", dijkstraSettled / (double) queries));
+        System.out.println(type.toUpperCase() + ": " + String.format("%.4f", indexMs / queries) + " ms/query | avg settled "
+                + String.format("%.1f", indexSettled / (double) queries));
+        System.out.println("Speedup: " + String.format("%.2f", dijkstraMs / indexMs) + "x | mismatches: " + mismatches);
+    }
+
+    private static String millis(long startTime) {
+        return String.format("%.3f", (System.nanoTime() - startTime) / 1_000_000.0);
+    }
+}
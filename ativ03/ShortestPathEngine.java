@@ -0,0 +1,260 @@
+package ativ03;
+
+import common.ConsoleOutput;
+import common.GraphAccess;
+import common.OffHeapGraph;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Motor de consultas de caminho minimo para muitas consultas no mesmo grafo.
+ * Cada consulta usa um QueryWorkspace (vetores reaproveitados com carimbo de
+ * geracao) e o Dijkstra com heap indexado que para no destino, entao o custo
+ * de uma consulta depende so do que ela visita, nao de n.
+ *
+ * Um lote de consultas e dividido entre varias threads; cada thread pega um
+ * workspace do pool, responde e devolve. O executor e um pool fixo com uma
+ * thread por workspace (as tarefas sao CPU puro, mais threads nao ajudam).
+ *
+ * O grafo entra como GraphAccess: o Graph do heap ou o OffHeapGraph
+ * (CSR fora do heap, para grafos que nao cabem em int[]).
+ */
+class ShortestPathEngine implements AutoCloseable {
+    private final GraphAccess graph;
+    private final int arity;
+    private final BlockingQueue<QueryWorkspace> workspaces;
+    private final ExecutorService executor;
+    private volatile ShortestPathTreeCache treeCache; // opcional
+
+    public ShortestPathEngine(GraphAccess graph, int arity, int poolSize) {
+        this.graph = graph;
+        this.arity = arity;
+        if (graph instanceof Graph) ((Graph) graph).build();
+        workspaces = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            workspaces.add(new QueryWorkspace(graph.size(), arity));
+        }
+        executor = Executors.newFixedThreadPool(poolSize);
+    }
+
+    public GraphAccess graph() {
+        return graph;
+    }
+
+    /**
+     * Liga o cache de arvores de caminhos minimos por origem (limite em bytes).
+     * Com ele, consultas de uma origem ja vista viram so uma caminhada no parent.
+     */
+    public ShortestPathTreeCache enableTreeCache(long maxBytes) {
+        treeCache = new ShortestPathTreeCache(graph, maxBytes);
+        return treeCache;
+    }
+
+    public ShortestPathTreeCache treeCache() {
+        return treeCache;
+    }
+
+    // uma consulta usando um workspace do pool
+    public PathResult query(int source, int destination) {
+        QueryWorkspace ws;
+        try {
+            ws = workspaces.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido esperando um workspace", e);
+        }
+        try {
+            return query(ws, source, destination);
+        } finally {
+            workspaces.add(ws);
+        }
+    }
+
+    /**
+     * Dijkstra origem -> destino no workspace dado (mesma logica do
+     * dijkstraIndexedHeap com stopAtDestination: chave (peso, arestas)).
+     */
+    public PathResult query(QueryWorkspace ws, int source, int destination) {
+        checkVertex(source);
+        checkVertex(destination);
+
+        ShortestPathTreeCache cache = treeCache;
+        if (cache != null) {
+            PathResult cached = cache.query(ws, source, destination);
+            if (cached != null) return cached;
+        }
+
+        DijkstraSearch search = new DijkstraSearch(ws);
+        search.start(source, DijkstraSearch.forward(graph));
+        boolean found = search.run(destination);
+        return search.result(source, destination, found);
+    }
+
+    private void checkVertex(int v) {
+        if (v < 1 || v > graph.size()) {
+            throw new IllegalArgumentException("Vertice invalido: " + v);
+        }
+    }
+
+    /**
+     * Responde um lote de consultas (sources[i] -> destinations[i]).
+     * O lote e quebrado em blocos e os blocos rodam em paralelo;
+     * o resultado i corresponde a consulta i.
+     */
+    public PathResult[] runBatch(int[] sources, int[] destinations) {
+        int q = sources.length;
+        PathResult[] results = new PathResult[q];
+        int blocks = Math.max(1, Math.min(q, workspaces.size() * 4));
+        List<Future<?>> futures = new ArrayList<>(blocks);
+
+        for (int b = 0; b < blocks; b++) {
+            int from = (int) ((long) q * b / blocks);
+            int to = (int) ((long) q * (b + 1) / blocks);
+            futures.add(executor.submit(() -> {
+                QueryWorkspace ws = workspaces.take();
+                try {
+                    for (int i = from; i < to; i++) {
+                        results[i] = query(ws, sources[i], destinations[i]);
+                    }
+                } finally {
+                    workspaces.add(ws);
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Lote interrompido", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Erro no lote: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return results;
+    }
+
+    // le pares "origem destino" (um por linha) de um arquivo ou stream
+    public static int[][] readQueries(InputStream in) throws IOException {
+        int[] values = new int[64];
+        int count = 0;
+        BufferedInputStream buf = new BufferedInputStream(in, 1 << 16);
+        int c = buf.read();
+        while (c != -1) {
+            if (c >= '0' && c <= '9') {
+                int value = 0;
+                while (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    c = buf.read();
+                }
+                if (count == values.length) values = Arrays.copyOf(values, count * 2);
+                values[count++] = value;
+            } else if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                c = buf.read();
+            } else {
+                throw new NumberFormatException("Caractere invalido no arquivo de consultas: '" + (char) c + "'");
+            }
+        }
+        if (count % 2 != 0) {
+            throw new NumberFormatException("Arquivo de consultas com numero impar de valores");
+        }
+        int[] sources = new int[count / 2];
+        int[] destinations = new int[count / 2];
+        for (int i = 0; i < count / 2; i++) {
+            sources[i] = values[2 * i];
+            destinations[i] = values[2 * i + 1];
+        }
+        return new int[][] { sources, destinations };
+    }
+
+    // uma linha por consulta: origem destino peso arestas vertices_fechados caminho
+    public static void writeResults(PathResult[] results, Writer out) throws IOException {
+        for (PathResult r : results) {
+            out.write(r.source + " " + r.destination + " ");
+            if (r.found()) {
+                out.write(r.weight + " " + r.edges + " " + r.settled + " " + r.pathString());
+            } else {
+                out.write("-1 -1 " + r.settled + " unreachable");
+            }
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    // java ativ03.ShortestPathEngine <grafo.txt> <consultas.txt> [saida.txt | -] [cache em MB | -] [heap | offheap]
+    // ("-" como saida = console; "offheap" carrega o grafo no OffHeapGraph)
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java ativ03.ShortestPathEngine <graph.txt> <queries.txt> [results.txt | -] [tree-cache-MB | -] [heap|offheap]");
+            return;
+        }
+        if (args.length > 4 && args[4].equals("offheap")) {
+            try (OffHeapGraph graph = OffHeapGraph.load(args[0], null)) {
+                run(graph, args);
+            } catch (IOException e) {
+                System.err.println("Error to read the file '" + args[0] + "': " + e.getMessage());
+            } catch (NumberFormatException e) {
+                System.err.println("Error parsing number in file: " + e.getMessage());
+            }
+            return;
+        }
+        Graph graph = Main.loadGraph(args[0]);
+        if (graph == null) return;
+        run(graph, args);
+    }
+
+    private static void run(GraphAccess graph, String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        try (ShortestPathEngine engine = new ShortestPathEngine(graph, Main.HEAP_ARITY, threads);
+                InputStream in = new FileInputStream(args[1])) {
+            int[][] queries = readQueries(in);
+            if (args.length > 3 && !args[3].equals("-")) {
+                engine.enableTreeCache(Long.parseLong(args[3]) * 1024 * 1024);
+            }
+
+            long startTime = System.nanoTime();
+            PathResult[] results = engine.runBatch(queries[0], queries[1]);
+            long totalNanoTime = System.nanoTime() - startTime;
+
+            try (Writer out = ConsoleOutput.writer(args.length > 2 ? args[2] : null)) {
+                writeResults(results, out);
+            }
+
+            long settled = 0;
+            for (PathResult r : results) settled += r.settled;
+            double totalMilliTime = totalNanoTime / 1_000_000.0;
+            System.out.println("--- BATCH RESULTS ---");
+            System.out.println("Queries: " + results.length + " | Workspaces: " + threads);
+            System.out.println("Total Time: " + String.format("%.3f", totalMilliTime) + " ms ("
+                    + String.format("%.0f", results.length / (totalMilliTime / 1000.0)) + " queries/s)");
+            System.out.println("Average settled vertices: "
+                    + String.format("%.1f", results.length == 0 ? 0.0 : settled / (double) results.length));
+            if (engine.treeCache() != null) {
+                System.out.println(engine.treeCache().statsReport());
+            }
+        } catch (IOException e) {
+            System.err.println("Error to read the queries '" + args[1] + "': " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing queries: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ativ03;
+
+import common.CheckReport;
+import common.OffHeapGraph;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Conferencia do ShortestPathEngine (workspaces reaproveitados e lote em
+ * paralelo) contra o Dijkstra de referencia nos grafos tree_* e euler_* da
+ * pasta graphs: o lote com 1 e 3 workspaces, consultas seguidas no mesmo
+ * workspace (o carimbo de geracao nao pode deixar lixo de uma consulta para
+ * a outra), vertice fora de 1..n recusado e o arquivo de consultas/resultados.
+ * O mesmo lote tambem roda sobre o OffHeapGraph.
+ *
+ * java ativ03.ShortestPathEngineCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class ShortestPathEngineCheck {
+    private static boolean rejects(ShortestPathEngine engine, int s, int t) {
+        try {
+            engine.query(s, t);
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        int n = ref.graph.size();
+
+        for (int poolSize : new int[] { 1, 3 }) {
+            try (ShortestPathEngine engine = new ShortestPathEngine(ref.graph, Main.HEAP_ARITY, poolSize)) {
+                PathResult[] batch = engine.runBatch(ref.sources, ref.destinations);
+                for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+                    ref.checkPair(report, "batch (" + poolSize + " workspaces)", i, batch[i]);
+                }
+                // de tras para frente, no mesmo workspace: cada consulta comeca do zero
+                QueryWorkspace ws = new QueryWorkspace(n, Main.HEAP_ARITY);
+                for (int i = ShortestPathReference.PAIRS - 1; i >= 0; i--) {
+                    ref.checkPair(report, "reused workspace", i, engine.query(ws, ref.sources[i], ref.destinations[i]));
+                }
+                report.check(rejects(engine, 0, 1) && rejects(engine, 1, n + 1) && rejects(engine, -1, 1),
+                        ref.name + ": vertex outside 1..n accepted");
+
+                // consultas lidas de texto e resultados escritos uma linha por consulta
+                StringBuilder text = new StringBuilder();
+                for (int i = 0; i < 10; i++) {
+                    text.append(ref.sources[i]).append(i % 2 == 0 ? " " : "\t").append(ref.destinations[i]).append("\r\n");
+                }
+                int[][] queries = ShortestPathEngine.readQueries(
+                        new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.US_ASCII)));
+                boolean sameQueries = queries[0].length == 10;
+                for (int i = 0; i < 10 && sameQueries; i++) {
+                    sameQueries = queries[0][i] == ref.sources[i] && queries[1][i] == ref.destinations[i];
+                }
+                report.check(sameQueries, ref.name + ": readQueries differs from the written pairs");
+                StringWriter out = new StringWriter();
+                ShortestPathEngine.writeResults(engine.runBatch(queries[0], queries[1]), out);
+                String[] lines = out.toString().split("\n");
+                boolean sameLines = lines.length == 10;
+                for (int i = 0; i < 10 && sameLines; i++) {
+                    String[] parts = lines[i].split(" ");
+                    long dist = ref.trees[i].dist[ref.destinations[i]];
+                    sameLines = Long.parseLong(parts[2]) == (dist == Long.MAX_VALUE ? -1 : dist);
+                }
+                report.check(sameLines, ref.name + ": writeResults lines differ from the reference weights");
+            }
+        }
+        // o mesmo lote lendo o grafo fora do heap
+        try (OffHeapGraph offHeap = OffHeapGraph.load(fileName, null);
+                ShortestPathEngine engine = new ShortestPathEngine(offHeap, Main.HEAP_ARITY, 3)) {
+            PathResult[] batch = engine.runBatch(ref.sources, ref.destinations);
+            for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+                ref.checkPair(report, "off-heap batch", i, batch[i]);
+            }
+            report.check(rejects(engine, 0, 1) && rejects(engine, 1, n + 1),
+                    ref.name + ": off-heap vertex outside 1..n accepted");
+        }
+
+        boolean odd = false;
+        try {
+            ShortestPathEngine.readQueries(new ByteArrayInputStream("1 2 3".getBytes(StandardCharsets.US_ASCII)));
+        } catch (NumberFormatException e) {
+            odd = true;
+        }
+        report.check(odd, "readQueries accepted an odd number of values");
+        report.endSection(ref.name);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        report.finish();
+    }
+}
@@ -0,0 +1,145 @@
+package ativ03;
+
+import common.CheckReport;
+import java.io.File;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Referencia das conferencias do ativ03: um grafo de teste da pasta graphs,
+ * PAIRS consultas sorteadas com semente fixa (metade repete 10 origens, para
+ * o cache de arvores ter acertos) e a resposta de cada uma por um Dijkstra
+ * simples (PriorityQueue de {dist, arestas, vertice}, arvore completa): com
+ * peso igual fica o caminho com menos arestas, como no Main.
+ */
+class ShortestPathReference {
+    static final String[] GRAPHS = { "tree_1000.txt", "tree_10000.txt", "euler_1000.txt", "euler_10000.txt" };
+    static final int PAIRS = 100;
+    static final long SEED = 42;
+
+    // dist/arestas a partir de uma origem (Long.MAX_VALUE e -1 se inalcancavel)
+    static final class Tree {
+        final long[] dist;
+        final int[] edges;
+
+        Tree(long[] dist, int[] edges) {
+            this.dist = dist;
+            this.edges = edges;
+        }
+    }
+
+    final String name;
+    final Graph graph;
+    final int[] sources = new int[PAIRS];
+    final int[] destinations = new int[PAIRS];
+    final Tree[] trees = new Tree[PAIRS]; // arvore de referencia de cada origem
+
+    private ShortestPathReference(String fileName, Graph graph) {
+        this.name = new File(fileName).getName();
+        this.graph = graph;
+        graph.buildReverse();
+        int n = graph.size();
+        Random random = new Random(SEED);
+        for (int i = 0; i < PAIRS; i++) {
+            sources[i] = i % 2 == 0 ? 1 + random.nextInt(Math.min(n, 10)) : 1 + random.nextInt(n);
+            destinations[i] = 1 + random.nextInt(n);
+        }
+        for (int i = 0; i < PAIRS; i++) trees[i] = tree(graph, sources[i], false);
+    }
+
+    // null (com a falha contada) se o grafo nao pode ser lido
+    static ShortestPathReference load(CheckReport report, String fileName) {
+        Graph graph = Main.readGraph(fileName);
+        report.check(graph != null, "could not read " + fileName);
+        return graph == null ? null : new ShortestPathReference(fileName, graph);
+    }
+
+    // a consulta i conferida contra a arvore de referencia da origem dela
+    void checkPair(CheckReport report, String engine, int i, PathResult r) {
+        checkResult(report, engine, graph, trees[i], r, sources[i], destinations[i], false);
+    }
+
+    /** undirected = usa tambem as arestas ao contrario (para o oraculo de arvore). */
+    static Tree tree(Graph graph, int source, boolean undirected) {
+        int n = graph.size();
+        long[] dist = new long[n + 1];
+        int[] edges = new int[n + 1];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        Arrays.fill(edges, -1);
+        boolean[] done = new boolean[n + 1];
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> a[0] != b[0]
+                ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        dist[source] = 0;
+        edges[source] = 0;
+        queue.add(new long[] { 0, 0, source });
+        while (!queue.isEmpty()) {
+            long[] top = queue.poll();
+            int u = (int) top[2];
+            if (done[u]) continue;
+            done[u] = true;
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                relax(queue, dist, edges, done, graph.target(e), top[0] + graph.weight(e), (int) top[1] + 1);
+            }
+            if (undirected) {
+                for (int e = graph.firstInEdge(u); e < graph.endInEdge(u); e++) {
+                    relax(queue, dist, edges, done, graph.source(e), top[0] + graph.inWeight(e), (int) top[1] + 1);
+                }
+            }
+        }
+        return new Tree(dist, edges);
+    }
+
+    private static void relax(PriorityQueue<long[]> queue, long[] dist, int[] edges, boolean[] done,
+                              int v, long d, int k) {
+        if (done[v]) return;
+        if (d < dist[v] || (d == dist[v] && k < edges[v])) {
+            dist[v] = d;
+            edges[v] = k;
+            queue.add(new long[] { d, k, v });
+        }
+    }
+
+    // menor peso de uma aresta u -> v (ou v -> u quando undirected), -1 se nao existe
+    private static long edgeWeight(Graph graph, int u, int v, boolean undirected) {
+        long best = -1;
+        for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+            if (graph.target(e) == v && (best < 0 || graph.weight(e) < best)) best = graph.weight(e);
+        }
+        if (undirected) {
+            for (int e = graph.firstInEdge(u); e < graph.endInEdge(u); e++) {
+                if (graph.source(e) == v && (best < 0 || graph.inWeight(e) < best)) best = graph.inWeight(e);
+            }
+        }
+        return best;
+    }
+
+    // peso de um caminho refeito no grafo, -1 se alguma aresta nao existe
+    static long pathWeight(Graph graph, int[] path, boolean undirected) {
+        long total = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            long w = edgeWeight(graph, path[i], path[i + 1], undirected);
+            if (w < 0) return -1;
+            total += w;
+        }
+        return total;
+    }
+
+    // resultado igual ao de referencia; com caminho, o caminho tem que valer o peso dito
+    static void checkResult(CheckReport report, String engine, Graph graph, Tree ref, PathResult r, int s, int t,
+                            boolean undirected) {
+        String pair = engine + " " + s + " -> " + t;
+        long dist = ref.dist[t];
+        if (dist == Long.MAX_VALUE) {
+            report.check(!r.found() && r.weight == Long.MAX_VALUE, pair + ": expected unreachable, got " + r.weight);
+            return;
+        }
+        report.check(r.weight == dist, pair + ": weight " + r.weight + " != " + dist);
+        report.check(r.edges == ref.edges[t], pair + ": edges " + r.edges + " != " + ref.edges[t]);
+        if (r.path != null) {
+            report.check(r.path[0] == s && r.path[r.path.length - 1] == t, pair + ": path does not go from s to t");
+            report.check(r.path.length - 1 == r.edges, pair + ": path length " + (r.path.length - 1) + " != " + r.edges);
+            report.check(pathWeight(graph, r.path, undirected) == r.weight, pair + ": path weight differs from result");
+        }
+    }
+}
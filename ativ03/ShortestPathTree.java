@@ -0,0 +1,58 @@
+package ativ03;
+
+import common.GraphAccess;
+
+/**
+ * Arvore de caminhos minimos completa a partir de uma origem
+ * (dist, numEdges e parent de todos os vertices).
+ */
+class ShortestPathTree {
+    final int source;
+    final long[] dist;
+    final int[] numEdges;
+    final int[] parent;
+
+    ShortestPathTree(int source, long[] dist, int[] numEdges, int[] parent) {
+        this.source = source;
+        this.dist = dist;
+        this.numEdges = numEdges;
+        this.parent = parent;
+    }
+
+    // Dijkstra completo num workspace proprio
+    static ShortestPathTree compute(GraphAccess graph, int source, int arity) {
+        return compute(graph, source, new QueryWorkspace(graph.size(), arity));
+    }
+
+    // Dijkstra completo (DijkstraSearch sem destino) no workspace dado; copia so os vetores da arvore
+    static ShortestPathTree compute(GraphAccess graph, int source, QueryWorkspace ws) {
+        int n = graph.size();
+        DijkstraSearch search = new DijkstraSearch(ws);
+        search.start(source, DijkstraSearch.forward(graph));
+        search.run(-1);
+
+        long[] dist = new long[n + 1];
+        int[] numEdges = new int[n + 1];
+        int[] parent = new int[n + 1];
+        for (int v = 0; v <= n; v++) {
+            dist[v] = ws.dist(v);
+            numEdges[v] = ws.numEdges(v);
+            parent[v] = ws.visited(v) ? ws.parent[v] : -1;
+        }
+        return new ShortestPathTree(source, dist, numEdges, parent);
+    }
+
+    // caminho ate 'destination' andando pelo parent: O(tamanho do caminho)
+    PathResult pathTo(int destination) {
+        return PathResult.fromParents(source, destination, dist, numEdges, parent);
+    }
+
+    long bytes() {
+        return 8L * dist.length + 4L * numEdges.length + 4L * parent.length;
+    }
+
+    // bytes de uma arvore de um grafo com n vertices (dist + numEdges + parent de 0..n)
+    static long bytes(int n) {
+        return 16L * (n + 1);
+    }
+}
@@ -0,0 +1,152 @@
+package ativ03;
+
+import common.GraphAccess;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Cache LRU de arvores de caminhos minimos, indexado pela origem.
+ * Quando varias consultas saem da mesma origem, so uma roda o Dijkstra
+ * completo; as outras so andam pelo vetor parent.
+ * O limite e em bytes: ao passar dele as arvores usadas ha mais tempo saem.
+ *
+ * A arvore e O(n) e sai bem mais cara que uma consulta que para no destino,
+ * entao o primeiro miss de uma origem nao monta nada: query devolve null e o
+ * ShortestPathEngine responde com o Dijkstra do workspace. So no segundo
+ * miss da mesma origem a arvore e montada (no workspace de quem pediu), e
+ * uma unica vez: quem chega enquanto ela esta sendo montada espera por ela.
+ * Se uma arvore (16 bytes por vertice) nem cabe no limite, nada e montado:
+ * toda consulta vai ao Dijkstra que para no destino. Uma origem que sai por
+ * LRU volta a precisar de dois misses para ser montada de novo.
+ */
+class ShortestPathTreeCache {
+    private final GraphAccess graph;
+    private final long maxBytes;
+    private final long treeBytes; // tamanho de uma arvore deste grafo
+    private final LinkedHashMap<Integer, ShortestPathTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+    private final boolean[] missedBefore; // origem ja teve um miss (proximo miss monta a arvore)
+    private final ConcurrentHashMap<Integer, FutureTask<ShortestPathTree>> building = new ConcurrentHashMap<>();
+    private long bytesUsed;
+
+    // contadores para dimensionar o cache
+    private long hits;
+    private long misses;
+    private long builds;
+    private long evictions;
+    private long tooBig; // misses que nem tentaram montar (arvore maior que o limite)
+
+    public ShortestPathTreeCache(GraphAccess graph, long maxBytes) {
+        this.graph = graph;
+        this.maxBytes = maxBytes;
+        this.treeBytes = ShortestPathTree.bytes(graph.size());
+        this.missedBefore = new boolean[graph.size() + 1];
+    }
+
+    // caminho pela arvore da origem, ou null quando a consulta deve ir direto ao Dijkstra
+    public PathResult query(QueryWorkspace ws, int source, int destination) {
+        ShortestPathTree tree;
+        synchronized (this) {
+            tree = trees.get(source);
+            if (tree != null) {
+                hits++;
+            } else {
+                misses++;
+                if (treeBytes > maxBytes) {
+                    tooBig++;
+                    return null;
+                }
+                if (!missedBefore[source]) {
+                    missedBefore[source] = true;
+                    return null;
+                }
+            }
+        }
+        if (tree == null) tree = build(source, ws);
+        return tree.pathTo(destination);
+    }
+
+    // monta a arvore de source uma vez so, mesmo com varias threads pedindo ao mesmo tempo
+    private ShortestPathTree build(int source, QueryWorkspace ws) {
+        FutureTask<ShortestPathTree> task = new FutureTask<>(() -> ShortestPathTree.compute(graph, source, ws));
+        FutureTask<ShortestPathTree> running = building.putIfAbsent(source, task);
+        if (running == null) {
+            running = task;
+            try {
+                task.run(); // calcula fora do lock para nao travar as outras consultas
+                if (!task.isCancelled()) put(task.get());
+            } catch (InterruptedException | ExecutionException e) {
+                // o erro chega a quem espera pelo get() abaixo
+            } finally {
+                building.remove(source, task);
+            }
+        }
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido esperando a arvore de " + source, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro montando a arvore de " + source + ": " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    private synchronized void put(ShortestPathTree tree) {
+        long size = tree.bytes();
+        builds++;
+        if (size > maxBytes || trees.containsKey(tree.source)) return; // nao cabe, ou ja esta guardada
+
+        Iterator<Map.Entry<Integer, ShortestPathTree>> it = trees.entrySet().iterator();
+        while (bytesUsed + size > maxBytes && it.hasNext()) {
+            ShortestPathTree evicted = it.next().getValue();
+            bytesUsed -= evicted.bytes();
+            missedBefore[evicted.source] = false; // volta a passar pela admissao
+            it.remove();
+            evictions++;
+        }
+        trees.put(tree.source, tree);
+        bytesUsed += size;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long builds() {
+        return builds;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized long tooBig() {
+        return tooBig;
+    }
+
+    public synchronized long bytesUsed() {
+        return bytesUsed;
+    }
+
+    public synchronized int cachedTrees() {
+        return trees.size();
+    }
+
+    public synchronized String statsReport() {
+        long total = hits + misses;
+        return "Tree cache: hits " + hits + " | misses " + misses + " | trees built " + builds
+                + " | evictions " + evictions + " | too big " + tooBig
+                + " | hit rate " + String.format("%.1f", total == 0 ? 0.0 : 100.0 * hits / total) + "%"
+                + " | trees " + trees.size()
+                + " | " + String.format("%.1f", bytesUsed / (1024.0 * 1024.0)) + " of "
+                + String.format("%.1f", maxBytes / (1024.0 * 1024.0)) + " MB";
+    }
+}
@@ -0,0 +1,93 @@
+package ativ03;
+
+import common.CheckReport;
+import java.io.File;
+
+/**
+ * Conferencia do cache de arvores de caminhos minimos por origem contra o
+ * Dijkstra de referencia nos grafos tree_* e euler_* da pasta graphs: as
+ * respostas com o cache ligado (varias rodadas das mesmas consultas), a
+ * admissao so no segundo miss de uma origem, o limite em bytes (arvores
+ * saem por LRU e uma origem que saiu volta a precisar de dois misses) e o
+ * limite menor que uma arvore (nada e montado, tudo vai ao Dijkstra).
+ *
+ * java ativ03.TreeCacheCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class TreeCacheCheck {
+    private static void checkGraph(CheckReport report, String fileName) {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        Graph graph = ref.graph;
+        int n = graph.size();
+        String name = ref.name;
+        long treeBytes = ShortestPathTree.bytes(n);
+
+        // limite folgado: todas as respostas pelo motor, em tres rodadas
+        try (ShortestPathEngine engine = new ShortestPathEngine(graph, Main.HEAP_ARITY, 2)) {
+            ShortestPathTreeCache cache = engine.enableTreeCache(64L << 20);
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+                    ref.checkPair(report, "tree-cache round " + round, i,
+                            engine.query(ref.sources[i], ref.destinations[i]));
+                }
+            }
+            report.check(cache.hits() > 0 && cache.builds() > 0, name + ": tree cache had no hits");
+            report.check(cache.bytesUsed() <= 64L << 20, name + ": tree cache over its limit");
+        }
+
+        // admissao: o primeiro miss de uma origem nao monta nada, o segundo monta
+        QueryWorkspace ws = new QueryWorkspace(n, Main.HEAP_ARITY);
+        int s = ref.sources[0];
+        int t = ref.destinations[0];
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(graph, 64L << 20);
+        boolean firstSkipped = cache.query(ws, s, t) == null && cache.builds() == 0;
+        PathResult second = cache.query(ws, s, t);
+        report.check(firstSkipped && second != null && cache.builds() == 1, name + ": second-miss admission");
+        if (second != null) ref.checkPair(report, "tree-cache second miss", 0, second);
+
+        // limite de duas arvores: a terceira origem tira a mais antiga, que volta a precisar de dois misses
+        cache = new ShortestPathTreeCache(graph, 2 * treeBytes);
+        int[] three = { 1, 1 + n / 2, n };
+        for (int v : three) {
+            cache.query(ws, v, t);
+            cache.query(ws, v, t);
+        }
+        report.check(cache.cachedTrees() == 2 && cache.evictions() == 1 && cache.bytesUsed() <= 2 * treeBytes,
+                name + ": LRU eviction at a two-tree limit");
+        report.check(cache.query(ws, three[0], t) == null, name + ": evicted source built again on its first miss");
+
+        // limite menor que uma arvore: nenhuma montada, o motor responde igual
+        try (ShortestPathEngine engine = new ShortestPathEngine(graph, Main.HEAP_ARITY, 1)) {
+            ShortestPathTreeCache tiny = engine.enableTreeCache(treeBytes - 1);
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+                    ref.checkPair(report, "tree-cache too big", i, engine.query(ref.sources[i], ref.destinations[i]));
+                }
+            }
+            report.check(tiny.builds() == 0 && tiny.tooBig() == tiny.misses() && tiny.misses() > 0,
+                    name + ": tree built with a limit below one tree");
+        }
+
+        // a arvore sozinha: dist/arestas de todos os vertices
+        for (int i = 0; i < 5; i++) {
+            ShortestPathTree tree = ShortestPathTree.compute(graph, ref.sources[i], ws);
+            boolean same = true;
+            for (int v = 1; v <= n && same; v++) {
+                same = tree.dist[v] == ref.trees[i].dist[v]
+                        && (ref.trees[i].dist[v] == Long.MAX_VALUE || tree.numEdges[v] == ref.trees[i].edges[v]);
+            }
+            report.check(same, name + ": shortest path tree from " + ref.sources[i]);
+        }
+        report.endSection(name);
+    }
+
+    public static void main(String[] args) {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        report.finish();
+    }
+}
@@ -0,0 +1,191 @@
+package ativ03;
+
+import java.util.Arrays;
+
+/**
+ * Oraculo de distancias para entradas que sao arvores (como os tree_*.txt).
+ * As arestas sao tratadas como bidirecionais. Uma DFS iterativa a partir
+ * do vertice 1 calcula parent, profundidade (em arestas) e distancia da
+ * raiz (em peso). O LCA sai em O(1) com uma sparse table sobre a ordem de
+ * visita da DFS (variante da Euler tour com n - 1 posicoes em vez de 2n - 1):
+ * para tin[u] < tin[v], o LCA e o pai do vertice de menor profundidade em
+ * order[tin[u] + 1 .. tin[v]].
+ *
+ * peso(u, v) = rootDist[u] + rootDist[v] - 2 * rootDist[lca]
+ * arestas(u, v) = depth[u] + depth[v] - 2 * depth[lca]
+ *
+ * Tudo e iterativo, entao as arvores de 500000 vertices nao estouram a pilha.
+ */
+class TreeDistanceOracle {
+    private final int n;
+    private final int[] parent;
+    private final int[] depth;
+    private final long[] rootDist;
+    private final int[] tin;       // posicao de v na ordem da DFS
+    private final int[][] sparse;  // sparse[k][i] = vertice mais raso em order[i .. i + 2^k)
+    private final int[] log2;
+
+    private TreeDistanceOracle(int n, int[] parent, int[] depth, long[] rootDist, int[] order, int[] tin) {
+        this.n = n;
+        this.parent = parent;
+        this.depth = depth;
+        this.rootDist = rootDist;
+        this.tin = tin;
+
+        log2 = new int[n + 2];
+        for (int i = 2; i <= n + 1; i++) {
+            log2[i] = log2[i / 2] + 1;
+        }
+        int levels = log2[Math.max(1, n)] + 1;
+        sparse = new int[levels][];
+        sparse[0] = order;
+        for (int k = 1; k < levels; k++) {
+            int len = n - (1 << k) + 1;
+            int[] prev = sparse[k - 1];
+            int[] cur = new int[Math.max(0, len)];
+            int half = 1 << (k - 1);
+            for (int i = 0; i < len; i++) {
+                int a = prev[i];
+                int b = prev[i + half];
+                cur[i] = depth[a] <= depth[b] ? a : b;
+            }
+            sparse[k] = cur;
+        }
+    }
+
+    /**
+     * Monta o oraculo se o grafo (visto sem direcao) for uma arvore:
+     * n - 1 arestas e todos os vertices 1..n conectados. Senao devolve null.
+     */
+    static TreeDistanceOracle tryBuild(Graph graph) {
+        int n = graph.size();
+        if (n < 1 || graph.edgeCount() != n - 1) return null;
+
+        // adjacencia sem direcao em CSR (vizinho + peso)
+        int[] offsets = new int[n + 2];
+        for (int u = 1; u <= n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                if (v < 1 || v > n || v == u) return null;
+                offsets[u + 1]++;
+                offsets[v + 1]++;
+            }
+        }
+        for (int v = 1; v <= n + 1; v++) {
+            offsets[v] += offsets[v - 1];
+        }
+        int[] adj = new int[2 * (n - 1)];
+        int[] weight = new int[2 * (n - 1)];
+        int[] next = Arrays.copyOf(offsets, n + 1);
+        for (int u = 1; u <= n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                int w = graph.weight(e);
+                adj[next[u]] = v;
+                weight[next[u]++] = w;
+                adj[next[v]] = u;
+                weight[next[v]++] = w;
+            }
+        }
+
+        // DFS iterativa a partir da raiz 1 (pilha de vertices + cursor por vertice)
+        int[] parent = new int[n + 1];
+        int[] depth = new int[n + 1];
+        long[] rootDist = new long[n + 1];
+        int[] tin = new int[n + 1];
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n + 1];
+        int[] cursor = new int[n + 1];
+        int[] stack = new int[n];
+        int top = 0;
+        int time = 0;
+
+        stack[top++] = 1;
+        visited[1] = true;
+        parent[1] = 0;
+        tin[1] = time;
+        order[time++] = 1;
+        System.arraycopy(offsets, 0, cursor, 0, n + 1);
+
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (cursor[u] == offsets[u + 1]) {
+                top--;
+                continue;
+            }
+            int i = cursor[u]++;
+            int v = adj[i];
+            if (visited[v]) continue;
+            visited[v] = true;
+            parent[v] = u;
+            depth[v] = depth[u] + 1;
+            rootDist[v] = rootDist[u] + weight[i];
+            tin[v] = time;
+            order[time++] = v;
+            stack[top++] = v;
+        }
+
+        // com n - 1 arestas, alcancar todos os vertices garante que nao ha ciclo
+        if (time != n) return null;
+        return new TreeDistanceOracle(n, parent, depth, rootDist, order, tin);
+    }
+
+    // vertice mais raso em order[l .. r]
+    private int shallowest(int l, int r) {
+        int k = log2[r - l + 1];
+        int a = sparse[k][l];
+        int b = sparse[k][r - (1 << k) + 1];
+        return depth[a] <= depth[b] ? a : b;
+    }
+
+    public int lca(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        if (u == v) return u;
+        int a = tin[u];
+        int b = tin[v];
+        if (a > b) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        return parent[shallowest(a + 1, b)];
+    }
+
+    private void checkVertex(int v) {
+        if (v < 1 || v > n) {
+            throw new IllegalArgumentException("Vertice invalido: " + v);
+        }
+    }
+
+    // peso do caminho u - v em O(1)
+    public long weight(int u, int v) {
+        return rootDist[u] + rootDist[v] - 2 * rootDist[lca(u, v)];
+    }
+
+    // numero de arestas do caminho u - v em O(1)
+    public int edges(int u, int v) {
+        return depth[u] + depth[v] - 2 * depth[lca(u, v)];
+    }
+
+    // caminho montado so quando pedido: sobe de u e de v ate o LCA
+    public PathResult query(int source, int destination) {
+        int l = lca(source, destination);
+        int up = depth[source] - depth[l];
+        int down = depth[destination] - depth[l];
+        int[] path = new int[up + down + 1];
+
+        int current = source;
+        for (int i = 0; i <= up; i++) {
+            path[i] = current;
+            current = parent[current];
+        }
+        current = destination;
+        for (int i = path.length - 1; i > up; i--) {
+            path[i] = current;
+            current = parent[current];
+        }
+        long w = rootDist[source] + rootDist[destination] - 2 * rootDist[l];
+        return new PathResult(source, destination, w, up + down, path);
+    }
+}
@@ -0,0 +1,100 @@
+package ativ03;
+
+import common.CheckReport;
+import java.io.File;
+
+/**
+ * Conferencia do oraculo de distancias em arvores nos grafos tree_* e
+ * euler_* da pasta graphs: so os tree_* sao reconhecidos como arvore; neles
+ * peso, numero de arestas e caminho de cada consulta batem com o Dijkstra de
+ * referencia andando nos dois sentidos, e o LCA bate com o LCA ingenuo
+ * (subir pelos pais a partir da raiz 1). Vertice fora de 1..n e recusado.
+ *
+ * java ativ03.TreeOracleCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class TreeOracleCheck {
+    // pai e profundidade de cada vertice numa BFS sem direcao a partir de 1
+    private static int[][] rootedTree(Graph graph) {
+        int n = graph.size();
+        int[] parent = new int[n + 1];
+        int[] depth = new int[n + 1];
+        boolean[] seen = new boolean[n + 1];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 1;
+        seen[1] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                if (!seen[v]) {
+                    seen[v] = true;
+                    parent[v] = u;
+                    depth[v] = depth[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+            for (int e = graph.firstInEdge(u); e < graph.endInEdge(u); e++) {
+                int v = graph.source(e);
+                if (!seen[v]) {
+                    seen[v] = true;
+                    parent[v] = u;
+                    depth[v] = depth[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return new int[][] { parent, depth };
+    }
+
+    private static int naiveLca(int[][] tree, int u, int v) {
+        int[] parent = tree[0];
+        int[] depth = tree[1];
+        while (depth[u] > depth[v]) u = parent[u];
+        while (depth[v] > depth[u]) v = parent[v];
+        while (u != v) {
+            u = parent[u];
+            v = parent[v];
+        }
+        return u;
+    }
+
+    private static void checkGraph(CheckReport report, String fileName) {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        Graph graph = ref.graph;
+        TreeDistanceOracle oracle = TreeDistanceOracle.tryBuild(graph);
+        report.check(ref.name.startsWith("tree_") == (oracle != null), ref.name + ": tree detection");
+        if (oracle != null) {
+            int[][] tree = rootedTree(graph);
+            for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+                int s = ref.sources[i];
+                int t = ref.destinations[i];
+                ShortestPathReference.Tree undirected = ShortestPathReference.tree(graph, s, true);
+                ShortestPathReference.checkResult(report, "tree-oracle", graph, undirected, oracle.query(s, t), s, t, true);
+                report.check(oracle.weight(s, t) == undirected.dist[t] && oracle.edges(s, t) == undirected.edges[t],
+                        ref.name + ": oracle weight/edges " + s + " - " + t);
+                report.check(oracle.lca(s, t) == naiveLca(tree, s, t), ref.name + ": lca " + s + " - " + t);
+            }
+            boolean rejected = false;
+            try {
+                oracle.lca(0, 1);
+            } catch (IllegalArgumentException e) {
+                rejected = true;
+            }
+            report.check(rejected, ref.name + ": vertex 0 accepted");
+        }
+        report.endSection(ref.name);
+    }
+
+    public static void main(String[] args) {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        report.finish();
+    }
+}
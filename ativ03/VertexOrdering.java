@@ -0,0 +1,352 @@
+package ativ03;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Renumeracao dos vertices para localidade de cache.
+ * Os ids dos arquivos (euler_*, layered_*) nao tem relacao com a estrutura,
+ * entao uma busca pula por dist/parent/cor de forma quase aleatoria. Aqui o
+ * grafo e reescrito com ids novos em que vizinhos ficam proximos:
+ *   BFS    - ordem de descoberta de uma BFS (arestas nos dois sentidos);
+ *   RCM    - Cuthill-McKee reverso: BFS comecando pelo vertice de menor grau e
+ *            visitando os vizinhos em ordem crescente de grau, depois invertida;
+ *   DEGREE - grau total decrescente (hubs juntos no comeco dos vetores).
+ * As listas de cada vertice tambem ficam ordenadas pelo id novo.
+ *
+ * toNew/toOld guardam os dois sentidos do mapeamento, entao consultas e
+ * caminhos impressos continuam usando os ids originais (toOriginal).
+ */
+class VertexOrdering {
+    enum Strategy { BFS, RCM, DEGREE }
+
+    final Strategy strategy;
+    final Graph graph;    // grafo com os ids novos
+    final int[] toNew;    // toNew[id original] = id novo
+    final int[] toOld;    // toOld[id novo] = id original
+
+    private VertexOrdering(Strategy strategy, Graph graph, int[] toNew, int[] toOld) {
+        this.strategy = strategy;
+        this.graph = graph;
+        this.toNew = toNew;
+        this.toOld = toOld;
+    }
+
+    static VertexOrdering apply(Graph original, Strategy strategy) {
+        original.buildReverse();
+        int n = original.size();
+        int[] toOld;
+        switch (strategy) {
+            case RCM:
+                toOld = cuthillMcKee(original, true);
+                break;
+            case DEGREE:
+                toOld = byDegree(original);
+                break;
+            default:
+                toOld = cuthillMcKee(original, false);
+                break;
+        }
+        int[] toNew = new int[n + 1];
+        for (int v = 1; v <= n; v++) toNew[toOld[v]] = v;
+        return new VertexOrdering(strategy, relabel(original, toNew, toOld), toNew, toOld);
+    }
+
+    public int toNew(int v) {
+        return toNew[v];
+    }
+
+    public int toOld(int v) {
+        return toOld[v];
+    }
+
+    // resultado calculado no grafo renumerado, de volta para os ids originais
+    public PathResult toOriginal(PathResult result) {
+        int[] path = null;
+        if (result.path != null) {
+            path = new int[result.path.length];
+            for (int i = 0; i < path.length; i++) path[i] = toOld[result.path[i]];
+        }
+        PathResult mapped = new PathResult(toOld[result.source], toOld[result.destination],
+                result.weight, result.edges, path);
+        mapped.settled = result.settled;
+        return mapped;
+    }
+
+    private static int degree(Graph graph, int v) {
+        return graph.endEdge(v) - graph.firstEdge(v) + graph.endInEdge(v) - graph.firstInEdge(v);
+    }
+
+    /**
+     * BFS nos dois sentidos; order[novo] = original (posicao 0 nao usada).
+     * Com byDegree (Cuthill-McKee) cada componente comeca pelo vertice de menor
+     * grau e os vizinhos entram na fila em ordem crescente de grau; no fim a
+     * ordem e invertida (RCM). Sem, e a BFS simples a partir dos menores ids.
+     */
+    private static int[] cuthillMcKee(Graph graph, boolean byDegree) {
+        int n = graph.size();
+        int[] starts = new int[n];
+        if (byDegree) {
+            int[] ascending = byDegree(graph);
+            for (int i = 0; i < n; i++) starts[i] = ascending[n - i];
+        } else {
+            for (int i = 0; i < n; i++) starts[i] = i + 1;
+        }
+
+        int[] order = new int[n + 1];
+        boolean[] visited = new boolean[n + 1];
+        long[] buffer = new long[16]; // vizinhos novos de u, (grau << 32) | id
+        int tail = 1;
+        int head = 1;
+        for (int start : starts) {
+            if (visited[start]) continue;
+            visited[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int u = order[head++];
+                int found = 0;
+                int total = degree(graph, u);
+                if (buffer.length < total) buffer = new long[Math.max(total, buffer.length * 2)];
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    int v = graph.target(e);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        buffer[found++] = byDegree ? ((long) degree(graph, v) << 32) | v : v;
+                    }
+                }
+                for (int e = graph.firstInEdge(u); e < graph.endInEdge(u); e++) {
+                    int v = graph.source(e);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        buffer[found++] = byDegree ? ((long) degree(graph, v) << 32) | v : v;
+                    }
+                }
+                if (byDegree) Arrays.sort(buffer, 0, found);
+                for (int i = 0; i < found; i++) order[tail++] = (int) buffer[i];
+            }
+        }
+
+        if (byDegree) {
+            for (int i = 1, j = n; i < j; i++, j--) {
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+        }
+        return order;
+    }
+
+    // grau total decrescente (empate: menor id) por counting sort; order[novo] = original
+    private static int[] byDegree(Graph graph) {
+        int n = graph.size();
+        int max = 0;
+        for (int v = 1; v <= n; v++) max = Math.max(max, degree(graph, v));
+        int[] start = new int[max + 2];
+        for (int v = 1; v <= n; v++) start[max - degree(graph, v) + 1]++;
+        for (int d = 1; d <= max + 1; d++) start[d] += start[d - 1];
+        int[] order = new int[n + 1];
+        for (int v = 1; v <= n; v++) order[1 + start[max - degree(graph, v)]++] = v;
+        return order;
+    }
+
+    // reescreve o CSR na ordem nova, com cada lista ordenada pelo id novo do destino
+    private static Graph relabel(Graph graph, int[] toNew, int[] toOld) {
+        int n = graph.size();
+        int[] offsets = new int[n + 2];
+        for (int v = 1; v <= n; v++) {
+            int old = toOld[v];
+            offsets[v + 1] = offsets[v] + graph.endEdge(old) - graph.firstEdge(old);
+        }
+        int[] targets = new int[graph.edgeCount()];
+        int[] weights = new int[graph.edgeCount()];
+        long[] row = new long[16]; // (destino << 32) | peso
+        for (int v = 1; v <= n; v++) {
+            int old = toOld[v];
+            int degree = graph.endEdge(old) - graph.firstEdge(old);
+            if (row.length < degree) row = new long[Math.max(degree, row.length * 2)];
+            int k = 0;
+            for (int e = graph.firstEdge(old); e < graph.endEdge(old); e++) {
+                row[k++] = ((long) toNew[graph.target(e)] << 32) | (graph.weight(e) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(row, 0, k);
+            for (int i = 0; i < k; i++) {
+                targets[offsets[v] + i] = (int) (row[i] >>> 32);
+                weights[offsets[v] + i] = (int) row[i];
+            }
+        }
+        return Graph.fromCsr(n, offsets, targets, weights);
+    }
+
+    // distancia media |id(u) - id(v)| das arestas: quanto menor, mais perto na memoria
+    static double averageGap(Graph graph) {
+        long sum = 0;
+        for (int u = 1; u <= graph.size(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                sum += Math.abs(graph.target(e) - u);
+            }
+        }
+        return graph.edgeCount() == 0 ? 0 : (double) sum / graph.edgeCount();
+    }
+
+    // DFS iterativa (floresta completa, cursor por vertice); devolve quantos vertices viu
+    static int dfsForest(Graph graph, int[] cursor, int[] stack, boolean[] visited) {
+        int n = graph.size();
+        Arrays.fill(visited, false);
+        int seen = 0;
+        for (int root = 1; root <= n; root++) {
+            if (visited[root]) continue;
+            int top = 0;
+            stack[top++] = root;
+            visited[root] = true;
+            cursor[root] = graph.firstEdge(root);
+            seen++;
+            while (top > 0) {
+                int u = stack[top - 1];
+                if (cursor[u] < graph.endEdge(u)) {
+                    int v = graph.target(cursor[u]++);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        cursor[v] = graph.firstEdge(v);
+                        stack[top++] = v;
+                        seen++;
+                    }
+                } else {
+                    top--;
+                }
+            }
+        }
+        return seen;
+    }
+
+    // BFS (floresta completa) com fila em int[]; devolve a soma das distancias em arestas
+    static long bfsForest(Graph graph, int[] queue, int[] level) {
+        int n = graph.size();
+        Arrays.fill(level, -1);
+        long sum = 0;
+        for (int root = 1; root <= n; root++) {
+            if (level[root] >= 0) continue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            level[root] = 0;
+            while (head < tail) {
+                int u = queue[head++];
+                sum += level[u];
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    int v = graph.target(e);
+                    if (level[v] < 0) {
+                        level[v] = level[u] + 1;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    // tempos (melhor de 3) e a soma dos pesos das consultas, que tem que ser igual em todas as ordens
+    private static class TraversalTimes {
+        final double dfsMs;
+        final double bfsMs;
+        final double dijkstraMs;
+        final long checksum;
+
+        TraversalTimes(double dfsMs, double bfsMs, double dijkstraMs, long checksum) {
+            this.dfsMs = dfsMs;
+            this.bfsMs = bfsMs;
+            this.dijkstraMs = dijkstraMs;
+            this.checksum = checksum;
+        }
+    }
+
+    // melhor de 3 execucoes (a primeira costuma pagar o JIT)
+    private static TraversalTimes traversalTimes(Graph graph, int[] sources, int[] destinations) {
+        int n = graph.size();
+        int[] a = new int[n + 1];
+        int[] b = new int[n + 1];
+        boolean[] visited = new boolean[n + 1];
+        double dfs = Double.MAX_VALUE;
+        double bfs = Double.MAX_VALUE;
+        double dijkstra = Double.MAX_VALUE;
+        long checksum = 0;
+        ShortestPathEngine engine = new ShortestPathEngine(graph, Main.HEAP_ARITY, 1);
+        QueryWorkspace ws = new QueryWorkspace(n, Main.HEAP_ARITY);
+        try {
+            for (int run = 0; run < 3; run++) {
+                long start = System.nanoTime();
+                dfsForest(graph, a, b, visited);
+                dfs = Math.min(dfs, (System.nanoTime() - start) / 1_000_000.0);
+
+                start = System.nanoTime();
+                bfsForest(graph, a, b);
+                bfs = Math.min(bfs, (System.nanoTime() - start) / 1_000_000.0);
+
+                start = System.nanoTime();
+                checksum = 0;
+                for (int i = 0; i < sources.length; i++) {
+                    PathResult r = engine.query(ws, sources[i], destinations[i]);
+                    if (r.found()) checksum += r.weight;
+                }
+                dijkstra = Math.min(dijkstra, (System.nanoTime() - start) / 1_000_000.0);
+            }
+        } finally {
+            engine.close();
+        }
+        return new TraversalTimes(dfs, bfs, dijkstra, checksum);
+    }
+
+    /**
+     * java ativ03.VertexOrdering <grafo.txt> [bfs|rcm|degree|all] [consultas] [semente]
+     * Compara DFS, BFS e Dijkstra (consultas aleatorias, mesmas para todas as
+     * ordens) no grafo original e no renumerado. A soma dos pesos das
+     * consultas tem que ser igual em todas as ordens.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ativ03.VertexOrdering <graph.txt> [bfs|rcm|degree|all] [queries] [seed]");
+            return;
+        }
+        Graph graph = Main.loadGraph(args[0]);
+        if (graph == null) return;
+        String which = args.length > 1 ? args[1].toUpperCase() : "ALL";
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        int n = graph.size();
+        int[] sources = new int[queries];
+        int[] destinations = new int[queries];
+        Random random = new Random(seed);
+        for (int i = 0; i < queries; i++) {
+            sources[i] = 1 + random.nextInt(n);
+            destinations[i] = 1 + random.nextInt(n);
+        }
+
+        System.out.println("--- VERTEX ORDERING BENCHMARK (" + n + " vertices, " + graph.edgeCount() + " edges, "
+                + queries + " Dijkstra queries) ---");
+        System.out.println(String.format("%-10s %10s %12s %10s %10s %14s %14s", "order", "build ms", "avg gap",
+                "DFS ms", "BFS ms", "Dijkstra ms", "checksum"));
+        TraversalTimes base = traversalTimes(graph, sources, destinations);
+        System.out.println(String.format("%-10s %10s %12.1f %10.3f %10.3f %14.3f %14d", "FILE", "-",
+                averageGap(graph), base.dfsMs, base.bfsMs, base.dijkstraMs, base.checksum));
+
+        for (Strategy strategy : Strategy.values()) {
+            if (!which.equals("ALL") && !which.equals(strategy.name())) continue;
+            long start = System.nanoTime();
+            VertexOrdering ordering = apply(graph, strategy);
+            double buildMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            int[] mappedSources = new int[queries];
+            int[] mappedDestinations = new int[queries];
+            for (int i = 0; i < queries; i++) {
+                mappedSources[i] = ordering.toNew(sources[i]);
+                mappedDestinations[i] = ordering.toNew(destinations[i]);
+            }
+            TraversalTimes times = traversalTimes(ordering.graph, mappedSources, mappedDestinations);
+            System.out.println(String.format("%-10s %10.3f %12.1f %10.3f %10.3f %14.3f %14d", strategy, buildMs,
+                    averageGap(ordering.graph), times.dfsMs, times.bfsMs, times.dijkstraMs, times.checksum)
+                    + String.format("   speedup DFS %.2fx BFS %.2fx Dijkstra %.2fx",
+                    base.dfsMs / times.dfsMs, base.bfsMs / times.bfsMs, base.dijkstraMs / times.dijkstraMs)
+                    + (times.checksum == base.checksum ? "" : "   CHECKSUM MISMATCH"));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ativ03;
+
+import common.CheckReport;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Conferencia da renumeracao de vertices (VertexOrdering) nos grafos tree_* e
+ * euler_* da pasta graphs, para cada estrategia: toNew e toOld sao
+ * permutacoes inversas de 1..n; o grafo renumerado tem as mesmas arestas
+ * (com os ids novos e o mesmo peso), cada lista em ordem crescente de
+ * destino; as consultas no grafo renumerado, traduzidas de volta, batem com
+ * o Dijkstra de referencia (ShortestPathReference). Pela estrategia: na BFS
+ * so a raiz de cada componente fraca nao tem vizinho com id menor (no RCM,
+ * maior), e no DEGREE o grau total nunca cresce com o id.
+ *
+ * java ativ03.VertexOrderingCheck [pasta dos grafos] (padrao ativ03/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class VertexOrderingCheck {
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        ShortestPathReference ref = ShortestPathReference.load(report, fileName);
+        if (ref == null) return;
+        Graph graph = ref.graph;
+        int n = graph.size();
+        int components = weakComponents(graph);
+        for (VertexOrdering.Strategy strategy : VertexOrdering.Strategy.values()) {
+            String what = ref.name + " " + strategy;
+            VertexOrdering ordering = VertexOrdering.apply(graph, strategy);
+            Graph relabeled = ordering.graph;
+
+            boolean inverse = relabeled.size() == n;
+            for (int v = 1; v <= n && inverse; v++) {
+                inverse = ordering.toNew(v) >= 1 && ordering.toNew(v) <= n && ordering.toOld(ordering.toNew(v)) == v;
+            }
+            report.check(inverse, what + ": toNew/toOld are not inverse permutations");
+            if (!inverse) continue;
+
+            boolean sameEdges = relabeled.edgeCount() == graph.edgeCount();
+            boolean sorted = true;
+            for (int u = 1; u <= n && sameEdges; u++) {
+                int w = ordering.toNew(u);
+                long[] expected = new long[graph.endEdge(u) - graph.firstEdge(u)];
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    expected[e - graph.firstEdge(u)] = ((long) ordering.toNew(graph.target(e)) << 32) | graph.weight(e);
+                }
+                long[] found = new long[relabeled.endEdge(w) - relabeled.firstEdge(w)];
+                for (int e = relabeled.firstEdge(w); e < relabeled.endEdge(w); e++) {
+                    found[e - relabeled.firstEdge(w)] = ((long) relabeled.target(e) << 32) | relabeled.weight(e);
+                    sorted &= e == relabeled.firstEdge(w) || relabeled.target(e - 1) <= relabeled.target(e);
+                }
+                Arrays.sort(expected);
+                Arrays.sort(found);
+                sameEdges = Arrays.equals(expected, found);
+            }
+            report.check(sameEdges, what + ": relabeled edges differ");
+            report.check(sorted, what + ": relabeled lists are not sorted");
+
+            // consulta no grafo renumerado, resultado traduzido de volta
+            try (ShortestPathEngine engine = new ShortestPathEngine(relabeled, Main.HEAP_ARITY, 1)) {
+                for (int i = 0; i < ShortestPathReference.PAIRS; i++) {
+                    PathResult r = engine.query(ordering.toNew(ref.sources[i]), ordering.toNew(ref.destinations[i]));
+                    ref.checkPair(report, "order-" + strategy, i, ordering.toOriginal(r));
+                }
+            }
+
+            switch (strategy) {
+                case BFS:
+                    report.check(roots(relabeled, false) == components, what + ": vertices without a smaller neighbor");
+                    break;
+                case RCM:
+                    report.check(roots(relabeled, true) == components, what + ": vertices without a larger neighbor");
+                    break;
+                default:
+                    relabeled.buildReverse();
+                    boolean descending = true;
+                    for (int v = 2; v <= n; v++) descending &= degree(relabeled, v - 1) >= degree(relabeled, v);
+                    report.check(descending, what + ": degree grows with the new id");
+                    break;
+            }
+        }
+        report.endSection(ref.name);
+    }
+
+    private static int degree(Graph graph, int v) {
+        return graph.endEdge(v) - graph.firstEdge(v) + graph.endInEdge(v) - graph.firstInEdge(v);
+    }
+
+    // vertices sem vizinho (em qualquer sentido) de id menor, ou maior com larger
+    private static int roots(Graph graph, boolean larger) {
+        graph.buildReverse();
+        int roots = 0;
+        for (int v = 1; v <= graph.size(); v++) {
+            boolean found = false;
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v) && !found; e++) {
+                found = larger ? graph.target(e) > v : graph.target(e) < v;
+            }
+            for (int e = graph.firstInEdge(v); e < graph.endInEdge(v) && !found; e++) {
+                found = larger ? graph.source(e) > v : graph.source(e) < v;
+            }
+            if (!found) roots++;
+        }
+        return roots;
+    }
+
+    // componentes fracamente conexas por union-find
+    private static int weakComponents(Graph graph) {
+        int n = graph.size();
+        int[] parent = new int[n + 1];
+        for (int v = 1; v <= n; v++) parent[v] = v;
+        int components = n;
+        for (int u = 1; u <= n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int a = find(parent, u);
+                int b = find(parent, graph.target(e));
+                if (a != b) {
+                    parent[a] = b;
+                    components--;
+                }
+            }
+        }
+        return components;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ03/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : ShortestPathReference.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        report.finish();
+    }
+}
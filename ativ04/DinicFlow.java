@@ -0,0 +1,115 @@
+package ativ04;
+
+import java.util.Arrays;
+
+/**
+ * Fluxo maximo de Dinic sobre o mesmo grafo residual do FlowGraph.
+ * Cada fase faz uma BFS a partir de s para montar o grafo de niveis e depois
+ * um fluxo bloqueante com DFS iterativa e ponteiro de aresta atual (current[u]),
+ * entao cada aresta e descartada no maximo uma vez por fase.
+ * Com capacidades unitarias sao O(sqrt(E)) fases.
+ */
+class DinicFlow {
+    private final FlowGraph graph;
+    private final int[] level;
+    private final int[] current;  // proxima aresta a tentar em cada vertice
+    private final int[] queue;
+    private final int[] pathVertex; // pilha da DFS: vertices
+    private final int[] pathEdge;   // pilha da DFS: arco usado a partir do vertice
+    int phases;
+
+    DinicFlow(FlowGraph graph) {
+        this.graph = graph;
+        graph.build();
+        int size = graph.V + 1;
+        level = new int[size];
+        current = new int[size];
+        queue = new int[size];
+        pathVertex = new int[size];
+        pathEdge = new int[size];
+    }
+
+    public long maxFlow(int s, int t) {
+        long total = 0;
+        phases = 0;
+        if (s == t) return 0;
+        while (buildLevels(s, t)) {
+            phases++;
+            System.arraycopy(graph.first, 0, current, 0, current.length);
+            total += blockingFlow(s, t);
+        }
+        return total;
+    }
+
+    // BFS no residual; devolve false quando t deixa de ser alcancavel
+    private boolean buildLevels(int s, int t) {
+        Arrays.fill(level, -1);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = s;
+        level[s] = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = graph.first[u]; e < graph.first[u + 1]; e++) {
+                int v = graph.to[e];
+                if (level[v] == -1 && graph.cap[e] - graph.flow[e] > 0) {
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return level[t] != -1;
+    }
+
+    // DFS iterativa no grafo de niveis; aumenta sempre que chega em t
+    private long blockingFlow(int s, int t) {
+        int[] to = graph.to;
+        int[] cap = graph.cap;
+        int[] flow = graph.flow;
+        long total = 0;
+        int depth = 0;
+        pathVertex[0] = s;
+
+        while (true) {
+            int u = pathVertex[depth];
+            if (u == t) {
+                // gargalo do caminho e aumento
+                int push = Integer.MAX_VALUE;
+                for (int i = 0; i < depth; i++) {
+                    int e = pathEdge[i];
+                    push = Math.min(push, cap[e] - flow[e]);
+                }
+                int retreat = depth;
+                for (int i = depth - 1; i >= 0; i--) {
+                    int e = pathEdge[i];
+                    graph.push(e, push);
+                    if (cap[e] - flow[e] == 0) retreat = i; // volta para antes da primeira aresta saturada
+                }
+                total += push;
+                depth = retreat;
+                continue;
+            }
+
+            int end = graph.first[u + 1];
+            boolean advanced = false;
+            while (current[u] < end) {
+                int e = current[u];
+                if (cap[e] - flow[e] > 0 && level[to[e]] == level[u] + 1) {
+                    pathEdge[depth] = e;
+                    pathVertex[++depth] = to[e];
+                    advanced = true;
+                    break;
+                }
+                current[u]++;
+            }
+            if (advanced) continue;
+
+            // beco sem saida: tira u do grafo de niveis e recua
+            level[u] = -1;
+            if (depth == 0) break;
+            depth--;
+            current[pathVertex[depth]]++;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,210 @@
+package ativ04;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conectividade de arestas global de um grafo direcionado: o menor numero
+ * de arestas (ou menor capacidade) cuja remocao deixa algum par u, v sem
+ * caminho u -> v. Reducao padrao: fixa um vertice r e toma o minimo de
+ * fluxo(r, v) e fluxo(v, r) para todo v != r, em vez de n^2 fluxos.
+ *
+ * Os 2(n - 1) fluxos sao independentes e rodam em paralelo, cada thread com
+ * a sua copia do residual (estrutura compartilhada, fluxo proprio) e reset
+ * so dos arcos sujos entre um fluxo e outro. Poda: cada fluxo para assim que
+ * chega no melhor valor atual, que comeca no menor grau (de saida ou de
+ * entrada) do grafo.
+ */
+class EdgeConnectivity {
+    final long value;       // conectividade de arestas
+    final int source;       // par que deu o corte minimo (origem -> destino)
+    final int destination;
+    final MinCut witness;   // corte que separa source de destination
+    final long flows;       // fluxos calculados
+    final long pruned;      // fluxos interrompidos ao alcancar o melhor valor
+
+    private EdgeConnectivity(long value, int source, int destination, MinCut witness, long flows, long pruned) {
+        this.value = value;
+        this.source = source;
+        this.destination = destination;
+        this.witness = witness;
+        this.flows = flows;
+        this.pruned = pruned;
+    }
+
+    // estado compartilhado entre as threads durante o calculo
+    private static class Best {
+        volatile long value;
+        int source;
+        int destination;
+        MinCut witness;
+    }
+
+    static EdgeConnectivity compute(FlowGraph graph, int threads) {
+        graph.build();
+        int n = graph.V;
+        Best best = new Best();
+        initialBound(graph, best);
+        if (n <= 1 || best.value == 0) {
+            return new EdgeConnectivity(best.value, best.source, best.destination, best.witness, 0, 0);
+        }
+
+        int root = 1;
+        AtomicInteger next = new AtomicInteger(1);
+        AtomicLong flows = new AtomicLong();
+        AtomicLong pruned = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int w = 0; w < threads; w++) {
+                tasks.add(executor.submit(() -> {
+                    FlowGraph residual = graph.residualCopy();
+                    residual.trackDirtyArcs();
+                    for (int v = next.getAndIncrement(); v <= n; v = next.getAndIncrement()) {
+                        if (v == root) continue;
+                        if (!check(residual, root, v, best, flows, pruned)) return;
+                        if (!check(residual, v, root, best, flows, pruned)) return;
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha no calculo da conectividade", e);
+        } finally {
+            executor.shutdown();
+        }
+        return new EdgeConnectivity(best.value, best.source, best.destination, best.witness, flows.get(), pruned.get());
+    }
+
+    // um fluxo s -> t limitado pelo melhor valor; devolve false quando nao ha mais o que podar (valor 0)
+    private static boolean check(FlowGraph residual, int s, int t, Best best, AtomicLong flows, AtomicLong pruned) {
+        long limit = best.value;
+        if (limit == 0) return false;
+        residual.resetDirtyFlow();
+        long f = residual.maxFlow(s, t, limit);
+        flows.incrementAndGet();
+        if (f >= limit) {
+            pruned.incrementAndGet();
+            return true;
+        }
+        // f < limit: e o fluxo maximo e o residual tem o corte
+        MinCut cut = residual.minCut(s);
+        synchronized (best) {
+            if (f < best.value) {
+                best.value = f;
+                best.source = s;
+                best.destination = t;
+                best.witness = cut;
+            }
+        }
+        return f > 0;
+    }
+
+    // limite inicial: menor grau de saida ou de entrada (em capacidade), com o corte trivial dele
+    private static void initialBound(FlowGraph graph, Best best) {
+        int n = graph.V;
+        long[] out = new long[n + 1];
+        long[] in = new long[n + 1];
+        for (int u = 1; u <= n; u++) {
+            for (int e = graph.first[u]; e < graph.first[u + 1]; e++) {
+                int v = graph.to[e];
+                if (graph.cap[e] > 0 && v != u) {
+                    out[u] += graph.cap[e];
+                    in[v] += graph.cap[e];
+                }
+            }
+        }
+
+        int vertex = 1;
+        boolean outgoing = true;
+        long bound = Long.MAX_VALUE;
+        for (int v = 1; v <= n; v++) {
+            if (out[v] < bound) {
+                bound = out[v];
+                vertex = v;
+                outgoing = true;
+            }
+            if (in[v] < bound) {
+                bound = in[v];
+                vertex = v;
+                outgoing = false;
+            }
+        }
+        if (n == 0) bound = 0;
+
+        // corte trivial: {vertex} para o grau de saida, todos menos vertex para o de entrada
+        boolean[] sourceSide = new boolean[n + 1];
+        int sourceSize;
+        if (outgoing) {
+            sourceSide[vertex] = true;
+            sourceSize = 1;
+        } else {
+            for (int v = 1; v <= n; v++) sourceSide[v] = v != vertex;
+            sourceSize = Math.max(0, n - 1);
+        }
+        int count = 0;
+        for (int u = 1; u <= n; u++) {
+            if (!sourceSide[u]) continue;
+            for (int e = graph.first[u]; e < graph.first[u + 1]; e++) {
+                if (graph.cap[e] > 0 && !sourceSide[graph.to[e]]) count++;
+            }
+        }
+        int[] origins = new int[count];
+        int[] targets = new int[count];
+        int[] capacities = new int[count];
+        count = 0;
+        for (int u = 1; u <= n; u++) {
+            if (!sourceSide[u]) continue;
+            for (int e = graph.first[u]; e < graph.first[u + 1]; e++) {
+                if (graph.cap[e] > 0 && !sourceSide[graph.to[e]]) {
+                    origins[count] = u;
+                    targets[count] = graph.to[e];
+                    capacities[count++] = graph.cap[e];
+                }
+            }
+        }
+
+        best.value = bound;
+        best.witness = new MinCut(sourceSide, sourceSize, origins, targets, capacities);
+        // qualquer vertice do outro lado serve de par
+        best.source = outgoing ? vertex : (vertex == 1 ? Math.min(2, n) : 1);
+        best.destination = outgoing ? (vertex == 1 ? Math.min(2, n) : 1) : vertex;
+    }
+
+    // java ativ04.EdgeConnectivity <grafo.txt> [threads] [unit|weighted]
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ativ04.EdgeConnectivity <graph.txt> [threads] [unit|weighted]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        boolean weighted = args.length > 2 && args[2].equalsIgnoreCase("weighted");
+        FlowGraph graph = Main.loadGraph(args[0], weighted);
+        if (graph == null) return;
+
+        long startTime = System.nanoTime();
+        EdgeConnectivity result = compute(graph, Math.max(1, threads));
+        double totalMs = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        System.out.println("--- GLOBAL EDGE CONNECTIVITY (" + (weighted ? "weighted" : "unit") + ") ---");
+        System.out.println("Connectivity: " + result.value + " | weakest pair: " + result.source + " -> " + result.destination);
+        System.out.println("Flows computed: " + result.flows + " | pruned at the current minimum: " + result.pruned);
+        System.out.println("Threads: " + threads + " | Time: " + String.format("%.3f", totalMs) + " ms");
+        System.out.println(result.witness.summary());
+        int listed = Math.min(result.witness.cutSize(), 20);
+        for (int i = 0; i < listed; i++) {
+            System.out.println("Cut arc: " + result.witness.cutOrigins[i] + " -> " + result.witness.cutTargets[i]
+                    + " (cap " + result.witness.cutCapacities[i] + ")");
+        }
+        if (listed < result.witness.cutSize()) {
+            System.out.println("... " + (result.witness.cutSize() - listed) + " more");
+        }
+    }
+}
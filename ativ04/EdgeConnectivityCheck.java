@@ -0,0 +1,102 @@
+package ativ04;
+
+import common.CheckReport;
+import java.io.File;
+
+/**
+ * Conferencia da conectividade de arestas global (EdgeConnectivity) nos
+ * grafos de 1000 vertices da pasta graphs, com capacidade 1 e com a 3a
+ * coluna: com 1, 2 e 3 threads o valor e o minimo de todos os fluxos 1 -> v
+ * e v -> 1 (sem poda), e o corte testemunha separa o par informado e soma
+ * exatamente as capacidades que saem do lado de s. Tambem confere dois
+ * ciclos ligados nos dois sentidos por uma aresta (valor 1, tambem com mais
+ * uma aresta de capacidade 0) e um grafo sem caminho de volta (valor 0).
+ *
+ * java ativ04.EdgeConnectivityCheck [pasta dos grafos] (padrao ativ04/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class EdgeConnectivityCheck {
+    private static final String[] GRAPHS = { "euler_1000.txt", "layered_1000.txt" };
+    private static final int MAX_THREADS = 3;
+
+    private static void checkGraph(CheckReport report, String fileName, boolean weighted) {
+        String name = new File(fileName).getName() + (weighted ? " (weighted)" : " (unit)");
+        FlowGraph graph = Main.readGraph(fileName, weighted);
+        report.check(graph != null, "could not read " + fileName);
+        if (graph == null) return;
+        checkConnectivity(report, graph, brute(graph), name);
+        report.endSection(name);
+    }
+
+    // todos os fluxos a partir e em direcao ao vertice 1, sem poda
+    private static long brute(FlowGraph graph) {
+        long best = Long.MAX_VALUE;
+        for (int v = 2; v <= graph.V; v++) {
+            graph.resetFlow();
+            best = Math.min(best, graph.maxFlow(1, v, FlowAlgorithm.DINIC));
+            graph.resetFlow();
+            best = Math.min(best, graph.maxFlow(v, 1, FlowAlgorithm.DINIC));
+        }
+        graph.resetFlow();
+        return best;
+    }
+
+    private static void checkConnectivity(CheckReport report, FlowGraph graph, long expected, String name) {
+        for (int threads = 1; threads <= MAX_THREADS; threads++) {
+            String what = name + " (" + threads + " threads)";
+            EdgeConnectivity connectivity = EdgeConnectivity.compute(graph, threads);
+            report.check(connectivity.value == expected, what + ": " + connectivity.value + " != " + expected);
+            MinCut witness = connectivity.witness;
+            report.check(witness != null && witness.capacity == connectivity.value, what + ": witness capacity");
+            if (witness == null) continue;
+            report.check(witness.sourceSide[connectivity.source] && !witness.sourceSide[connectivity.destination],
+                    what + ": witness does not separate " + connectivity.source + " -> " + connectivity.destination);
+            long leaving = 0;
+            for (int u = 1; u <= graph.V; u++) {
+                if (!witness.sourceSide[u]) continue;
+                for (int e = graph.first[u]; e < graph.first[u + 1]; e++) {
+                    if (graph.cap[e] > 0 && !witness.sourceSide[graph.to[e]]) leaving += graph.cap[e];
+                }
+            }
+            report.check(leaving == witness.capacity, what + ": witness arcs " + leaving + " != " + witness.capacity);
+        }
+    }
+
+    // ciclos 1..5 e 6..10 (cada aresta duas vezes) ligados por 3 -> 8 e 9 -> 2: valor 1
+    private static void checkBridge(CheckReport report) {
+        FlowGraph graph = new FlowGraph(10);
+        for (int k = 0; k < 2; k++) {
+            for (int v = 1; v <= 5; v++) {
+                graph.addEdge(5 * k + v, 5 * k + v % 5 + 1);
+                graph.addEdge(5 * k + v, 5 * k + v % 5 + 1);
+            }
+        }
+        graph.addEdge(3, 8);
+        graph.addEdge(9, 2);
+        checkConnectivity(report, graph, 1, "bridge");
+        graph.addEdge(10, 1, 0);
+        checkConnectivity(report, graph, 1, "bridge with a zero arc");
+        report.endSection("bridge");
+    }
+
+    // 1 -> 2 -> 3 sem volta: valor 0
+    private static void checkDisconnected(CheckReport report) {
+        FlowGraph graph = new FlowGraph(3);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        checkConnectivity(report, graph, 0, "path");
+        report.endSection("path");
+    }
+
+    public static void main(String[] args) {
+        String dir = args.length > 0 ? args[0] : "ativ04/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : GRAPHS) {
+            checkGraph(report, dir + File.separator + graph, false);
+            checkGraph(report, dir + File.separator + graph, true);
+        }
+        checkBridge(report);
+        checkDisconnected(report);
+        report.finish();
+    }
+}
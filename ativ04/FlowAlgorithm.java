@@ -0,0 +1,9 @@
+package ativ04;
+
+// Algoritmos de fluxo maximo disponiveis no FlowGraph
+enum FlowAlgorithm {
+    EDMONDS_KARP,
+    DINIC,
+    PUSH_RELABEL,
+    CAPACITY_SCALING
+}
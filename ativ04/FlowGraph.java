@@ -0,0 +1,537 @@
+package ativ04;
+
+import common.GraphAccess;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Classe para Fluxo Máximo
+// Residual em CSR (struct of arrays): os arcos de u ficam em [first[u], first[u + 1])
+// e cada arco ocupa 16 bytes (to, rev, cap, flow) em vez de um objeto FlowEdge.
+// Capacidade e fluxo de um arco cabem em int; os totais (valor do fluxo, corte) sao long.
+class FlowGraph {
+    int V;
+    private int m; // arestas lidas
+
+    // arestas na ordem de leitura (usadas so para montar o CSR)
+    private int[] edgeOrigin;
+    private int[] edgeDestination;
+    private int[] edgeCapacity;
+
+    int[] first; // inicio dos arcos de cada vertice
+    int[] to;    // destino do arco
+    int[] rev;   // indice do arco reverso
+    int[] cap;   // capacidade (a da aresta no arco de ida, 0 no de volta)
+    int[] flow;  // fluxo atual passando pelo arco
+
+    private boolean built;
+
+    // buffers do Edmonds-Karp, reaproveitados entre chamadas
+    private int[] parent;
+    private int[] parentArc;
+    private int[] visitStamp; // visitStamp[v] == stamp: v ja visto nesta BFS
+    private int stamp;
+    private IntQueue queue;
+
+    // engines reaproveitadas entre consultas (buffers de tamanho V)
+    private DinicFlow dinic;
+    private PushRelabelFlow pushRelabel;
+
+    // arcos cujo fluxo saiu de zero desde o ultimo reset (null = sem rastreio)
+    private IntQueue dirty;
+
+    public FlowGraph(int V) {
+        this(V, 16);
+    }
+
+    public FlowGraph(int V, int expectedEdges) {
+        this.V = V;
+        edgeOrigin = new int[Math.max(expectedEdges, 1)];
+        edgeDestination = new int[Math.max(expectedEdges, 1)];
+        edgeCapacity = new int[Math.max(expectedEdges, 1)];
+    }
+
+    // adiciona aresta direcionada com capacidade 1 (para contar caminhos)
+    public void addEdge(int u, int v) {
+        addEdge(u, v, 1);
+    }
+
+    // copia para outra thread: divide a estrutura (first/to/rev/cap) e tem fluxo e buffers proprios
+    private FlowGraph(FlowGraph other) {
+        other.build();
+        this.V = other.V;
+        this.m = other.m;
+        this.first = other.first;
+        this.to = other.to;
+        this.rev = other.rev;
+        this.cap = other.cap;
+        this.flow = new int[other.to.length];
+        allocateBuffers();
+        this.built = true;
+    }
+
+    // residual montado direto de um GraphAccess (ex.: OffHeapGraph), sem as listas de arestas lidas
+    private FlowGraph(GraphAccess graph, boolean weighted) {
+        long edges = graph.edges();
+        if (edges > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Grafo grande demais para o residual (2m arcos em int): " + edges);
+        }
+        this.V = graph.size();
+        this.m = (int) edges;
+
+        first = new int[V + 2];
+        for (int u = 1; u <= V; u++) {
+            for (long e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                first[u + 1]++;
+                first[graph.edgeTarget(e) + 1]++;
+            }
+        }
+        for (int v = 1; v <= V + 1; v++) {
+            first[v] += first[v - 1];
+        }
+
+        int arcs = 2 * m;
+        to = new int[arcs];
+        rev = new int[arcs];
+        cap = new int[arcs];
+        flow = new int[arcs];
+        int[] next = Arrays.copyOf(first, V + 1);
+        for (int u = 1; u <= V; u++) {
+            for (long e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.edgeTarget(e);
+                int capacity = weighted ? graph.edgeWeight(e) : 1;
+                if (capacity < 0) {
+                    throw new IllegalArgumentException("Capacidade negativa: " + u + " -> " + v);
+                }
+                int a = next[u]++;
+                int b = next[v]++;
+                to[a] = v;
+                rev[a] = b;
+                cap[a] = capacity;
+                to[b] = u;
+                rev[b] = a;
+            }
+        }
+
+        allocateBuffers();
+        built = true;
+    }
+
+    /**
+     * Residual a partir de um GraphAccess, na mesma ordem de arcos do snapshot
+     * (origem crescente). weighted = capacidade e o peso da aresta, senao 1.
+     * O residual fica no heap (int[], 2 arcos por aresta), entao o grafo tem
+     * que ter menos de 2^30 arestas mesmo vindo de um OffHeapGraph; o grafo de
+     * entrada pode ser fechado depois.
+     */
+    static FlowGraph from(GraphAccess graph, boolean weighted) {
+        return new FlowGraph(graph, weighted);
+    }
+
+    public FlowGraph residualCopy() {
+        return new FlowGraph(this);
+    }
+
+    // adiciona aresta direcionada com capacidade qualquer (ex.: o peso da 3a coluna)
+    public void addEdge(int u, int v, int capacity) {
+        if (edgeOrigin == null) {
+            throw new IllegalStateException("Residual ja montado (copia ou GraphAccess) nao aceita novas arestas");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacidade negativa: " + u + " -> " + v);
+        }
+        if (m == edgeOrigin.length) {
+            int newCap = edgeOrigin.length * 2;
+            edgeOrigin = Arrays.copyOf(edgeOrigin, newCap);
+            edgeDestination = Arrays.copyOf(edgeDestination, newCap);
+            edgeCapacity = Arrays.copyOf(edgeCapacity, newCap);
+        }
+        edgeOrigin[m] = u;
+        edgeDestination[m] = v;
+        edgeCapacity[m] = capacity;
+        m++;
+        built = false;
+    }
+
+    /**
+     * Monta o residual: cada aresta u -> v vira o arco de ida (com a capacidade da aresta)
+     * no bloco de u e o de volta (capacidade 0) no bloco de v, na mesma ordem
+     * em que as listas de adjacencia antigas recebiam os FlowEdge.
+     */
+    public void build() {
+        if (built) return;
+
+        first = new int[V + 2];
+        for (int i = 0; i < m; i++) {
+            first[edgeOrigin[i] + 1]++;
+            first[edgeDestination[i] + 1]++;
+        }
+        for (int v = 1; v <= V + 1; v++) {
+            first[v] += first[v - 1];
+        }
+
+        int arcs = 2 * m;
+        to = new int[arcs];
+        rev = new int[arcs];
+        cap = new int[arcs];
+        flow = new int[arcs];
+        int[] next = Arrays.copyOf(first, V + 1);
+        for (int i = 0; i < m; i++) {
+            int u = edgeOrigin[i];
+            int v = edgeDestination[i];
+            // aresta "Forward": u -> v (Capacidade da aresta)
+            int a = next[u]++;
+            // aresta "Backward": v -> u (Capacidade 0)
+            int b = next[v]++;
+            to[a] = v;
+            rev[a] = b;
+            cap[a] = edgeCapacity[i];
+            to[b] = u;
+            rev[b] = a;
+        }
+
+        allocateBuffers();
+        built = true;
+    }
+
+    private void allocateBuffers() {
+        parent = new int[V + 1];
+        parentArc = new int[V + 1];
+        visitStamp = new int[V + 1];
+        stamp = 0;
+        queue = new IntQueue(V + 1);
+        dinic = null;
+        pushRelabel = null;
+        if (dirty != null) dirty = new IntQueue(64);
+    }
+
+    // numero de arcos no residual (cada aresta conta com a reversa)
+    public int arcCount() {
+        build();
+        return to.length;
+    }
+
+    // bytes ocupados pelo residual (4 vetores de arcos + offsets)
+    public long residualBytes() {
+        build();
+        return 16L * to.length + 4L * first.length;
+    }
+
+    // maior capacidade de aresta (ponto de partida do capacity scaling)
+    public int maxCapacity() {
+        build();
+        int max = 0;
+        for (int c : cap) max = Math.max(max, c);
+        return max;
+    }
+
+    // zera o fluxo para rodar outra consulta no mesmo grafo
+    public void resetFlow() {
+        build();
+        Arrays.fill(flow, 0);
+        if (dirty != null) dirty.clear();
+    }
+
+    /**
+     * Liga o rastreio de arcos sujos: todo arco cujo fluxo sai de zero entra
+     * na lista, e resetDirtyFlow() zera so esses (e os reversos) em vez do
+     * vetor inteiro. Um arco pode entrar mais de uma vez se voltar a zero no
+     * meio da consulta; o reset e idempotente.
+     */
+    public void trackDirtyArcs() {
+        build();
+        if (dirty == null) dirty = new IntQueue(64);
+    }
+
+    // desfaz o fluxo da consulta anterior; devolve quantos arcos foram zerados
+    public int resetDirtyFlow() {
+        if (dirty == null) {
+            resetFlow();
+            return flow.length;
+        }
+        int count = 0;
+        while (!dirty.isEmpty()) {
+            int e = dirty.poll();
+            flow[e] = 0;
+            flow[rev[e]] = 0;
+            count++;
+        }
+        return count;
+    }
+
+    // manda amount unidades pelo arco e (e o contrario pelo reverso)
+    void push(int e, int amount) {
+        if (dirty != null && flow[e] == 0) dirty.add(e);
+        flow[e] += amount;
+        flow[rev[e]] -= amount;
+    }
+
+    // fluxo maximo com o algoritmo escolhido; todos deixam o fluxo nas arestas
+    public long maxFlow(int s, int t, FlowAlgorithm algorithm) {
+        switch (algorithm) {
+            case DINIC:
+                build();
+                if (dinic == null) dinic = new DinicFlow(this);
+                return dinic.maxFlow(s, t);
+            case PUSH_RELABEL:
+                build();
+                if (pushRelabel == null) pushRelabel = new PushRelabelFlow(this);
+                return pushRelabel.maxFlow(s, t);
+            case CAPACITY_SCALING:
+                return maxFlowScaling(s, t);
+            default:
+                return maxFlow(s, t);
+        }
+    }
+
+    // algoritmo de Edmonds-Karp (BFS para encontrar fluxo máximo)
+    // lógica baseada no GeeksforGeeks, mas sobre o residual em CSR e sem alocar por iteracao
+    public long maxFlow(int s, int t) {
+        build();
+        if (s == t) return 0;
+        long total = 0;
+        while (findAugmentingPath(s, t, 1)) {
+            total += augment(s, t);
+        }
+        return total;
+    }
+
+    /**
+     * Edmonds-Karp que para assim que o fluxo chega em limit: serve quando
+     * so interessa saber se o fluxo fica abaixo de um valor (poda da
+     * conectividade global). Se devolver menos que limit, e o fluxo maximo
+     * e o residual da o corte minimo.
+     */
+    public long maxFlow(int s, int t, long limit) {
+        build();
+        if (s == t) return 0;
+        long total = 0;
+        while (total < limit && findAugmentingPath(s, t, 1)) {
+            total += augment(s, t);
+        }
+        return total;
+    }
+
+    /**
+     * Edmonds-Karp com capacity scaling: na fase delta so usa arcos com
+     * residual >= delta, comecando pela maior potencia de 2 <= maior capacidade.
+     * O numero de aumentos fica O(E log U) em vez de depender do valor do fluxo.
+     */
+    public long maxFlowScaling(int s, int t) {
+        build();
+        if (s == t) return 0;
+        long total = 0;
+        for (int delta = Integer.highestOneBit(Math.max(1, maxCapacity())); delta > 0; delta >>= 1) {
+            while (findAugmentingPath(s, t, delta)) {
+                total += augment(s, t);
+            }
+        }
+        return total;
+    }
+
+    // BFS no residual usando so arcos com residual >= minResidual
+    // (marcacao por carimbo: nao precisa limpar vetor de tamanho V a cada BFS)
+    private boolean findAugmentingPath(int s, int t, int minResidual) {
+        if (++stamp == 0) {
+            Arrays.fill(visitStamp, 0);
+            stamp = 1;
+        }
+        queue.clear();
+        queue.add(s);
+        visitStamp[s] = stamp; // marca origem como visitada
+        parent[s] = s;
+
+        while (!queue.isEmpty() && visitStamp[t] != stamp) {
+            int u = queue.poll();
+
+            // itera sobre os arcos de u
+            for (int e = first[u]; e < first[u + 1]; e++) {
+                int v = to[e];
+                // se o destino não foi visitado e há capacidade residual suficiente
+                if (visitStamp[v] != stamp && cap[e] - flow[e] >= minResidual) {
+                    visitStamp[v] = stamp;
+                    parent[v] = u;
+                    parentArc[v] = e; // guarda o arco usado
+                    queue.add(v);
+                }
+            }
+        }
+
+        // se não chegamos ao destino, não há mais caminhos aumentantes
+        return visitStamp[t] == stamp;
+    }
+
+    // empurra o gargalo (menor residual) do caminho achado pela BFS
+    private int augment(int s, int t) {
+        int push = Integer.MAX_VALUE;
+        for (int curr = t; curr != s; curr = parent[curr]) {
+            int e = parentArc[curr];
+            push = Math.min(push, cap[e] - flow[e]);
+        }
+        for (int curr = t; curr != s; curr = parent[curr]) {
+            push(parentArc[curr], push);
+        }
+        return push;
+    }
+
+    /**
+     * Corte minimo a partir do residual final (rodar depois de um maxFlow):
+     * uma BFS a partir de s marca o lado de s e uma passada pelos arcos desse
+     * lado junta as arestas que atravessam o corte.
+     */
+    public MinCut minCut(int s) {
+        build();
+        boolean[] sourceSide = new boolean[V + 1];
+        int sourceSize = 0;
+        queue.clear();
+        queue.add(s);
+        sourceSide[s] = true;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            sourceSize++;
+            for (int e = first[u]; e < first[u + 1]; e++) {
+                if (!sourceSide[to[e]] && cap[e] - flow[e] > 0) {
+                    sourceSide[to[e]] = true;
+                    queue.add(to[e]);
+                }
+            }
+        }
+
+        int count = 0;
+        int[] origins = new int[16];
+        int[] targets = new int[16];
+        int[] capacities = new int[16];
+        for (int u = 1; u <= V; u++) {
+            if (!sourceSide[u]) continue;
+            for (int e = first[u]; e < first[u + 1]; e++) {
+                if (cap[e] > 0 && !sourceSide[to[e]]) {
+                    if (count == origins.length) {
+                        origins = Arrays.copyOf(origins, count * 2);
+                        targets = Arrays.copyOf(targets, count * 2);
+                        capacities = Arrays.copyOf(capacities, count * 2);
+                    }
+                    origins[count] = u;
+                    targets[count] = to[e];
+                    capacities[count] = cap[e];
+                    count++;
+                }
+            }
+        }
+        return new MinCut(sourceSide, sourceSize, Arrays.copyOf(origins, count),
+                Arrays.copyOf(targets, count), Arrays.copyOf(capacities, count));
+    }
+
+    /**
+     * Decompoe o fluxo atual em caminhos s -> t disjuntos em arestas, em tempo
+     * linear: cada arco com fluxo e percorrido uma unica vez gracas ao cursor
+     * por vertice, e a DFS usa uma pilha explicita (sem recursao). Se a
+     * caminhada volta a um vertice que ja esta no caminho, o trecho e um
+     * ciclo de fluxo e e descartado. O fluxo nao e alterado, entao da para
+     * decompor de novo ou consultar o grafo depois.
+     * Pressupoe capacidades unitarias (cada arco com fluxo leva 1 caminho).
+     */
+    class PathDecomposition {
+        private final int s;
+        private final int t;
+        private final int[] cursor;   // proximo arco a olhar em cada vertice
+        private final int[] position; // posicao do vertice no caminho atual, ou -1
+        private final int[] path;
+        private int length;
+
+        PathDecomposition(int s, int t) {
+            build();
+            this.s = s;
+            this.t = t;
+            cursor = Arrays.copyOf(first, V + 1);
+            position = new int[V + 1];
+            Arrays.fill(position, -1);
+            path = new int[V + 1];
+            path[length++] = s;
+            position[s] = 0;
+        }
+
+        // proximo caminho (s ... t), ou null quando o fluxo acabou
+        public int[] next() {
+            if (s == t) return null;
+            while (length > 0) {
+                int u = path[length - 1];
+                if (u == t) {
+                    int[] result = Arrays.copyOf(path, length);
+                    for (int i = 1; i < length; i++) position[path[i]] = -1;
+                    length = 1;
+                    return result;
+                }
+
+                // proximo arco de u com fluxo que ainda nao foi usado
+                int e = cursor[u];
+                int end = first[u + 1];
+                while (e < end && !(cap[e] > 0 && flow[e] > 0)) e++;
+                if (e == end) {
+                    cursor[u] = end;
+                    if (u == s) break; // sem mais fluxo saindo de s
+                    // nao acontece com conservacao de fluxo; descarta o trecho
+                    position[u] = -1;
+                    length--;
+                    continue;
+                }
+                cursor[u] = e + 1;
+
+                int v = to[e];
+                if (position[v] >= 0) {
+                    // ciclo: volta o caminho ate v
+                    for (int i = position[v] + 1; i < length; i++) position[path[i]] = -1;
+                    length = position[v] + 1;
+                } else {
+                    position[v] = length;
+                    path[length++] = v;
+                }
+            }
+            length = 0;
+            return null;
+        }
+    }
+
+    // caminhos disjuntos como vetores de vertices (s ... t)
+    public List<int[]> disjointPaths(int s, int t) {
+        List<int[]> paths = new ArrayList<>();
+        PathDecomposition decomposition = new PathDecomposition(s, t);
+        for (int[] path = decomposition.next(); path != null; path = decomposition.next()) {
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    // escreve um caminho por linha no writer; devolve quantos foram escritos
+    public int writeDisjointPaths(int s, int t, Writer out) throws IOException {
+        int pathCount = 0;
+        StringBuilder line = new StringBuilder();
+        PathDecomposition decomposition = new PathDecomposition(s, t);
+        for (int[] path = decomposition.next(); path != null; path = decomposition.next()) {
+            pathCount++;
+            line.setLength(0);
+            line.append("Path ").append(pathCount).append(": ");
+            for (int i = 0; i < path.length; i++) {
+                line.append(path[i]);
+                if (i < path.length - 1) line.append(" -> ");
+            }
+            line.append('\n');
+            out.write(line.toString());
+        }
+        return pathCount;
+    }
+
+    // metodo extra para recuperar e imprimir os caminhos encontrados
+    public void printDisjointPaths(int s, int t) {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out));
+        try {
+            writeDisjointPaths(s, t, out);
+        } catch (IOException e) {
+            // PrintWriter nao lanca IOException
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,56 @@
+package ativ04;
+
+import common.CheckReport;
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Referencia das conferencias do ativ04: um grafo da pasta graphs (com
+ * capacidade 1 ou com a 3a coluna), QUERIES pares sorteados com semente fixa
+ * (o primeiro e 1 -> n, como no FlowReport) e o valor de cada um pelo
+ * Edmonds-Karp original, rodado do zero em cada consulta.
+ */
+class FlowQueries {
+    static final String[] GRAPHS = { "euler_1000.txt", "euler_10000.txt", "layered_1000.txt", "layered_10000.txt" };
+    static final int QUERIES = 30;
+    static final long SEED = 7;
+
+    final String name;
+    final FlowGraph graph;
+    final boolean weighted;
+    final int[] sources = new int[QUERIES];
+    final int[] destinations = new int[QUERIES];
+    final long[] expected = new long[QUERIES];
+
+    private FlowQueries(String fileName, FlowGraph graph, boolean weighted) {
+        this.name = new File(fileName).getName() + (weighted ? " (weighted)" : " (unit)");
+        this.graph = graph;
+        this.weighted = weighted;
+        int n = graph.V;
+        Random random = new Random(SEED);
+        sources[0] = 1;
+        destinations[0] = n;
+        for (int i = 1; i < QUERIES; i++) {
+            sources[i] = 1 + random.nextInt(n);
+            do {
+                destinations[i] = 1 + random.nextInt(n);
+            } while (n > 1 && destinations[i] == sources[i]);
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            graph.resetFlow();
+            expected[i] = graph.maxFlow(sources[i], destinations[i]);
+        }
+        graph.resetFlow();
+    }
+
+    // null (com a falha contada) se o grafo nao pode ser lido
+    static FlowQueries load(CheckReport report, String fileName, boolean weighted) {
+        FlowGraph graph = Main.readGraph(fileName, weighted);
+        report.check(graph != null, "could not read " + fileName);
+        return graph == null ? null : new FlowQueries(fileName, graph, weighted);
+    }
+
+    String pair(int i) {
+        return name + " " + sources[i] + " -> " + destinations[i];
+    }
+}
@@ -0,0 +1,162 @@
+package ativ04;
+
+import common.ConsoleOutput;
+import common.OffHeapGraph;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Sessao de consultas s-t sobre um FlowGraph ja carregado: o residual fica
+ * em memoria e, entre uma consulta e outra, so os arcos tocados pela
+ * consulta anterior (lista de sujos do FlowGraph) voltam a fluxo zero.
+ * Assim da para rodar milhares de consultas de conectividade por carga.
+ *
+ * java ativ04.FlowQuerySession <grafo.txt> <consultas.txt> [saida.txt | -] [ek|dinic|pr|scaling] [unit|weighted] [heap|offheap]
+ * (consultas: pares "origem destino"; "-" como saida = console; "offheap" le
+ * o grafo no OffHeapGraph e monta o residual direto dele)
+ */
+class FlowQuerySession {
+    private final FlowGraph graph;
+    private final FlowAlgorithm algorithm;
+    private long lastResetArcs; // arcos zerados antes da ultima consulta
+
+    FlowQuerySession(FlowGraph graph, FlowAlgorithm algorithm) {
+        this.graph = graph;
+        this.algorithm = algorithm;
+        graph.trackDirtyArcs();
+        graph.resetFlow();
+    }
+
+    // fluxo maximo s -> t; desfaz antes so o que a consulta anterior mexeu
+    public long query(int s, int t) {
+        if (s < 1 || s > graph.V || t < 1 || t > graph.V) {
+            throw new IllegalArgumentException("Vertice invalido: " + s + " ou " + t);
+        }
+        lastResetArcs = graph.resetDirtyFlow();
+        return graph.maxFlow(s, t, algorithm);
+    }
+
+    public long lastResetArcs() {
+        return lastResetArcs;
+    }
+
+    public FlowGraph graph() {
+        return graph;
+    }
+
+    // mesmo formato do ativ03: sequencia de inteiros, dois por consulta
+    public static int[][] readQueries(InputStream in) throws IOException {
+        int[] values = new int[64];
+        int count = 0;
+        BufferedInputStream buf = new BufferedInputStream(in, 1 << 16);
+        int c = buf.read();
+        while (c != -1) {
+            if (c >= '0' && c <= '9') {
+                int value = 0;
+                while (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    c = buf.read();
+                }
+                if (count == values.length) values = Arrays.copyOf(values, count * 2);
+                values[count++] = value;
+            } else if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                c = buf.read();
+            } else {
+                throw new NumberFormatException("Caractere invalido no arquivo de consultas: '" + (char) c + "'");
+            }
+        }
+        if (count % 2 != 0) {
+            throw new NumberFormatException("Arquivo de consultas com numero impar de valores");
+        }
+        int[] sources = new int[count / 2];
+        int[] destinations = new int[count / 2];
+        for (int i = 0; i < count / 2; i++) {
+            sources[i] = values[2 * i];
+            destinations[i] = values[2 * i + 1];
+        }
+        return new int[][] { sources, destinations };
+    }
+
+    static FlowAlgorithm parseAlgorithm(String name) {
+        switch (name.toLowerCase()) {
+            case "dinic":
+                return FlowAlgorithm.DINIC;
+            case "pr":
+            case "push-relabel":
+                return FlowAlgorithm.PUSH_RELABEL;
+            case "scaling":
+                return FlowAlgorithm.CAPACITY_SCALING;
+            default:
+                return FlowAlgorithm.EDMONDS_KARP;
+        }
+    }
+
+    // le fora do heap e monta o residual; o OffHeapGraph e solto logo depois
+    private static FlowGraph loadOffHeap(String fileName, boolean weighted) {
+        try (OffHeapGraph offHeap = OffHeapGraph.load(fileName, null)) {
+            return FlowGraph.from(offHeap, weighted);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivo: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.err.println("Erro de formato no arquivo: " + e.getMessage());
+        }
+        return null;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java ativ04.FlowQuerySession <graph.txt> <queries.txt> [results.txt | -] "
+                    + "[ek|dinic|pr|scaling] [unit|weighted] [heap|offheap]");
+            return;
+        }
+        FlowAlgorithm algorithm = args.length > 3 ? parseAlgorithm(args[3]) : FlowAlgorithm.EDMONDS_KARP;
+        boolean weighted = args.length > 4 && args[4].equalsIgnoreCase("weighted");
+
+        long startTime = System.nanoTime();
+        FlowGraph graph = args.length > 5 && args[5].equals("offheap")
+                ? loadOffHeap(args[0], weighted)
+                : Main.loadGraph(args[0], weighted);
+        if (graph == null) return;
+        double loadMs = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        try (InputStream in = new FileInputStream(args[1])) {
+            int[][] queries = readQueries(in);
+            FlowQuerySession session = new FlowQuerySession(graph, algorithm);
+
+            // uma linha por consulta: origem destino fluxo latencia_ms arcos_zerados
+            double totalMs = 0;
+            double worstMs = 0;
+            long resetArcs = 0;
+            try (Writer out = ConsoleOutput.writer(args.length > 2 ? args[2] : null)) {
+                for (int i = 0; i < queries[0].length; i++) {
+                    int s = queries[0][i];
+                    int t = queries[1][i];
+                    long queryStart = System.nanoTime();
+                    long value = session.query(s, t);
+                    double ms = (System.nanoTime() - queryStart) / 1_000_000.0;
+                    totalMs += ms;
+                    worstMs = Math.max(worstMs, ms);
+                    resetArcs += session.lastResetArcs();
+                    out.write(s + " " + t + " " + value + " " + String.format("%.4f", ms) + " " + session.lastResetArcs() + "\n");
+                }
+            }
+
+            int count = queries[0].length;
+            System.out.println("--- FLOW BATCH RESULTS (" + algorithm + ", " + (weighted ? "weighted" : "unit") + ") ---");
+            System.out.println("Graph load: " + String.format("%.3f", loadMs) + " ms (once) | arcs: " + graph.arcCount());
+            System.out.println("Queries: " + count + " | total " + String.format("%.3f", totalMs) + " ms | avg "
+                    + String.format("%.4f", count == 0 ? 0.0 : totalMs / count) + " ms | worst "
+                    + String.format("%.4f", worstMs) + " ms");
+            System.out.println("Arcs reset per query (avg): "
+                    + String.format("%.1f", count == 0 ? 0.0 : resetArcs / (double) count));
+        } catch (IOException e) {
+            System.err.println("Erro ao ler as consultas '" + args[1] + "': " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.err.println("Erro de formato nas consultas: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ativ04;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Comparacao dos algoritmos de fluxo maximo (Edmonds-Karp, Dinic e
+ * push-relabel) nas mesmas consultas s-t de um grafo. Confere se os tres
+ * dao o mesmo valor, se o fluxo final e valido (conservacao em todo vertice
+ * intermediario) e se a decomposicao em caminhos devolve exatamente esse
+ * numero de caminhos disjuntos, duas vezes seguidas (ela nao mexe no fluxo).
+ * Com "weighted" as capacidades vem da 3a coluna; ai a decomposicao em
+ * caminhos nao se aplica e a conferencia extra e corte minimo == fluxo.
+ * A primeira consulta e sempre 1 -> n (nos layered e a que atravessa tudo).
+ *
+ * java ativ04.FlowReport <grafo.txt> [consultas] [unit|weighted]
+ */
+class FlowReport {
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ativ04.FlowReport <graph.txt> [queries] [unit|weighted]");
+            return;
+        }
+        boolean weighted = args.length > 2 && args[2].equalsIgnoreCase("weighted");
+        FlowGraph graph = Main.loadGraph(args[0], weighted);
+        if (graph == null) return;
+        int queries = Math.max(1, args.length > 1 ? Integer.parseInt(args[1]) : 20);
+
+        Random random = new Random(7);
+        int[] sources = new int[queries];
+        int[] destinations = new int[queries];
+        sources[0] = 1;
+        destinations[0] = graph.V;
+        for (int i = 1; i < queries; i++) {
+            sources[i] = 1 + random.nextInt(graph.V);
+            do {
+                destinations[i] = 1 + random.nextInt(graph.V);
+            } while (graph.V > 1 && destinations[i] == sources[i]);
+        }
+
+        FlowAlgorithm[] algorithms = FlowAlgorithm.values();
+        long[][] values = new long[algorithms.length][queries];
+        double[] totalMs = new double[algorithms.length];
+        int invalid = 0;
+        int badDecompositions = 0;
+        int badCuts = 0;
+        double decompositionMs = 0;
+
+        for (int a = 0; a < algorithms.length; a++) {
+            for (int i = 0; i < queries; i++) {
+                graph.resetFlow();
+                long startTime = System.nanoTime();
+                values[a][i] = graph.maxFlow(sources[i], destinations[i], algorithms[a]);
+                totalMs[a] += (System.nanoTime() - startTime) / 1_000_000.0;
+                if (!isValidFlow(graph, sources[i], destinations[i], values[a][i])) invalid++;
+
+                MinCut cut = graph.minCut(sources[i]);
+                if (cut.capacity != values[a][i] || cut.sourceSide[destinations[i]]) badCuts++;
+                if (weighted) continue;
+
+                startTime = System.nanoTime();
+                List<int[]> paths = graph.disjointPaths(sources[i], destinations[i]);
+                decompositionMs += (System.nanoTime() - startTime) / 1_000_000.0;
+                if (!arePathsValid(graph, paths, sources[i], destinations[i], values[a][i])
+                        || graph.disjointPaths(sources[i], destinations[i]).size() != paths.size()) {
+                    badDecompositions++;
+                }
+            }
+        }
+
+        int mismatches = 0;
+        for (int i = 0; i < queries; i++) {
+            for (int a = 1; a < algorithms.length; a++) {
+                if (values[a][i] != values[0][i]) mismatches++;
+            }
+        }
+
+        System.out.println("--- MAX-FLOW COMPARISON (" + queries + " s-t pairs, " + graph.V + " vertices, "
+                + (weighted ? "capacities from 3rd column" : "unit capacities") + ") ---");
+        System.out.println("Flow 1 -> " + graph.V + ": " + values[0][0]);
+        for (int a = 0; a < algorithms.length; a++) {
+            System.out.println(String.format("%-16s", algorithms[a]) + " total " + String.format("%10.3f", totalMs[a])
+                    + " ms | " + String.format("%.4f", totalMs[a] / queries) + " ms/query");
+        }
+        if (!weighted) {
+            System.out.println("Path decomposition: " + String.format("%.4f", decompositionMs / (queries * algorithms.length))
+                    + " ms/query | bad decompositions: " + badDecompositions);
+        }
+        System.out.println("Value mismatches: " + mismatches + " | invalid flows: " + invalid
+                + " | min cut != flow: " + badCuts);
+    }
+
+    // quantidade certa, de s a t, cada passo um arco com fluxo e nenhum arco repetido
+    static boolean arePathsValid(FlowGraph graph, List<int[]> paths, int s, int t, long value) {
+        if (paths.size() != (s == t ? 0 : value)) return false;
+        boolean[] used = new boolean[graph.arcCount()];
+        for (int[] path : paths) {
+            if (path[0] != s || path[path.length - 1] != t) return false;
+            for (int i = 0; i + 1 < path.length; i++) {
+                int arc = -1;
+                for (int e = graph.first[path[i]]; e < graph.first[path[i] + 1]; e++) {
+                    if (graph.to[e] == path[i + 1] && graph.cap[e] > 0 && graph.flow[e] > 0 && !used[e]) {
+                        arc = e;
+                        break;
+                    }
+                }
+                if (arc < 0) return false;
+                used[arc] = true;
+            }
+        }
+        return true;
+    }
+
+    // capacidade respeitada, conservacao nos vertices intermediarios e valor certo em t
+    static boolean isValidFlow(FlowGraph graph, int s, int t, long value) {
+        long[] balance = new long[graph.V + 1];
+        for (int u = 1; u <= graph.V; u++) {
+            for (int e = graph.first[u]; e < graph.first[u + 1]; e++) {
+                if (graph.flow[e] > graph.cap[e]) return false;
+                if (graph.cap[e] > 0 && graph.flow[e] > 0) {
+                    balance[u] -= graph.flow[e];
+                    balance[graph.to[e]] += graph.flow[e];
+                }
+            }
+        }
+        for (int v = 1; v <= graph.V; v++) {
+            if (v != s && v != t && balance[v] != 0) return false;
+        }
+        return s == t || balance[t] == value;
+    }
+}
@@ -0,0 +1,104 @@
+package ativ04;
+
+import common.CheckReport;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Conferencia da sessao de consultas (FlowQuerySession) nos grafos euler_* e
+ * layered_* da pasta graphs, com capacidade 1 e com a 3a coluna: com cada
+ * algoritmo, o mesmo residual responde as consultas em ordem e na ordem
+ * inversa com os valores do Edmonds-Karp do zero (FlowQueries), cada fluxo
+ * deixado e valido, o reset so dos arcos sujos nunca passa do numero de
+ * arcos e deixa o fluxo todo em zero. Tambem confere vertices fora de 1..n
+ * e a leitura do arquivo de consultas (CRLF, tab, numero impar de valores e
+ * caractere invalido).
+ *
+ * java ativ04.FlowSessionCheck [pasta dos grafos] (padrao ativ04/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class FlowSessionCheck {
+
+    private static void checkGraph(CheckReport report, String fileName, boolean weighted) {
+        FlowQueries queries = FlowQueries.load(report, fileName, weighted);
+        if (queries == null) return;
+        FlowGraph graph = queries.graph;
+        int queryCount = FlowQueries.QUERIES;
+        for (FlowAlgorithm algorithm : FlowAlgorithm.values()) {
+            FlowQuerySession session = new FlowQuerySession(graph, algorithm);
+            boolean valid = true;
+            boolean resetBounded = true;
+            for (int k = 0; k < 2 * queryCount; k++) {
+                // primeiro em ordem, depois de tras para frente
+                int i = k < queryCount ? k : 2 * queryCount - 1 - k;
+                int s = queries.sources[i];
+                int t = queries.destinations[i];
+                long value = session.query(s, t);
+                report.check(value == queries.expected[i], queries.pair(i) + " session " + algorithm + ": "
+                        + value + " != " + queries.expected[i]);
+                valid &= FlowReport.isValidFlow(graph, s, t, value);
+                resetBounded &= session.lastResetArcs() <= graph.arcCount();
+            }
+            report.check(valid, queries.name + " session " + algorithm + ": invalid flow");
+            report.check(resetBounded, queries.name + " session " + algorithm + ": reset more arcs than the residual has");
+            graph.resetDirtyFlow();
+            boolean clean = true;
+            for (int f : graph.flow) clean &= f == 0;
+            report.check(clean, queries.name + " session " + algorithm + ": flow left after the dirty reset");
+        }
+
+        FlowQuerySession session = new FlowQuerySession(graph, FlowAlgorithm.DINIC);
+        session.query(1, graph.V);
+        long again = session.query(1, graph.V);
+        report.check(again == queries.expected[0], queries.name + ": repeated query " + again);
+        report.check((session.lastResetArcs() > 0) == (again > 0), queries.name + ": dirty arcs of the repeated query");
+        checkInvalid(report, session, 0, 1);
+        checkInvalid(report, session, 1, graph.V + 1);
+        checkInvalid(report, session, -1, graph.V);
+        graph.resetFlow();
+        report.endSection(queries.name);
+    }
+
+    private static void checkInvalid(CheckReport report, FlowQuerySession session, int s, int t) {
+        try {
+            session.query(s, t);
+            report.check(false, "query " + s + " -> " + t + " accepted");
+        } catch (IllegalArgumentException e) {
+            report.check(true, "query " + s + " -> " + t);
+        }
+    }
+
+    private static void checkReadQueries(CheckReport report) throws IOException {
+        int[][] queries = FlowQuerySession.readQueries(stream("1 2\r\n3\t4\n\n10 20"));
+        report.check(Arrays.equals(queries[0], new int[] { 1, 3, 10 }) && Arrays.equals(queries[1], new int[] { 2, 4, 20 }),
+                "readQueries: " + Arrays.deepToString(queries));
+        report.check(FlowQuerySession.readQueries(stream(""))[0].length == 0, "readQueries: empty file");
+        for (String bad : new String[] { "1 2 3", "1 x" }) {
+            try {
+                FlowQuerySession.readQueries(stream(bad));
+                report.check(false, "readQueries accepted \"" + bad + "\"");
+            } catch (NumberFormatException e) {
+                report.check(true, "readQueries \"" + bad + "\"");
+            }
+        }
+        report.endSection("readQueries");
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ04/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : FlowQueries.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph, false);
+            checkGraph(report, dir + File.separator + graph, true);
+        }
+        checkReadQueries(report);
+        report.finish();
+    }
+}
@@ -0,0 +1,44 @@
+package ativ04;
+
+/**
+ * Fila de int em buffer circular (capacidade potencia de 2), sem Integer
+ * nem no de LinkedList por elemento.
+ */
+class IntQueue {
+    private int[] data;
+    private int head;
+    private int size;
+
+    IntQueue(int capacity) {
+        data = new int[Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public void add(int v) {
+        if (size == data.length) {
+            int[] bigger = new int[data.length * 2];
+            for (int i = 0; i < size; i++) {
+                bigger[i] = data[(head + i) & (data.length - 1)];
+            }
+            data = bigger;
+            head = 0;
+        }
+        data[(head + size) & (data.length - 1)] = v;
+        size++;
+    }
+
+    public int poll() {
+        int v = data[head];
+        head = (head + 1) & (data.length - 1);
+        size--;
+        return v;
+    }
+}
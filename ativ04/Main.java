@@ -1,143 +1,15 @@
 package ativ04;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.EdgeList;
+import common.EdgeListLoader;
+import common.GraphSnapshot;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.util.*;
 
 /// codigo base em https://www.geeksforgeeks.org/dsa/find-edge-disjoint-paths-two-vertices
 
-// Classe para representar uma aresta de fluxo
-class FlowEdge {
-    int to;
-    int rev; // Índice da aresta reversa na lista de adjacência do destino
-    int cap; // Capacidade (será sempre 1 para caminhos disjuntos)
-    int flow; // Fluxo atual passando pela aresta
-
-    public FlowEdge(int to, int rev, int cap) {
-        this.to = to;
-        this.rev = rev;
-        this.cap = cap;
-        this.flow = 0;
-    }
-}
-
-// Classe para Fluxo Máximo
-class FlowGraph {
-    int V;
-    List<List<FlowEdge>> adj;
-
-    public FlowGraph(int V) {
-        this.V = V;
-        adj = new ArrayList<>(V + 1);
-        for (int i = 0; i <= V; i++) {
-            adj.add(new ArrayList<>());
-        }
-    }
-
-    // adiciona aresta direcionada com capacidade 1 (para contar caminhos)
-    public void addEdge(int u, int v) {
-        // aresta "Forward": u -> v (Capacidade 1)
-        FlowEdge a = new FlowEdge(v, adj.get(v).size(), 1);
-        // aresta "Backward": v -> u (Capacidade 0)
-        FlowEdge b = new FlowEdge(u, adj.get(u).size(), 0);
-
-        adj.get(u).add(a);
-        adj.get(v).add(b);
-    }
-
-    // algoritmo de Edmonds-Karp (BFS para encontrar fluxo máximo)
-    // lógica baseada no GeeksforGeeks, mas adaptada para Listas de Adjacência por conta de memória
-    public int maxFlow(int s, int t) {
-        int flow = 0;
-        int[] parent = new int[V + 1];
-        int[] edgeIndex = new int[V + 1]; // para saber qual aresta da lista foi usada
-
-        while (true) {
-            Arrays.fill(parent, -1);
-            Queue<Integer> q = new LinkedList<>();
-            q.add(s);
-            parent[s] = s; // marca origem como visitada
-
-            while (!q.isEmpty() && parent[t] == -1) {
-                int u = q.poll();
-                
-                // itera sobre as arestas de u
-                for (int i = 0; i < adj.get(u).size(); i++) {
-                    FlowEdge e = adj.get(u).get(i);
-                    // se o destino não foi visitado e há capacidade residual
-                    if (parent[e.to] == -1 && e.cap - e.flow > 0) {
-                        parent[e.to] = u;
-                        edgeIndex[e.to] = i; // guarda índice da aresta usada
-                        q.add(e.to);
-                    }
-                }
-            }
-
-            // se não chegamos ao destino, não há mais caminhos aumentantes
-            if (parent[t] == -1) break;
-
-            // como a capacidade é sempre 1 para caminhos disjuntos, o fluxo do caminho é 1
-            int push = 1; 
-            flow += push;
-
-            int curr = t;
-            while (curr != s) {
-                int prev = parent[curr];
-                int idx = edgeIndex[curr];
-                
-                FlowEdge e = adj.get(prev).get(idx);
-                e.flow += push;
-
-                adj.get(curr).get(e.rev).flow -= push;
-
-                curr = prev;
-            }
-        }
-        return flow;
-    }
-
-    // metodo extra para recuperar e imprimir os caminhos encontrados
-    // usa uma DFS simples seguindo arestas onde flow == 1
-    public void printDisjointPaths(int s, int t) {
-        int pathCount = 0;
-        
-        // enquanto tenta achar um caminho de s a t usando arestas com flow=1
-        while (true) {
-            List<Integer> path = new ArrayList<>();
-            if (!dfsFindPath(s, t, path, new boolean[V + 1])) {
-                break;
-            }
-            pathCount++;
-            System.out.print("Path " + pathCount + ": ");
-            for (int i = 0; i < path.size(); i++) {
-                System.out.print(path.get(i) + (i < path.size() - 1 ? " -> " : ""));
-            }
-            System.out.println();
-        }
-    }
-
-    // DFS auxiliar para encontrar um caminho único no grafo de fluxo
-    private boolean dfsFindPath(int u, int t, List<Integer> path, boolean[] visited) {
-        path.add(u);
-        if (u == t) return true;
-        visited[u] = true;
-
-        for (FlowEdge e : adj.get(u)) {
-            // se tem fluxo (foi usada no maxFlow), não é residual (cap > 0) e o destino não foi visitado nesse caminho
-            if (e.flow == 1 && e.cap == 1 && !visited[e.to]) {
-                if (dfsFindPath(e.to, t, path, visited)) {
-                    e.flow = 0; 
-                    return true;
-                }
-            }
-        }
-
-        path.remove(path.size() - 1);
-        return false;
-    }
-}
-
 public class Main {
     public static void main(String[] args) {
         Scanner sc = new Scanner(System.in);
@@ -189,69 +61,142 @@ public class Main {
                     continue;
             }
 
-            FlowGraph graph = readGraph(fileName);
-
-            if (graph == null) continue;
+            System.out.println("1 - Unit capacities (edge-disjoint paths)");
+            System.out.println("2 - Capacities from the third column");
+            System.out.print("Select the capacity mode: ");
+            boolean weighted = sc.nextLine().trim().equals("2");
 
-            System.out.print("Select a source vertice: ");
-            int source = sc.nextInt();
-            System.out.print("Select a destination vertice: ");
-            int destination = sc.nextInt();
-            sc.nextLine(); // Consumir quebra de linha
+            FlowGraph graph = loadGraph(fileName, weighted);
 
-            System.out.println("\nCalculando caminhos disjuntos...");
-            long startTime = System.nanoTime();
+            if (graph == null) continue;
 
-            int maxPaths = graph.maxFlow(source, destination);
+            // o residual fica carregado: novas consultas nao releem o arquivo
+            graph.trackDirtyArcs();
+            boolean again;
+            do {
+                System.out.print("Select a source vertice: ");
+                int source = sc.nextInt();
+                System.out.print("Select a destination vertice: ");
+                int destination = sc.nextInt();
+                System.out.println("1 - Edmonds-Karp");
+                System.out.println("2 - Dinic");
+                System.out.println("3 - Push-relabel (highest label)");
+                System.out.println("4 - Edmonds-Karp with capacity scaling");
+                System.out.print("Select the algorithm: ");
+                int mode = sc.nextInt();
+                sc.nextLine(); // Consumir quebra de linha
+                FlowAlgorithm algorithm = mode == 2 ? FlowAlgorithm.DINIC
+                        : mode == 3 ? FlowAlgorithm.PUSH_RELABEL
+                        : mode == 4 ? FlowAlgorithm.CAPACITY_SCALING
+                        : FlowAlgorithm.EDMONDS_KARP;
+
+                System.out.println("\nCalculando " + (weighted ? "fluxo maximo" : "caminhos disjuntos") + " (" + algorithm + ")...");
+                long startTime = System.nanoTime();
+
+                // desfaz so os arcos que a consulta anterior tocou
+                graph.resetDirtyFlow();
+                long maxPaths = graph.maxFlow(source, destination, algorithm);
             
-            long endTime = System.nanoTime();
-            long totalNanoTime = (endTime - startTime);
-            double totalMilliTime = totalNanoTime / 1_000_000.0;
+                long endTime = System.nanoTime();
+                long totalNanoTime = (endTime - startTime);
+                double totalMilliTime = totalNanoTime / 1_000_000.0;
+
+                System.out.println("----------------------------------------");
+                System.out.println("--- RESULTADOS ---");
+                if (weighted) {
+                    System.out.println("Fluxo Maximo: " + maxPaths);
+                } else {
+                    System.out.println("Total de Caminhos Disjuntos em Arestas: " + maxPaths);
+
+                    if (maxPaths > 0) {
+                        System.out.println("\nListagem dos caminhos:");
+                        graph.printDisjointPaths(source, destination);
+                    } else {
+                        System.out.println("Nenhum caminho encontrado entre " + source + " e " + destination);
+                    }
+                }
 
-            System.out.println("----------------------------------------");
-            System.out.println("--- RESULTADOS ---");
-            System.out.println("Total de Caminhos Disjuntos em Arestas: " + maxPaths);
+                // corte minimo; a listagem completa so para cortes pequenos
+                MinCut cut = graph.minCut(source);
+                System.out.println();
+                if (cut.sourceSize <= 100 && cut.cutSize() <= 100) {
+                    PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out));
+                    try {
+                        cut.write(out);
+                    } catch (IOException e) {
+                        // PrintWriter nao lanca IOException
+                    }
+                    out.flush();
+                } else {
+                    System.out.println(cut.summary());
+                }
 
-            if (maxPaths > 0) {
-                System.out.println("\nListagem dos caminhos:");
-                graph.printDisjointPaths(source, destination);
-            } else {
-                System.out.println("Nenhum caminho encontrado entre " + source + " e " + destination);
-            }
+                System.out.println("\n--- EFICIÊNCIA ---");
+                System.out.println("Vertices no Grafo: " + graph.V);
+                System.out.println("Memoria do residual: " + String.format("%.2f", graph.residualBytes() / (1024.0 * 1024.0))
+                        + " MB (" + graph.arcCount() + " arcos)");
+                System.out.println("Tempo de Execução: " + String.format("%.4f", totalMilliTime) + " ms");
+                System.out.println("----------------------------------------\n");
 
-            System.out.println("\n--- EFICIÊNCIA ---");
-            System.out.println("Vertices no Grafo: " + graph.V);
-            System.out.println("Tempo de Execução: " + String.format("%.4f", totalMilliTime) + " ms");
-            System.out.println("----------------------------------------\n");
+                System.out.print("Another query on this graph? (y/n): ");
+                again = sc.nextLine().trim().equalsIgnoreCase("y");
+            } while (again);
 
         } while (option != 0);
 
         sc.close();
     }
 
-    public static FlowGraph readGraph(String fileName) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String firstLine = reader.readLine();
-            if (firstLine == null) return null;
-            
-            String[] parts = firstLine.trim().split("\\s+");
-            int n = Integer.parseInt(parts[0]); // vértices
-            int m = Integer.parseInt(parts[1]); // arestas
-
-            FlowGraph graph = new FlowGraph(n);
+    public static FlowGraph loadGraph(String fileName) {
+        return loadGraph(fileName, false);
+    }
 
-            for (int i = 0; i < m; i++) {
-                String edgeLine = reader.readLine();
-                if (edgeLine == null) break;
-                if (edgeLine.trim().isEmpty()) { i--; continue; }
+    /**
+     * Carrega o grafo pelo snapshot binario (.gsnap) quando ele existe e
+     * corresponde ao .txt; senao le o .txt. Nao grava nada: o snapshot e
+     * criado so quando pedido (java common.GraphSnapshot <grafo.txt>).
+     * weighted = usa a 3a coluna como capacidade (senao capacidade 1); o
+     * snapshot sempre tem os pesos, entao serve para os dois modos.
+     */
+    public static FlowGraph loadGraph(String fileName, boolean weighted) {
+        String snapshotFile = GraphSnapshot.snapshotName(fileName);
+        try {
+            if (GraphSnapshot.isFresh(snapshotFile, fileName)) {
+                long startTime = System.nanoTime();
+                // residual montado direto do CSR do snapshot, sem passar pelas listas do addEdge
+                FlowGraph graph = FlowGraph.from(GraphSnapshot.read(snapshotFile), weighted);
+                System.out.println("Snapshot carregado " + snapshotFile + " em "
+                        + String.format("%.3f", (System.nanoTime() - startTime) / 1_000_000.0) + " ms");
+                return graph;
+            }
+        } catch (IOException e) {
+            System.err.println("Ignorando snapshot '" + snapshotFile + "': " + e.getMessage());
+        }
+        return readGraph(fileName, weighted);
+    }
 
-                String[] edgeParts = edgeLine.trim().split("\\s+");
-                int o = Integer.parseInt(edgeParts[0]); // origem
-                int d = Integer.parseInt(edgeParts[1]); // destino
+    public static FlowGraph readGraph(String fileName) {
+        return readGraph(fileName, false);
+    }
 
-                // Adiciona aresta com capacidade 1 (padrão para caminhos disjuntos)
-                graph.addEdge(o, d);
+    // leitura com o EdgeListLoader (arquivo mapeado em memoria e lido em paralelo)
+    public static FlowGraph readGraph(String fileName, boolean weighted) {
+        try {
+            EdgeList edges = EdgeListLoader.load(fileName, weighted ? 3 : 2);
+
+            FlowGraph graph = new FlowGraph(edges.n, edges.m);
+            for (int i = 0; i < edges.m; i++) {
+                if (weighted) {
+                    // capacidade = peso da 3a coluna
+                    graph.addEdge(edges.origin[i], edges.destination[i], edges.weight[i]);
+                } else {
+                    // Adiciona aresta com capacidade 1 (padrão para caminhos disjuntos)
+                    graph.addEdge(edges.origin[i], edges.destination[i]);
+                }
             }
+            graph.build();
+
+            System.out.println(edges.throughputReport());
             return graph;
 
         } catch (IOException e) {
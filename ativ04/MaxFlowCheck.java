@@ -0,0 +1,69 @@
+package ativ04;
+
+import common.CheckReport;
+import common.OffHeapGraph;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Conferencia do Dinic e do push-relabel contra o Edmonds-Karp original nos
+ * grafos euler_* e layered_* da pasta graphs, com capacidade 1 e com a 3a
+ * coluna: o mesmo valor em cada consulta, um fluxo valido (capacidade e
+ * conservacao) com esse valor em t, e s -> s com fluxo 0. Cada algoritmo
+ * roda com o fluxo zerado e tambem reaproveitando o proprio estado entre
+ * consultas (a mesma instancia do FlowGraph). O residual montado do
+ * OffHeapGraph (FlowGraph.from) da os mesmos valores com todos os
+ * algoritmos.
+ *
+ * java ativ04.MaxFlowCheck [pasta dos grafos] (padrao ativ04/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class MaxFlowCheck {
+    private static final FlowAlgorithm[] ALGORITHMS = { FlowAlgorithm.DINIC, FlowAlgorithm.PUSH_RELABEL };
+
+    private static void checkGraph(CheckReport report, String fileName, boolean weighted) throws IOException {
+        FlowQueries queries = FlowQueries.load(report, fileName, weighted);
+        if (queries == null) return;
+        FlowGraph graph = queries.graph;
+        for (FlowAlgorithm algorithm : ALGORITHMS) {
+            for (int i = 0; i < FlowQueries.QUERIES; i++) {
+                int s = queries.sources[i];
+                int t = queries.destinations[i];
+                String what = queries.pair(i) + " " + algorithm;
+                graph.resetFlow();
+                long value = graph.maxFlow(s, t, algorithm);
+                report.check(value == queries.expected[i], what + ": " + value + " != " + queries.expected[i]);
+                report.check(FlowReport.isValidFlow(graph, s, t, value), what + ": invalid flow");
+            }
+            graph.resetFlow();
+            report.check(graph.maxFlow(1, 1, algorithm) == 0, queries.name + " " + algorithm + ": s -> s flow");
+        }
+        graph.resetFlow();
+
+        // residual montado do OffHeapGraph (fechado antes das consultas): mesmos valores com todos os algoritmos
+        FlowGraph offHeap;
+        try (OffHeapGraph source = OffHeapGraph.load(fileName, null)) {
+            offHeap = FlowGraph.from(source, weighted);
+        }
+        report.check(offHeap.arcCount() == graph.arcCount(), queries.name + ": FlowGraph.from arc count");
+        for (FlowAlgorithm algorithm : FlowAlgorithm.values()) {
+            for (int i = 0; i < FlowQueries.QUERIES; i++) {
+                offHeap.resetFlow();
+                long value = offHeap.maxFlow(queries.sources[i], queries.destinations[i], algorithm);
+                report.check(value == queries.expected[i], queries.pair(i) + " FlowGraph.from " + algorithm + ": "
+                        + value + " != " + queries.expected[i]);
+            }
+        }
+        report.endSection(queries.name);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ04/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : FlowQueries.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph, false);
+            checkGraph(report, dir + File.separator + graph, true);
+        }
+        report.finish();
+    }
+}
@@ -0,0 +1,62 @@
+package ativ04;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Corte minimo s-t tirado do residual final: o lado de s sao os vertices
+ * alcancaveis a partir de s com capacidade residual, e as arestas do corte
+ * sao as arestas originais que saem desse lado (todas saturadas).
+ * Pelo teorema fluxo maximo / corte minimo, capacity == valor do fluxo.
+ */
+class MinCut {
+    final boolean[] sourceSide; // sourceSide[v] = v fica do lado de s
+    final int sourceSize;
+    final int[] cutOrigins;
+    final int[] cutTargets;
+    final int[] cutCapacities;
+    final long capacity;
+
+    MinCut(boolean[] sourceSide, int sourceSize, int[] cutOrigins, int[] cutTargets, int[] cutCapacities) {
+        this.sourceSide = sourceSide;
+        this.sourceSize = sourceSize;
+        this.cutOrigins = cutOrigins;
+        this.cutTargets = cutTargets;
+        this.cutCapacities = cutCapacities;
+        long sum = 0;
+        for (int c : cutCapacities) sum += c;
+        this.capacity = sum;
+    }
+
+    public int cutSize() {
+        return cutOrigins.length;
+    }
+
+    // lado de s em ordem crescente
+    public int[] sourceVertices() {
+        int[] vertices = new int[sourceSize];
+        int k = 0;
+        for (int v = 1; v < sourceSide.length; v++) {
+            if (sourceSide[v]) vertices[k++] = v;
+        }
+        return vertices;
+    }
+
+    public String summary() {
+        return "Min cut capacity: " + capacity + " | cut arcs: " + cutSize()
+                + " | source side: " + sourceSize + " vertices";
+    }
+
+    // lado de s e arestas do corte, uma por linha
+    public void write(Writer out) throws IOException {
+        out.write(summary() + "\n");
+        StringBuilder line = new StringBuilder("Source side:");
+        for (int v : sourceVertices()) {
+            line.append(' ').append(v);
+        }
+        out.write(line.append('\n').toString());
+        for (int i = 0; i < cutOrigins.length; i++) {
+            out.write("Cut arc: " + cutOrigins[i] + " -> " + cutTargets[i] + " (cap " + cutCapacities[i] + ")\n");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ativ04;
+
+import common.CheckReport;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conferencia da decomposicao do fluxo em caminhos disjuntos nos grafos
+ * euler_* e layered_* da pasta graphs (capacidade 1): depois do fluxo maximo
+ * os caminhos saem de s, chegam em t, usam cada arco com fluxo uma vez e sao
+ * tantos quanto o valor; decompor de novo da os mesmos caminhos e nao mexe no
+ * fluxo; writeDisjointPaths escreve as mesmas linhas "Path k: a -> b".
+ * Tambem confere uma cadeia de CHAIN vertices (sem estouro de pilha) e um
+ * ciclo de fluxo, que fica fora dos caminhos.
+ *
+ * java ativ04.PathDecompositionCheck [pasta dos grafos] (padrao ativ04/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class PathDecompositionCheck {
+    private static final int CHAIN = 500_000;
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        FlowQueries queries = FlowQueries.load(report, fileName, false);
+        if (queries == null) return;
+        FlowGraph graph = queries.graph;
+        for (int i = 0; i < FlowQueries.QUERIES; i++) {
+            int s = queries.sources[i];
+            int t = queries.destinations[i];
+            String what = queries.pair(i);
+            graph.resetFlow();
+            long value = graph.maxFlow(s, t, FlowAlgorithm.DINIC);
+            int[] flow = graph.flow.clone();
+            List<int[]> paths = graph.disjointPaths(s, t);
+            report.check(FlowReport.arePathsValid(graph, paths, s, t, value), what + ": bad path decomposition");
+            report.check(Arrays.equals(flow, graph.flow), what + ": decomposition changed the flow");
+            List<int[]> again = graph.disjointPaths(s, t);
+            report.check(Arrays.deepEquals(paths.toArray(), again.toArray()), what + ": second decomposition differs");
+            report.check(sameLines(graph, s, t, paths), what + ": writeDisjointPaths lines");
+        }
+        graph.resetFlow();
+        report.endSection(queries.name);
+    }
+
+    private static boolean sameLines(FlowGraph graph, int s, int t, List<int[]> paths) throws IOException {
+        StringWriter out = new StringWriter();
+        if (graph.writeDisjointPaths(s, t, out) != paths.size()) return false;
+        StringBuilder expected = new StringBuilder();
+        for (int p = 0; p < paths.size(); p++) {
+            expected.append("Path ").append(p + 1).append(": ");
+            int[] path = paths.get(p);
+            for (int i = 0; i < path.length; i++) {
+                expected.append(path[i]);
+                if (i < path.length - 1) expected.append(" -> ");
+            }
+            expected.append('\n');
+        }
+        return expected.toString().equals(out.toString());
+    }
+
+    // cadeia 1 -> 2 -> ... -> CHAIN mais o atalho 1 -> CHAIN: dois caminhos, um com todos os vertices
+    private static void checkChain(CheckReport report) {
+        FlowGraph graph = new FlowGraph(CHAIN, CHAIN);
+        for (int v = 1; v < CHAIN; v++) graph.addEdge(v, v + 1);
+        graph.addEdge(1, CHAIN);
+        long value = graph.maxFlow(1, CHAIN, FlowAlgorithm.DINIC);
+        List<int[]> paths = graph.disjointPaths(1, CHAIN);
+        report.check(value == 2 && FlowReport.arePathsValid(graph, paths, 1, CHAIN, value), "chain: bad path decomposition");
+        int longest = 0;
+        for (int[] path : paths) longest = Math.max(longest, path.length);
+        report.check(longest == CHAIN, "chain: longest path has " + longest + " vertices");
+        report.endSection("chain of " + CHAIN);
+    }
+
+    // 1 -> 2 -> 4 com fluxo e o ciclo 2 -> 3 -> 2 tambem com fluxo: so o caminho sai
+    private static void checkCycle(CheckReport report) {
+        FlowGraph graph = new FlowGraph(4);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 2);
+        graph.addEdge(2, 4);
+        report.check(graph.maxFlow(1, 4) == 1, "cycle: max flow");
+        for (int u = 2; u <= 3; u++) {
+            for (int e = graph.first[u]; e < graph.first[u + 1]; e++) {
+                if (graph.cap[e] > 0 && graph.to[e] == 5 - u) {
+                    graph.flow[e] = 1;
+                    graph.flow[graph.rev[e]] = -1;
+                }
+            }
+        }
+        List<int[]> paths = graph.disjointPaths(1, 4);
+        report.check(paths.size() == 1 && Arrays.equals(paths.get(0), new int[] { 1, 2, 4 }),
+                "cycle: paths " + Arrays.deepToString(paths.toArray()));
+        report.endSection("flow cycle");
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ04/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : FlowQueries.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        checkChain(report);
+        checkCycle(report);
+        report.finish();
+    }
+}
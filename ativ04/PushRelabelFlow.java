@@ -0,0 +1,233 @@
+package ativ04;
+
+import java.util.Arrays;
+
+/**
+ * Push-relabel com selecao pelo maior rotulo (highest-label), heuristica
+ * de gap e global relabeling, sobre o mesmo grafo residual do FlowGraph.
+ *
+ * Fase 1: calcula o pre-fluxo maximo (so vertices com rotulo < n ficam ativos);
+ * o valor do fluxo e o excesso que chegou em t.
+ * Fase 2: devolve para s o excesso que sobrou nos vertices, para que o
+ * resultado seja um fluxo valido e o printDisjointPaths funcione igual.
+ */
+class PushRelabelFlow {
+    private final FlowGraph graph;
+    private final int n;
+    private final long relabelThreshold; // trabalho de relabel entre dois global relabels
+    private final int[] label;
+    private final long[] excess;
+    private final int[] current;
+
+    // baldes de vertices ativos por rotulo (lista ligada simples)
+    private final int[] activeHead;
+    private final int[] activeNext;
+    // baldes de todos os vertices por rotulo (lista dupla), usados no gap
+    private final int[] allHead;
+    private final int[] allNext;
+    private final int[] allPrev;
+    private final int[] queue;
+
+    private int highestActive;
+    private int highestAll;
+    private long workSinceRelabel;
+
+    long pushes;
+    long relabels;
+    long gaps;
+    long globalRelabels;
+
+    PushRelabelFlow(FlowGraph graph) {
+        this.graph = graph;
+        graph.build();
+        this.n = graph.V + 1; // vertices 0..V (o 0 fica isolado)
+        label = new int[n];
+        excess = new long[n];
+        current = new int[n];
+        activeHead = new int[2 * n + 1];
+        activeNext = new int[n];
+        allHead = new int[n + 1];
+        allNext = new int[n];
+        allPrev = new int[n];
+        queue = new int[n];
+        relabelThreshold = 6L * n + graph.arcCount();
+    }
+
+    public long maxFlow(int s, int t) {
+        pushes = relabels = gaps = globalRelabels = 0;
+        if (s == t) return 0;
+        Arrays.fill(excess, 0);
+        int[] flow = graph.flow;
+
+        // satura as arestas que saem de s
+        for (int e = graph.first[s]; e < graph.first[s + 1]; e++) {
+            int r = graph.cap[e] - flow[e];
+            if (r > 0) {
+                graph.push(e, r);
+                excess[graph.to[e]] += r;
+                excess[s] -= r;
+            }
+        }
+
+        // fase 1: pre-fluxo maximo
+        globalRelabel(s, t, t, 0);
+        label[s] = n;
+        while (highestActive >= 0) {
+            int v = popActive();
+            if (v < 0) break;
+            discharge(v, s, t, n, true);
+            if (workSinceRelabel > relabelThreshold) {
+                globalRelabel(s, t, t, 0);
+                label[s] = n;
+            }
+        }
+        long value = excess[t];
+
+        // fase 2: devolve o excesso restante para s (rotulos a partir de n)
+        globalRelabel(s, t, s, n);
+        while (highestActive >= 0) {
+            int v = popActive();
+            if (v < 0) break;
+            discharge(v, s, t, 2 * n, false);
+        }
+        return value;
+    }
+
+    /**
+     * Recalcula os rotulos como distancia ate root no residual (BFS reversa)
+     * somada a base. Na fase 1 root = t e base = 0; na fase 2 root = s e base = n.
+     * Vertices que nao alcancam root ficam com rotulo 2n (fora dos baldes).
+     */
+    private void globalRelabel(int s, int t, int root, int base) {
+        globalRelabels++;
+        workSinceRelabel = 0;
+        Arrays.fill(label, 2 * n);
+        Arrays.fill(activeHead, -1);
+        Arrays.fill(allHead, -1);
+        highestActive = -1;
+        highestAll = -1;
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        label[root] = base;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = graph.first[v]; e < graph.first[v + 1]; e++) {
+                // arco u -> v (o reverso de e) com capacidade residual
+                int u = graph.to[e];
+                int back = graph.rev[e];
+                if (label[u] == 2 * n && graph.cap[back] - graph.flow[back] > 0 && u != s && u != t) {
+                    label[u] = label[v] + 1;
+                    queue[tail++] = u;
+                }
+            }
+        }
+
+        for (int v = 0; v < n; v++) {
+            current[v] = graph.first[v];
+            if (v == s || v == t || label[v] >= 2 * n) continue;
+            if (label[v] < n) addToAll(v);
+            if (excess[v] > 0) pushActive(v);
+        }
+    }
+
+    private void discharge(int v, int s, int t, int maxLabel, boolean phaseOne) {
+        int[] to = graph.to;
+        int[] cap = graph.cap;
+        int[] flow = graph.flow;
+        int end = graph.first[v + 1];
+        while (excess[v] > 0) {
+            if (current[v] == end) {
+                relabel(v, maxLabel, phaseOne);
+                if (label[v] >= maxLabel) return;
+                continue;
+            }
+            int e = current[v];
+            int u = to[e];
+            int r = cap[e] - flow[e];
+            if (r > 0 && label[v] == label[u] + 1) {
+                int push = (int) Math.min(r, excess[v]);
+                graph.push(e, push);
+                excess[v] -= push;
+                boolean wasIdle = excess[u] == 0;
+                excess[u] += push;
+                pushes++;
+                if (wasIdle && u != s && u != t && label[u] < maxLabel) {
+                    pushActive(u);
+                }
+            } else {
+                current[v]++;
+            }
+        }
+    }
+
+    private void relabel(int v, int maxLabel, boolean phaseOne) {
+        relabels++;
+        int oldLabel = label[v];
+        int newLabel = 2 * n;
+        for (int e = graph.first[v]; e < graph.first[v + 1]; e++) {
+            workSinceRelabel++;
+            if (graph.cap[e] - graph.flow[e] > 0) newLabel = Math.min(newLabel, label[graph.to[e]] + 1);
+        }
+
+        if (phaseOne && oldLabel < n) {
+            removeFromAll(v);
+            if (allHead[oldLabel] == -1) {
+                // gap: ninguem mais com rotulo oldLabel, quem esta acima nao alcanca t
+                gaps++;
+                for (int l = oldLabel + 1; l <= highestAll; l++) {
+                    for (int u = allHead[l]; u != -1; u = allNext[u]) {
+                        label[u] = n;
+                    }
+                    allHead[l] = -1;
+                }
+                highestAll = oldLabel - 1;
+                newLabel = n;
+            }
+        }
+
+        label[v] = Math.min(newLabel, maxLabel);
+        current[v] = graph.first[v];
+        if (phaseOne && label[v] < n) addToAll(v);
+    }
+
+    private void pushActive(int v) {
+        int l = label[v];
+        activeNext[v] = activeHead[l];
+        activeHead[l] = v;
+        if (l > highestActive) highestActive = l;
+    }
+
+    // devolve o vertice ativo de maior rotulo, ou -1
+    private int popActive() {
+        while (highestActive >= 0) {
+            int v = activeHead[highestActive];
+            if (v == -1) {
+                highestActive--;
+                continue;
+            }
+            activeHead[highestActive] = activeNext[v];
+            // entradas velhas (vertice que mudou de rotulo pelo gap) sao ignoradas
+            if (label[v] != highestActive || excess[v] == 0) continue;
+            return v;
+        }
+        return -1;
+    }
+
+    private void addToAll(int v) {
+        int l = label[v];
+        allPrev[v] = -1;
+        allNext[v] = allHead[l];
+        if (allHead[l] != -1) allPrev[allHead[l]] = v;
+        allHead[l] = v;
+        if (l > highestAll) highestAll = l;
+    }
+
+    private void removeFromAll(int v) {
+        int l = label[v];
+        if (allPrev[v] != -1) allNext[allPrev[v]] = allNext[v];
+        else allHead[l] = allNext[v];
+        if (allNext[v] != -1) allPrev[allNext[v]] = allPrev[v];
+    }
+}
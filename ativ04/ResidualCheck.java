@@ -0,0 +1,114 @@
+package ativ04;
+
+import common.CheckReport;
+import common.EdgeList;
+import common.EdgeListLoader;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Conferencia do residual em CSR (struct of arrays) do FlowGraph nos grafos
+ * euler_* e layered_* da pasta graphs, com capacidade 1 e com a 3a coluna:
+ * os blocos first[u]..first[u + 1] cobrem os 2m arcos, cada arco e o reverso
+ * do seu reverso e sai do vertice do bloco, os arcos com capacidade sao as
+ * arestas do arquivo (mesma origem, destino e capacidade) e residualBytes
+ * conta 16 bytes por arco. O Edmonds-Karp sobre o residual da um fluxo
+ * valido e o mesmo valor ao repetir a consulta; a copia do residual tem os
+ * mesmos arcos, da os mesmos valores e nao mexe no fluxo do original.
+ *
+ * java ativ04.ResidualCheck [pasta dos grafos] (padrao ativ04/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class ResidualCheck {
+
+    private static void checkGraph(CheckReport report, String fileName, boolean weighted) throws IOException {
+        FlowQueries queries = FlowQueries.load(report, fileName, weighted);
+        if (queries == null) return;
+        FlowGraph graph = queries.graph;
+        String name = queries.name;
+        int n = graph.V;
+        EdgeList edges = EdgeListLoader.load(fileName, weighted ? 3 : 2);
+
+        int arcs = graph.arcCount();
+        report.check(arcs == 2 * edges.m, name + ": " + arcs + " arcs for " + edges.m + " edges");
+        report.check(graph.first[1] == 0 && graph.first[n + 1] == arcs, name + ": blocks do not cover the arcs");
+        report.check(graph.residualBytes() == 16L * arcs + 4L * (n + 2), name + ": residualBytes " + graph.residualBytes());
+
+        // arcos de ida esperados por origem: (destino << 32 | capacidade), ordenados
+        int[] count = new int[n + 2];
+        for (int i = 0; i < edges.m; i++) {
+            if (capacity(edges, i, weighted) > 0) count[edges.origin[i] + 1]++;
+        }
+        for (int v = 1; v <= n + 1; v++) count[v] += count[v - 1];
+        long[] expected = new long[count[n + 1]];
+        int[] next = Arrays.copyOf(count, n + 1);
+        for (int i = 0; i < edges.m; i++) {
+            int c = capacity(edges, i, weighted);
+            if (c > 0) expected[next[edges.origin[i]]++] = ((long) edges.destination[i] << 32) | c;
+        }
+
+        boolean blocks = true;
+        boolean pairs = true;
+        boolean forward = true;
+        for (int u = 1; u <= n; u++) {
+            blocks &= graph.first[u] <= graph.first[u + 1];
+            long[] found = new long[graph.first[u + 1] - graph.first[u]];
+            int k = 0;
+            for (int a = graph.first[u]; a < graph.first[u + 1]; a++) {
+                int b = graph.rev[a];
+                pairs &= b != a && graph.rev[b] == a && graph.to[b] == u && (graph.cap[a] == 0 || graph.cap[b] == 0);
+                if (graph.cap[a] > 0) found[k++] = ((long) graph.to[a] << 32) | graph.cap[a];
+            }
+            long[] mine = Arrays.copyOf(found, k);
+            long[] theirs = Arrays.copyOfRange(expected, count[u], count[u + 1]);
+            Arrays.sort(mine);
+            Arrays.sort(theirs);
+            forward &= Arrays.equals(mine, theirs);
+        }
+        report.check(blocks, name + ": first is not monotone");
+        report.check(pairs, name + ": reverse arcs do not pair up");
+        report.check(forward, name + ": forward arcs differ from the edge list");
+
+        // Edmonds-Karp: fluxo valido e o mesmo valor ao repetir
+        for (int i = 0; i < FlowQueries.QUERIES; i++) {
+            int s = queries.sources[i];
+            int t = queries.destinations[i];
+            graph.resetFlow();
+            long value = graph.maxFlow(s, t);
+            report.check(FlowReport.isValidFlow(graph, s, t, value), queries.pair(i) + ": invalid flow");
+            graph.resetFlow();
+            report.check(graph.maxFlow(s, t) == value, queries.pair(i) + ": repeated query changed");
+        }
+        graph.resetFlow();
+
+        // copia: mesmos arcos, fluxo proprio
+        FlowGraph copy = graph.residualCopy();
+        report.check(Arrays.equals(copy.first, graph.first) && Arrays.equals(copy.to, graph.to)
+                && Arrays.equals(copy.rev, graph.rev) && Arrays.equals(copy.cap, graph.cap), name + ": copy arcs differ");
+        for (int i = 0; i < FlowQueries.QUERIES; i++) {
+            copy.resetFlow();
+            report.check(copy.maxFlow(queries.sources[i], queries.destinations[i]) == queries.expected[i],
+                    queries.pair(i) + ": residual copy");
+        }
+        boolean untouched = true;
+        for (int f : graph.flow) untouched &= f == 0;
+        report.check(untouched, name + ": the copy changed the original flow");
+
+        report.endSection(name);
+    }
+
+    private static int capacity(EdgeList edges, int i, boolean weighted) {
+        return weighted ? edges.weight[i] : 1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ04/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : FlowQueries.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph, false);
+            checkGraph(report, dir + File.separator + graph, true);
+        }
+        report.finish();
+    }
+}
@@ -0,0 +1,56 @@
+package ativ04;
+
+import common.CheckReport;
+import common.EdgeListLoader;
+import common.GraphSnapshot;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Conferencia do Main.loadGraph pelo snapshot: para cada grafo da pasta
+ * graphs (copiado para um diretorio temporario, com o .gsnap ao lado) o
+ * residual montado do snapshot tem que ser o mesmo, arco por arco, que o
+ * montado do .txt, com capacidade 1 e com a 3a coluna.
+ *
+ * java ativ04.SnapshotLoadCheck [pasta dos grafos] (padrao ativ04/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class SnapshotLoadCheck {
+    static final String[] GRAPHS = { "euler_1000.txt", "euler_10000.txt", "layered_1000.txt", "layered_10000.txt" };
+
+    private static void checkGraph(CheckReport report, String fileName) throws IOException {
+        String name = new File(fileName).getName();
+        File source = File.createTempFile("snapshotloadcheck", ".txt");
+        File snapshotFile = new File(GraphSnapshot.snapshotName(source.getPath()));
+        try {
+            Files.copy(new File(fileName).toPath(), source.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            GraphSnapshot.fromEdges(EdgeListLoader.load(source.getPath(), EdgeListLoader.columns(source.getPath())))
+                    .write(snapshotFile.getPath(), source.getPath());
+            for (boolean weighted : new boolean[] { false, true }) {
+                String what = name + (weighted ? " (weighted)" : " (unit)");
+                FlowGraph expected = Main.readGraph(source.getPath(), weighted);
+                FlowGraph loaded = Main.loadGraph(source.getPath(), weighted);
+                report.check(expected != null && loaded != null && loaded.V == expected.V
+                        && Arrays.equals(loaded.first, expected.first) && Arrays.equals(loaded.to, expected.to)
+                        && Arrays.equals(loaded.rev, expected.rev) && Arrays.equals(loaded.cap, expected.cap),
+                        what + ": residual from the snapshot differs from the .txt one");
+            }
+        } finally {
+            snapshotFile.delete();
+            source.delete();
+        }
+        report.endSection(name);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ04/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : GRAPHS) {
+            checkGraph(report, dir + File.separator + graph);
+        }
+        report.finish();
+    }
+}
@@ -0,0 +1,110 @@
+package ativ04;
+
+import common.CheckReport;
+import common.EdgeList;
+import common.EdgeListLoader;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Conferencia do fluxo com capacidades (3a coluna) e do corte minimo nos
+ * grafos euler_* e layered_* da pasta graphs: as capacidades somam a 3a
+ * coluna do arquivo; o capacity scaling (maxFlowScaling) da o valor do
+ * Edmonds-Karp com um fluxo valido; depois de cada algoritmo o corte minimo
+ * separa s de t, vale o fluxo, e as arestas do corte sao exatamente as que
+ * saem do lado de s (todas saturadas); o Edmonds-Karp com limite para no
+ * limite ou no fluxo maximo. Tambem confere tres arestas paralelas de
+ * capacidade Integer.MAX_VALUE, cujo fluxo so cabe em long. Os grafos com
+ * capacidade 1 entram no corte minimo.
+ *
+ * java ativ04.WeightedFlowCheck [pasta dos grafos] (padrao ativ04/graphs)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class WeightedFlowCheck {
+
+    private static void checkGraph(CheckReport report, String fileName, boolean weighted) throws IOException {
+        FlowQueries queries = FlowQueries.load(report, fileName, weighted);
+        if (queries == null) return;
+        FlowGraph graph = queries.graph;
+
+        // capacidades: a 3a coluna no modo weighted, 1 no outro
+        EdgeList edges = EdgeListLoader.load(fileName, weighted ? 3 : 2);
+        long columnTotal = 0;
+        for (int i = 0; i < edges.m; i++) columnTotal += weighted ? edges.weight[i] : 1;
+        long capTotal = 0;
+        for (int c : graph.cap) capTotal += c;
+        report.check(capTotal == columnTotal, queries.name + ": capacities " + capTotal + " != " + columnTotal);
+
+        for (int i = 0; i < FlowQueries.QUERIES; i++) {
+            int s = queries.sources[i];
+            int t = queries.destinations[i];
+            long expected = queries.expected[i];
+            String what = queries.pair(i);
+
+            graph.resetFlow();
+            long value = graph.maxFlowScaling(s, t);
+            report.check(value == expected, what + " scaling: " + value + " != " + expected);
+            report.check(FlowReport.isValidFlow(graph, s, t, value), what + " scaling: invalid flow");
+
+            for (FlowAlgorithm algorithm : FlowAlgorithm.values()) {
+                graph.resetFlow();
+                checkCut(report, graph, s, t, graph.maxFlow(s, t, algorithm), what + " " + algorithm);
+            }
+
+            // com limite: para ao chegar no limite, ou devolve o fluxo maximo
+            graph.resetFlow();
+            long half = graph.maxFlow(s, t, expected / 2);
+            report.check(half >= expected / 2 && half <= expected, what + " limit " + expected / 2 + ": " + half);
+            graph.resetFlow();
+            report.check(graph.maxFlow(s, t, expected + 1) == expected, what + " limit above the max flow");
+        }
+        graph.resetFlow();
+        report.endSection(queries.name);
+    }
+
+    private static void checkCut(CheckReport report, FlowGraph graph, int s, int t, long value, String what) {
+        MinCut cut = graph.minCut(s);
+        report.check(cut.sourceSide[s] && (s == t || !cut.sourceSide[t]), what + ": cut does not separate s and t");
+        report.check(cut.capacity == value, what + ": min cut " + cut.capacity + " != " + value);
+        int crossing = 0;
+        boolean saturated = true;
+        for (int u = 1; u <= graph.V; u++) {
+            if (!cut.sourceSide[u]) continue;
+            for (int e = graph.first[u]; e < graph.first[u + 1]; e++) {
+                if (graph.cap[e] > 0 && !cut.sourceSide[graph.to[e]]) {
+                    crossing++;
+                    saturated &= graph.flow[e] == graph.cap[e];
+                }
+            }
+        }
+        report.check(crossing == cut.cutSize() && saturated, what + ": cut arcs");
+        int size = 0;
+        for (boolean side : cut.sourceSide) if (side) size++;
+        report.check(size == cut.sourceSize, what + ": source side size");
+    }
+
+    // 1 -> 2 tres vezes com capacidade Integer.MAX_VALUE: o total passa de int
+    private static void checkLongTotal(CheckReport report) {
+        FlowGraph graph = new FlowGraph(2);
+        for (int i = 0; i < 3; i++) graph.addEdge(1, 2, Integer.MAX_VALUE);
+        long expected = 3L * Integer.MAX_VALUE;
+        for (FlowAlgorithm algorithm : FlowAlgorithm.values()) {
+            graph.resetFlow();
+            long value = graph.maxFlow(1, 2, algorithm);
+            report.check(value == expected, "long total " + algorithm + ": " + value);
+            report.check(graph.minCut(1).capacity == expected, "long total " + algorithm + ": min cut");
+        }
+        report.endSection("long total");
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : "ativ04/graphs";
+        CheckReport report = new CheckReport();
+        for (String graph : FlowQueries.GRAPHS) {
+            checkGraph(report, dir + File.separator + graph, true);
+            checkGraph(report, dir + File.separator + graph, false);
+        }
+        checkLongTotal(report);
+        report.finish();
+    }
+}
@@ -0,0 +1,35 @@
+package common;
+
+/**
+ * Contagem das conferencias das classes *Check: cada check() conta uma
+ * conferencia, so as primeiras falhas sao impressas, endSection() mostra a
+ * parcial de um grafo e finish() o total (saindo com codigo 1 se algo falhou).
+ */
+public class CheckReport {
+    private static final int PRINTED_FAILURES = 20;
+
+    private int checks;
+    private int failures;
+    private int sectionChecks;
+    private int sectionFailures;
+
+    public void check(boolean ok, String what) {
+        checks++;
+        if (!ok) {
+            failures++;
+            if (failures <= PRINTED_FAILURES) System.out.println("FAIL: " + what);
+        }
+    }
+
+    // conferencias desde a secao anterior
+    public void endSection(String name) {
+        System.out.println(name + ": " + (checks - sectionChecks) + " checks, " + (failures - sectionFailures) + " failures");
+        sectionChecks = checks;
+        sectionFailures = failures;
+    }
+
+    public void finish() {
+        System.out.println("Total: " + checks + " checks, " + failures + " failures");
+        if (failures > 0) System.exit(1);
+    }
+}
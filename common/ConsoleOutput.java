@@ -0,0 +1,40 @@
+package common;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * System.out que nao fecha: close() so faz flush. Assim o Writer de saida
+ * pode ficar num try-with-resources tanto para arquivo quanto para o console
+ * sem fechar o System.out do resto do programa.
+ */
+public class ConsoleOutput extends FilterOutputStream {
+
+    public ConsoleOutput(OutputStream out) {
+        super(out);
+    }
+
+    // repassa o bloco inteiro (o FilterOutputStream escreveria byte a byte)
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    // Writer com buffer para o arquivo, ou para o console quando fileName e null ou "-"
+    public static Writer writer(String fileName) throws IOException {
+        if (fileName == null || fileName.equals("-")) {
+            return new BufferedWriter(new OutputStreamWriter(new ConsoleOutput(System.out)), 1 << 16);
+        }
+        return new BufferedWriter(new FileWriter(fileName), 1 << 16);
+    }
+}
@@ -0,0 +1,195 @@
+package common;
+
+import java.util.Arrays;
+
+/**
+ * Grafo direcionado guardado em CSR (compressed sparse row).
+ * As arestas sao acumuladas em dois vetores de int e, no build(), viram
+ * dois CSR: um de sucessores e um reverso de predecessores. Assim nao
+ * existe Integer nem ArrayList por vertice.
+ * Compartilhado pela ativ01 (graus, sucessores, predecessores) e pela ativ02
+ * (buscas em profundidade, pelo GraphAccess: sucessores com peso 1).
+ */
+public class Digraph implements GraphAccess {
+    private int n; // num vertices
+    private int m; // num arestas
+
+    // arestas na ordem de leitura (usadas so para montar o CSR; liberadas no build)
+    private int[] edgeOrigin;
+    private int[] edgeDestination;
+
+    // sucessores de v = sucessorTargets[sucessorOffsets[v] .. sucessorOffsets[v + 1])
+    private int[] sucessorOffsets;
+    private int[] sucessorTargets;
+    // predecessores de v = predecessorTargets[predecessorOffsets[v] .. predecessorOffsets[v + 1])
+    private int[] predecessorOffsets;
+    private int[] predecessorTargets;
+
+    private boolean built;
+
+    public Digraph(int n) {
+        this(n, 16);
+    }
+
+    public Digraph(int n, int expectedEdges) {
+        this.n = n;
+        edgeOrigin = new int[Math.max(expectedEdges, 1)];
+        edgeDestination = new int[Math.max(expectedEdges, 1)];
+    }
+
+    public void addEdge(int o, int d) {
+        if (built) {
+            throw new IllegalStateException("Grafo ja montado nao aceita novas arestas");
+        }
+        if (m == edgeOrigin.length) {
+            int cap = edgeOrigin.length * 2;
+            edgeOrigin = Arrays.copyOf(edgeOrigin, cap);
+            edgeDestination = Arrays.copyOf(edgeDestination, cap);
+        }
+        edgeOrigin[m] = o; // origem -> destino
+        edgeDestination[m] = d;
+        m++;
+    }
+
+    // monta os dois CSR em duas passadas: conta os graus e depois distribui as arestas
+    public void build() {
+        if (built) return;
+
+        sucessorOffsets = new int[n + 2];
+        predecessorOffsets = new int[n + 2];
+
+        // 1a passada: grau de saida e de entrada
+        for (int i = 0; i < m; i++) {
+            sucessorOffsets[edgeOrigin[i] + 1]++;
+            predecessorOffsets[edgeDestination[i] + 1]++;
+        }
+        for (int v = 1; v <= n + 1; v++) {
+            sucessorOffsets[v] += sucessorOffsets[v - 1];
+            predecessorOffsets[v] += predecessorOffsets[v - 1];
+        }
+
+        // 2a passada: coloca cada aresta na sua posicao (mantem a ordem de leitura)
+        sucessorTargets = new int[m];
+        predecessorTargets = new int[m];
+        int[] nextSucessor = Arrays.copyOf(sucessorOffsets, n + 1);
+        int[] nextPredecessor = Arrays.copyOf(predecessorOffsets, n + 1);
+        for (int i = 0; i < m; i++) {
+            int o = edgeOrigin[i];
+            int d = edgeDestination[i];
+            sucessorTargets[nextSucessor[o]++] = d;
+            predecessorTargets[nextPredecessor[d]++] = o;
+        }
+
+        // a lista de arestas nao serve mais: o CSR tem tudo
+        edgeOrigin = null;
+        edgeDestination = null;
+        built = true;
+    }
+
+    // sucessores de v: destinos target(e) para e em [firstEdge(v), endEdge(v))
+    public int firstEdge(int v) {
+        build();
+        return sucessorOffsets[v];
+    }
+
+    public int endEdge(int v) {
+        build();
+        return sucessorOffsets[v + 1];
+    }
+
+    public int target(int e) {
+        return sucessorTargets[e];
+    }
+
+    // predecessores de v: origens source(e) para e em [firstInEdge(v), endInEdge(v))
+    public int firstInEdge(int v) {
+        build();
+        return predecessorOffsets[v];
+    }
+
+    public int endInEdge(int v) {
+        build();
+        return predecessorOffsets[v + 1];
+    }
+
+    public int source(int e) {
+        return predecessorTargets[e];
+    }
+
+    // grau de saida em O(1), sem alocar nada
+    public int outDegree(int v) {
+        build();
+        return sucessorOffsets[v + 1] - sucessorOffsets[v];
+    }
+
+    // grau de entrada em O(1), sem alocar nada
+    public int inDegree(int v) {
+        build();
+        return predecessorOffsets[v + 1] - predecessorOffsets[v];
+    }
+
+    // vetores crus dos dois CSR (para as buscas andarem com cursor por indice)
+    public int[] sucessorOffsets() {
+        build();
+        return sucessorOffsets;
+    }
+
+    public int[] sucessorTargets() {
+        build();
+        return sucessorTargets;
+    }
+
+    public int[] predecessorOffsets() {
+        build();
+        return predecessorOffsets;
+    }
+
+    public int[] predecessorTargets() {
+        build();
+        return predecessorTargets;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    public int edgeCount() {
+        return m;
+    }
+
+    // GraphAccess: CSR de sucessores, sem pesos (todo peso e 1)
+    @Override
+    public long edges() {
+        return m;
+    }
+
+    @Override
+    public long edgeStart(int v) {
+        return firstEdge(v);
+    }
+
+    @Override
+    public long edgeEnd(int v) {
+        return endEdge(v);
+    }
+
+    @Override
+    public int edgeTarget(long e) {
+        return sucessorTargets[(int) e];
+    }
+
+    @Override
+    public int edgeWeight(long e) {
+        return 1;
+    }
+
+    // deixar em ordem lexicografica (ordena cada fatia do CSR no lugar)
+    public void sort() {
+        build();
+        for (int v = 1; v <= n; v++) {
+            Arrays.sort(sucessorTargets, sucessorOffsets[v], sucessorOffsets[v + 1]);
+            Arrays.sort(predecessorTargets, predecessorOffsets[v], predecessorOffsets[v + 1]);
+        }
+    }
+}
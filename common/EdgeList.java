@@ -0,0 +1,32 @@
+package common;
+
+/**
+ * Resultado do EdgeListLoader: n, m e as arestas em vetores de int.
+ * weight e null quando o arquivo foi lido com 2 colunas.
+ */
+public class EdgeList {
+    public final int n;
+    public final int m;
+    public final int[] origin;
+    public final int[] destination;
+    public final int[] weight;
+    public final long loadNanos;
+
+    EdgeList(int n, int m, int[] origin, int[] destination, int[] weight, long loadNanos) {
+        this.n = n;
+        this.m = m;
+        this.origin = origin;
+        this.destination = destination;
+        this.weight = weight;
+        this.loadNanos = loadNanos;
+    }
+
+    public double edgesPerSecond() {
+        return loadNanos == 0 ? 0 : m / (loadNanos / 1_000_000_000.0);
+    }
+
+    public String throughputReport() {
+        return "Loaded " + m + " edges in " + String.format("%.3f", loadNanos / 1_000_000.0)
+                + " ms (" + String.format("%.0f", edgesPerSecond()) + " edges/s)";
+    }
+}
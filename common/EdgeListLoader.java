@@ -0,0 +1,243 @@
+package common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Leitura rapida do formato "n m" + uma aresta por linha.
+ * O arquivo e mapeado em memoria (NIO) e os numeros sao lidos byte a byte,
+ * sem split/parseInt. A parte das arestas e dividida em pedacos que comecam
+ * sempre no inicio de uma linha, e cada pedaco e lido em paralelo.
+ * Aceita 2 colunas (origem destino) ou 3 (origem destino peso); colunas
+ * extras no fim da linha sao ignoradas e qualquer quantidade de espacos
+ * entre os numeros e aceita (como no graph-test-100.txt).
+ * Fica no pacote common para todas as atividades lerem com o mesmo codigo.
+ */
+public class EdgeListLoader {
+    private static final int MIN_CHUNK_BYTES = 1 << 20; // pedacos de pelo menos 1 MB
+    private static final int HEADER_BYTES = 256;
+
+    private EdgeListLoader() {
+    }
+
+    // numeros na primeira linha de aresta (2 ou 3; 0 se o arquivo nao tem arestas)
+    public static int columns(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            ByteBuffer probe = ByteBuffer.allocate(4096);
+            channel.read(probe, 0);
+            probe.flip();
+            int pos = 0;
+            while (pos < probe.limit() && probe.get(pos) != '\n') pos++; // pula o cabecalho
+            int count = 0;
+            boolean inNumber = false;
+            for (pos++; pos < probe.limit(); pos++) {
+                byte b = probe.get(pos);
+                if (b == '\n') {
+                    if (count > 0) break; // linhas vazias sao puladas
+                    inNumber = false;
+                    continue;
+                }
+                boolean digit = isDigit(b) || b == '-';
+                if (digit && !inNumber) count++;
+                inNumber = digit;
+            }
+            return Math.min(count, 3);
+        }
+    }
+
+    public static EdgeList load(String fileName, int columns) throws IOException {
+        if (columns != 2 && columns != 3) {
+            throw new IllegalArgumentException("Numero de colunas invalido: " + columns);
+        }
+        long startTime = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            // cabecalho: "n m"
+            ByteBuffer header = ByteBuffer.allocate((int) Math.min(size, HEADER_BYTES));
+            channel.read(header, 0);
+            header.flip();
+            int[] headerValues = new int[2];
+            int pos = 0;
+            for (int k = 0; k < 2; k++) {
+                while (pos < header.limit() && isBlank(header.get(pos))) pos++;
+                if (pos >= header.limit()) {
+                    throw new NumberFormatException("Cabecalho incompleto em '" + fileName + "'");
+                }
+                long value = 0;
+                while (pos < header.limit() && isDigit(header.get(pos))) {
+                    value = value * 10 + (header.get(pos) - '0');
+                    pos++;
+                }
+                headerValues[k] = (int) value;
+            }
+            while (pos < header.limit() && header.get(pos) != '\n') pos++;
+            long edgesStart = Math.min(pos + 1L, size);
+
+            int n = headerValues[0]; // vértices
+            int m = headerValues[1]; // arestas
+
+            long[] bounds = chunkBounds(channel, edgesStart, size);
+            List<IntBuffer3> parts;
+            try {
+                parts = IntStream.range(0, bounds.length - 1)
+                        .parallel()
+                        .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1], columns))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // junta os pedacos na ordem do arquivo (no maximo m arestas, como o readGraph original)
+            int total = 0;
+            for (IntBuffer3 part : parts) total += part.size;
+            int edges = Math.min(total, m);
+
+            int[] origin = new int[edges];
+            int[] destination = new int[edges];
+            int[] weight = columns == 3 ? new int[edges] : null;
+            int offset = 0;
+            for (IntBuffer3 part : parts) {
+                int len = Math.min(part.size, edges - offset);
+                if (len <= 0) break;
+                System.arraycopy(part.a, 0, origin, offset, len);
+                System.arraycopy(part.b, 0, destination, offset, len);
+                if (weight != null) System.arraycopy(part.c, 0, weight, offset, len);
+                offset += len;
+            }
+
+            return new EdgeList(n, edges, origin, destination, weight, System.nanoTime() - startTime);
+        }
+    }
+
+    // divide [start, end) em pedacos alinhados com o inicio das linhas
+    private static long[] chunkBounds(FileChannel channel, long start, long end) throws IOException {
+        long length = end - start;
+        int chunks = (int) Math.max(1, Math.min(
+                Runtime.getRuntime().availableProcessors() * 4L, length / MIN_CHUNK_BYTES));
+        long[] bounds = new long[chunks + 1];
+        bounds[0] = start;
+        bounds[chunks] = end;
+
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunks; i++) {
+            long p = Math.max(start + length * i / chunks, bounds[i - 1]);
+            // anda ate depois do proximo '\n'
+            boolean found = false;
+            while (!found && p < end) {
+                probe.clear();
+                int read = channel.read(probe, p);
+                if (read <= 0) break;
+                for (int k = 0; k < read; k++) {
+                    if (probe.get(k) == '\n') {
+                        p += k + 1;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) p += read;
+            }
+            bounds[i] = Math.min(p, end);
+        }
+        return bounds;
+    }
+
+    private static IntBuffer3 parseChunk(FileChannel channel, long from, long to, int columns) {
+        IntBuffer3 out = new IntBuffer3((int) Math.max(16, (to - from) / (columns * 4L)), columns == 3);
+        if (to <= from) return out;
+
+        MappedByteBuffer buf;
+        try {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int limit = buf.limit();
+        int pos = 0;
+        int[] values = new int[3];
+        while (pos < limit) {
+            int count = 0;
+            byte b = 0;
+            // uma linha: le ate 'columns' numeros e ignora o resto
+            while (pos < limit) {
+                b = buf.get(pos);
+                if (b == '\n') break;
+                if (isBlank(b)) {
+                    pos++;
+                    continue;
+                }
+                if (count < columns) {
+                    boolean negative = b == '-';
+                    if (negative) pos++;
+                    long value = 0;
+                    int start = pos;
+                    while (pos < limit && isDigit(b = buf.get(pos))) {
+                        value = value * 10 + (b - '0');
+                        pos++;
+                    }
+                    if (pos == start || value > Integer.MAX_VALUE
+                            || (pos < limit && !isBlank(b) && b != '\n')) {
+                        throw new NumberFormatException("Valor invalido na posicao " + (from + pos));
+                    }
+                    values[count++] = negative ? (int) -value : (int) value;
+                } else {
+                    while (pos < limit && !isBlank(buf.get(pos)) && buf.get(pos) != '\n') pos++;
+                }
+            }
+            pos++; // pula o '\n'
+
+            if (count == 0) continue; // linha vazia
+            if (count < columns) {
+                throw new NumberFormatException("Linha com " + count + " colunas (esperado " + columns + ")");
+            }
+            out.add(values[0], values[1], values[2]);
+        }
+        return out;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    // tres vetores de int que crescem juntos (origem, destino, peso)
+    private static class IntBuffer3 {
+        int[] a;
+        int[] b;
+        int[] c;
+        int size;
+
+        IntBuffer3(int capacity, boolean weighted) {
+            a = new int[capacity];
+            b = new int[capacity];
+            c = weighted ? new int[capacity] : null;
+        }
+
+        void add(int x, int y, int z) {
+            if (size == a.length) {
+                int cap = a.length * 2;
+                a = Arrays.copyOf(a, cap);
+                b = Arrays.copyOf(b, cap);
+                if (c != null) c = Arrays.copyOf(c, cap);
+            }
+            a[size] = x;
+            b[size] = y;
+            if (c != null) c[size] = z;
+            size++;
+        }
+    }
+}
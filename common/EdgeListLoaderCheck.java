@@ -0,0 +1,53 @@
+package common;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Conferencia do EdgeListLoader (colunas detectadas, leitura em paralelo) e
+ * do Digraph montado com ele contra a leitura de referencia, nos grafos de
+ * teste das atividades e num arquivo gerado com semente fixa, maior que um
+ * pedaco do loader, com linhas em branco e fim de linha "\r\n".
+ *
+ * java common.EdgeListLoaderCheck [grafo.txt ...] (padrao: os grafos de teste do repositorio)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class EdgeListLoaderCheck {
+    private static final long SEED = 11;
+
+    private static void checkGraph(CheckReport report, String fileName, String name) throws IOException {
+        ReferenceGraph ref = new ReferenceGraph(fileName);
+
+        int columns = EdgeListLoader.columns(fileName);
+        report.check(columns == ref.columns, name + ": columns " + columns + " != " + ref.columns);
+        EdgeList edges = EdgeListLoader.load(fileName, columns);
+        boolean same = edges.n == ref.n && edges.m == ref.edges.size();
+        for (int i = 0; same && i < edges.m; i++) {
+            int[] e = ref.edges.get(i);
+            same = edges.origin[i] == e[0] && edges.destination[i] == e[1]
+                    && (edges.weight == null ? e[2] == 1 : edges.weight[i] == e[2]);
+        }
+        report.check(same, name + ": EdgeListLoader differs from the reference");
+
+        Digraph digraph = new Digraph(edges.n, edges.m);
+        for (int i = 0; i < edges.m; i++) digraph.addEdge(edges.origin[i], edges.destination[i]);
+        report.check(ref.sameLists(digraph, false, false), name + ": Digraph differs from the reference");
+        report.endSection(name);
+    }
+
+    public static void main(String[] args) throws IOException {
+        CheckReport report = new CheckReport();
+        if (args.length > 0) {
+            for (String graph : args) checkGraph(report, graph, new File(graph).getName());
+        } else {
+            for (String graph : ReferenceGraph.GRAPHS) checkGraph(report, graph, new File(graph).getName());
+            File generated = ReferenceGraph.generate(SEED);
+            try {
+                checkGraph(report, generated.getPath(), "generated (seed " + SEED + ")");
+            } finally {
+                generated.delete();
+            }
+        }
+        report.finish();
+    }
+}
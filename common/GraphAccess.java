@@ -0,0 +1,26 @@
+package common;
+
+/**
+ * Acesso primitivo a um grafo em CSR, com indice de aresta long.
+ * As arestas de v sao os indices [edgeStart(v), edgeEnd(v)).
+ * E a entrada dos motores (DFS do ativ02, Dijkstra do ativ03, residual do
+ * ativ04), entao eles rodam igual sobre os grafos do heap (Digraph, Graph)
+ * e sobre o OffHeapGraph (fora do heap, mais de 2^31 arestas). So a DFS e
+ * o Dijkstra leem o grafo direto; o residual do ativ04 e a classificacao do
+ * ativ02 copiam para vetores do heap e tem limite menor (ver OffHeapGraph).
+ */
+public interface GraphAccess {
+    int size();
+
+    // numero de arestas (long: o OffHeapGraph passa de 2^31)
+    long edges();
+
+    long edgeStart(int v);
+
+    long edgeEnd(int v);
+
+    int edgeTarget(long e);
+
+    // peso da aresta (1 em grafo sem pesos)
+    int edgeWeight(long e);
+}
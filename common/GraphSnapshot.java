@@ -0,0 +1,253 @@
+package common;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot binario de um grafo em CSR, para nao precisar ler o .txt de novo.
+ *
+ * Layout (little endian):
+ *   int  magic ("GSNP"), int versao, int n, int m, int reservado, int reservado
+ *   long tamanho do .txt, long ultima modificacao do .txt, long CRC32 do .txt
+ *   int[n + 2] offsets, int[m] targets, int[m] weights
+ *
+ * O arquivo e mapeado em memoria na leitura e os vetores sao copiados direto
+ * para int[], sem parse. O CRC32 do .txt de origem serve para descobrir se o
+ * snapshot ficou velho. Usado pela ativ03 (Graph) e pela ativ04 (FlowGraph).
+ *
+ * Os pesos sao sempre gravados (1 quando o .txt so tem 2 colunas), entao o
+ * mesmo snapshot serve para o modo com e sem capacidades. Carregar nunca
+ * grava nada: o snapshot so e criado pelo conversor (main desta classe).
+ *
+ * Como GraphAccess, o CSR lido entra direto em quem monta a propria
+ * estrutura a partir dele (ex.: FlowGraph.from no ativ04).
+ */
+public class GraphSnapshot implements GraphAccess {
+    public static final String EXTENSION = ".gsnap";
+
+    private static final int MAGIC = 0x47534E50; // "GSNP"
+    private static final int VERSION = 2; // 1 podia vir sem pesos
+    private static final int HEADER_BYTES = 48;
+    private static final int WINDOW_INTS = 1 << 26; // janelas de 256 MB no mapeamento
+
+    public final int n;
+    public final int m;
+    public final int[] offsets;
+    public final int[] targets;
+    public final int[] weights;
+
+    public GraphSnapshot(int n, int[] offsets, int[] targets, int[] weights) {
+        if (weights == null || weights.length != targets.length) {
+            throw new IllegalArgumentException("Snapshot precisa de um peso por aresta");
+        }
+        this.n = n;
+        this.m = targets.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public long edges() {
+        return m;
+    }
+
+    @Override
+    public long edgeStart(int v) {
+        return offsets[v];
+    }
+
+    @Override
+    public long edgeEnd(int v) {
+        return offsets[v + 1];
+    }
+
+    @Override
+    public int edgeTarget(long e) {
+        return targets[(int) e];
+    }
+
+    @Override
+    public int edgeWeight(long e) {
+        return weights[(int) e];
+    }
+
+    public static String snapshotName(String sourceFile) {
+        return sourceFile + EXTENSION;
+    }
+
+    // grava o snapshot de 'sourceFile' em 'snapshotFile'
+    public void write(String snapshotFile, String sourceFile) throws IOException {
+        Path source = Path.of(sourceFile);
+        long sourceLength = Files.size(source);
+        long sourceModified = source.toFile().lastModified();
+        long sourceCrc = crc32(source);
+
+        try (FileChannel channel = FileChannel.open(Path.of(snapshotFile), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putInt(0).putInt(0);
+            header.putLong(sourceLength).putLong(sourceModified).putLong(sourceCrc);
+            header.flip();
+            channel.write(header, 0);
+
+            long pos = HEADER_BYTES;
+            pos = writeInts(channel, pos, offsets);
+            pos = writeInts(channel, pos, targets);
+            writeInts(channel, pos, weights);
+        }
+    }
+
+    // le o snapshot mapeando o arquivo em memoria
+    public static GraphSnapshot read(String snapshotFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(snapshotFile), StandardOpenOption.READ)) {
+            ByteBuffer header = readHeader(channel, snapshotFile);
+            int n = header.getInt(8);
+            int m = header.getInt(12);
+
+            long expected = HEADER_BYTES + 4L * ((n + 2L) + 2L * m);
+            if (channel.size() != expected) {
+                throw new IOException("Snapshot truncado: '" + snapshotFile + "'");
+            }
+
+            int[] offsets = new int[n + 2];
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            long pos = HEADER_BYTES;
+            pos = readInts(channel, pos, offsets);
+            pos = readInts(channel, pos, targets);
+            readInts(channel, pos, weights);
+            return new GraphSnapshot(n, offsets, targets, weights);
+        }
+    }
+
+    // true se o snapshot existe e corresponde ao .txt atual
+    public static boolean isFresh(String snapshotFile, String sourceFile) throws IOException {
+        File snap = new File(snapshotFile);
+        File source = new File(sourceFile);
+        if (!snap.isFile() || !source.isFile()) return false;
+
+        long sourceLength;
+        long sourceModified;
+        long sourceCrc;
+        try (FileChannel channel = FileChannel.open(snap.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header;
+            try {
+                header = readHeader(channel, snapshotFile);
+            } catch (IOException e) {
+                return false; // versao antiga ou arquivo corrompido
+            }
+            sourceLength = header.getLong(24);
+            sourceModified = header.getLong(32);
+            sourceCrc = header.getLong(40);
+        }
+
+        if (source.length() != sourceLength) return false;
+        if (source.lastModified() == sourceModified) return true;
+        // data mudou (ex.: copia do arquivo): confere o conteudo pelo CRC
+        return crc32(source.toPath()) == sourceCrc;
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel, String snapshotFile) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            throw new IOException("Snapshot invalido: '" + snapshotFile + "'");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Snapshot invalido ou de outra versao: '" + snapshotFile + "'");
+        }
+        return header;
+    }
+
+    private static long writeInts(FileChannel channel, long pos, int[] values) throws IOException {
+        for (int from = 0; from < values.length; from += WINDOW_INTS) {
+            int len = Math.min(WINDOW_INTS, values.length - from);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, pos, 4L * len);
+            buf.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(values, from, len);
+            buf.force();
+            pos += 4L * len;
+        }
+        return pos;
+    }
+
+    private static long readInts(FileChannel channel, long pos, int[] values) throws IOException {
+        for (int from = 0; from < values.length; from += WINDOW_INTS) {
+            int len = Math.min(WINDOW_INTS, values.length - from);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, 4L * len);
+            IntBuffer ints = buf.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            ints.get(values, from, len);
+            pos += 4L * len;
+        }
+        return pos;
+    }
+
+    // CRC32 do arquivo inteiro (lido mapeado em janelas); tambem usado pelos indices do ativ03
+    public static long crc32(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long pos = 0; pos < size; pos += Integer.MAX_VALUE) {
+                long len = Math.min(Integer.MAX_VALUE, size - pos);
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, pos, len));
+            }
+        }
+        return crc.getValue();
+    }
+
+    // monta o CSR a partir da lista de arestas (mesma ordem de leitura dentro de cada vertice); sem pesos = 1
+    public static GraphSnapshot fromEdges(EdgeList edges) {
+        int n = edges.n;
+        int[] offsets = new int[n + 2];
+        for (int i = 0; i < edges.m; i++) {
+            offsets[edges.origin[i] + 1]++;
+        }
+        for (int v = 1; v <= n + 1; v++) {
+            offsets[v] += offsets[v - 1];
+        }
+        int[] targets = new int[edges.m];
+        int[] weights = new int[edges.m];
+        int[] next = Arrays.copyOf(offsets, n + 1);
+        for (int i = 0; i < edges.m; i++) {
+            int pos = next[edges.origin[i]]++;
+            targets[pos] = edges.destination[i];
+            weights[pos] = edges.weight != null ? edges.weight[i] : 1;
+        }
+        return new GraphSnapshot(n, offsets, targets, weights);
+    }
+
+    // conversor (unico jeito de gravar): java common.GraphSnapshot arquivo1.txt [arquivo2.txt ...] (2 ou 3 colunas)
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java common.GraphSnapshot <graph.txt> [graph.txt ...]");
+            return;
+        }
+        for (String fileName : args) {
+            try {
+                EdgeList edges = EdgeListLoader.load(fileName, EdgeListLoader.columns(fileName) == 2 ? 2 : 3);
+                long startTime = System.nanoTime();
+                String snapshotFile = snapshotName(fileName);
+                fromEdges(edges).write(snapshotFile, fileName);
+                System.out.println("Snapshot written: " + snapshotFile + " ("
+                        + String.format("%.3f", (System.nanoTime() - startTime) / 1_000_000.0) + " ms)");
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Erro ao converter '" + fileName + "': " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package common;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Conferencia do snapshot binario (.gsnap) contra a leitura de referencia
+ * (ReferenceGraph) nos grafos de teste das atividades e num arquivo gerado
+ * com semente fixa: o snapshot gravado e lido de volta e o mesmo CSR, esta
+ * fresco logo depois de gravado e deixa de estar quando o .txt muda, e um
+ * arquivo truncado e recusado.
+ *
+ * java common.GraphSnapshotCheck [grafo.txt ...] (padrao: os grafos de teste do repositorio)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class GraphSnapshotCheck {
+    private static final long SEED = 11;
+
+    private static void checkGraph(CheckReport report, String fileName, String name) throws IOException {
+        ReferenceGraph ref = new ReferenceGraph(fileName);
+        GraphSnapshot snapshot = GraphSnapshot.fromEdges(EdgeListLoader.load(fileName, EdgeListLoader.columns(fileName)));
+        report.check(ref.sameLists(snapshot, false, true), name + ": snapshot CSR differs from the reference");
+
+        // copia do .txt num diretorio temporario, para poder muda-la depois
+        File source = File.createTempFile("snapshotcheck", ".txt");
+        File snapshotFile = new File(GraphSnapshot.snapshotName(source.getPath()));
+        try {
+            Files.copy(new File(fileName).toPath(), source.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            snapshot.write(snapshotFile.getPath(), source.getPath());
+            GraphSnapshot read = GraphSnapshot.read(snapshotFile.getPath());
+            report.check(read.n == snapshot.n && Arrays.equals(read.offsets, snapshot.offsets)
+                    && Arrays.equals(read.targets, snapshot.targets) && Arrays.equals(read.weights, snapshot.weights),
+                    name + ": snapshot read back differs");
+            report.check(GraphSnapshot.isFresh(snapshotFile.getPath(), source.getPath()), name + ": new snapshot is not fresh");
+
+            try (FileWriter out = new FileWriter(source, true)) {
+                out.write("\n1 1\n");
+            }
+            report.check(!GraphSnapshot.isFresh(snapshotFile.getPath(), source.getPath()),
+                    name + ": snapshot still fresh after the .txt changed");
+
+            byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+            Files.write(snapshotFile.toPath(), Arrays.copyOf(bytes, bytes.length - 4));
+            boolean rejected = false;
+            try {
+                GraphSnapshot.read(snapshotFile.getPath());
+            } catch (IOException e) {
+                rejected = true;
+            }
+            report.check(rejected, name + ": truncated snapshot accepted");
+        } finally {
+            snapshotFile.delete();
+            source.delete();
+        }
+        report.endSection(name);
+    }
+
+    public static void main(String[] args) throws IOException {
+        CheckReport report = new CheckReport();
+        if (args.length > 0) {
+            for (String graph : args) checkGraph(report, graph, new File(graph).getName());
+        } else {
+            for (String graph : ReferenceGraph.GRAPHS) checkGraph(report, graph, new File(graph).getName());
+            File generated = ReferenceGraph.generate(SEED);
+            try {
+                checkGraph(report, generated.getPath(), "generated (seed " + SEED + ")");
+            } finally {
+                generated.delete();
+            }
+        }
+        report.finish();
+    }
+}
@@ -0,0 +1,147 @@
+package common;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Vetor de int ou de long fora do heap, com indice long.
+ * Um ByteBuffer tem no maximo 2^31 bytes, entao o vetor e dividido em blocos
+ * de 2^chunkShift bytes (1 GiB por padrao): o indice em bytes vira
+ * (bloco, posicao) com um shift e uma mascara. Como o tamanho do bloco e
+ * multiplo de 8, um int ou long nunca fica dividido entre dois blocos.
+ *
+ * allocate: ByteBuffer.allocateDirect (memoria nativa, fora do GC).
+ * map: arquivo mapeado (FileChannel.map), o SO pagina sob demanda.
+ * Um mesmo buffer e usado so como vetor de int ou so como vetor de long.
+ *
+ * close() devolve a memoria na hora (libera a memoria direta ou desfaz o
+ * mapeamento) pelo invokeCleaner do sun.misc.Unsafe, sem esperar o GC
+ * recolher os ByteBuffers. Depois do close o buffer nao pode mais ser usado.
+ */
+class OffHeapBuffer implements AutoCloseable {
+    static final int DEFAULT_CHUNK_SHIFT = 30;
+
+    private final long bytes;
+    private final int chunkShift;
+    private final long chunkMask;
+    private ByteBuffer[] chunks;
+    private final RandomAccessFile file; // so no modo mapeado
+
+    // sun.misc.Unsafe.invokeCleaner(ByteBuffer) (Java 9+); null se o runtime nao tiver
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null; // sem ele a memoria volta so quando o GC recolher os ByteBuffers
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private OffHeapBuffer(long bytes, int chunkShift, RandomAccessFile file) throws IOException {
+        this.bytes = bytes;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+        this.file = file;
+        long chunkBytes = 1L << chunkShift;
+        int count = (int) ((bytes + chunkBytes - 1) >>> chunkShift);
+        chunks = new ByteBuffer[Math.max(count, 1)];
+        for (int i = 0; i < chunks.length; i++) {
+            int size = (int) Math.min(chunkBytes, bytes - (long) i * chunkBytes);
+            ByteBuffer chunk = file == null
+                    ? ByteBuffer.allocateDirect(Math.max(size, 0))
+                    : file.getChannel().map(FileChannel.MapMode.READ_WRITE, (long) i * chunkBytes, Math.max(size, 0));
+            chunks[i] = chunk.order(ByteOrder.nativeOrder());
+        }
+    }
+
+    static OffHeapBuffer allocateInts(long length) {
+        return allocate(4 * length, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static OffHeapBuffer allocateLongs(long length) {
+        return allocate(8 * length, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static OffHeapBuffer allocate(long bytes, int chunkShift) {
+        try {
+            return new OffHeapBuffer(bytes, chunkShift, null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // allocateDirect nao faz IO
+        }
+    }
+
+    // arquivo criado (ou zerado) com o tamanho exato e mapeado para leitura e escrita
+    static OffHeapBuffer map(String fileName, long bytes, int chunkShift) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(fileName, "rw");
+        try {
+            file.setLength(0); // descarta o conteudo antigo: o vetor comeca zerado como no allocate
+            file.setLength(bytes);
+            return new OffHeapBuffer(bytes, chunkShift, file);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public boolean isMapped() {
+        return file != null;
+    }
+
+    int getInt(long index) {
+        long offset = index << 2;
+        return chunks[(int) (offset >>> chunkShift)].getInt((int) (offset & chunkMask));
+    }
+
+    void putInt(long index, int value) {
+        long offset = index << 2;
+        chunks[(int) (offset >>> chunkShift)].putInt((int) (offset & chunkMask), value);
+    }
+
+    long getLong(long index) {
+        long offset = index << 3;
+        return chunks[(int) (offset >>> chunkShift)].getLong((int) (offset & chunkMask));
+    }
+
+    void putLong(long index, long value) {
+        long offset = index << 3;
+        chunks[(int) (offset >>> chunkShift)].putLong((int) (offset & chunkMask), value);
+    }
+
+    // libera cada bloco na hora; chunks = null faz um uso depois do close falhar no Java, nao na memoria
+    @Override
+    public void close() throws IOException {
+        ByteBuffer[] released = chunks;
+        chunks = null;
+        if (released != null && INVOKE_CLEANER != null) {
+            for (ByteBuffer chunk : released) {
+                try {
+                    INVOKE_CLEANER.invoke(UNSAFE, chunk);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    break; // fica para o GC
+                }
+            }
+        }
+        if (file != null) file.close();
+    }
+}
@@ -0,0 +1,328 @@
+package common;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Grafo em CSR fora do heap: offsets (long), destinos e pesos (int) em
+ * OffHeapBuffer, com indice de aresta long, entao passa de 2^31 arestas e
+ * nao pesa no GC (o heap so guarda alguns objetos pequenos).
+ *
+ * load() le o arquivo "n m" + "origem destino [peso]" em duas passadas
+ * sequenciais (conta os graus, depois coloca as arestas), sem nunca montar
+ * as arestas no heap como o EdgeListLoader faz. Com um prefixo de arquivo os
+ * vetores ficam mapeados em <prefixo>.offsets/.targets/.weights; sem, ficam
+ * em memoria direta. Java 17 nao tem a API de memoria externa (MemorySegment)
+ * estavel, por isso ByteBuffer direto/mapeado em blocos.
+ *
+ * Nao tem motores proprios: como GraphAccess ele entra direto na DFS do
+ * ativ02 (EdgeClassification), no ShortestPathEngine do ativ03 e no
+ * FlowGraph do ativ04 (cada main tem a opcao "offheap").
+ *
+ * O que fica fora do heap e so a adjacencia (O(m)). Os vetores de trabalho
+ * por consulta (tempos da DFS, distancias do Dijkstra) continuam int[]/long[]
+ * O(n) no heap, alocados uma vez por motor. O ativ04 copia o grafo para o
+ * residual do FlowGraph, que e int[] no heap: ali o limite segue sendo
+ * menos de 2^30 arestas e o residual pesa no GC como antes; a
+ * EdgeClassification guarda um byte[] por aresta (menos de 2^31 arestas).
+ * Passar de 2^31 arestas so vale, entao, para a DFS e o Dijkstra.
+ *
+ * close() devolve a memoria direta (ou desfaz o mapeamento) na hora.
+ */
+public class OffHeapGraph implements GraphAccess, AutoCloseable {
+    private final int n;
+    private final long m;
+    private final OffHeapBuffer offsets; // long, n + 2
+    private final OffHeapBuffer targets; // int, m
+    private final OffHeapBuffer weights; // int, m
+
+    private OffHeapGraph(int n, long m, OffHeapBuffer offsets, OffHeapBuffer targets, OffHeapBuffer weights) {
+        this.n = n;
+        this.m = m;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    // mapPrefix == null: memoria direta; senao arquivos mapeados com esse prefixo
+    public static OffHeapGraph load(String fileName, String mapPrefix) throws IOException {
+        OffHeapBuffer offsets = null;
+        OffHeapBuffer targets = null;
+        OffHeapBuffer weights = null;
+        try {
+            int n;
+            long m;
+            try (EdgeStream edges = new EdgeStream(fileName)) {
+                n = edges.n;
+                m = edges.m;
+                offsets = buffer(mapPrefix, ".offsets", 8 * (n + 2L));
+                // 1a passada: grau de saida
+                long count = 0;
+                while (edges.next()) {
+                    checkVertex(edges.origin, n);
+                    checkVertex(edges.destination, n);
+                    offsets.putLong(edges.origin + 1, offsets.getLong(edges.origin + 1) + 1);
+                    count++;
+                }
+                if (count != m) m = count; // cabecalho errado: vale o que foi lido
+            }
+            for (int v = 1; v <= n + 1; v++) {
+                offsets.putLong(v, offsets.getLong(v) + offsets.getLong(v - 1));
+            }
+
+            targets = buffer(mapPrefix, ".targets", 4 * m);
+            weights = buffer(mapPrefix, ".weights", 4 * m);
+            // 2a passada: cada aresta na sua posicao; next[v] fica fora do heap tambem
+            try (OffHeapBuffer next = OffHeapBuffer.allocateLongs(n + 1L);
+                 EdgeStream edges = new EdgeStream(fileName)) {
+                for (int v = 0; v <= n; v++) next.putLong(v, offsets.getLong(v));
+                while (edges.next()) {
+                    long pos = next.getLong(edges.origin);
+                    next.putLong(edges.origin, pos + 1);
+                    targets.putInt(pos, edges.destination);
+                    weights.putInt(pos, edges.weight);
+                }
+            }
+            return new OffHeapGraph(n, m, offsets, targets, weights);
+        } catch (IOException | RuntimeException e) {
+            // erro no meio (ex.: vertice fora de 1..n): solta o que ja foi mapeado/alocado
+            for (OffHeapBuffer buffer : new OffHeapBuffer[] { offsets, targets, weights }) {
+                if (buffer == null) continue;
+                try {
+                    buffer.close();
+                } catch (IOException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            throw e;
+        }
+    }
+
+    // copia de um grafo que ja esta no heap (para comparar)
+    public static OffHeapGraph copyOf(GraphAccess graph) {
+        int n = graph.size();
+        long m = graph.edges();
+        OffHeapBuffer offsets = OffHeapBuffer.allocateLongs(n + 2L);
+        OffHeapBuffer targets = OffHeapBuffer.allocateInts(m);
+        OffHeapBuffer weights = OffHeapBuffer.allocateInts(m);
+        for (int v = 0; v <= n; v++) offsets.putLong(v, graph.edgeStart(v));
+        offsets.putLong(n + 1, graph.edgeEnd(n));
+        for (long e = 0; e < m; e++) {
+            targets.putInt(e, graph.edgeTarget(e));
+            weights.putInt(e, graph.edgeWeight(e));
+        }
+        return new OffHeapGraph(n, m, offsets, targets, weights);
+    }
+
+    /**
+     * Ordena os sucessores de cada vertice pelo destino (ordem lexicografica,
+     * como o Digraph.sort), levando o peso junto. Cada lista passa por um
+     * long[] do tamanho do maior grau: (destino << 32) | peso.
+     */
+    public void sort() {
+        int maxDegree = 0;
+        for (int v = 1; v <= n; v++) {
+            maxDegree = (int) Math.max(maxDegree, edgeEnd(v) - edgeStart(v));
+        }
+        long[] slice = new long[maxDegree];
+        for (int v = 1; v <= n; v++) {
+            long start = edgeStart(v);
+            int degree = (int) (edgeEnd(v) - start);
+            for (int i = 0; i < degree; i++) {
+                slice[i] = ((long) targets.getInt(start + i) << 32) | (weights.getInt(start + i) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(slice, 0, degree);
+            for (int i = 0; i < degree; i++) {
+                targets.putInt(start + i, (int) (slice[i] >>> 32));
+                weights.putInt(start + i, (int) slice[i]);
+            }
+        }
+    }
+
+    private static OffHeapBuffer buffer(String mapPrefix, String suffix, long bytes) throws IOException {
+        return mapPrefix == null
+                ? OffHeapBuffer.allocate(bytes, OffHeapBuffer.DEFAULT_CHUNK_SHIFT)
+                : OffHeapBuffer.map(mapPrefix + suffix, bytes, OffHeapBuffer.DEFAULT_CHUNK_SHIFT);
+    }
+
+    private static void checkVertex(int v, int n) {
+        if (v < 1 || v > n) {
+            throw new NumberFormatException("Vertice fora de 1.." + n + ": " + v);
+        }
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public long edges() {
+        return m;
+    }
+
+    @Override
+    public long edgeStart(int v) {
+        return offsets.getLong(v);
+    }
+
+    @Override
+    public long edgeEnd(int v) {
+        return offsets.getLong(v + 1);
+    }
+
+    @Override
+    public int edgeTarget(long e) {
+        return targets.getInt(e);
+    }
+
+    @Override
+    public int edgeWeight(long e) {
+        return weights.getInt(e);
+    }
+
+    public long bytes() {
+        return offsets.bytes() + targets.bytes() + weights.bytes();
+    }
+
+    public boolean isMapped() {
+        return targets.isMapped();
+    }
+
+    @Override
+    public void close() throws IOException {
+        offsets.close();
+        targets.close();
+        weights.close();
+    }
+
+    /**
+     * Leitura sequencial do arquivo de arestas, uma linha por vez, sem guardar
+     * nada: so os numeros da linha atual. Mesmo formato do EdgeListLoader
+     * (2 ou 3 colunas, espacos livres, colunas extras ignoradas); sem peso = 1.
+     */
+    private static class EdgeStream implements AutoCloseable {
+        final int n;
+        final long m;
+        int origin;
+        int destination;
+        int weight;
+        private final InputStream in;
+        private int c;
+        private final long[] line = new long[3];
+
+        EdgeStream(String fileName) throws IOException {
+            in = new BufferedInputStream(new FileInputStream(fileName), 1 << 16);
+            c = in.read();
+            int count = readLine();
+            if (count < 2) {
+                in.close();
+                throw new NumberFormatException("Cabecalho incompleto em '" + fileName + "'");
+            }
+            n = (int) line[0];
+            m = line[1];
+        }
+
+        // proxima aresta; false no fim do arquivo (linhas vazias sao puladas)
+        boolean next() throws IOException {
+            while (c != -1) {
+                int count = readLine();
+                if (count == 0) continue;
+                if (count < 2) throw new NumberFormatException("Linha de aresta incompleta");
+                origin = (int) line[0];
+                destination = (int) line[1];
+                weight = count == 3 ? (int) line[2] : 1;
+                return true;
+            }
+            return false;
+        }
+
+        // le ate 3 numeros da linha atual e consome o '\n'; devolve quantos leu
+        private int readLine() throws IOException {
+            int count = 0;
+            while (c != -1 && c != '\n') {
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    boolean negative = c == '-';
+                    if (negative) c = in.read();
+                    long value = 0;
+                    while (c >= '0' && c <= '9') {
+                        value = value * 10 + (c - '0');
+                        c = in.read();
+                    }
+                    if (count < 3) line[count++] = negative ? -value : value;
+                } else if (c == ' ' || c == '\t' || c == '\r') {
+                    c = in.read();
+                } else {
+                    throw new NumberFormatException("Caractere invalido: '" + (char) c + "'");
+                }
+            }
+            if (c == '\n') c = in.read();
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // coletas e tempo de GC desde o inicio da JVM (somando todos os coletores)
+    private static long[] gcTotals() {
+        long count = 0;
+        long ms = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            ms += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] { count, ms };
+    }
+
+    private static String memoryReport() {
+        Runtime runtime = Runtime.getRuntime();
+        StringBuilder line = new StringBuilder("Heap used: " + (runtime.totalMemory() - runtime.freeMemory()) / (1 << 20) + " MB");
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            line.append(" | ").append(pool.getName()).append(" buffers: ").append(pool.getMemoryUsed() / (1 << 20)).append(" MB");
+        }
+        return line.toString();
+    }
+
+    /**
+     * java common.OffHeapGraph <grafo.txt> [prefixo-mapeado | -]
+     * So carrega fora do heap e mostra heap, memoria direta/mapeada e GC.
+     * Os algoritmos rodam sobre o OffHeapGraph pelos mains de cada atividade
+     * (ativ02.EdgeClassification, ativ03.ShortestPathEngine e
+     * ativ04.FlowQuerySession, com o argumento "offheap").
+     * A memoria direta e limitada por -XX:MaxDirectMemorySize (padrao = -Xmx);
+     * o modo mapeado nao tem esse limite.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java common.OffHeapGraph <graph.txt> [mapped-file-prefix | -]");
+            return;
+        }
+        String prefix = args.length > 1 && !args[1].equals("-") ? args[1] : null;
+
+        long[] gcStart = gcTotals();
+        long startTime = System.nanoTime();
+        try (OffHeapGraph graph = load(args[0], prefix)) {
+            System.out.println("Loaded " + graph.size() + " vertices, " + graph.edges() + " edges off-heap ("
+                    + (graph.isMapped() ? "mapped" : "direct") + ", " + graph.bytes() / (1 << 20) + " MB) in "
+                    + String.format("%.3f", (System.nanoTime() - startTime) / 1_000_000.0) + " ms");
+            System.out.println(memoryReport());
+        } catch (IOException e) {
+            System.err.println("Error to read the file '" + args[0] + "': " + e.getMessage());
+            return;
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing number in file: " + e.getMessage());
+            return;
+        }
+        long[] gcEnd = gcTotals();
+        System.out.println("GC: " + (gcEnd[0] - gcStart[0]) + " collections, " + (gcEnd[1] - gcStart[1]) + " ms");
+    }
+}
@@ -0,0 +1,166 @@
+package common;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Conferencia do OffHeapGraph contra a leitura de referencia (ReferenceGraph)
+ * nos grafos de teste das atividades e num arquivo gerado com semente fixa:
+ * as listas na memoria direta, no arquivo mapeado, no copyOf e depois do
+ * sort; close devolve a memoria direta e desfaz os mapeamentos na hora
+ * (pelos contadores de BufferPoolMXBean) e o grafo fechado nao pode mais ser
+ * lido. Tambem confere o OffHeapBuffer com blocos pequenos (int e long
+ * atravessando muitos blocos) e que a carga falha com vertice invalido.
+ *
+ * java common.OffHeapGraphCheck [grafo.txt ...] (padrao: os grafos de teste do repositorio)
+ * Sai com codigo 1 se alguma conferencia falhar.
+ */
+class OffHeapGraphCheck {
+    private static final long SEED = 11;
+    private static final int SMALL_CHUNK_SHIFT = 6; // blocos de 64 bytes
+    private static final int VALUES = 10_000;
+
+    private static void checkGraph(CheckReport report, String fileName, String name) throws IOException {
+        ReferenceGraph ref = new ReferenceGraph(fileName);
+
+        // OffHeapGraph: direto, mapeado, copia e ordenado
+        try (OffHeapGraph direct = OffHeapGraph.load(fileName, null)) {
+            report.check(!direct.isMapped() && ref.sameLists(direct, false, true), name + ": direct OffHeapGraph differs");
+            try (OffHeapGraph copy = OffHeapGraph.copyOf(direct)) {
+                report.check(ref.sameLists(copy, false, true), name + ": OffHeapGraph.copyOf differs");
+            }
+            direct.sort();
+            report.check(ref.sameLists(direct, true, true), name + ": sorted OffHeapGraph differs");
+        }
+        File prefix = File.createTempFile("offheapcheck", "");
+        try (OffHeapGraph mapped = OffHeapGraph.load(fileName, prefix.getPath())) {
+            report.check(mapped.isMapped() && ref.sameLists(mapped, false, true), name + ": mapped OffHeapGraph differs");
+        } finally {
+            for (String suffix : new String[] { "", ".offsets", ".targets", ".weights" }) {
+                new File(prefix.getPath() + suffix).delete();
+            }
+        }
+        report.endSection(name);
+    }
+
+    // memoria direta e mapeamentos voltam ao que eram antes da carga assim que o grafo e fechado
+    private static void checkClose(CheckReport report, String fileName) throws IOException {
+        long direct = poolBytes("direct");
+        long mapped = poolCount("mapped");
+        OffHeapGraph graph = OffHeapGraph.load(fileName, null);
+        report.check(poolBytes("direct") - direct >= graph.bytes(), "direct memory not counted while loaded");
+        graph.close();
+        report.check(poolBytes("direct") == direct, "direct memory left after close: " + (poolBytes("direct") - direct));
+        report.check(!readable(graph), "OffHeapGraph readable after close");
+
+        File prefix = File.createTempFile("offheapcheck", "");
+        try {
+            graph = OffHeapGraph.load(fileName, prefix.getPath());
+            report.check(poolCount("mapped") > mapped, "mapped buffers not counted while loaded");
+            graph.close();
+            report.check(poolCount("mapped") == mapped, "mappings left after close: " + (poolCount("mapped") - mapped));
+            report.check(!readable(graph), "mapped OffHeapGraph readable after close");
+        } finally {
+            for (String suffix : new String[] { "", ".offsets", ".targets", ".weights" }) {
+                new File(prefix.getPath() + suffix).delete();
+            }
+        }
+        report.endSection("close");
+    }
+
+    private static boolean readable(OffHeapGraph graph) {
+        try {
+            graph.edgeTarget(0);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static long poolBytes(String pool) {
+        for (BufferPoolMXBean bean : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (bean.getName().equals(pool)) return bean.getMemoryUsed();
+        }
+        return -1;
+    }
+
+    private static long poolCount(String pool) {
+        for (BufferPoolMXBean bean : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (bean.getName().equals(pool)) return bean.getCount();
+        }
+        return -1;
+    }
+
+    // blocos de 64 bytes: o indice em bytes passa por (bloco, posicao) a cada leitura
+    private static void checkChunks(CheckReport report) throws IOException {
+        try (OffHeapBuffer ints = OffHeapBuffer.allocate(4L * VALUES, SMALL_CHUNK_SHIFT);
+                OffHeapBuffer longs = OffHeapBuffer.allocate(8L * VALUES, SMALL_CHUNK_SHIFT)) {
+            for (int i = 0; i < VALUES; i++) {
+                ints.putInt(i, i * 31 - 7);
+                longs.putLong(i, ((long) i << 33) - i);
+            }
+            boolean same = true;
+            for (int i = 0; i < VALUES; i++) {
+                same &= ints.getInt(i) == i * 31 - 7 && longs.getLong(i) == ((long) i << 33) - i;
+            }
+            report.check(same, "values across " + (8L * VALUES >> SMALL_CHUNK_SHIFT) + " chunks");
+        }
+        File file = File.createTempFile("offheapcheck", ".bin");
+        try (OffHeapBuffer mapped = OffHeapBuffer.map(file.getPath(), 8L * VALUES, SMALL_CHUNK_SHIFT)) {
+            boolean zero = true;
+            for (int i = 0; i < VALUES; i++) zero &= mapped.getLong(i) == 0;
+            for (int i = 0; i < VALUES; i++) mapped.putLong(i, -i);
+            boolean same = true;
+            for (int i = 0; i < VALUES; i++) same &= mapped.getLong(i) == -i;
+            report.check(zero && same, "mapped values across chunks");
+        } finally {
+            file.delete();
+        }
+        report.endSection("chunks");
+    }
+
+    // vertice fora de 1..n: a carga fora do heap tem que falhar (e soltar o que ja alocou)
+    private static void checkInvalid(CheckReport report) throws IOException {
+        File file = File.createTempFile("offheapcheck", ".txt");
+        File prefix = File.createTempFile("offheapcheck", "");
+        try {
+            try (FileWriter out = new FileWriter(file)) {
+                out.write("3 2\n1 2 5\n1 9 4\n");
+            }
+            boolean failed = false;
+            try (OffHeapGraph graph = OffHeapGraph.load(file.getPath(), prefix.getPath())) {
+                graph.size();
+            } catch (IllegalArgumentException e) {
+                failed = true;
+            }
+            report.check(failed, "OffHeapGraph accepted a vertex outside 1..n");
+        } finally {
+            file.delete();
+            for (String suffix : new String[] { "", ".offsets", ".targets", ".weights" }) {
+                new File(prefix.getPath() + suffix).delete();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        CheckReport report = new CheckReport();
+        if (args.length > 0) {
+            for (String graph : args) checkGraph(report, graph, new File(graph).getName());
+        } else {
+            for (String graph : ReferenceGraph.GRAPHS) checkGraph(report, graph, new File(graph).getName());
+            File generated = ReferenceGraph.generate(SEED);
+            try {
+                checkGraph(report, generated.getPath(), "generated (seed " + SEED + ")");
+            } finally {
+                generated.delete();
+            }
+        }
+        checkClose(report, ReferenceGraph.GRAPHS[0]);
+        checkChunks(report);
+        checkInvalid(report);
+        report.finish();
+    }
+}
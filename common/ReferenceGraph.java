@@ -0,0 +1,96 @@
+package common;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Grafo de teste lido do jeito mais simples possivel (BufferedReader +
+ * split, linha por linha): a referencia das conferencias das leituras do
+ * common. lists[v] tem (destino << 32 | peso) de cada aresta de v, na ordem
+ * de leitura.
+ */
+class ReferenceGraph {
+    static final String[] GRAPHS = {
+        "ativ01/graph-test-100.txt",
+        "ativ03/graphs/tree_100000.txt",
+        "ativ03/graphs/euler_10000.txt",
+        "ativ04/graphs/layered_10000.txt"
+    };
+
+    final int n;
+    final int columns;
+    final List<int[]> edges = new ArrayList<>(); // {origem, destino, peso}
+    final long[][] lists;
+
+    ReferenceGraph(String fileName) throws IOException {
+        int columns = 0;
+        try (BufferedReader in = new BufferedReader(new FileReader(fileName))) {
+            n = Integer.parseInt(in.readLine().trim().split("\\s+")[0]);
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                String[] parts = line.split("\\s+");
+                if (columns == 0) columns = Math.min(parts.length, 3);
+                int weight = parts.length > 2 ? Integer.parseInt(parts[2]) : 1;
+                edges.add(new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), weight });
+            }
+        }
+        this.columns = columns;
+
+        int[] degree = new int[n + 1];
+        for (int[] e : edges) degree[e[0]]++;
+        lists = new long[n + 1][];
+        for (int v = 0; v <= n; v++) lists[v] = new long[degree[v]];
+        int[] next = new int[n + 1];
+        for (int[] e : edges) lists[e[0]][next[e[0]]++] = ((long) e[1] << 32) | (e[2] & 0xFFFFFFFFL);
+    }
+
+    // as listas do GraphAccess; sorted = compara cada lista ordenada, weighted = false compara so os destinos
+    boolean sameLists(GraphAccess graph, boolean sorted, boolean weighted) {
+        if (graph.size() != n) return false;
+        for (int v = 1; v <= n; v++) {
+            long[] expected = lists[v].clone();
+            if (graph.edgeEnd(v) - graph.edgeStart(v) != expected.length) return false;
+            long[] actual = new long[expected.length];
+            for (int i = 0; i < actual.length; i++) {
+                long e = graph.edgeStart(v) + i;
+                actual[i] = ((long) graph.edgeTarget(e) << 32) | (graph.edgeWeight(e) & 0xFFFFFFFFL);
+            }
+            if (!weighted) {
+                for (int i = 0; i < expected.length; i++) {
+                    expected[i] &= 0xFFFFFFFF00000000L;
+                    actual[i] &= 0xFFFFFFFF00000000L;
+                }
+            }
+            if (sorted) Arrays.sort(expected);
+            if (!Arrays.equals(expected, actual)) return false;
+        }
+        return true;
+    }
+
+    // arquivo com varios pedacos do EdgeListLoader, linhas em branco e "\r\n" em parte das linhas
+    static File generate(long seed) throws IOException {
+        Random random = new Random(seed);
+        int n = 50000;
+        int m = 300000;
+        File file = File.createTempFile("referencegraph", ".txt");
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
+            out.write(n + " " + m + "\n");
+            for (int i = 0; i < m; i++) {
+                out.write((1 + random.nextInt(n)) + " " + (1 + random.nextInt(n)) + " " + random.nextInt(1000));
+                out.write(i % 7 == 0 ? "\r\n" : "\n");
+                if (i % 1000 == 0) out.write("\n");
+            }
+        }
+        return file;
+    }
+}